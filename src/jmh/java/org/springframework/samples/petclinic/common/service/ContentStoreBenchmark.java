@@ -0,0 +1,180 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Project : spring-petclinic
+ * File    : ContentStoreBenchmark.java
+ * Created : 2026-03-19
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   본문 저장소(ContentStore) 백엔드 비교 벤치마크 (실행: gradle jmh -PjmhInclude=ContentStore)
+ *   - backend: file(본문 1건 = 파일 1개) / segment(추가 전용 세그먼트) / db(content_blob BLOB)
+ *   - put: 본문 1건 저장 (트랜잭션 밖 → 즉시 반영)
+ *   - get / getConcurrent: 미리 저장한 본문 중 임의 1건 조회 (1 / 4 스레드)
+ *
+ * Corpus (본문 데이터):
+ *   - -Dcontent.corpus={base-dir} : 실제 운영 본문 폴더 아래 .html/.html.gz 파일 (최대 content.corpus-limit, 기본 2000건)
+ *   - 지정하지 않으면 1KB ~ 64KB 합성 본문
+ *
+ * Database:
+ *   - 기본: H2 메모리 DB (MySQL 모드, 테이블 자동 생성)
+ *   - -Dcontent.jdbcUrl=jdbc:mysql://... (-Dcontent.jdbcUser, -Dcontent.jdbcPassword) : 실제 DB (content_blob 테이블 필요, 벤치마크 행은 종료 시 삭제)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentStoreBenchmark {
+
+	private static final String DOMAIN = "bench";
+	private static final String H2_URL = "jdbc:h2:mem:content-bench;MODE=MySQL;DB_CLOSE_DELAY=-1";
+	private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS content_blob ("
+		+ "id varchar(36) NOT NULL PRIMARY KEY, domain varchar(20) NOT NULL, data longblob NOT NULL, "
+		+ "size_bytes bigint NOT NULL, sha256 varchar(64) NOT NULL, created_at datetime(6) NOT NULL)";
+
+	@Param({"file", "segment", "db"})
+	private String backend;
+
+	private Path workDir;
+	private ContentStore store;
+	private SegmentContentStore segmentStore;
+	private TransactionalFileOperations fileOperations;
+	private JdbcTemplate jdbcTemplate;
+	private List<byte[]> corpus;
+	private String[] keys;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		workDir = Files.createTempDirectory("content-store-bench");
+		corpus = loadCorpus();
+		switch (backend) {
+			case "file" -> {
+				fileOperations = new TransactionalFileOperations();
+				store = new FileContentStore(workDir.toString(), fileOperations);
+			}
+			case "segment" -> {
+				segmentStore = new SegmentContentStore(workDir.toString(), DataSize.ofMegabytes(64), 0.5);
+				store = segmentStore;
+			}
+			case "db" -> {
+				DriverManagerDataSource dataSource = new DriverManagerDataSource(
+					System.getProperty("content.jdbcUrl", H2_URL),
+					System.getProperty("content.jdbcUser", "sa"),
+					System.getProperty("content.jdbcPassword", ""));
+				jdbcTemplate = new JdbcTemplate(dataSource);
+				if (!System.getProperties().containsKey("content.jdbcUrl")) {
+					jdbcTemplate.execute(CREATE_TABLE_SQL);
+				}
+				store = new DatabaseContentStore(jdbcTemplate);
+			}
+			default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+		}
+
+		// 조회용 본문 미리 저장
+		keys = new String[corpus.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = store.put(DOMAIN, corpus.get(i));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		if (segmentStore != null) {
+			segmentStore.shutdown();
+		}
+		if (fileOperations != null) {
+			fileOperations.shutdown();
+		}
+		if (jdbcTemplate != null) {
+			jdbcTemplate.update("DELETE FROM content_blob WHERE domain = ?", DOMAIN);
+		}
+		try (Stream<Path> paths = Files.walk(workDir)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public String put() throws IOException {
+		return store.put(DOMAIN, corpus.get(ThreadLocalRandom.current().nextInt(corpus.size())));
+	}
+
+	@Benchmark
+	public byte[] get() throws IOException {
+		return store.get(keys[ThreadLocalRandom.current().nextInt(keys.length)], DOMAIN);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public byte[] getConcurrent() throws IOException {
+		return store.get(keys[ThreadLocalRandom.current().nextInt(keys.length)], DOMAIN);
+	}
+
+	/**
+	 * 운영 본문 폴더(content.corpus) 또는 합성 본문
+	 */
+	private static List<byte[]> loadCorpus() throws IOException {
+		String corpusDir = System.getProperty("content.corpus");
+		int limit = Integer.getInteger("content.corpus-limit", 2000);
+		List<byte[]> result = new ArrayList<>();
+		if (corpusDir != null) {
+			try (Stream<Path> paths = Files.walk(Paths.get(corpusDir))) {
+				List<Path> files = paths
+					.filter(Files::isRegularFile)
+					.filter(path -> path.toString().endsWith(".html") || path.toString().endsWith(".html.gz"))
+					.limit(limit)
+					.toList();
+				for (Path file : files) {
+					result.add(Files.readAllBytes(file));
+				}
+			}
+			if (!result.isEmpty()) {
+				return result;
+			}
+		}
+		String paragraph = "<p style=\"line-height: 1.8;\">우리 강아지가 어제부터 밥을 잘 안 먹어요. 산책은 평소처럼 하는데 사료를 남깁니다.</p>";
+		for (int i = 0; i < Math.min(limit, 500); i++) {
+			int targetBytes = 1024 << (i % 7); // 1KB ~ 64KB
+			StringBuilder sb = new StringBuilder(targetBytes + paragraph.length() * 2);
+			while (sb.length() * 2 < targetBytes) {
+				sb.append(paragraph);
+			}
+			result.add(sb.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,128 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.apache.tika.Tika;
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Safelist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.samples.petclinic.common.dto.IngestedHtml;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project : spring-petclinic
+ * File    : HtmlIngestBenchmark.java
+ * Created : 2026-03-16
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   본문 저장 전처리 비교 벤치마크 (실행: gradle jmh)
+ *   - legacy: 요청마다 Safelist 생성 → Jsoup.clean → 문자열 검사 → 파일 쓰기 → 파일 재조회 Tika → 썸네일 indexOf
+ *   - ingest: HtmlIngestPipeline 1회 파싱(정제/평문/첫 이미지/개수) → 메모리 바이트 Tika → 파일 쓰기
+ *   - 본문 크기: 에디터 문단(인라인 스타일) + 이미지 반복 블록 수 (paragraphs)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlIngestBenchmark {
+
+	private static final Tika TIKA = new Tika();
+
+	@Param({"50", "500", "2000"})
+	private int paragraphs;
+
+	private String rawHtml;
+	private HtmlIngestPipeline pipeline;
+	private Path workDir;
+	private Path target;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < paragraphs; i++) {
+			sb.append("<p style=\"font-family: 'Noto Sans KR'; font-size: 14px; line-height: 1.8; color: #333333;\">")
+				.append("<span style=\"font-weight: bold;\">").append(i).append("번째 문단</span> ")
+				.append("우리 강아지가 어제부터 밥을 잘 안 먹어요. 산책은 평소처럼 하는데 사료를 남깁니다. ")
+				.append("<a href=\"/counsel/list\" onclick=\"track()\">상담 게시판</a>에서도 비슷한 글을 봤어요.</p>");
+			if (i % 10 == 0) {
+				sb.append("<p><img src=\"/upload/photo/2026/03/").append(i)
+					.append(".jpg\" alt=\"사진\" data-filename=\"").append(i).append(".jpg\" style=\"width: 640px;\"></p>");
+			}
+		}
+		rawHtml = sb.toString();
+		pipeline = new HtmlIngestPipeline();
+		workDir = Files.createTempDirectory("html-ingest-bench");
+		target = workDir.resolve("body.html");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(target);
+		Files.deleteIfExists(workDir);
+	}
+
+	@Benchmark
+	public void legacy(Blackhole blackhole) throws IOException {
+		Safelist safelist = Safelist.relaxed()
+			.addTags("img")
+			.addAttributes(":all", "style", "class", "width", "height")
+			.addAttributes("img", "src", "alt", "title", "data-filename")
+			.preserveRelativeLinks(true)
+			.removeProtocols("img", "src", "http", "https");
+		String sanitized = Jsoup.clean(rawHtml, safelist);
+		if (sanitized.contains("src=\"javascript:") || sanitized.contains("src='javascript:")) {
+			throw new SecurityException("XSS attempt detected");
+		}
+		Files.writeString(target, sanitized, StandardCharsets.UTF_8);
+		blackhole.consume(TIKA.detect(target));
+		blackhole.consume(legacyFirstImage(rawHtml));
+	}
+
+	@Benchmark
+	public void ingest(Blackhole blackhole) throws IOException {
+		IngestedHtml ingested = pipeline.ingest(rawHtml);
+		byte[] bytes = ingested.getBytes();
+		blackhole.consume(TIKA.detect(bytes, "body.html"));
+		Files.write(target, bytes);
+		blackhole.consume(ingested.getFirstImageUrl());
+		blackhole.consume(ingested.getPlainText());
+		blackhole.consume(ingested.getWordCount() + ingested.getImageCount());
+	}
+
+	/** 이전 PhotoService.extractFirstImageFromHtml (원본 문자열 재탐색) */
+	private static String legacyFirstImage(String html) {
+		int imgStart = html.indexOf("<img");
+		if (imgStart == -1) {
+			return null;
+		}
+		int srcStart = html.indexOf("src=\"", imgStart);
+		if (srcStart == -1) {
+			return null;
+		}
+		srcStart += 5;
+		int srcEnd = html.indexOf("\"", srcStart);
+		return srcEnd > srcStart ? html.substring(srcStart, srcEnd) : null;
+	}
+}
@@ -0,0 +1,139 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project : spring-petclinic
+ * File    : PostSearchBenchmark.java
+ * Created : 2026-03-21
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 검색 색인 벤치마크 (실행: gradle jmh -PjmhInclude=PostSearch)
+ *   - search: 검색어 파싱(SearchQuery) + 게시 목록 교집합 + 점수 계산 (제목+본문, 상위 1000건)
+ *   - likeScan: 같은 검색어로 전체 게시글 제목/본문 문자열 포함 검사 (LIKE '%검색어%' 전체 스캔에 해당하는 기준값)
+ *   - indexPost: 게시글 1건 토큰화 + 색인 (작성/수정 시 비용)
+ *
+ * Corpus (게시글 데이터):
+ *   - DataInit 더미 데이터 형태의 합성 게시글 (상담/공지/포토 제목 + 반려동물 문장 조합 본문 300 ~ 1,500자)
+ *   - posts: 게시글 수, 고정 시드로 매 실행 동일
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSearchBenchmark {
+
+	private static final String[] PETS = {"강아지", "고양이", "반려견", "말티즈", "푸들", "코리안숏헤어", "포메라니안", "아기 고양이"};
+	private static final String[] TOPICS = {"슬개골 탈구", "중성화 수술", "예방접종", "피부 알레르기", "사료 추천", "치석 제거",
+		"건강검진", "구토 증상", "설사", "심장사상충", "털 빠짐", "산책 훈련", "분리불안", "발톱 관리", "목욕"};
+	private static final String[] TITLE_FORMS = {"%s %s 상담 요청드립니다", "%s %s 문의", "%s %s 비용이 궁금해요",
+		"우리 %s %s 후기", "%s %s 관련 질문", "💡 팁 %s %s", "🔥 핫이슈 %s %s #%d"};
+	private static final String[] SENTENCES = {
+		"우리 %s가 어제부터 밥을 잘 안 먹어요.", "산책은 평소처럼 하는데 사료를 남깁니다.", "%s 때문에 병원에 다녀왔습니다.",
+		"수의사 선생님이 %s 검사를 권하셨어요.", "예약은 평일 오후에 가능할까요?", "비용은 대략 어느 정도인지 궁금합니다.",
+		"오늘은 정말 즐거운 하루였어요. 😊", "여러분도 좋은 하루 보내세요! 💕", "%s 이후로 계속 긁고 핥아요.",
+		"입양한 지 3개월 되었고 체중은 4.2kg입니다.", "혹시 비슷한 경험 있으신 분 계신가요?", "약은 하루 두 번 먹이고 있습니다.",
+		"%s 관련해서 추가로 여쭤보고 싶은 점이 있습니다.", "감사합니다! 이해가 잘 되었습니다.", "PetClinic 앱으로 예약했어요."};
+
+	@Param({"1000", "10000"})
+	private int posts;
+
+	@Param({"슬개골", "강아지", "중성화 수술", "피부 알레르기 긁", "petclinic"})
+	private String query;
+
+	private InvertedIndex index;
+	private String[] titles;
+	private String[] bodies;
+	private String[] lowerTexts;
+	private String lowerQuery;
+	private int nextId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		titles = new String[posts];
+		bodies = new String[posts];
+		lowerTexts = new String[posts];
+		index = new InvertedIndex();
+		for (int i = 0; i < posts; i++) {
+			titles[i] = randomTitle(random, i);
+			bodies[i] = randomBody(random);
+			lowerTexts[i] = (titles[i] + "\n" + bodies[i]).toLowerCase(Locale.ROOT);
+			index.put(i + 1, SearchTokenizer.termFrequencies(titles[i]), SearchTokenizer.termFrequencies(bodies[i]), null);
+		}
+		lowerQuery = query.toLowerCase(Locale.ROOT);
+		nextId = posts + 1;
+	}
+
+	@Benchmark
+	public List<Long> search() {
+		SearchQuery parsed = SearchQuery.parse(query);
+		return index.search(parsed.getTerms(), PostSearchIndex.Field.ALL, 3.0, 1000);
+	}
+
+	@Benchmark
+	public int likeScan() {
+		String[] words = lowerQuery.split("\\s+");
+		int hits = 0;
+		for (String text : lowerTexts) {
+			boolean all = true;
+			for (String word : words) {
+				if (!text.contains(word)) {
+					all = false;
+					break;
+				}
+			}
+			if (all) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public void indexPost() {
+		int source = nextId % posts;
+		Map<String, Integer> titleTerms = SearchTokenizer.termFrequencies(titles[source]);
+		Map<String, Integer> bodyTerms = SearchTokenizer.termFrequencies(bodies[source]);
+		index.put(nextId++, titleTerms, bodyTerms, null);
+	}
+
+	private static String randomTitle(Random random, int i) {
+		String form = TITLE_FORMS[random.nextInt(TITLE_FORMS.length)];
+		return String.format(form, PETS[random.nextInt(PETS.length)], TOPICS[random.nextInt(TOPICS.length)], i + 1);
+	}
+
+	private static String randomBody(Random random) {
+		int targetLength = 300 + random.nextInt(1200);
+		StringBuilder sb = new StringBuilder(targetLength + 64);
+		while (sb.length() < targetLength) {
+			String sentence = SENTENCES[random.nextInt(SENTENCES.length)];
+			String word = random.nextBoolean() ? PETS[random.nextInt(PETS.length)] : TOPICS[random.nextInt(TOPICS.length)];
+			sb.append(sentence.contains("%s") ? String.format(sentence, word) : sentence).append(' ');
+		}
+		return sb.toString();
+	}
+}
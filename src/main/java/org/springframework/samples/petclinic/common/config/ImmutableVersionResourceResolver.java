@@ -0,0 +1,143 @@
+package org.springframework.samples.petclinic.common.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.springframework.web.servlet.resource.VersionStrategy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * Project : spring-petclinic
+ * File    : ImmutableVersionResourceResolver.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   내용 해시 URL로 찾은 리소스에만 장기 immutable Cache-Control을 붙이는 VersionResourceResolver
+ *   - 요청 경로에 버전(해시)이 있고, 해시를 뗀 원본의 내용 해시와 일치해 찾은 경우만 (불일치는 상위 클래스가 null → 404)
+ *   - 해시 없는 경로(/js/app.js 등)로 바로 찾은 리소스는 그대로 반환 → 핸들러 기본 Cache-Control(재검증) 적용
+ *   - 헤더는 HttpResource.getResponseHeaders()로 전달 (ResourceHttpRequestHandler가 기본 Cache-Control 다음에 적용하므로 덮어씀)
+ *
+ * Purpose (만든 이유):
+ *   - 해시 없는 URL까지 1년 immutable로 내보내면 배포 후에도 브라우저가 옛 파일을 재검증 없이 계속 사용
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public class ImmutableVersionResourceResolver extends VersionResourceResolver {
+
+	private final CacheControl cacheControl;
+
+	public ImmutableVersionResourceResolver(CacheControl cacheControl) {
+		this.cacheControl = cacheControl;
+	}
+
+	@Override
+	protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+											   List<? extends Resource> locations, ResourceResolverChain chain) {
+		Resource resolved = super.resolveResourceInternal(request, requestPath, locations, chain);
+		// 해시를 떼고 찾은 경우에만 상위 클래스가 HttpResource(ETag=해시)로 감싸서 반환
+		VersionStrategy strategy = getStrategyForPath(requestPath);
+		if (resolved instanceof HttpResource versioned && strategy != null && strategy.extractVersion(requestPath) != null) {
+			return new ImmutableResource(resolved, versioned, cacheControl);
+		}
+		return resolved;
+	}
+
+	/**
+	 * 원본 리소스에 위임하고, 응답 헤더에 Cache-Control만 추가하는 래퍼
+	 */
+	private static final class ImmutableResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+		private final HttpResource httpResource;
+		private final CacheControl cacheControl;
+
+		private ImmutableResource(Resource original, HttpResource httpResource, CacheControl cacheControl) {
+			this.original = original;
+			this.httpResource = httpResource;
+			this.cacheControl = cacheControl;
+		}
+
+		@Override
+		public boolean exists() {
+			return original.exists();
+		}
+
+		@Override
+		public boolean isReadable() {
+			return original.isReadable();
+		}
+
+		@Override
+		public boolean isFile() {
+			return original.isFile();
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return original.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return original.getURI();
+		}
+
+		@Override
+		public File getFile() throws IOException {
+			return original.getFile();
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			return original.contentLength();
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return original.lastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return original.getDescription();
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return original.getInputStream();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			headers.putAll(httpResource.getResponseHeaders());
+			headers.setCacheControl(cacheControl);
+			return headers;
+		}
+	}
+}
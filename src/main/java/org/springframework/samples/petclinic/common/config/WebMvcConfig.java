@@ -2,8 +2,14 @@ package org.springframework.samples.petclinic.common.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.samples.petclinic.common.service.StaticImageOptimizer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
 
 /**
  * Project : spring-petclinic
@@ -11,11 +17,22 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * Description :
  * - 정적 리소스 핸들러 설정
  * - 로컬 파일 시스템의 업로드 폴더를 웹 URL로 매핑
- * - 예: /images/uploads/2026/02/abc.jpg -> C:/.../uploads/2026/02/abc.jpg
+ * - 예: /images/photo/uploads/2026/02/abc.jpg -> C:/.../data/photo/uploads/2026/02/abc.jpg
+ * - base-dir 중 공개하는 폴더는 {domain}/uploads, {domain}/variants 뿐
+ *   (세그먼트 본문, 검색 색인, 체크포인트, 격리 폴더, blob, 이어받기 세션 등 내부 파일은 URL로 접근 불가)
+ * - 정적 이미지 반응형 변형(/images/v/**)은 파일명에 지문이 있으므로 1년 immutable 캐시
+ * - /css, /js, /fonts, /webjars: 내용 해시 URL(예: petclinic-3f2a...css) + 사전 압축본(.br/.gz)
+ *   (해시가 일치한 URL만 1년 immutable, 해시 없는 URL은 no-cache → 매번 Last-Modified 재검증)
+ *   (템플릿의 @{/css/...} 링크는 ResourceUrlEncodingFilter가 해시 URL로 자동 변환)
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+	private static final String[] ASSET_DIRS = {"css", "js", "fonts"};
+
+	/** base-dir 아래 공개 폴더 ({domain}/uploads: 첨부/본문 이미지, {domain}/variants: 이미지 파생본) */
+	private static final String[] UPLOAD_URL_PATTERNS = {"/images/*/uploads/**", "/images/*/variants/**"};
+
 	// application.yml에 정의된 업로드 경로 주입
 	@Value("${petclinic.file.base-dir}")
 	private String baseDir;
@@ -37,10 +54,47 @@ public class WebMvcConfig implements WebMvcConfigurer {
 			resourcePath = resourcePath + "/";
 		}
 
-		// URL 요청: /images/photo/... -> data/photo/... 로 자동 매핑됨
-		// URL 요청: /images/counsel/... -> data/counsel/... 로 자동 매핑됨
+		// 정적 이미지 변형 (StaticImageOptimizer): 더 구체적인 패턴이므로 /images/** 보다 우선 매칭
+		registry.addResourceHandler(StaticImageOptimizer.VARIANT_URL_PREFIX + "**")
+			.addResourceLocations(resourcePath + StaticImageOptimizer.VARIANT_DIR + "/")
+			.setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+			.resourceChain(true);
+
+		// JS/CSS/폰트/webjars: 해시 URL은 내용이 바뀌면 URL도 바뀜 → 재검증 없이 장기 캐시
+		// 해시 없는 URL(직접 링크, 해시 변환 전 경로)은 내용이 바뀌어도 URL이 같으므로 매번 재검증 (304)
+		CacheControl immutable = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+		CacheControl revalidate = CacheControl.noCache().cachePublic();
+		for (String dir : ASSET_DIRS) {
+			addVersionedAssetHandler(registry, "/" + dir + "/**", "classpath:/static/" + dir + "/", revalidate, immutable);
+		}
+		addVersionedAssetHandler(registry, "/webjars/**", "classpath:/META-INF/resources/webjars/", revalidate, immutable);
+
+		// 업로드 파일/파생본만 공개: /images/photo/uploads/... -> data/photo/uploads/...
+		// (패턴의 첫 와일드카드부터가 리소스 경로 → "photo/uploads/..."로 base-dir 기준 조회)
+		registry.addResourceHandler(UPLOAD_URL_PATTERNS)
+			.addResourceLocations(resourcePath);
+
+		// 프로젝트 기본 이미지 (resources/static/images/), base-dir는 포함하지 않음
 		registry.addResourceHandler("/images/**")
-			.addResourceLocations(resourcePath)                // 1순위: 업로드 폴더 (C:/.../data/)
-			.addResourceLocations("classpath:/static/images/"); // 2순위: 프로젝트 기본 이미지 (resources/static/images/)
+			.addResourceLocations("classpath:/static/images/");
+	}
+
+	/**
+	 * 해시 버전 + 사전 압축 리소스 체인 등록
+	 * - EncodedResourceResolver: Accept-Encoding에 맞춰 빌드 시 생성된 .br/.gz 형제 파일 선택 (없으면 원본)
+	 * - ImmutableVersionResourceResolver: 파일 내용 MD5를 URL에 포함, 요청 시 해시를 떼고 원본 조회
+	 *   (해시가 일치해 찾은 리소스만 versionedCacheControl, 나머지는 핸들러 기본 cacheControl)
+	 * - CssLinkResourceTransformer: CSS 내부 url(...) 참조도 해시 URL로 치환
+	 * - webjars는 리소스 체인이 LiteWebJarsResourceResolver를 자동 추가하므로 템플릿은 webjar 버전 없는 경로(/webjars/bootstrap/...) 그대로 사용
+	 */
+	private void addVersionedAssetHandler(ResourceHandlerRegistry registry, String pattern, String location,
+										  CacheControl cacheControl, CacheControl versionedCacheControl) {
+		registry.addResourceHandler(pattern)
+			.addResourceLocations(location)
+			.setCacheControl(cacheControl)
+			.resourceChain(true)
+			.addResolver(new EncodedResourceResolver())
+			.addResolver(new ImmutableVersionResourceResolver(versionedCacheControl).addContentVersionStrategy("/**"))
+			.addTransformer(new CssLinkResourceTransformer());
 	}
 }
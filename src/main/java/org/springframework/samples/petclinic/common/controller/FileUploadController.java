@@ -1,20 +1,39 @@
 package org.springframework.samples.petclinic.common.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.common.dto.StoredFile;
 import org.springframework.samples.petclinic.common.dto.UploadResponse;
 import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.service.ImageVariantService;
+import org.springframework.samples.petclinic.common.service.ResumableUploadService;
+import org.springframework.samples.petclinic.common.service.ResumableUploadService.UploadSession;
 import org.springframework.samples.petclinic.common.table.Attachment;
 import org.springframework.samples.petclinic.counsel.service.FileStorageService; // 서비스 패키지 경로 확인 필요
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Project : spring-petclinic
  * File    : FileUploadController.java
@@ -26,6 +45,12 @@ import org.springframework.web.multipart.MultipartFile;
  * - 위치: common 패키지 (전사 공통 사용)
  * - 역할: 물리적 파일 저장 및 DB 메타데이터 생성, JSON 응답 반환
  * - 보안: Lombok 미사용, 명시적 Getter/Setter 구현
+ * - 이어받기 업로드: /api/files/resumable (tus 1.0 core + creation/termination 방식)
+ *   POST(생성, Upload-Length/Upload-Metadata) → PATCH(조각, Upload-Offset) → HEAD(재개 위치 조회)
+ *   로그인 사용자 전용 (CSRF 헤더 필요), 세션은 만든 사용자만 접근
+ *   API 전용: 게시글 작성/수정 화면은 기존 /{domain}/upload-temp 사용 (비로그인 상담글 작성 포함),
+ *   tus 1.0 호환 클라이언트(tus-js-client 등)가 로그인 세션 + CSRF 헤더로 직접 호출
+ *   마지막 PATCH 응답 본문에 /upload와 같은 UploadResponse 반환
  */
 @Controller
 @RequestMapping("/api/files")
@@ -35,10 +60,21 @@ public class FileUploadController {
 
 	private final FileStorageService fileStorageService;
 	private final AttachmentRepository attachmentRepository;
+	private final ImageVariantService imageVariantService;
+	private final ResumableUploadService resumableUploadService;
+
+	private static final String TUS_RESUMABLE = "Tus-Resumable";
+	private static final String TUS_VERSION = "1.0.0";
+	private static final String UPLOAD_OFFSET = "Upload-Offset";
+	private static final String UPLOAD_LENGTH = "Upload-Length";
+	private static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
 
-	public FileUploadController(FileStorageService fileStorageService, AttachmentRepository attachmentRepository) {
+	public FileUploadController(FileStorageService fileStorageService, AttachmentRepository attachmentRepository,
+								ImageVariantService imageVariantService, ResumableUploadService resumableUploadService) {
 		this.fileStorageService = fileStorageService;
 		this.attachmentRepository = attachmentRepository;
+		this.imageVariantService = imageVariantService;
+		this.resumableUploadService = resumableUploadService;
 	}
 
 	/**
@@ -51,33 +87,12 @@ public class FileUploadController {
 	public ResponseEntity<UploadResponse> uploadFile(@RequestParam("file") MultipartFile file,
 													 @RequestParam("domain") String domain) {
 		try {
-			// 1. 물리적 파일 저장 (FileStorageService 위임)
-			// 반환값: yyyy/MM/filename 형태의 상대 경로
-			String storedPath = fileStorageService.storeFile(file, domain);
-
-			// 2. DB 메타데이터 저장 (Attachment 엔티티 - Lombok 미사용)
-			Attachment attachment = new Attachment();
-			attachment.setOriginalFilename(file.getOriginalFilename());
-			attachment.setStoredFilename(storedPath);
-			attachment.setFileSize(file.getSize());
-			attachment.setContentType(file.getContentType());
-			// created_at 등은 @CreationTimestamp에 의해 자동 처리됨
-
-			// 저장 (ID 생성)
-			attachment = attachmentRepository.save(attachment);
-
-			log.info("File Uploaded: id={}, name={}", attachment.getId(), storedPath);
+			// 1. 물리적 파일 저장 (FileStorageService 위임, 단일 패스 스트리밍)
+			// 반환값: {domain}/uploads/yyyy/MM/filename 상대 경로 + 실제 크기/SHA-256
+			StoredFile storedFile = fileStorageService.store(file, domain);
 
-			// 3. 응답 DTO 생성 (접근 URL 포함)
-			// WebMvcConfig에서 설정한 "/images/uploads/**" 패턴 활용
-			String accessUrl = "/images/" + storedPath;
-
-			UploadResponse response = new UploadResponse(
-				attachment.getId(),
-				attachment.getOriginalFilename(),
-				accessUrl,
-				attachment.getFileSize()
-			);
+			// 2. DB 메타데이터 저장 + 응답 DTO 생성
+			UploadResponse response = registerAttachment(storedFile, file.getOriginalFilename(), file.getContentType(), domain, true);
 
 			return ResponseEntity.ok(response);
 
@@ -92,4 +107,180 @@ public class FileUploadController {
 		}
 	}
 
+	// ==================== 이어받기(분할) 업로드 ====================
+
+	/**
+	 * 이어받기 업로드 생성 (tus creation)
+	 * @param length 전체 파일 크기 (Upload-Length)
+	 * @param metadata tus 메타데이터 ("키 base64값" 쉼표 구분, domain 필수, filename/filetype 선택)
+	 * @return 201 + Location (/api/files/resumable/{id}), 사용자별 진행 중 업로드 제한 초과 시 429
+	 */
+	@PostMapping("/resumable")
+	public ResponseEntity<Void> createResumableUpload(@RequestHeader(UPLOAD_LENGTH) long length,
+													  @RequestHeader(value = "Upload-Metadata", required = false) String metadata,
+													  Authentication authentication) {
+		try {
+			Map<String, String> meta = parseUploadMetadata(metadata);
+			UploadSession session = resumableUploadService.create(authentication.getName(),
+				meta.get("domain"), meta.get("filename"), meta.get("filetype"), length);
+
+			return ResponseEntity.status(HttpStatus.CREATED)
+				.header(TUS_RESUMABLE, TUS_VERSION)
+				.header("Location", "/api/files/resumable/" + session.getId())
+				.header(UPLOAD_OFFSET, "0")
+				.build();
+		} catch (IllegalArgumentException e) {
+			log.warn("Resumable upload rejected: {}", e.getMessage());
+			HttpStatus status = length > resumableUploadService.getMaxUploadSize()
+				? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.BAD_REQUEST;
+			return ResponseEntity.status(status).header(TUS_RESUMABLE, TUS_VERSION).build();
+		} catch (IllegalStateException e) {
+			log.warn("Resumable upload rejected: {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(TUS_RESUMABLE, TUS_VERSION).build();
+		}
+	}
+
+	/**
+	 * 재개 위치 조회 (클라이언트는 응답의 Upload-Offset부터 다시 전송)
+	 */
+	@RequestMapping(value = "/resumable/{id}", method = RequestMethod.HEAD)
+	public ResponseEntity<Void> getResumableOffset(@PathVariable String id, Authentication authentication) {
+		UploadSession session = resumableUploadService.find(id, authentication.getName());
+		if (session == null) {
+			return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+		}
+		return ResponseEntity.ok()
+			.cacheControl(CacheControl.noStore())
+			.header(TUS_RESUMABLE, TUS_VERSION)
+			.header(UPLOAD_OFFSET, Long.toString(session.getOffset()))
+			.header(UPLOAD_LENGTH, Long.toString(session.getLength()))
+			.build();
+	}
+
+	/**
+	 * 조각 전송 (요청 본문을 멀티파트 파싱 없이 바로 파일 위치에 기록)
+	 * @return 진행 중: 204 + Upload-Offset / 완료: 200 + UploadResponse (JSON)
+	 */
+	@PatchMapping(value = "/resumable/{id}", consumes = OFFSET_OCTET_STREAM)
+	public ResponseEntity<?> appendResumableChunk(@PathVariable String id,
+												  @RequestHeader(UPLOAD_OFFSET) long offset,
+												  HttpServletRequest request,
+												  Authentication authentication) {
+		UploadSession session = resumableUploadService.find(id, authentication.getName());
+		if (session == null) {
+			return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+		}
+		try {
+			long newOffset = resumableUploadService.append(id, offset, request.getInputStream());
+
+			if (newOffset < session.getLength()) {
+				return ResponseEntity.noContent()
+					.header(TUS_RESUMABLE, TUS_VERSION)
+					.header(UPLOAD_OFFSET, Long.toString(newOffset))
+					.build();
+			}
+
+			// 마지막 조각: blob 반영 + 기존 업로드와 같은 Attachment 생성
+			// (생성 실패 시 세션과 저장 파일 유지 → 같은 PATCH 재전송으로 생성만 재시도)
+			UploadResponse response = resumableUploadService.complete(id, storedFile -> registerAttachment(storedFile,
+				session.getOriginalFilename(), session.getContentType(), session.getDomain(), false));
+			return ResponseEntity.ok()
+				.header(TUS_RESUMABLE, TUS_VERSION)
+				.header(UPLOAD_OFFSET, Long.toString(newOffset))
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(response);
+
+		} catch (IllegalStateException e) {
+			log.warn("Resumable upload conflict: id={}, {}", id, e.getMessage());
+			return ResponseEntity.status(HttpStatus.CONFLICT).header(TUS_RESUMABLE, TUS_VERSION).build();
+		} catch (IllegalArgumentException e) {
+			log.warn("Resumable upload validation failed: id={}, {}", id, e.getMessage());
+			return ResponseEntity.badRequest().header(TUS_RESUMABLE, TUS_VERSION).build();
+		} catch (IOException e) {
+			log.warn("Resumable upload stream error: id={}, {}", id, e.getMessage());
+			return ResponseEntity.internalServerError().header(TUS_RESUMABLE, TUS_VERSION).build();
+		}
+	}
+
+	/**
+	 * 업로드 취소 (tus termination)
+	 */
+	@DeleteMapping("/resumable/{id}")
+	public ResponseEntity<Void> cancelResumableUpload(@PathVariable String id, Authentication authentication) {
+		boolean cancelled = resumableUploadService.find(id, authentication.getName()) != null
+			&& resumableUploadService.cancel(id);
+		return (cancelled ? ResponseEntity.noContent() : ResponseEntity.notFound())
+			.header(TUS_RESUMABLE, TUS_VERSION)
+			.build();
+	}
+
+	// ==================== 공통 헬퍼 ====================
+
+	/**
+	 * 저장된 파일의 Attachment 메타데이터 생성 (일반 업로드/이어받기 업로드 공용)
+	 * @param discardOnFailure 저장 실패 시 파일 즉시 삭제 (이어받기 업로드는 재시도를 위해 유지)
+	 * @return 응답 DTO (ID, 원본 파일명, 접근 URL, 크기)
+	 */
+	private UploadResponse registerAttachment(StoredFile storedFile, String originalFilename,
+											  String contentType, String domain, boolean discardOnFailure) {
+		String storedPath = storedFile.getStoredPath();
+
+		// DB 메타데이터 저장 (Attachment 엔티티 - Lombok 미사용)
+		Attachment attachment = new Attachment();
+		attachment.setOriginalFilename(originalFilename);
+		attachment.setStoredFilename(storedPath);
+		attachment.setFileSize(storedFile.getSize()); // 클라이언트 선언값이 아닌 실제 기록 바이트 수
+		attachment.setContentHash(storedFile.getSha256()); // blob 참조 키
+		attachment.setContentType(contentType);
+		// created_at 등은 @CreationTimestamp에 의해 자동 처리됨
+
+		// 저장 (ID 생성): 실패 시 방금 기록한 파일은 야간 청소를 기다리지 않고 바로 정리
+		try {
+			attachment = attachmentRepository.save(attachment);
+		} catch (RuntimeException e) {
+			if (discardOnFailure) {
+				fileStorageService.deleteFileAsync(storedPath);
+			}
+			throw e;
+		}
+
+		log.info("File Uploaded: id={}, name={}, sha256={}", attachment.getId(), storedPath, storedFile.getSha256());
+
+		// 포토게시판 이미지: 목록/상세용 축소 파생본 백그라운드 생성
+		if ("photo".equals(domain) && storedFile.getDetectedType().startsWith("image/")) {
+			imageVariantService.requestVariants(attachment.getId());
+		}
+
+		// 응답 DTO 생성 (접근 URL 포함)
+		// WebMvcConfig에서 설정한 "/images/**" 패턴 활용
+		String accessUrl = "/images/" + storedPath;
+
+		return new UploadResponse(
+			attachment.getId(),
+			attachment.getOriginalFilename(),
+			accessUrl,
+			attachment.getFileSize()
+		);
+	}
+
+	/**
+	 * tus Upload-Metadata 파싱 ("domain cGhvdG8=,filename YS5qcGc=")
+	 */
+	private Map<String, String> parseUploadMetadata(String header) {
+		Map<String, String> metadata = new HashMap<>();
+		if (header == null || header.isBlank()) {
+			return metadata;
+		}
+		for (String pair : header.split(",")) {
+			String[] parts = pair.trim().split(" ", 2);
+			if (parts[0].isEmpty()) {
+				continue;
+			}
+			String value = parts.length > 1
+				? new String(Base64.getDecoder().decode(parts[1].trim()), StandardCharsets.UTF_8)
+				: "";
+			metadata.put(parts[0], value);
+		}
+		return metadata;
+	}
 }
@@ -0,0 +1,51 @@
+package org.springframework.samples.petclinic.common.dto;
+
+/**
+ * Project : spring-petclinic
+ * File    : AttachmentOwner.java
+ * Created : 2026-03-02
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ * 첨부파일 소유 게시글 정보 DTO
+ * - 어떤 도메인(counsel, community, photo)의 어떤 게시글이 첨부파일을 소유하는지 표현
+ * - 다운로드 권한 검증 시 비공개 여부 판단에 사용
+ * - 불변 객체 (AttachmentOwnershipResolver 캐시에 그대로 보관)
+ */
+public class AttachmentOwner {
+
+	public static final String DOMAIN_COUNSEL = "counsel";
+	public static final String DOMAIN_COMMUNITY = "community";
+	public static final String DOMAIN_PHOTO = "photo";
+
+	private final String domain;   // 소유 게시판 도메인
+	private final Long postId;     // 소유 게시글 ID
+	private final boolean secret;  // 비공개 게시글 여부
+
+	public AttachmentOwner(String domain, Long postId, boolean secret) {
+		this.domain = domain;
+		this.postId = postId;
+		this.secret = secret;
+	}
+
+	public String getDomain() {
+		return domain;
+	}
+
+	public Long getPostId() {
+		return postId;
+	}
+
+	public boolean isSecret() {
+		return secret;
+	}
+
+	@Override
+	public String toString() {
+		return "AttachmentOwner{" +
+			"domain='" + domain + '\'' +
+			", postId=" + postId +
+			", secret=" + secret +
+			'}';
+	}
+}
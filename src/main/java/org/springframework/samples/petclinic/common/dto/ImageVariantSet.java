@@ -0,0 +1,118 @@
+package org.springframework.samples.petclinic.common.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Project : spring-petclinic
+ * File    : ImageVariantSet.java
+ * Created : 2026-03-05
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ * 원본 이미지 1건에 대한 파생본(썸네일) URL 묶음 DTO
+ * - ImageVariantService.findVariantSets 결과 (원본 URL → ImageVariantSet)
+ * - 화면 용도(목록 카드, 상세 본문)에 맞는 너비/포맷 선택 헬퍼 제공
+ */
+public class ImageVariantSet {
+
+	public static final String FORMAT_JPEG = "jpeg";
+	public static final String FORMAT_WEBP = "webp";
+
+	private final String originalUrl;
+	private final List<Variant> variants = new ArrayList<>();
+
+	public ImageVariantSet(String originalUrl) {
+		this.originalUrl = originalUrl;
+	}
+
+	public void add(String url, int width, String format) {
+		variants.add(new Variant(url, width, format));
+		variants.sort(Comparator.comparingInt(Variant::getWidth));
+	}
+
+	public String getOriginalUrl() {
+		return originalUrl;
+	}
+
+	public List<Variant> getVariants() {
+		return Collections.unmodifiableList(variants);
+	}
+
+	/**
+	 * 요청 너비 이상인 파생본 중 가장 작은 것 (없으면 해당 포맷의 가장 큰 파생본, 그것도 없으면 null)
+	 * @param format jpeg, webp
+	 * @param minWidth 화면 표시 너비 (고해상도 화면 고려한 px)
+	 */
+	public String pick(String format, int minWidth) {
+		Variant largest = null;
+		for (Variant variant : variants) {
+			if (!variant.getFormat().equals(format)) {
+				continue;
+			}
+			if (variant.getWidth() >= minWidth) {
+				return variant.getUrl();
+			}
+			largest = variant;
+		}
+		return largest != null ? largest.getUrl() : null;
+	}
+
+	/**
+	 * HTML srcset 속성 값 생성 (예: "/images/a_w320.jpg 320w, /images/a_w640.jpg 640w")
+	 * @param format jpeg, webp
+	 * @return 해당 포맷 파생본이 없으면 null
+	 */
+	public String srcset(String format) {
+		return srcset(format, "");
+	}
+
+	/**
+	 * HTML srcset 속성 값 생성 (후보 URL마다 urlPrefix를 붙임)
+	 * @param format jpeg, webp
+	 * @param urlPrefix 컨텍스트 경로 등 URL 앞에 붙일 값 (끝의 '/' 제외, 없으면 "")
+	 * @return 해당 포맷 파생본이 없으면 null
+	 */
+	public String srcset(String format, String urlPrefix) {
+		StringBuilder sb = new StringBuilder();
+		for (Variant variant : variants) {
+			if (!variant.getFormat().equals(format)) {
+				continue;
+			}
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(urlPrefix).append(variant.getUrl()).append(' ').append(variant.getWidth()).append('w');
+		}
+		return sb.length() > 0 ? sb.toString() : null;
+	}
+
+	/**
+	 * 파생본 1건 (URL, 너비, 포맷)
+	 */
+	public static class Variant {
+		private final String url;
+		private final int width;
+		private final String format;
+
+		public Variant(String url, int width, String format) {
+			this.url = url;
+			this.width = width;
+			this.format = format;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public String getFormat() {
+			return format;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package org.springframework.samples.petclinic.common.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Project : spring-petclinic
+ * File    : IngestedHtml.java
+ * Created : 2026-03-16
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ * 게시글 본문 HTML 1회 파싱 결과 DTO (HtmlIngestPipeline.ingest)
+ * - 정제된 HTML(저장 대상)과 그 UTF-8 바이트, 검색용 평문, 본문 이미지 URL 목록(등장 순서), 단어/이미지 수
+ * - 인라인 base64 이미지를 추출한 경우 HTML과 URL 목록 모두 교체된 /images/... URL 기준
+ * - CommonHtmlStorage.saveHtml(IngestedHtml, domain)에 그대로 넘겨 재파싱 없이 저장
+ */
+public class IngestedHtml {
+
+	private final String sanitizedHtml;
+	private final String plainText;
+	private final List<String> imageUrls;
+	private final int wordCount;
+	private final int imageCount;
+	private byte[] bytes;
+
+	public IngestedHtml(String sanitizedHtml, String plainText, List<String> imageUrls, int wordCount, int imageCount) {
+		this.sanitizedHtml = sanitizedHtml;
+		this.plainText = plainText;
+		this.imageUrls = List.copyOf(imageUrls);
+		this.wordCount = wordCount;
+		this.imageCount = imageCount;
+	}
+
+	public String getSanitizedHtml() {
+		return sanitizedHtml;
+	}
+
+	/**
+	 * 저장용 UTF-8 바이트 (최초 요청 시 1회 인코딩, MIME 검사와 파일 쓰기가 같은 배열 사용)
+	 */
+	public byte[] getBytes() {
+		if (bytes == null) {
+			bytes = sanitizedHtml.getBytes(StandardCharsets.UTF_8);
+		}
+		return bytes;
+	}
+
+	public String getPlainText() {
+		return plainText;
+	}
+
+	/** 정제 후 남은 첫 번째 img의 src (없으면 null) */
+	public String getFirstImageUrl() {
+		return imageUrls.isEmpty() ? null : imageUrls.get(0);
+	}
+
+	/** 정제 후 남은 img src 목록 (빈 src 제외, 등장 순서) */
+	public List<String> getImageUrls() {
+		return imageUrls;
+	}
+
+	public int getWordCount() {
+		return wordCount;
+	}
+
+	public int getImageCount() {
+		return imageCount;
+	}
+}
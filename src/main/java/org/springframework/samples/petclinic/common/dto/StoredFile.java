@@ -0,0 +1,54 @@
+package org.springframework.samples.petclinic.common.dto;
+
+/**
+ * Project : spring-petclinic
+ * File    : StoredFile.java
+ * Created : 2026-03-03
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ * 물리 파일 저장 결과 DTO (FileStorageService.store 반환값)
+ * - 저장 중 스트리밍으로 계산한 실제 크기 / SHA-256 / 감지된 MIME 타입 포함
+ * - 클라이언트가 보낸 Content-Length, Content-Type 대신 이 값을 신뢰
+ * - 불변 객체
+ */
+public class StoredFile {
+
+	private final String storedPath;   // base-dir 기준 상대 경로 ({domain}/uploads/yyyy/MM/uuid.ext)
+	private final long size;           // 실제 저장된 바이트 수
+	private final String sha256;       // 파일 내용 SHA-256 (소문자 hex 64자)
+	private final String detectedType; // Tika가 선두 바이트로 감지한 MIME 타입
+
+	public StoredFile(String storedPath, long size, String sha256, String detectedType) {
+		this.storedPath = storedPath;
+		this.size = size;
+		this.sha256 = sha256;
+		this.detectedType = detectedType;
+	}
+
+	public String getStoredPath() {
+		return storedPath;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public String getSha256() {
+		return sha256;
+	}
+
+	public String getDetectedType() {
+		return detectedType;
+	}
+
+	@Override
+	public String toString() {
+		return "StoredFile{" +
+			"storedPath='" + storedPath + '\'' +
+			", size=" + size +
+			", sha256='" + sha256 + '\'' +
+			", detectedType='" + detectedType + '\'' +
+			'}';
+	}
+}
@@ -0,0 +1,39 @@
+package org.springframework.samples.petclinic.common.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.samples.petclinic.common.table.AttachmentContentRef;
+
+import java.util.Collection;
+
+/*
+ * Project : spring-petclinic
+ * File    : AttachmentContentRefRepository.java
+ * Created : 2026-03-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   본문 HTML 파일 → 본문 이미지(Attachment) 참조 Repository
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public interface AttachmentContentRefRepository extends JpaRepository<AttachmentContentRef, Long> {
+
+	// 1. 본문 파일 삭제 시 참조 해제 (이후 다른 본문이 참조하지 않는 이미지는 고아 청소 대상)
+	@Modifying
+	@Query(value = "DELETE FROM attachment_content_ref WHERE content_path = :contentPath", nativeQuery = true)
+	int deleteByContentPath(@Param("contentPath") String contentPath);
+
+	// 2. 영구 삭제 청크용: 여러 첨부파일의 참조 행 일괄 삭제 (FK 해제)
+	@Modifying
+	@Query(value = "DELETE FROM attachment_content_ref WHERE attachment_id IN (:attachmentIds)", nativeQuery = true)
+	int deleteByAttachmentIds(@Param("attachmentIds") Collection<Long> attachmentIds);
+
+	// 3. 본문 저장소 이동(ContentMigrationService) 시 참조 키 교체
+	@Modifying
+	@Query(value = "UPDATE attachment_content_ref SET content_path = :newPath WHERE content_path = :oldPath", nativeQuery = true)
+	int updateContentPath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+}
@@ -2,12 +2,15 @@ package org.springframework.samples.petclinic.common.repository;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.common.table.Attachment;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /*
  * Project : spring-petclinic
@@ -23,18 +26,114 @@ import java.util.List;
  */
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
 
-	// 1. [기존 기능] 휴지통 비우기용: 삭제된 지 오래된(cutoffDate 이전) 파일 조회
-	List<Attachment> findByDelFlagTrueAndDeletedAtBefore(LocalDateTime cutoffDate);
+	// 게시글/댓글 연결 테이블 + 본문 이미지 참조 안티 조인 (고아 판정 공통 조건)
+	String ORPHAN_GUARD =
+		"AND NOT EXISTS (SELECT 1 FROM counsel_post_attachments c WHERE c.attachment_id = a.id) " +
+		"AND NOT EXISTS (SELECT 1 FROM counsel_comment_attachment cc WHERE cc.attachment_id = a.id) " +
+		"AND NOT EXISTS (SELECT 1 FROM community_post_attachment n WHERE n.attachment_id = a.id) " +
+		"AND NOT EXISTS (SELECT 1 FROM photo_post_attachment p WHERE p.attachment_id = a.id) " +
+		"AND NOT EXISTS (SELECT 1 FROM attachment_content_ref r WHERE r.attachment_id = a.id) ";
 
-	// 2. [신규 기능] 고아 파일 청소용: 연결된 게시글이 없는 파일 조회 (통합 쿼리)
-	@Query("SELECT a FROM Attachment a " +
-		"WHERE a.createdAt < :cutoffDate " +
-		"AND a.delFlag = false " +
-		"AND a.id NOT IN (SELECT c.attachment.id FROM CounselPostAttachment c) " +
-		"AND a.id NOT IN (SELECT p.attachment.id FROM PhotoPostAttachment p) " + // Photo 엔티티명 확인 필요
-		"AND a.id NOT IN (SELECT n.attachment.id FROM CommunityPostAttachment n)") // Notice 엔티티명 확인 필요
-	List<Attachment> findGlobalOrphanFiles(@Param("cutoffDate") LocalDateTime cutoffDate);
+	// 2. [신규 기능] 고아 파일 청소용: 연결된 게시글/댓글이 없는 파일을 id 순 keyset 분할 조회 (afterId 다음부터 limit건)
+	//    - NOT IN (서브쿼리) 대신 연결 테이블 attachment_id 인덱스를 타는 NOT EXISTS 안티 조인
+	//    - 살아있는 행은 컨버터 저장값('N')과 초기 데이터('0')가 공존하므로 삭제값을 제외하는 방식으로 비교
+	@Query(value = "SELECT a.id AS id, a.stored_filename AS storedFilename, a.content_hash AS contentHash " +
+		"FROM attachment a " +
+		"WHERE a.id > :afterId AND a.created_at < :cutoffDate AND a.del_flag NOT IN ('Y', '1') " +
+		ORPHAN_GUARD +
+		"ORDER BY a.id LIMIT :limit",
+		nativeQuery = true)
+	List<CleanupRow> findOrphanChunk(@Param("afterId") long afterId, @Param("cutoffDate") LocalDateTime cutoffDate,
+									 @Param("limit") int limit);
+
+	// 2-1. 고아 파일 일괄 Soft Delete (청크당 UPDATE 1회)
+	//      - 조회 후 게시글에 연결된 행(조회~갱신 사이 글 저장)은 같은 NOT EXISTS 조건으로 다시 걸러 제외
+	@Modifying
+	@Query(value = "UPDATE attachment a SET del_flag = 'Y', deleted_at = :deletedAt, deleted_by = :deletedBy " +
+		"WHERE a.id IN (:ids) AND a.del_flag NOT IN ('Y', '1') " +
+		ORPHAN_GUARD,
+		nativeQuery = true)
+	int softDeleteOrphans(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt,
+						  @Param("deletedBy") String deletedBy);
+
+	// 2-2. 2-1에서 일부만 갱신된 경우 실제로 Soft Delete된 id 확인 (물리 삭제 대상 확정용)
+	@Query(value = "SELECT a.id FROM attachment a " +
+		"WHERE a.id IN (:ids) AND a.deleted_at = :deletedAt AND a.deleted_by = :deletedBy",
+		nativeQuery = true)
+	List<Long> findSoftDeletedIds(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt,
+								  @Param("deletedBy") String deletedBy);
 
 	// 3. 서비스단 연결용
 	List<Attachment> findByStoredFilenameIn(List<String> storedFilenames);
+
+	// 1. 휴지통 비우기용 영구 삭제 대상: Soft Delete 후 cutoffDate가 지난 파일을 id 순 keyset 분할 조회 (게시글/댓글 연결이 남은 행은 FK 제약으로 제외)
+	//      - Soft Delete 행은 @SQLRestriction에 걸려 JPQL로 조회되지 않으므로 Native
+	//      - del_flag는 컨버터 저장값('Y')과 @SQLDelete 저장값('1')이 공존
+	@Query(value = "SELECT a.id AS id, a.stored_filename AS storedFilename, a.content_hash AS contentHash " +
+		"FROM attachment a " +
+		"WHERE a.id > :afterId AND a.del_flag IN ('Y', '1') AND a.deleted_at < :cutoffDate " +
+		ORPHAN_GUARD +
+		"ORDER BY a.id LIMIT :limit",
+		nativeQuery = true)
+	List<CleanupRow> findPurgeChunk(@Param("afterId") long afterId, @Param("cutoffDate") LocalDateTime cutoffDate,
+									@Param("limit") int limit);
+
+	// 1-1. 행 일괄 영구 삭제 (delete()는 @SQLDelete에 의해 Soft Delete로 바뀌므로 Native)
+	@Modifying
+	@Query(value = "DELETE FROM attachment WHERE id IN (:ids)", nativeQuery = true)
+	int hardDeleteByIds(@Param("ids") Collection<Long> ids);
+
+	// 3-1. blob 참조 확인: 주어진 content_hash 중 아직 행(Soft Delete 포함)이 남은 값 (@SQLRestriction 우회를 위해 Native)
+	@Query(value = "SELECT DISTINCT content_hash FROM attachment WHERE content_hash IN (:contentHashes)", nativeQuery = true)
+	List<String> findReferencedHashes(@Param("contentHashes") Collection<String> contentHashes);
+
+	// 4. 다운로드 권한 검증용: 첨부파일 소유 게시글 조회 (세 게시판 중간 테이블을 attachment_id 인덱스로 한 번에 조인)
+	//    - 삭제된 게시글은 @SQLRestriction에 의해 조인 대상에서 제외되어 null로 반환됨
+	@Query("SELECT cp.id AS counselPostId, cp.secret AS counselSecret, " +
+		"np.id AS communityPostId, pp.id AS photoPostId " +
+		"FROM Attachment a " +
+		"LEFT JOIN CounselPostAttachment ca ON ca.attachment = a LEFT JOIN ca.counselPost cp " +
+		"LEFT JOIN CommunityPostAttachment na ON na.attachment = a LEFT JOIN na.communityPost np " +
+		"LEFT JOIN PhotoPostAttachment pa ON pa.attachment = a LEFT JOIN pa.photoPost pp " +
+		"WHERE a.id = :attachmentId")
+	List<AttachmentOwnerRow> findOwnerRows(@Param("attachmentId") Long attachmentId);
+
+	// 5. 일괄(ZIP) 다운로드용: 게시글의 살아있는 첨부 목록 (삭제된 게시글/첨부는 @SQLRestriction으로 제외)
+	@Query("SELECT a FROM CounselPostAttachment ca JOIN ca.counselPost cp JOIN ca.attachment a " +
+		"WHERE cp.id = :postId ORDER BY a.id")
+	List<Attachment> findCounselPostAttachments(@Param("postId") Long postId);
+
+	@Query("SELECT a FROM CommunityPostAttachment na JOIN na.communityPost np JOIN na.attachment a " +
+		"WHERE np.id = :postId ORDER BY a.id")
+	List<Attachment> findCommunityPostAttachments(@Param("postId") Long postId);
+
+	@Query("SELECT a FROM PhotoPostAttachment pa JOIN pa.photoPost pp JOIN pa.attachment a " +
+		"WHERE pp.id = :postId ORDER BY a.id")
+	List<Attachment> findPhotoPostAttachments(@Param("postId") Long postId);
+
+	// 5-1. 일괄 다운로드 권한 검증용: 온라인상담 게시글 비공개 여부 (삭제된 게시글은 empty)
+	@Query("SELECT cp.secret FROM CounselPost cp WHERE cp.id = :postId")
+	Optional<Boolean> findCounselPostSecret(@Param("postId") Long postId);
+
+	// 6. 관리자 화면용: 다운로드 상위 첨부파일 (Soft Delete 제외)
+	List<Attachment> findTop10ByDownloadCountGreaterThanOrderByDownloadCountDesc(int minCount);
+
+	/**
+	 * 청소 작업 청크 조회 결과 프로젝션 (물리 삭제/blob 해제에 필요한 컬럼만)
+	 */
+	interface CleanupRow {
+		Long getId();
+		String getStoredFilename();
+		String getContentHash();
+	}
+
+	/**
+	 * findOwnerRows 결과 프로젝션 (게시판별 소유 게시글 ID, 연결되지 않은 게시판은 null)
+	 */
+	interface AttachmentOwnerRow {
+		Long getCounselPostId();
+		Boolean getCounselSecret();
+		Long getCommunityPostId();
+		Long getPhotoPostId();
+	}
 }
@@ -0,0 +1,47 @@
+package org.springframework.samples.petclinic.common.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.samples.petclinic.common.table.AttachmentVariant;
+
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Project : spring-petclinic
+ * File    : AttachmentVariantRepository.java
+ * Created : 2026-03-05
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   이미지 파생본(썸네일) 메타데이터 Repository
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public interface AttachmentVariantRepository extends JpaRepository<AttachmentVariant, Long> {
+
+	// 1. 생성 작업용: 이미 만들어진 파생본 확인 (중복 생성 방지)
+	@Query("SELECT v FROM AttachmentVariant v WHERE v.attachment.id = :attachmentId")
+	List<AttachmentVariant> findByAttachmentId(@Param("attachmentId") Long attachmentId);
+
+	// 2. 화면 표시용: 원본 저장 경로 목록으로 파생본 일괄 조회 (목록 12건 → 쿼리 1회)
+	@Query("SELECT v FROM AttachmentVariant v JOIN FETCH v.attachment a WHERE a.storedFilename IN :storedPaths")
+	List<AttachmentVariant> findByStoredPaths(@Param("storedPaths") Collection<String> storedPaths);
+
+	// 3. 원본 영구 삭제 전 파생본 행 삭제 (FK 해제)
+	@Modifying
+	@Query(value = "DELETE FROM attachment_variant WHERE attachment_id = :attachmentId", nativeQuery = true)
+	int deleteByAttachmentId(@Param("attachmentId") Long attachmentId);
+
+	// 4. 영구 삭제 청크용: 여러 원본의 파생본 저장 경로 일괄 조회
+	@Query(value = "SELECT stored_path FROM attachment_variant WHERE attachment_id IN (:attachmentIds)", nativeQuery = true)
+	List<String> findStoredPathsByAttachmentIds(@Param("attachmentIds") Collection<Long> attachmentIds);
+
+	// 5. 영구 삭제 청크용: 여러 원본의 파생본 행 일괄 삭제 (FK 해제)
+	@Modifying
+	@Query(value = "DELETE FROM attachment_variant WHERE attachment_id IN (:attachmentIds)", nativeQuery = true)
+	int deleteByAttachmentIds(@Param("attachmentIds") Collection<Long> attachmentIds);
+}
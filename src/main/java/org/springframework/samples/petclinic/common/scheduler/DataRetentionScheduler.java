@@ -0,0 +1,32 @@
+package org.springframework.samples.petclinic.common.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.samples.petclinic.common.service.DataRetentionService;
+import org.springframework.samples.petclinic.common.service.DataRetentionService.RetentionReport;
+
+/**
+ * 데이터 보존 정책 스케줄러 (기본 매일 새벽 2시)
+ * 1. Soft Delete 후 보존 기간이 지난 게시글/댓글을 보관 테이블(*_archive)로 이동
+ * 2. 만료된 비밀번호 재설정 토큰, 오래된 Remember-Me 토큰 삭제
+ * - 첨부 연결이 끊긴 파일은 이후 FileCleanupScheduler(새벽 3시 고아 파일 청소)가 정리
+ */
+@Component
+public class DataRetentionScheduler {
+
+	private static final Logger log = LoggerFactory.getLogger(DataRetentionScheduler.class);
+	private final DataRetentionService retentionService;
+
+	public DataRetentionScheduler(DataRetentionService retentionService) {
+		this.retentionService = retentionService;
+	}
+
+	@Scheduled(cron = "${petclinic.retention.cron:0 0 2 * * *}")
+	public void applyRetention() {
+		log.info("📦 [Retention] Starting retention run...");
+		RetentionReport report = retentionService.run();
+		log.info("📦 [Retention] Finished. {}", report);
+	}
+}
@@ -4,102 +4,99 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
-import org.springframework.samples.petclinic.common.table.Attachment;
-import org.springframework.samples.petclinic.counsel.service.FileStorageService;
+import org.springframework.samples.petclinic.common.service.AttachmentCleanupService;
+import org.springframework.samples.petclinic.common.service.AttachmentCleanupService.CleanupProgress;
+import org.springframework.samples.petclinic.common.service.FileReconciliationService;
+import org.springframework.samples.petclinic.common.service.FileReconciliationService.ReconcileReport;
+import org.springframework.samples.petclinic.common.service.SegmentContentStore;
+import org.springframework.samples.petclinic.common.service.SegmentContentStore.CompactionReport;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * 시스템 통합 청소 스케줄러
  * 1. 고아 파일 청소 (Orphan Cleanup): 글 작성 중 취소된 파일 정리
  * 2. 영구 삭제 (Hard Delete): 삭제된 지 2주 지난 파일 완전 삭제
+ * 3. 파일 정합성 점검 (Reconciliation): DB 행이 가리키지 않는 디스크 파일 보고/격리
+ * 4. 본문 세그먼트 압축 (Compaction): 삭제/수정으로 무효가 된 본문 레코드 공간 회수
+ * - 실제 처리는 AttachmentCleanupService가 청크(keyset) 단위 짧은 트랜잭션으로 수행
+ *   (전체 대상을 한 트랜잭션에 묶지 않으므로 대량 적체 시에도 attachment 테이블 잠금이 길어지지 않음)
  */
 @Component
 public class FileCleanupScheduler {
 
 	private static final Logger log = LoggerFactory.getLogger(FileCleanupScheduler.class);
-	private final AttachmentRepository attachmentRepository;
-	private final FileStorageService fileStorageService;
-
-	public FileCleanupScheduler(AttachmentRepository attachmentRepository, FileStorageService fileStorageService) {
-		this.attachmentRepository = attachmentRepository;
-		this.fileStorageService = fileStorageService;
+	private final AttachmentCleanupService cleanupService;
+	private final FileReconciliationService reconciliationService;
+	private final SegmentContentStore segmentStore;
+
+	public FileCleanupScheduler(AttachmentCleanupService cleanupService,
+								FileReconciliationService reconciliationService,
+								SegmentContentStore segmentStore) {
+		this.cleanupService = cleanupService;
+		this.reconciliationService = reconciliationService;
+		this.segmentStore = segmentStore;
 	}
 
 	/**
 	 * [Task 1] 고아 파일 청소 (매일 새벽 3시)
 	 * - 에디터에 업로드했으나 글을 저장하지 않은 파일
-	 * - 물리 파일 삭제 -> DB Soft Delete 처리
+	 * - 청크별 DB 일괄 Soft Delete 커밋 -> 물리 파일 병렬 삭제
 	 */
 	@Scheduled(cron = "0 0 3 * * *")
-	@Transactional
 	public void cleanupGlobalOrphanFiles() {
 		log.info("🧹 [Task 1] Starting orphan file cleanup...");
 		LocalDateTime cutoffDate = LocalDateTime.now().minusHours(24); // 24시간 기준
 
-		List<Attachment> orphanFiles = attachmentRepository.findGlobalOrphanFiles(cutoffDate);
-
-		if (orphanFiles.isEmpty()) return;
-
-		int count = 0;
-		for (Attachment file : orphanFiles) {
-			try {
-				fileStorageService.deleteFile(file.getStoredFilename()); // 물리 삭제
-
-				file.setDelFlag(true); // 소프트 삭제 처리
-				file.setDeletedAt(LocalDateTime.now());
-				file.setDeletedBy("SYSTEM_ORPHAN_CLEANER_SCHEDULER");
-				count++;
-			} catch (Exception e) {
-				log.error("Failed to process orphan file: {}", file.getId(), e);
-			}
-		}
-		log.info("🗑️ [Task 1] Orphan cleanup finished. Processed {} files.", count);
+		CleanupProgress result = cleanupService.cleanupOrphans(cutoffDate);
+		log.info("🗑️ [Task 1] Orphan cleanup finished. {}", result);
 	}
 
 	/**
 	 * [Task 2] 삭제된 파일 완전 영구 삭제 (매일 새벽 1시)
 	 * - 사용자가 삭제하거나 Task 1에 의해 삭제된 지 2주 지난 파일
-	 * - DB Row 완전 삭제 (물리 파일이 남아있다면 삭제 시도)
+	 * - 청크별 DB Row 일괄 영구 삭제 커밋 -> 물리 파일(원본/파생본) 병렬 삭제
+	 * - 첨부 경로는 blob 하드 링크이므로 항상 unlink, blob은 같은 content_hash 행이 더 없을 때만 해제
 	 */
 	@Scheduled(cron = "0 0 1 * * *")
-	@Transactional
 	public void purgeOldDeletedFiles() {
 		log.info("🔥 [Task 2] Starting permanent purge of old files...");
 		LocalDateTime twoWeeksAgo = LocalDateTime.now().minusWeeks(2);
 
-		List<Attachment> filesToDelete = attachmentRepository.findByDelFlagTrueAndDeletedAtBefore(twoWeeksAgo);
-
-		if (filesToDelete.isEmpty()) {
+		CleanupProgress result = cleanupService.purgeDeleted(twoWeeksAgo);
+		if (result.getScanned() == 0) {
 			log.info("✨ [Task 2] No old files found to purge.");
 			return;
 		}
+		log.info("💀 [Task 2] Permanent purge finished. {}", result);
+	}
 
-		int count = 0;
-		for (Attachment attachment : filesToDelete) {
-			try {
-				// 1. 물리 파일 삭제 시도 및 결과 확인
-				boolean isPhysicalDeleted = fileStorageService.deleteFile(attachment.getStoredFilename());
-
-				if (isPhysicalDeleted) {
-					log.info("✅ [Task 2] Physical file deleted: {}", attachment.getOriginalFilename());
-				} else {
-					// 이미 없는 경우 (Task 1에 의해 지워졌거나 직접 지워짐) -> 에러 아님, 정보성 로그
-					log.info("ℹ️ [Task 2] Physical file already missing (skipped): {}", attachment.getOriginalFilename());
-				}
-
-				// 2. DB 영구 삭제
-				attachmentRepository.delete(attachment);
-				count++;
+	/**
+	 * [Task 3] 파일 정합성 점검 (기본 매주 일요일 새벽 4시 30분)
+	 * - uploads/content 폴더의 파일 중 첨부/본문 경로 어디에도 없는 파일
+	 * - petclinic.file.reconcile.mode: report(기본, 보고만) / quarantine(격리 폴더로 이동)
+	 */
+	@Scheduled(cron = "${petclinic.file.reconcile.cron:0 30 4 * * SUN}")
+	public void reconcileUntrackedFiles() {
+		log.info("🔍 [Task 3] Starting file reconciliation...");
+		ReconcileReport report = reconciliationService.reconcile();
+		if (report.getUntrackedFiles() > 0) {
+			log.warn("⚠️ [Task 3] Untracked files found: {} (e.g. {})", report, report.getSamples());
+		} else {
+			log.info("✨ [Task 3] File reconciliation finished. {}", report);
+		}
+	}
 
-			} catch (Exception e) {
-				// 진짜 DB 에러나 예상치 못한 예외만 Error 레벨로 기록
-				log.error("❌ Error purging attachment ID {}: {}", attachment.getId(), e.getMessage());
-			}
+	/**
+	 * [Task 4] 본문 세그먼트 압축 (기본 매일 새벽 5시)
+	 * - 무효 레코드 비율이 petclinic.file.html-storage.segment.compaction-min-garbage 이상인 봉인 세그먼트
+	 * - 유효 레코드를 활성 세그먼트로 옮긴 뒤 세그먼트 파일 삭제 (키는 그대로, DB 변경 없음)
+	 */
+	@Scheduled(cron = "${petclinic.file.html-storage.segment.compaction-cron:0 0 5 * * *}")
+	public void compactContentSegments() {
+		CompactionReport report = segmentStore.compactAll();
+		if (report.getSegmentsCompacted() > 0) {
+			log.info("📦 [Task 4] Segment compaction finished. {}", report);
 		}
-		log.info("💀 [Task 2] Permanent purge finished. Processed {} records.", count);
 	}
 }
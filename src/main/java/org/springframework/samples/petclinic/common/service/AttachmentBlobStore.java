@@ -0,0 +1,130 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Project : spring-petclinic
+ * File    : AttachmentBlobStore.java
+ * Created : 2026-03-04
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   첨부파일 내용 기반(content-addressed) blob 저장소
+ *   - blob 경로: {base}/blobs/{sha256 앞 2자}/{다음 2자}/{sha256}
+ *   - 첨부파일별 경로({domain}/uploads/yyyy/MM/uuid.ext)는 blob에 대한 하드 링크로 생성
+ *
+ * Purpose (만든 이유):
+ *   1. 같은 예방접종 증명서/검사 PDF가 게시판마다 재업로드되어 동일 파일이 여러 벌 저장됨
+ *   2. 동일 SHA-256 업로드는 물리 파일 하나(같은 inode)를 공유하여 디스크/백업 용량 절감
+ *   3. 기존 상대 경로(storedFilename), /images/** 에디터 URL, 다운로드 경로는 그대로 유지
+ *
+ * Reference Count (참조 수):
+ *   - attachment.content_hash가 같은 행 수(Soft Delete 포함)가 곧 blob 참조 수
+ *   - 별도 카운터 컬럼을 두지 않으므로 업로드/삭제 경로에서 카운터가 어긋날 일이 없음
+ *   - AttachmentCleanupService.purgeDeleted가 마지막 참조 행 삭제 시 release() 호출
+ *
+ * Note:
+ *   - blob 해제는 blob 경로만 unlink하므로, 해시 없이 연결된 다른 첨부의 하드 링크가 남아 있으면 데이터는 보존됨
+ *   - 하드 링크 미지원 파일시스템은 복사로 대체 (중복 제거 없이 기존 동작과 동일)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class AttachmentBlobStore {
+
+	private static final Logger log = LoggerFactory.getLogger(AttachmentBlobStore.class);
+
+	private static final String BLOB_DIR_NAME = "blobs";
+
+	private final Path blobRoot;
+
+	public AttachmentBlobStore(@Value("${petclinic.file.base-dir}") String baseDirPath) {
+		this.blobRoot = Paths.get(baseDirPath).resolve(BLOB_DIR_NAME);
+	}
+
+	/**
+	 * 임시 파일을 blob으로 반영하고 첨부파일 경로에 연결
+	 *
+	 * <p>같은 해시의 blob이 이미 있으면 임시 파일을 버리고 기존 blob에 링크만 추가합니다.
+	 * 없으면 임시 파일을 blob 위치로 원자적 이동한 뒤 링크합니다.</p>
+	 *
+	 * @param tempFile 업로드가 완료된 임시 파일 (호출 후 존재하지 않음)
+	 * @param sha256 파일 내용 SHA-256 (소문자 hex)
+	 * @param destination 첨부파일 경로 (base-dir 기준 {domain}/uploads/yyyy/MM/uuid.ext의 절대 경로)
+	 * @return true: 기존 blob 재사용(중복 제거), false: 새 blob 생성
+	 * @throws IOException blob 기록 또는 링크 생성 실패 시
+	 */
+	public boolean commit(Path tempFile, String sha256, Path destination) throws IOException {
+		Path blob = blobPath(sha256);
+		Files.createDirectories(blob.getParent());
+
+		boolean reused = Files.exists(blob);
+		if (!reused) {
+			Files.move(tempFile, blob, StandardCopyOption.ATOMIC_MOVE);
+		}
+
+		try {
+			link(blob, destination);
+		} catch (NoSuchFileException e) {
+			// 기존 blob을 확인한 직후 마지막 참조가 영구 삭제되어 blob이 해제된 경우: 임시 파일로 blob 재생성
+			if (!Files.exists(tempFile)) {
+				throw e;
+			}
+			log.info("Blob released concurrently, re-creating: sha256={}", sha256);
+			Files.move(tempFile, blob, StandardCopyOption.ATOMIC_MOVE);
+			link(blob, destination);
+			reused = false;
+		}
+
+		Files.deleteIfExists(tempFile);
+		return reused;
+	}
+
+	/**
+	 * blob 해제 (마지막 참조가 영구 삭제된 경우에만 호출)
+	 * @param sha256 파일 내용 SHA-256
+	 * @return true: blob 삭제됨, false: blob이 이미 없음
+	 */
+	public boolean release(String sha256) {
+		if (sha256 == null || sha256.isBlank()) {
+			return false;
+		}
+		try {
+			return Files.deleteIfExists(blobPath(sha256));
+		} catch (IOException e) {
+			log.error("Failed to release blob: sha256={}", sha256, e);
+			return false;
+		}
+	}
+
+	private void link(Path blob, Path destination) throws IOException {
+		try {
+			Files.createLink(destination, blob);
+		} catch (NoSuchFileException e) {
+			throw e;
+		} catch (UnsupportedOperationException | FileSystemException e) {
+			// 하드 링크 미지원(FAT, 다른 볼륨 등): 복사로 대체
+			log.debug("Hard link not available, copying blob: {}", e.getMessage());
+			Files.copy(blob, destination);
+		}
+	}
+
+	private Path blobPath(String sha256) {
+		if (sha256 == null || !sha256.matches("^[0-9a-f]{64}$")) {
+			throw new IllegalArgumentException("Invalid SHA-256: " + sha256);
+		}
+		return blobRoot.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+	}
+}
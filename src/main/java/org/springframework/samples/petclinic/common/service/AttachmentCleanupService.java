@@ -0,0 +1,404 @@
+package org.springframework.samples.petclinic.common.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository.CleanupRow;
+import org.springframework.samples.petclinic.common.repository.AttachmentContentRefRepository;
+import org.springframework.samples.petclinic.common.repository.AttachmentVariantRepository;
+import org.springframework.samples.petclinic.counsel.service.FileStorageService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Project : spring-petclinic
+ * File    : AttachmentCleanupService.java
+ * Created : 2026-03-09
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   첨부파일 청소 작업(고아 파일 Soft Delete, 오래된 삭제 파일 영구 삭제)의 청크 단위 실행 엔진
+ *   - attachment.id 기준 keyset 분할 조회 (id > 마지막 id ORDER BY id LIMIT n, OFFSET 없음)
+ *   - 게시글/댓글 연결 여부는 NOT EXISTS 안티 조인으로 판정
+ *   - 청크마다 짧은 트랜잭션 1회: 일괄 UPDATE(Soft Delete) 또는 일괄 DELETE(영구 삭제)
+ *   - 커밋 후 물리 파일 삭제는 고정 크기 스레드 풀에서 병렬 처리, 청크 단위로 완료 대기
+ *   - 진행 상황은 청크마다 로그 + Micrometer 지표(petclinic.file.cleanup.*)로 노출
+ *
+ * Purpose (만든 이유):
+ *   1. 기존 스케줄러는 대상 전체를 한 번에 읽고 한 트랜잭션 안에서 파일을 하나씩 지움
+ *      → 업로드 후 저장하지 않은 파일이 수만 건 쌓이면 새벽 작업 동안 attachment 행 잠금과 메모리 사용이 계속 늘어남
+ *   2. NOT IN (서브쿼리)는 연결 테이블 전체를 훑는 실행 계획이 나오기 쉬움
+ *
+ * Consistency (정합성):
+ *   - DB 반영(커밋)이 먼저, 물리 삭제는 그 다음 → 살아있는 행이 가리키는 파일은 지우지 않음
+ *   - 커밋 후 물리 삭제 전에 중단되면 파일만 남음 (다음 영구 삭제 작업 또는 파일 점검에서 정리)
+ *   - 청크 하나가 실패해도 로그만 남기고 다음 청크로 진행 (실패 청크는 다음 실행에서 다시 대상이 됨)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class AttachmentCleanupService {
+
+	private static final Logger log = LoggerFactory.getLogger(AttachmentCleanupService.class);
+
+	/** 고아 파일 Soft Delete 시 deleted_by 기록값 */
+	public static final String ORPHAN_CLEANER = "SYSTEM_ORPHAN_CLEANER_SCHEDULER";
+
+	public static final String TASK_ORPHAN = "orphan";
+	public static final String TASK_PURGE = "purge";
+
+	private static final int CHUNK_TX_TIMEOUT_SECONDS = 30;
+
+	private final AttachmentRepository attachmentRepository;
+	private final AttachmentVariantRepository variantRepository;
+	private final AttachmentContentRefRepository contentRefRepository;
+	private final FileStorageService fileStorageService;
+	private final AttachmentBlobStore blobStore;
+	private final TransactionTemplate transactionTemplate;
+	private final MeterRegistry meterRegistry;
+	private final int chunkSize;
+	private final int deleteParallelism;
+
+	public AttachmentCleanupService(AttachmentRepository attachmentRepository,
+									AttachmentVariantRepository variantRepository,
+									AttachmentContentRefRepository contentRefRepository,
+									FileStorageService fileStorageService,
+									AttachmentBlobStore blobStore,
+									PlatformTransactionManager transactionManager,
+									MeterRegistry meterRegistry,
+									@Value("${petclinic.file.cleanup.chunk-size:500}") int chunkSize,
+									@Value("${petclinic.file.cleanup.delete-parallelism:4}") int deleteParallelism) {
+		this.attachmentRepository = attachmentRepository;
+		this.variantRepository = variantRepository;
+		this.contentRefRepository = contentRefRepository;
+		this.fileStorageService = fileStorageService;
+		this.blobStore = blobStore;
+		this.meterRegistry = meterRegistry;
+		this.chunkSize = Math.max(1, chunkSize);
+		this.deleteParallelism = Math.max(1, deleteParallelism);
+
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setTimeout(CHUNK_TX_TIMEOUT_SECONDS);
+	}
+
+	/**
+	 * 고아 파일 청소: 게시글/댓글에 연결되지 않은 채 cutoffDate 이전에 업로드된 파일
+	 * - 청크마다 일괄 Soft Delete 커밋 → 해당 파일 병렬 물리 삭제
+	 * @param cutoffDate 이 시각 이전 업로드분만 대상 (작성 중인 글의 업로드 보호)
+	 * @return 실행 결과 집계
+	 */
+	public CleanupProgress cleanupOrphans(LocalDateTime cutoffDate) {
+		CleanupProgress progress = new CleanupProgress(TASK_ORPHAN);
+		ExecutorService executor = newDeleteExecutor(TASK_ORPHAN);
+		try {
+			long afterId = 0;
+			List<CleanupRow> chunk;
+			do {
+				chunk = attachmentRepository.findOrphanChunk(afterId, cutoffDate, chunkSize);
+				if (chunk.isEmpty()) {
+					break;
+				}
+				afterId = chunk.get(chunk.size() - 1).getId();
+
+				long started = System.nanoTime();
+				List<CleanupRow> softDeleted;
+				try {
+					List<CleanupRow> rows = chunk;
+					softDeleted = transactionTemplate.execute(status -> softDeleteChunk(rows));
+				} catch (DataAccessException e) {
+					log.error("Orphan cleanup chunk failed, skipped until next run: ids<={}", afterId, e);
+					progress.chunkFailed(chunk.size());
+					count(TASK_ORPHAN, "rows", "failed", chunk.size());
+					continue;
+				}
+
+				List<String> paths = softDeleted.stream().map(CleanupRow::getStoredFilename).toList();
+				deleteFiles(executor, paths, progress);
+
+				progress.chunkDone(chunk.size(), softDeleted.size());
+				count(TASK_ORPHAN, "rows", "processed", softDeleted.size());
+				recordChunk(progress, afterId, started);
+			} while (chunk.size() == chunkSize);
+		} finally {
+			executor.shutdown();
+		}
+		return progress;
+	}
+
+	/**
+	 * 영구 삭제: Soft Delete 후 cutoffDate가 지난 파일
+	 * - 청크마다 파생본 행 + 첨부 행 일괄 DELETE 커밋 → 원본/파생본 파일 병렬 삭제 → 마지막 참조였던 blob 해제
+	 * @param cutoffDate 이 시각 이전에 Soft Delete된 행만 대상
+	 * @return 실행 결과 집계
+	 */
+	public CleanupProgress purgeDeleted(LocalDateTime cutoffDate) {
+		CleanupProgress progress = new CleanupProgress(TASK_PURGE);
+		ExecutorService executor = newDeleteExecutor(TASK_PURGE);
+		try {
+			long afterId = 0;
+			List<CleanupRow> chunk;
+			do {
+				chunk = attachmentRepository.findPurgeChunk(afterId, cutoffDate, chunkSize);
+				if (chunk.isEmpty()) {
+					break;
+				}
+				afterId = chunk.get(chunk.size() - 1).getId();
+
+				long started = System.nanoTime();
+				PurgedChunk purged;
+				try {
+					List<CleanupRow> rows = chunk;
+					purged = transactionTemplate.execute(status -> purgeChunk(rows));
+				} catch (DataAccessException e) {
+					log.error("Purge chunk failed, skipped until next run: ids<={}", afterId, e);
+					progress.chunkFailed(chunk.size());
+					count(TASK_PURGE, "rows", "failed", chunk.size());
+					continue;
+				}
+
+				List<String> paths = new ArrayList<>(chunk.size() + purged.variantPaths.size());
+				chunk.forEach(row -> paths.add(row.getStoredFilename()));
+				paths.addAll(purged.variantPaths);
+				deleteFiles(executor, paths, progress);
+
+				for (String contentHash : purged.unreferencedHashes) {
+					if (blobStore.release(contentHash)) {
+						progress.blobsReleased++;
+					}
+				}
+
+				progress.chunkDone(chunk.size(), purged.rowsDeleted);
+				count(TASK_PURGE, "rows", "processed", purged.rowsDeleted);
+				recordChunk(progress, afterId, started);
+			} while (chunk.size() == chunkSize);
+		} finally {
+			executor.shutdown();
+		}
+		return progress;
+	}
+
+	// ==================== 청크 트랜잭션 ====================
+
+	/**
+	 * 청크 일괄 Soft Delete 후 실제로 갱신된 행 반환
+	 * - 조회 이후 게시글에 연결된 행은 UPDATE 조건(NOT EXISTS)에서 빠지므로 물리 삭제 대상에서도 제외
+	 */
+	private List<CleanupRow> softDeleteChunk(List<CleanupRow> chunk) {
+		List<Long> ids = chunk.stream().map(CleanupRow::getId).toList();
+		// deleted_at은 2-2 조회의 일치 비교에 쓰이므로 DB 정밀도 차이가 없도록 초 단위로 절삭
+		LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+		int updated = attachmentRepository.softDeleteOrphans(ids, deletedAt, ORPHAN_CLEANER);
+		if (updated == ids.size()) {
+			return chunk;
+		}
+		Set<Long> confirmed = new HashSet<>(attachmentRepository.findSoftDeletedIds(ids, deletedAt, ORPHAN_CLEANER));
+		return chunk.stream().filter(row -> confirmed.contains(row.getId())).toList();
+	}
+
+	/**
+	 * 청크 일괄 영구 삭제 (파생본/본문 참조 행 → 첨부 행 순서, FK) + 더 이상 참조되지 않는 blob 해시 계산
+	 */
+	private PurgedChunk purgeChunk(List<CleanupRow> chunk) {
+		List<Long> ids = chunk.stream().map(CleanupRow::getId).toList();
+
+		List<String> variantPaths = variantRepository.findStoredPathsByAttachmentIds(ids);
+		if (!variantPaths.isEmpty()) {
+			variantRepository.deleteByAttachmentIds(ids);
+		}
+		contentRefRepository.deleteByAttachmentIds(ids);
+		int rowsDeleted = attachmentRepository.hardDeleteByIds(ids);
+
+		Set<String> hashes = new HashSet<>();
+		chunk.stream().map(CleanupRow::getContentHash).filter(Objects::nonNull).forEach(hashes::add);
+		if (!hashes.isEmpty()) {
+			hashes.removeAll(attachmentRepository.findReferencedHashes(hashes));
+		}
+		return new PurgedChunk(rowsDeleted, variantPaths, hashes);
+	}
+
+	// ==================== 물리 삭제 ====================
+
+	/**
+	 * 파일 병렬 삭제 후 청크 전체 완료까지 대기 (대기열 크기 = 청크 크기로 제한됨)
+	 */
+	private void deleteFiles(ExecutorService executor, List<String> paths, CleanupProgress progress) {
+		List<Future<Boolean>> futures = new ArrayList<>(paths.size());
+		for (String path : paths) {
+			futures.add(executor.submit(() -> fileStorageService.deleteFile(path)));
+		}
+		for (Future<Boolean> future : futures) {
+			String result;
+			try {
+				if (future.get()) {
+					progress.filesDeleted++;
+					result = "deleted";
+				} else {
+					// 이미 없거나 삭제 실패 (실패는 FileStorageService가 로그로 남김)
+					progress.filesMissing++;
+					result = "missing";
+				}
+			} catch (ExecutionException e) {
+				log.error("Failed to delete file during cleanup", e.getCause());
+				progress.filesFailed++;
+				result = "failed";
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				futures.forEach(f -> f.cancel(true));
+				throw new IllegalStateException("Cleanup interrupted", e);
+			}
+			count(progress.task, "files", result, 1);
+		}
+	}
+
+	private ExecutorService newDeleteExecutor(String task) {
+		AtomicInteger sequence = new AtomicInteger();
+		return Executors.newFixedThreadPool(deleteParallelism, runnable -> {
+			Thread thread = new Thread(runnable, "file-cleanup-" + task + "-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// ==================== 진행 지표 ====================
+
+	private void recordChunk(CleanupProgress progress, long lastId, long startedNanos) {
+		Timer.builder("petclinic.file.cleanup.chunk")
+			.description("Duration of one cleanup chunk (DB transaction + file deletes)")
+			.tag("task", progress.task)
+			.register(meterRegistry)
+			.record(Duration.ofNanos(System.nanoTime() - startedNanos));
+
+		log.info("[cleanup:{}] chunk {} done: lastId={}, scanned={}, processed={}, files deleted={}, missing={}, failed={}, elapsed={}ms",
+			progress.task, progress.chunks, lastId, progress.scanned, progress.rowsProcessed,
+			progress.filesDeleted, progress.filesMissing, progress.filesFailed, progress.getElapsedMillis());
+	}
+
+	private void count(String task, String unit, String result, long amount) {
+		if (amount <= 0) {
+			return;
+		}
+		Counter.builder("petclinic.file.cleanup." + unit)
+			.tag("task", task)
+			.tag("result", result)
+			.register(meterRegistry)
+			.increment(amount);
+	}
+
+	/**
+	 * 청크 트랜잭션 결과 (커밋 후 처리할 파일/blob 목록)
+	 */
+	private static final class PurgedChunk {
+		private final int rowsDeleted;
+		private final List<String> variantPaths;
+		private final Set<String> unreferencedHashes;
+
+		private PurgedChunk(int rowsDeleted, List<String> variantPaths, Set<String> unreferencedHashes) {
+			this.rowsDeleted = rowsDeleted;
+			this.variantPaths = variantPaths;
+			this.unreferencedHashes = unreferencedHashes;
+		}
+	}
+
+	/**
+	 * 청소 작업 1회 실행 결과 집계
+	 */
+	public static class CleanupProgress {
+
+		private final String task;
+		private final long startedNanos = System.nanoTime();
+		private int chunks;
+		private int failedChunks;
+		private long scanned;
+		private long rowsProcessed;
+		private long filesDeleted;
+		private long filesMissing;
+		private long filesFailed;
+		private long blobsReleased;
+
+		CleanupProgress(String task) {
+			this.task = task;
+		}
+
+		void chunkDone(int scannedRows, int processedRows) {
+			chunks++;
+			scanned += scannedRows;
+			rowsProcessed += processedRows;
+		}
+
+		void chunkFailed(int scannedRows) {
+			chunks++;
+			failedChunks++;
+			scanned += scannedRows;
+		}
+
+		public String getTask() {
+			return task;
+		}
+
+		public int getChunks() {
+			return chunks;
+		}
+
+		public int getFailedChunks() {
+			return failedChunks;
+		}
+
+		public long getScanned() {
+			return scanned;
+		}
+
+		public long getRowsProcessed() {
+			return rowsProcessed;
+		}
+
+		public long getFilesDeleted() {
+			return filesDeleted;
+		}
+
+		public long getFilesMissing() {
+			return filesMissing;
+		}
+
+		public long getFilesFailed() {
+			return filesFailed;
+		}
+
+		public long getBlobsReleased() {
+			return blobsReleased;
+		}
+
+		public long getElapsedMillis() {
+			return Duration.ofNanos(System.nanoTime() - startedNanos).toMillis();
+		}
+
+		@Override
+		public String toString() {
+			return "chunks=" + chunks + " (failed " + failedChunks + "), scanned=" + scanned
+				+ ", processed=" + rowsProcessed + ", files deleted=" + filesDeleted
+				+ ", missing=" + filesMissing + ", failed=" + filesFailed
+				+ ", blobs released=" + blobsReleased + ", elapsed=" + getElapsedMillis() + "ms";
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.samples.petclinic.common.dto.AttachmentOwner;
+import org.springframework.samples.petclinic.common.table.Attachment;
+import org.springframework.samples.petclinic.community.table.CommunityPost;
+import org.springframework.samples.petclinic.community.table.CommunityPostAttachment;
+import org.springframework.samples.petclinic.counsel.table.CounselPost;
+import org.springframework.samples.petclinic.counsel.table.CounselPostAttachment;
+import org.springframework.samples.petclinic.photo.table.PhotoPost;
+import org.springframework.samples.petclinic.photo.table.PhotoPostAttachment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Project : spring-petclinic
+ * File    : AttachmentLinkListener.java
+ * Created : 2026-03-02
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글-첨부파일 연결 변경 감지 JPA EntityListener
+ *   - 중간 테이블 INSERT/DELETE, 게시글 (Soft) Delete 시 AttachmentOwnershipResolver 캐시 무효화
+ *   - 서비스 코드의 연결/해제 경로(cascade, orphanRemoval 포함)를 빠짐없이 감지하기 위해 엔티티 콜백 사용
+ *
+ * Note:
+ *   - Spring Boot가 Hibernate BeanContainer를 스프링 컨테이너로 설정하므로 생성자 주입 가능
+ *   - 리스너는 EntityManagerFactory 생성 중에 만들어지므로, Repository에 의존하는 Resolver는
+ *     ObjectProvider로 지연 조회 (순환 참조 방지)
+ *   - 게시글 삭제 시 첨부 컬렉션(LAZY)을 로딩하지 않고 게시글 ID 기준으로 무효화
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class AttachmentLinkListener {
+
+	private final ObjectProvider<AttachmentOwnershipResolver> ownershipResolver;
+
+	public AttachmentLinkListener(ObjectProvider<AttachmentOwnershipResolver> ownershipResolver) {
+		this.ownershipResolver = ownershipResolver;
+	}
+
+	/**
+	 * 중간 테이블 연결/해제 시 해당 첨부파일 캐시 무효화
+	 */
+	@PostPersist
+	@PostRemove
+	public void onLinkChanged(Object entity) {
+		AttachmentOwnershipResolver resolver = ownershipResolver.getIfAvailable();
+		if (resolver == null) {
+			return;
+		}
+
+		if (entity instanceof CounselPostAttachment link) {
+			evict(resolver, link.getAttachment());
+		} else if (entity instanceof CommunityPostAttachment link) {
+			evict(resolver, link.getAttachment());
+		} else if (entity instanceof PhotoPostAttachment link) {
+			evict(resolver, link.getAttachment());
+		} else if (entity instanceof CounselPost post) {
+			resolver.evictPost(AttachmentOwner.DOMAIN_COUNSEL, post.getId());
+		} else if (entity instanceof CommunityPost post) {
+			resolver.evictPost(AttachmentOwner.DOMAIN_COMMUNITY, post.getId());
+		} else if (entity instanceof PhotoPost post) {
+			resolver.evictPost(AttachmentOwner.DOMAIN_PHOTO, post.getId());
+		}
+	}
+
+	private void evict(AttachmentOwnershipResolver resolver, Attachment attachment) {
+		if (attachment != null) {
+			resolver.evict(attachment.getId());
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package org.springframework.samples.petclinic.common.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.samples.petclinic.common.dto.AttachmentOwner;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository.AttachmentOwnerRow;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Project : spring-petclinic
+ * File    : AttachmentOwnershipResolver.java
+ * Created : 2026-03-02
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   첨부파일 → 소유 게시글(도메인, 게시글 ID, 비공개 여부) 조회 컴포넌트
+ *
+ * Purpose (만든 이유):
+ *   1. 기존 다운로드 권한 검증은 게시판 전체를 findAll()로 읽어 첨부 목록을 메모리에서 순회함
+ *      → 다운로드 1건이 게시글 전체 + 첨부파일 전체 로딩 비용을 유발
+ *   2. 중간 테이블(counsel_post_attachments, community_post_attachment, photo_post_attachment)을
+ *      attachment_id 인덱스로 한 번에 조인하여 소유 게시글만 조회
+ *   3. 조회 결과는 크기 제한이 있는 캐시에 보관하여 반복 다운로드 시 DB 조회 생략
+ *
+ * Cache Policy (캐시 정책):
+ *   - 최대 MAX_ENTRIES 건, 작성 후 CACHE_TTL 경과 시 만료
+ *   - 소유 게시글이 없는 결과(Optional.empty)도 캐시 (존재하지 않는 파일 반복 요청 방어)
+ *   - 첨부 연결/해제, 게시글 삭제 시 AttachmentLinkListener가 evict 호출
+ *   - 트랜잭션 중 evict 요청은 즉시 1회 + 커밋 후 1회 수행 (커밋 전 재적재된 오래된 값 제거)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class AttachmentOwnershipResolver {
+
+	private static final Logger log = LoggerFactory.getLogger(AttachmentOwnershipResolver.class);
+
+	private static final long MAX_ENTRIES = 10_000;
+	private static final Duration CACHE_TTL = Duration.ofMinutes(30);
+
+	private final AttachmentRepository attachmentRepository;
+
+	private final Cache<Long, Optional<AttachmentOwner>> ownerCache = Caffeine.newBuilder()
+		.maximumSize(MAX_ENTRIES)
+		.expireAfterWrite(CACHE_TTL)
+		.build();
+
+	public AttachmentOwnershipResolver(AttachmentRepository attachmentRepository) {
+		this.attachmentRepository = attachmentRepository;
+	}
+
+	/**
+	 * 첨부파일의 소유 게시글 조회 (캐시 우선)
+	 * @param attachmentId 첨부파일 ID
+	 * @return 소유 게시글 정보 (삭제된 첨부/게시글이거나 연결되지 않은 경우 empty)
+	 */
+	public Optional<AttachmentOwner> resolve(Long attachmentId) {
+		if (attachmentId == null) {
+			return Optional.empty();
+		}
+		return ownerCache.get(attachmentId, this::loadOwner);
+	}
+
+	/**
+	 * 단일 첨부파일 캐시 무효화 (첨부 연결/해제 시)
+	 */
+	public void evict(Long attachmentId) {
+		if (attachmentId == null) {
+			return;
+		}
+		ownerCache.invalidate(attachmentId);
+		afterCommit(() -> ownerCache.invalidate(attachmentId));
+	}
+
+	/**
+	 * 특정 게시글이 소유한 첨부파일 캐시 일괄 무효화 (게시글 삭제 시)
+	 * - 게시글의 첨부 컬렉션을 로딩하지 않도록 캐시 값 기준으로 제거
+	 */
+	public void evictPost(String domain, Long postId) {
+		if (domain == null || postId == null) {
+			return;
+		}
+		Runnable removal = () -> ownerCache.asMap().values().removeIf(owner -> owner.isPresent()
+			&& domain.equals(owner.get().getDomain())
+			&& postId.equals(owner.get().getPostId()));
+		removal.run();
+		afterCommit(removal);
+	}
+
+	private Optional<AttachmentOwner> loadOwner(Long attachmentId) {
+		List<AttachmentOwnerRow> rows = attachmentRepository.findOwnerRows(attachmentId);
+
+		// 한 첨부파일은 한 게시글에만 연결되는 것이 정상이나, 중복 연결 시 온라인상담 → 공지 → 포토 순으로 우선
+		for (AttachmentOwnerRow row : rows) {
+			if (row.getCounselPostId() != null) {
+				boolean secret = Boolean.TRUE.equals(row.getCounselSecret());
+				return Optional.of(new AttachmentOwner(AttachmentOwner.DOMAIN_COUNSEL, row.getCounselPostId(), secret));
+			}
+		}
+		for (AttachmentOwnerRow row : rows) {
+			if (row.getCommunityPostId() != null) {
+				return Optional.of(new AttachmentOwner(AttachmentOwner.DOMAIN_COMMUNITY, row.getCommunityPostId(), false));
+			}
+		}
+		for (AttachmentOwnerRow row : rows) {
+			if (row.getPhotoPostId() != null) {
+				return Optional.of(new AttachmentOwner(AttachmentOwner.DOMAIN_PHOTO, row.getPhotoPostId(), false));
+			}
+		}
+
+		log.debug("No owner post found for attachment: id={}", attachmentId);
+		return Optional.empty();
+	}
+
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
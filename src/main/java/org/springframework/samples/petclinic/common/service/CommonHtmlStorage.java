@@ -1,127 +1,258 @@
 package org.springframework.samples.petclinic.common.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.apache.tika.Tika;
-import org.jsoup.Jsoup;
-import org.jsoup.safety.Safelist;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.common.dto.IngestedHtml;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * [공통 컴포넌트] HTML 본문 저장소
- * - 역할: XSS 방어(Jsoup) + 파일 저장(File I/O)
- * - 특징: 도메인(counsel, photo, notice)을 인자로 받아 경로를 동적으로 분기함.
+ * - 역할: XSS 방어(HtmlIngestPipeline, 1회 파싱) + 본문 바이트 저장(ContentStore 위임)
+ * - 인라인 이미지: 본문의 base64 data: 이미지를 첨부파일로 추출해 /images/... URL로 교체 (InlineImageService),
+ *   본문이 참조하는 이미지는 attachment_content_ref에 기록 (고아 청소 제외)
+ * - 특징: 도메인(counsel, photo, notice)을 인자로 받아 저장소/경로를 동적으로 분기함.
+ * - 저장소: petclinic.file.html-storage.backends ("counsel:segment,photo:db", 지정 없는 도메인은 file)
+ *   · file: 본문 1건 = 파일 1개 (FileContentStore) / segment: 추가 전용 세그먼트 (SegmentContentStore)
+ *   · db: content_blob 테이블 BLOB (DatabaseContentStore)
+ *   · 반환값은 저장소가 발급한 불투명 키 ("file:counsel/content/2026/03/uuid.html" 등) → 게시글 컬럼에 그대로 저장
+ *   · 조회/삭제는 키를 가진 저장소로 분기 (쓰기 저장소를 바꿔도 기존 키는 계속 조회, 예전 절대 경로는 file 저장소가 처리)
+ *   · 저장소 간 이동은 ContentMigrationService
+ * - 트랜잭션 연동: 저장은 롤백 시 취소, 삭제는 커밋 후 반영 (저장소별 구현, ContentStore 계약)
+ * - 본문 캐시: 저장마다 새 키가 발급되므로 같은 키의 내용은 바뀌지 않음 → 키로 캐시
+ *   (본문 크기 가중치, 전체 상한 petclinic.file.html-cache.max-size, 지표 cache.* {cache=htmlBodies})
+ * - 압축 저장: petclinic.file.html-storage.compression=gzip 이면 gzip 바이트로 저장 (file 저장소는 .html.gz)
+ *   (조회는 설정과 무관하게 gzip 헤더로 판별해 자동 해제 → 평문/압축 본문 혼재 가능, 캐시는 해제된 본문 보관)
  */
 @Component
 public class CommonHtmlStorage {
 
 	private static final Logger log = LoggerFactory.getLogger(CommonHtmlStorage.class);
 
-	// [설정] 최상위 루트 경로 (counsel, photo 등의 상위 폴더)
-	// 실제 운영 시에는 application.yml에서 @Value로 주입받는 것이 좋습니다.
-	@Value("${petclinic.file.base-dir}")
-	private String rootBase;
-
 	private static final Set<String> ALLOWED_MIME = Set.of("text/html", "application/xhtml+xml");
 	private static final Tika TIKA = new Tika();
 
+	private static final String CACHE_NAME = "htmlBodies";
+
+	private static final String HTML_EXT = ".html";
+	private static final String COMPRESSION_NONE = "none";
+	private static final String COMPRESSION_GZIP = "gzip";
+
+	private final HtmlIngestPipeline ingestPipeline;
+	private final InlineImageService inlineImageService;
+	private final List<ContentStore> stores;
+	private final ContentStore defaultStore;
+	private final Map<String, ContentStore> domainStores;
+	private final Cache<String, String> bodyCache;
+	private final boolean gzipEnabled;
+
+	public CommonHtmlStorage(HtmlIngestPipeline ingestPipeline,
+							 InlineImageService inlineImageService,
+							 List<ContentStore> stores,
+							 MeterRegistry meterRegistry,
+							 @Value("${petclinic.file.html-cache.max-size:64MB}") DataSize cacheMaxSize,
+							 @Value("${petclinic.file.html-storage.compression:none}") String compression,
+							 @Value("${petclinic.file.html-storage.backends:}") String backends) {
+		this.ingestPipeline = ingestPipeline;
+		this.inlineImageService = inlineImageService;
+		this.stores = List.copyOf(stores);
+		if (!COMPRESSION_NONE.equalsIgnoreCase(compression) && !COMPRESSION_GZIP.equalsIgnoreCase(compression)) {
+			throw new IllegalArgumentException("Unsupported html-storage compression: " + compression + " (none|gzip)");
+		}
+		this.gzipEnabled = COMPRESSION_GZIP.equalsIgnoreCase(compression);
+		this.defaultStore = storeNamed(FileContentStore.NAME);
+		this.domainStores = parseBackends(backends);
+		if (!domainStores.isEmpty()) {
+			log.info("Content store backends: {} (others: {})", domainStores.entrySet().stream()
+				.map(entry -> entry.getKey() + "=" + entry.getValue().getName()).toList(), defaultStore.getName());
+		}
+		this.bodyCache = Caffeine.newBuilder()
+			.maximumWeight(cacheMaxSize.toBytes())
+			.weigher((String key, String html) -> html.length() * 2) // UTF-16 기준 상한 (한글 본문이 대부분)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, bodyCache, CACHE_NAME);
+	}
+
 	/**
 	 * HTML 저장 (통합 메서드)
 	 * @param rawHtml 원본 HTML
 	 * @param domain 도메인명 (예: "counsel", "photo", "notice")
-	 * @return 저장된 파일의 절대 경로
+	 * @return 저장소 키 (게시글 content/content_path 컬럼에 저장)
 	 */
 	public String saveHtml(String rawHtml, String domain) throws IOException {
 		log.info("📝 [HTML Save] Domain: {}, Length: {}", domain, rawHtml == null ? 0 : rawHtml.length());
+		return saveHtml(ingest(rawHtml, domain), domain);
+	}
 
-		// 1. 보안 정책 적용 (중앙 집중 관리)
-		Safelist safelist = Safelist.relaxed()
-			.addTags("img")
-			.addAttributes(":all", "style", "class", "width", "height")
-			.addAttributes("img", "src", "alt", "title", "data-filename")
-			.preserveRelativeLinks(true)
-			.removeProtocols("img", "src", "http", "https"); // 프로토콜 제약 해제
-
-		// 2. 정제 (Sanitize)
-		String sanitized = Jsoup.clean(rawHtml == null ? "" : rawHtml, safelist);
-
-		// 2-1. [2차 보안] 자바스크립트 프로토콜 명시적 차단
-		if (sanitized.contains("src=\"javascript:") || sanitized.contains("src='javascript:")) {
+	/**
+	 * 본문 수집: 정제 + 2차 보안 검사 + 인라인 이미지 추출 + 부가 정보 (원본 1회 파싱)
+	 * @param rawHtml 원본 HTML
+	 * @param domain 도메인명 (보안 로그용)
+	 * @return 저장/썸네일/검색에 공통으로 쓰는 결과
+	 */
+	public IngestedHtml ingest(String rawHtml, String domain) {
+		try {
+			return ingestPipeline.ingest(rawHtml, inlineImageService.handlerFor(domain));
+		} catch (SecurityException e) {
 			log.warn("🚨 [Security] XSS attempt detected in domain: {}", domain);
-			throw new SecurityException("XSS attempt detected");
+			throw e;
+		}
+	}
+
+	/**
+	 * 이미 수집(ingest)된 본문 저장 (썸네일 등 부가 정보가 필요한 호출부가 재파싱 없이 사용)
+	 * @param ingested ingest 결과 (정제 + 2차 보안 검사 완료)
+	 * @param domain 도메인명 (예: "counsel", "photo", "notice")
+	 * @return 저장소 키 (게시글 content/content_path 컬럼에 저장)
+	 */
+	public String saveHtml(IngestedHtml ingested, String domain) throws IOException {
+		// 1. MIME 검증 (저장 전 메모리의 바이트로 검사 → 실패 시 아무것도 남기지 않음)
+		byte[] bytes = ingested.getBytes();
+		String mime = TIKA.detect(bytes, "body" + HTML_EXT);
+		if (!ALLOWED_MIME.contains(mime)) {
+			throw new IOException("Invalid mime type: " + mime);
 		}
 
-		// 3. 저장 경로 동적 생성
-		// 예: ROOT_BASE + "/counsel" + "/content"
-		Path domainPath = Paths.get(rootBase, domain, "content");
-		LocalDate today = LocalDate.now();
-		String yyyy = String.format("%04d", today.getYear());
-		String mm = String.format("%02d", today.getMonthValue());
+		// 2. 도메인 저장소에 기록 (롤백 시 취소)
+		String key = storeFor(domain).put(domain, gzipEnabled ? gzip(bytes) : bytes);
 
-		// 최종 디렉토리: .../data/counsel/content/2026/02
-		Path targetDir = domainPath.resolve(Paths.get(yyyy, mm)).normalize();
-		Files.createDirectories(targetDir);
+		// 3. 본문이 참조하는 업로드 이미지 기록 (같은 트랜잭션, 롤백 시 함께 취소)
+		inlineImageService.linkToContent(key, ingested.getImageUrls());
 
-		// 파일명 생성
-		String uuid = UUID.randomUUID().toString();
-		Path file = targetDir.resolve(uuid + ".html").normalize();
+		log.info("✅ [HTML Save] Success: {}", key);
+		return key;
+	}
 
-		// 4. 역참조(Path Traversal) 방어
-		// 해당 도메인 폴더 내부에 있는지 확인
-		if (!file.startsWith(domainPath.normalize())) {
+	/**
+	 * HTML 로드
+	 */
+	public String loadHtml(String key, String domain) throws IOException {
+		if (key == null || key.isBlank()) return "";
+		ContentStore store = ownerOf(key, domain);
+		if (store == null) {
+			log.warn("🚨 [Security] Invalid content key access attempt. Domain: {}, Key: {}", domain, key);
 			throw new SecurityException("Invalid path traversal attempt");
 		}
 
-		// 5. 파일 쓰기
-		Files.writeString(file, sanitized, StandardCharsets.UTF_8);
-
-		// 6. MIME 검증
-		String mime = TIKA.detect(file);
-		if (!ALLOWED_MIME.contains(mime)) {
-			Files.deleteIfExists(file);
-			throw new IOException("Invalid mime type: " + mime);
+		String cached = bodyCache.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		byte[] bytes = store.get(key, domain);
+		if (bytes == null) {
+			return "";
 		}
+		String html = decode(bytes);
+		bodyCache.put(key, html);
+		return html;
+	}
 
-		log.info("✅ [HTML Save] Success: {}", file);
-		return file.toString();
+	/**
+	 * saveHtml이 반환한 저장소 키인지 확인 (content 컬럼에 본문이 직접 들어있는 예전 행 구분용)
+	 */
+	public boolean isStoredPath(String value, String domain) {
+		return value != null && ownerOf(value, domain) != null;
 	}
 
 	/**
-	 * HTML 로드
+	 * HTML 삭제 (커밋 후 반영, 롤백 시 유지)
 	 */
-	public String loadHtml(String path, String domain) throws IOException {
-		if (path == null || path.isBlank()) return "";
+	public void deleteHtml(String key, String domain) throws IOException {
+		if (key == null || key.isBlank()) return;
+		ContentStore store = ownerOf(key, domain);
+		if (store == null) throw new SecurityException("Invalid path traversal attempt");
+		bodyCache.invalidate(key);
+		inlineImageService.unlinkContent(key);
+		store.delete(key, domain);
+	}
 
-		// 검증용 루트: .../data/{domain}/content
-		Path domainBase = Paths.get(rootBase, domain, "content").toAbsolutePath().normalize();
-		Path file = Paths.get(path).toAbsolutePath().normalize();
+	/**
+	 * 키를 발급한 저장소 (없으면 null)
+	 */
+	ContentStore ownerOf(String key, String domain) {
+		for (ContentStore store : stores) {
+			if (store.owns(key, domain)) {
+				return store;
+			}
+		}
+		return null;
+	}
 
-		// 보안 검사: 요청한 파일이 해당 도메인 폴더 안에 있는가?
-		if (!file.startsWith(domainBase)) {
-			log.warn("🚨 [Security] Invalid path access attempt. Domain: {}, Path: {}", domain, path);
-			throw new SecurityException("Invalid path traversal attempt");
+	/**
+	 * 새 본문을 쓸 도메인 저장소
+	 */
+	ContentStore storeFor(String domain) {
+		return domainStores.getOrDefault(domain, defaultStore);
+	}
+
+	/**
+	 * 이름으로 저장소 조회 (설정 오류는 기동 시 실패)
+	 */
+	ContentStore storeNamed(String name) {
+		for (ContentStore store : stores) {
+			if (store.getName().equalsIgnoreCase(name)) {
+				return store;
+			}
+		}
+		throw new IllegalArgumentException("Unknown content store: " + name + " (" +
+			stores.stream().map(ContentStore::getName).toList() + ")");
+	}
+
+	/**
+	 * "counsel:segment, photo:db" → 도메인별 저장소
+	 */
+	private Map<String, ContentStore> parseBackends(String backends) {
+		Map<String, ContentStore> result = new HashMap<>();
+		for (String entry : backends.split(",")) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			String[] pair = entry.split(":", 2);
+			if (pair.length != 2 || pair[0].isBlank()) {
+				throw new IllegalArgumentException("Invalid html-storage backends entry: " + entry + " (domain:store)");
+			}
+			result.put(pair[0].trim(), storeNamed(pair[1].trim()));
 		}
+		return Map.copyOf(result);
+	}
 
-		if (!Files.exists(file)) return "";
-		return Files.readString(file, StandardCharsets.UTF_8);
+	/**
+	 * 저장된 본문 바이트 → 문자열 (gzip 헤더 1F 8B 로 판별해 자동 해제, 확장자/저장소는 보지 않음)
+	 */
+	static String decode(byte[] bytes) throws IOException {
+		if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0x1F && (bytes[1] & 0xFF) == 0x8B) {
+			try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+				bytes = in.readAllBytes();
+			}
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
 	}
 
-	// deleteHtml도 동일한 방식으로 domain 받아서 처리...
-	public void deleteHtml(String path, String domain) throws IOException {
-		if (path == null || path.isBlank()) return;
-		Path domainBase = Paths.get(rootBase, domain, "content").toAbsolutePath().normalize();
-		Path file = Paths.get(path).toAbsolutePath().normalize();
-		if (!file.startsWith(domainBase)) throw new SecurityException("Invalid path traversal attempt");
-		if (Files.exists(file)) Files.delete(file);
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+		try (OutputStream out = new GZIPOutputStream(buffer)) {
+			out.write(bytes);
+		}
+		return buffer.toByteArray();
 	}
 }
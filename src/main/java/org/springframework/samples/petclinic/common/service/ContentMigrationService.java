@@ -0,0 +1,398 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.common.repository.AttachmentContentRefRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Project : spring-petclinic
+ * File    : ContentMigrationService.java
+ * Created : 2026-03-19
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 본문을 다른 ContentStore로 옮기는 마이그레이션 (file → db, file → segment 등)
+ *   - 대상: counsel_post.content_path, community_post.content, photo_post.content (+ 있으면 보관 테이블)
+ *   - id 기준 keyset으로 배치 조회 → 배치 안의 행을 병렬 처리 → 배치가 끝나면 체크포인트 기록
+ *   - 행 단위 짧은 트랜잭션: 원본 읽기(SHA-256) → 대상 저장 → 대상에서 다시 읽어 SHA-256 비교
+ *     → 키 컬럼 교체(기존 키 조건) → 본문 이미지 참조 키 교체 → (delete-source) 원본 커밋 후 삭제
+ *   - 체크섬 불일치/키 컬럼이 그 사이 바뀐 행(게시글 수정)은 롤백 → 대상에 쓴 본문도 취소, 원본 유지
+ *
+ * Resume (이어하기):
+ *   - 체크포인트: {base-dir}/migrations/{table}.{source}-{target}.checkpoint (처리 완료된 마지막 id, URL로 공개하지 않는 폴더)
+ *   - 중단 후 다시 실행하면 체크포인트 다음 id부터 계속, 이미 대상 저장소 키인 행은 건너뜀 (몇 번 실행해도 안전)
+ *
+ * Usage:
+ *   1. petclinic.file.html-storage.backends 로 새 본문의 저장소를 먼저 바꿈 (이동 중 새로 저장되는 본문은 처음부터 대상에 기록)
+ *   2. petclinic.file.html-storage.migration.target=db, run-on-startup=true 로 1회 기동 (결과는 로그)
+ *   3. 결과 확인 후 delete-source=true 로 다시 실행하면 남은 원본 정리 (이미 옮긴 행은 건너뜀)
+ *
+ * Note:
+ *   - 본문이 컬럼에 직접 들어있는 예전 행(어느 저장소 키도 아님)은 대상 아님
+ *   - delete-source=false(기본)로 옮긴 원본은 참조가 없어지므로 file 저장소는 FileReconciliationService가 보고
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class ContentMigrationService {
+
+	private static final Logger log = LoggerFactory.getLogger(ContentMigrationService.class);
+
+	/** 체크포인트 폴더 (base-dir 바로 아래) */
+	public static final String CHECKPOINT_DIR = "migrations";
+
+	private static final String ANY_SOURCE = "any";
+	private static final int ROW_TX_TIMEOUT_SECONDS = 60;
+
+	/** (테이블, 키 컬럼, 본문 도메인) */
+	private static final List<String[]> TARGETS = List.of(
+		new String[]{"counsel_post", "content_path", "counsel"},
+		new String[]{"community_post", "content", "notice"},
+		new String[]{"photo_post", "content", "photo"},
+		new String[]{"counsel_post_archive", "content_path", "counsel"},
+		new String[]{"community_post_archive", "content", "notice"},
+		new String[]{"photo_post_archive", "content", "photo"});
+
+	private final JdbcTemplate jdbcTemplate;
+	private final CommonHtmlStorage htmlStorage;
+	private final AttachmentContentRefRepository contentRefRepository;
+	private final DataRetentionService retentionService;
+	private final TransactionTemplate transactionTemplate;
+	private final Path checkpointDir;
+	private final String sourceName;
+	private final String targetName;
+	private final Set<String> domains;
+	private final int parallelism;
+	private final int batchSize;
+	private final boolean deleteSource;
+	private final boolean runOnStartup;
+
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "content-migration");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public ContentMigrationService(JdbcTemplate jdbcTemplate,
+								   CommonHtmlStorage htmlStorage,
+								   AttachmentContentRefRepository contentRefRepository,
+								   DataRetentionService retentionService,
+								   PlatformTransactionManager transactionManager,
+								   @Value("${petclinic.file.base-dir}") String baseDirPath,
+								   @Value("${petclinic.file.html-storage.migration.source:}") String sourceName,
+								   @Value("${petclinic.file.html-storage.migration.target:}") String targetName,
+								   @Value("${petclinic.file.html-storage.migration.domains:}") String domains,
+								   @Value("${petclinic.file.html-storage.migration.parallelism:4}") int parallelism,
+								   @Value("${petclinic.file.html-storage.migration.batch-size:200}") int batchSize,
+								   @Value("${petclinic.file.html-storage.migration.delete-source:false}") boolean deleteSource,
+								   @Value("${petclinic.file.html-storage.migration.run-on-startup:false}") boolean runOnStartup) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.htmlStorage = htmlStorage;
+		this.contentRefRepository = contentRefRepository;
+		this.retentionService = retentionService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setTimeout(ROW_TX_TIMEOUT_SECONDS);
+		this.checkpointDir = Paths.get(baseDirPath).resolve(CHECKPOINT_DIR);
+		this.sourceName = sourceName.trim();
+		this.targetName = targetName.trim();
+		this.domains = Arrays.stream(domains.split(","))
+			.map(String::trim)
+			.filter(domain -> !domain.isEmpty())
+			.collect(Collectors.toUnmodifiableSet());
+		this.parallelism = Math.max(1, parallelism);
+		this.batchSize = Math.max(1, batchSize);
+		this.deleteSource = deleteSource;
+		this.runOnStartup = runOnStartup;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (runOnStartup) {
+			worker.execute(() -> {
+				try {
+					migrate();
+				} catch (RuntimeException e) {
+					log.error("Content migration aborted", e);
+				}
+			});
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdownNow();
+	}
+
+	/**
+	 * 설정값(petclinic.file.html-storage.migration.*)으로 실행
+	 */
+	public MigrationReport migrate() {
+		if (targetName.isEmpty()) {
+			throw new IllegalStateException("petclinic.file.html-storage.migration.target is not set");
+		}
+		return migrate(sourceName.isEmpty() ? null : htmlStorage.storeNamed(sourceName),
+			htmlStorage.storeNamed(targetName));
+	}
+
+	/**
+	 * 본문 저장소 이동
+	 * @param source 원본 저장소 (null이면 대상이 아닌 모든 저장소)
+	 * @param target 대상 저장소
+	 * @return 처리 결과
+	 */
+	public MigrationReport migrate(ContentStore source, ContentStore target) {
+		if (source == target) {
+			throw new IllegalArgumentException("Source and target content store are the same: " + target.getName());
+		}
+		MigrationReport report = new MigrationReport(source == null ? ANY_SOURCE : source.getName(), target.getName());
+		AtomicInteger sequence = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "content-migration-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (String[] table : TARGETS) {
+				if (Thread.currentThread().isInterrupted()) {
+					break;
+				}
+				if (!domains.isEmpty() && !domains.contains(table[2])) {
+					continue;
+				}
+				if (table[0].endsWith("_archive") && !retentionService.tableExists(table[0])) {
+					continue;
+				}
+				migrateTable(table[0], table[1], table[2], source, target, executor, report);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		report.elapsed = Duration.ofNanos(System.nanoTime() - report.startedNanos);
+		log.info("Content migration finished: {} -> {}, scanned={}, migrated={}, skipped={}, missing={}, conflicts={}, failed={}, bytes={}, took={}ms",
+			report.source, report.target, report.getScanned(), report.getMigrated(), report.getSkipped(),
+			report.getMissing(), report.getConflicts(), report.getFailed(), report.getBytes(), report.elapsed.toMillis());
+		return report;
+	}
+
+	private void migrateTable(String table, String keyColumn, String domain, ContentStore source, ContentStore target,
+							  ExecutorService executor, MigrationReport report) {
+		String selectSql = "SELECT id, " + keyColumn + " FROM " + table
+			+ " WHERE id > ? AND " + keyColumn + " IS NOT NULL ORDER BY id LIMIT ?";
+		String updateSql = "UPDATE " + table + " SET " + keyColumn + " = ? WHERE id = ? AND " + keyColumn + " = ?";
+		Path checkpoint = checkpointDir.resolve(table + "." + report.source + "-" + report.target + ".checkpoint");
+
+		long afterId = readCheckpoint(checkpoint);
+		if (afterId > 0) {
+			log.info("Content migration resumed: table={}, after id={}", table, afterId);
+		}
+		while (!Thread.currentThread().isInterrupted()) {
+			List<Object[]> rows = jdbcTemplate.query(selectSql,
+				(rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)}, afterId, batchSize);
+			if (rows.isEmpty()) {
+				break;
+			}
+
+			// 배치 안의 행을 병렬 처리, 배치 전체가 끝난 뒤에만 체크포인트 전진 (중단 시 배치 단위로 다시 처리)
+			List<Future<?>> futures = new ArrayList<>(rows.size());
+			for (Object[] row : rows) {
+				long id = (Long) row[0];
+				String oldKey = (String) row[1];
+				futures.add(executor.submit(() -> {
+					migrateRow(table, domain, updateSql, id, oldKey, source, target, report);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					report.failed.increment();
+					log.error("Content migration task failed: table={}", table, e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			afterId = (Long) rows.get(rows.size() - 1)[0];
+			writeCheckpoint(checkpoint, afterId);
+		}
+	}
+
+	private void migrateRow(String table, String domain, String updateSql, long id, String oldKey,
+							ContentStore source, ContentStore target, MigrationReport report) {
+		ContentStore owner = htmlStorage.ownerOf(oldKey, domain);
+		if (owner == null) {
+			return; // 본문이 컬럼에 직접 들어있는 예전 행
+		}
+		report.scanned.increment();
+		if (owner == target || (source != null && owner != source)) {
+			report.skipped.increment();
+			return;
+		}
+
+		try {
+			byte[] content = owner.get(oldKey, domain);
+			if (content == null) {
+				report.missing.increment();
+				log.warn("Content migration source missing: table={}, id={}, key={}", table, id, oldKey);
+				return;
+			}
+			String checksum = ContentStore.sha256Hex(content);
+
+			Boolean migrated = transactionTemplate.execute(status -> {
+				try {
+					String newKey = target.put(domain, content);
+					byte[] stored = target.get(newKey, domain);
+					if (stored == null || !checksum.equals(ContentStore.sha256Hex(stored))) {
+						throw new IllegalStateException("Checksum mismatch after copy: " + oldKey + " -> " + newKey);
+					}
+					if (jdbcTemplate.update(updateSql, newKey, id, oldKey) != 1) {
+						status.setRollbackOnly();
+						return false;
+					}
+					contentRefRepository.updateContentPath(oldKey, newKey);
+					if (deleteSource) {
+						owner.delete(oldKey, domain);
+					}
+					return true;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+
+			if (Boolean.TRUE.equals(migrated)) {
+				report.migrated.increment();
+				report.bytes.add(content.length);
+			} else {
+				report.conflicts.increment();
+				log.info("Content migration skipped (row changed concurrently): table={}, id={}", table, id);
+			}
+		} catch (IOException | RuntimeException e) {
+			report.failed.increment();
+			log.warn("Content migration failed: table={}, id={}, key={}", table, id, oldKey, e);
+		}
+	}
+
+	// ==================== 체크포인트 ====================
+
+	private long readCheckpoint(Path checkpoint) {
+		try {
+			return Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0L;
+		} catch (IOException | NumberFormatException e) {
+			log.warn("Ignoring unreadable migration checkpoint: {}", checkpoint, e);
+			return 0L;
+		}
+	}
+
+	/**
+	 * 임시 파일 기록 후 교체 (기록 중 중단되어도 이전 체크포인트 유지)
+	 */
+	private void writeCheckpoint(Path checkpoint, long lastId) {
+		try {
+			Files.createDirectories(checkpoint.getParent());
+			Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+			Files.writeString(temp, Long.toString(lastId), StandardCharsets.UTF_8);
+			try {
+				Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			// 체크포인트 없이도 다시 실행하면 옮긴 행은 건너뛰므로 중단하지 않음
+			log.warn("Failed to write migration checkpoint: {}", checkpoint, e);
+		}
+	}
+
+	/**
+	 * 마이그레이션 결과 (병렬 작업자가 함께 기록)
+	 */
+	public static class MigrationReport {
+
+		private final String source;
+		private final String target;
+		private final long startedNanos = System.nanoTime();
+		private final LongAdder scanned = new LongAdder();
+		private final LongAdder migrated = new LongAdder();
+		private final LongAdder skipped = new LongAdder();
+		private final LongAdder missing = new LongAdder();
+		private final LongAdder conflicts = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private Duration elapsed = Duration.ZERO;
+
+		MigrationReport(String source, String target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		public String getSource() {
+			return source;
+		}
+
+		public String getTarget() {
+			return target;
+		}
+
+		public long getScanned() {
+			return scanned.sum();
+		}
+
+		public long getMigrated() {
+			return migrated.sum();
+		}
+
+		public long getSkipped() {
+			return skipped.sum();
+		}
+
+		public long getMissing() {
+			return missing.sum();
+		}
+
+		public long getConflicts() {
+			return conflicts.sum();
+		}
+
+		public long getFailed() {
+			return failed.sum();
+		}
+
+		public long getBytes() {
+			return bytes.sum();
+		}
+
+		public Duration getElapsed() {
+			return elapsed;
+		}
+	}
+}
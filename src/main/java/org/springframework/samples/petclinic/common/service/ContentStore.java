@@ -0,0 +1,70 @@
+package org.springframework.samples.petclinic.common.service;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Project : spring-petclinic
+ * File    : ContentStore.java
+ * Created : 2026-03-19
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 본문 바이트 저장소 SPI (CommonHtmlStorage가 도메인별로 선택해 사용)
+ *   - 구현: file(FileContentStore), segment(SegmentContentStore), db(DatabaseContentStore)
+ *   - 키: 저장소가 발급하는 불투명 문자열 ("{저장소}:{domain}/...", DB content/content_path 컬럼에 그대로 저장)
+ *   - 바이트는 그대로 보관 (정제/압축/문자셋은 CommonHtmlStorage 책임)
+ *
+ * Contract (구현 규칙):
+ *   - put: 같은 트랜잭션 안에서 바로 get 가능, 트랜잭션 롤백 시 저장 취소
+ *   - delete: 트랜잭션 커밋 후에만 실제로 사라짐 (롤백 시 유지)
+ *   - 트랜잭션 밖에서 호출되면 즉시 반영
+ *   - owns가 false인 키는 get/delete에 넘기지 않음 (키 형식 검사 = 경로 조작 방어)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public interface ContentStore {
+
+	/**
+	 * 저장소 이름 (설정값: file, segment, db)
+	 */
+	String getName();
+
+	/**
+	 * 이 저장소가 발급한 해당 도메인의 키인지
+	 */
+	boolean owns(String key, String domain);
+
+	/**
+	 * 본문 저장
+	 * @param domain 도메인명 (counsel, photo, notice)
+	 * @param content 저장할 바이트
+	 * @return 새 키 (저장마다 새로 발급, 같은 키의 내용은 바뀌지 않음)
+	 */
+	String put(String domain, byte[] content) throws IOException;
+
+	/**
+	 * 본문 조회
+	 * @return 저장된 바이트, 없으면 null
+	 */
+	byte[] get(String key, String domain) throws IOException;
+
+	/**
+	 * 본문 삭제 (커밋 후 반영)
+	 */
+	void delete(String key, String domain) throws IOException;
+
+	/**
+	 * 본문 바이트 SHA-256 (hex, DB 저장소 기록 및 저장소 간 이동 검증용)
+	 */
+	static String sha256Hex(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,325 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.samples.petclinic.user.service.PasswordResetService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Project : spring-petclinic
+ * File    : DataRetentionService.java
+ * Created : 2026-03-11
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   보존 기간 정책 실행 (Soft Delete 행 보관 이동 + 만료 토큰 일괄 삭제)
+ *   - Soft Delete 후 보존 기간(기본 90일)이 지난 게시글/댓글을 {table}_archive로 이동
+ *     (counsel_post, counsel_comment, community_post, photo_post)
+ *   - id 기준 keyset 분할, 배치마다 짧은 트랜잭션 1회 (INSERT ... SELECT → DELETE)
+ *   - 만료된 password_reset_tokens, 오래 사용되지 않은 persistent_logins 일괄 DELETE
+ *   - 실행마다 테이블별 이동 행 수를 RetentionReport로 반환
+ *
+ * Purpose (만든 이유):
+ *   1. 모든 게시판이 @SQLDelete Soft Delete라 삭제된 행이 운영 테이블과 인덱스에 계속 남음
+ *      → 모든 조회가 del_flag 조건으로 걸러내는 비용을 부담
+ *   2. 만료 토큰 정리가 전체 조회 후 deleteAll(행마다 DELETE)로 동작
+ *
+ * Dependents (연관 행 처리, FK 순서):
+ *   - 게시글의 첨부 연결 행/좋아요 행은 삭제 (counsel_post_attachments, counsel_post_likes, community_post_attachment,
+ *     community_post_likes, photo_post_attachment, photo_post_likes) → 첨부파일은 고아가 되어 FileCleanupScheduler가 정리
+ *   - 상담글의 댓글은 게시글과 함께 counsel_comment_archive로 이동 (댓글 첨부 연결 행은 삭제)
+ *   - 포토 댓글(photo_comment)은 보관 테이블이 없어 게시글과 함께 삭제 (답글 parent_id를 먼저 끊음)
+ *   - 댓글 단독 이동은 답글이 없는 댓글만 (답글이 먼저 이동된 뒤 다음 실행에서 이동)
+ *   - 본문 HTML 파일은 보관 행의 경로로 계속 참조 (FileReconciliationService가 보관 테이블도 확인)
+ *   - 보관 테이블이 없으면(schema.sql 미적용) 해당 게시판은 건너뜀
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class DataRetentionService {
+
+	private static final Logger log = LoggerFactory.getLogger(DataRetentionService.class);
+
+	public static final String ARCHIVE_SUFFIX = "_archive";
+
+	private static final String COUNSEL_POST_COLUMNS = "id, author_id, author_name, author_email, password_hash, title, content, "
+		+ "content_path, status, is_secret, view_count, comment_count, attach_flag, del_flag, deleted_by, created_at, updated_at, deleted_at";
+	private static final String COUNSEL_COMMENT_COLUMNS = "id, post_id, parent_id, author_name, author_email, password_hash, content, "
+		+ "is_staff_reply, del_flag, deleted_by, created_at, updated_at, deleted_at";
+	private static final String COMMUNITY_POST_COLUMNS = "id, author_id, author, title, content, view_count, like_count, attach_flag, "
+		+ "del_flag, deleted_by, created_at, updated_at, deleted_at";
+	private static final String PHOTO_POST_COLUMNS = "id, author_id, author, title, content, thumbnailUrl, viewCount, likeCount, "
+		+ "del_flag, deleted_by, created_at, updated_at, deleted_at";
+
+	private static final String SOFT_DELETED = "del_flag IN ('Y', '1')";
+
+	private static final int BATCH_TX_TIMEOUT_SECONDS = 60;
+
+	private final NamedParameterJdbcTemplate jdbc;
+	private final TransactionTemplate transactionTemplate;
+	private final PasswordResetService passwordResetService;
+	private final int softDeletedDays;
+	private final int rememberMeDays;
+	private final int batchSize;
+
+	public DataRetentionService(NamedParameterJdbcTemplate jdbc,
+								PlatformTransactionManager transactionManager,
+								PasswordResetService passwordResetService,
+								@Value("${petclinic.retention.soft-deleted-days:90}") int softDeletedDays,
+								@Value("${petclinic.retention.remember-me-days:30}") int rememberMeDays,
+								@Value("${petclinic.retention.batch-size:500}") int batchSize) {
+		this.jdbc = jdbc;
+		this.passwordResetService = passwordResetService;
+		this.softDeletedDays = softDeletedDays;
+		this.rememberMeDays = rememberMeDays;
+		this.batchSize = Math.max(1, batchSize);
+
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setTimeout(BATCH_TX_TIMEOUT_SECONDS);
+	}
+
+	/**
+	 * 보존 정책 1회 실행
+	 * @return 테이블별 이동/삭제 행 수
+	 */
+	public RetentionReport run() {
+		RetentionReport report = new RetentionReport();
+		LocalDateTime cutoff = LocalDateTime.now().minusDays(softDeletedDays);
+
+		// 1. 댓글 단독 (게시글보다 먼저: 남은 댓글은 게시글 이동 시 함께 이동)
+		if (archiveTablesExist("counsel_comment")) {
+			archiveInBatches("counsel_comment", COUNSEL_COMMENT_COLUMNS,
+				"AND NOT EXISTS (SELECT 1 FROM counsel_comment r WHERE r.parent_id = t.id) ",
+				cutoff, report,
+				ids -> jdbc.update("DELETE FROM counsel_comment_attachment WHERE counsel_comment_id IN (:ids)", idParams(ids)));
+		}
+
+		// 2. 게시글 (연관 행 정리 후 이동)
+		if (archiveTablesExist("counsel_post", "counsel_comment")) {
+			archiveInBatches("counsel_post", COUNSEL_POST_COLUMNS, "", cutoff, report,
+				ids -> detachCounselPosts(ids, report));
+		}
+		if (archiveTablesExist("community_post")) {
+			archiveInBatches("community_post", COMMUNITY_POST_COLUMNS, "", cutoff, report, ids -> {
+				jdbc.update("DELETE FROM community_post_attachment WHERE community_post_id IN (:ids)", idParams(ids));
+				jdbc.update("DELETE FROM community_post_likes WHERE post_id IN (:ids)", idParams(ids));
+			});
+		}
+		if (archiveTablesExist("photo_post")) {
+			archiveInBatches("photo_post", PHOTO_POST_COLUMNS, "", cutoff, report, ids -> {
+				jdbc.update("DELETE FROM photo_post_attachment WHERE photo_post_id IN (:ids)", idParams(ids));
+				jdbc.update("DELETE FROM photo_post_likes WHERE post_id IN (:ids)", idParams(ids));
+				// 자기 참조 FK(parent_id)는 행 단위로 즉시 검사되므로 부모-자식 관계를 먼저 끊고 삭제
+				jdbc.update("UPDATE photo_comment SET parent_id = NULL WHERE post_id IN (:ids) AND parent_id IS NOT NULL", idParams(ids));
+				report.addDeleted("photo_comment", jdbc.update("DELETE FROM photo_comment WHERE post_id IN (:ids)", idParams(ids)));
+			});
+		}
+
+		// 3. 만료 토큰
+		report.expiredResetTokens = passwordResetService.deleteExpiredTokens();
+		report.staleRememberMeTokens = deleteStaleRememberMeTokens();
+
+		report.elapsed = Duration.ofNanos(System.nanoTime() - report.startedNanos);
+		return report;
+	}
+
+	// ==================== 보관 이동 ====================
+
+	/**
+	 * 테이블 하나를 keyset 배치로 보관 이동
+	 * @param extraCondition 대상 추가 조건 (별칭 t)
+	 * @param detach 이동 전 같은 트랜잭션에서 실행할 연관 행 정리 (FK 해제)
+	 */
+	private void archiveInBatches(String table, String columns, String extraCondition, LocalDateTime cutoff,
+								  RetentionReport report, Consumer<List<Long>> detach) {
+		String candidateSql = "SELECT t.id FROM " + table + " t "
+			+ "WHERE t.id > :afterId AND t." + SOFT_DELETED + " AND t.deleted_at < :cutoff " + extraCondition
+			+ "ORDER BY t.id LIMIT :limit";
+		// 조회~이동 사이 복구(del_flag 원복)된 행은 잠금 재확인에서 제외
+		String lockSql = "SELECT id FROM " + table + " WHERE id IN (:ids) AND " + SOFT_DELETED + " FOR UPDATE";
+
+		long afterId = 0;
+		List<Long> ids;
+		do {
+			ids = jdbc.queryForList(candidateSql, new MapSqlParameterSource()
+				.addValue("afterId", afterId)
+				.addValue("cutoff", cutoff)
+				.addValue("limit", batchSize), Long.class);
+			if (ids.isEmpty()) {
+				break;
+			}
+			afterId = ids.get(ids.size() - 1);
+
+			List<Long> candidates = ids;
+			try {
+				Integer moved = transactionTemplate.execute(status -> {
+					List<Long> locked = jdbc.queryForList(lockSql, idParams(candidates), Long.class);
+					if (locked.isEmpty()) {
+						return 0;
+					}
+					detach.accept(locked);
+					return moveToArchive(table, columns, locked);
+				});
+				report.addMoved(table, moved == null ? 0 : moved);
+			} catch (DataAccessException e) {
+				report.failedBatches++;
+				log.error("Retention batch failed, skipped until next run: table={}, ids<={}", table, afterId, e);
+			}
+		} while (ids.size() == batchSize);
+	}
+
+	/**
+	 * 상담글 연관 행 정리: 댓글은 보관 테이블로 이동, 댓글/게시글 첨부 연결 행과 좋아요 행은 삭제
+	 */
+	private void detachCounselPosts(List<Long> postIds, RetentionReport report) {
+		MapSqlParameterSource params = idParams(postIds).addValue("archivedAt", LocalDateTime.now());
+		int comments = jdbc.update("INSERT INTO counsel_comment" + ARCHIVE_SUFFIX + " (" + COUNSEL_COMMENT_COLUMNS + ", archived_at) "
+			+ "SELECT " + COUNSEL_COMMENT_COLUMNS + ", :archivedAt FROM counsel_comment WHERE post_id IN (:ids)", params);
+		if (comments > 0) {
+			jdbc.update("DELETE FROM counsel_comment_attachment WHERE counsel_comment_id IN "
+				+ "(SELECT id FROM counsel_comment WHERE post_id IN (:ids))", params);
+			// 자기 참조 FK(parent_id)는 행 단위로 즉시 검사되므로 부모-자식 관계를 먼저 끊고 삭제
+			jdbc.update("UPDATE counsel_comment SET parent_id = NULL WHERE post_id IN (:ids) AND parent_id IS NOT NULL", params);
+			jdbc.update("DELETE FROM counsel_comment WHERE post_id IN (:ids)", params);
+			report.addMoved("counsel_comment", comments);
+		}
+		jdbc.update("DELETE FROM counsel_post_attachments WHERE counsel_post_id IN (:ids)", params);
+		jdbc.update("DELETE FROM counsel_post_likes WHERE post_id IN (:ids)", params);
+	}
+
+	private int moveToArchive(String table, String columns, List<Long> ids) {
+		MapSqlParameterSource params = idParams(ids).addValue("archivedAt", LocalDateTime.now());
+		jdbc.update("INSERT INTO " + table + ARCHIVE_SUFFIX + " (" + columns + ", archived_at) "
+			+ "SELECT " + columns + ", :archivedAt FROM " + table + " WHERE id IN (:ids)", params);
+		return jdbc.update("DELETE FROM " + table + " WHERE id IN (:ids)", params);
+	}
+
+	// ==================== 토큰 ====================
+
+	/**
+	 * 오래 사용되지 않은 Remember-Me 토큰 삭제 (persistent_logins 테이블이 있을 때만)
+	 */
+	private int deleteStaleRememberMeTokens() {
+		if (!tableExists("persistent_logins")) {
+			return 0;
+		}
+		int deleted = jdbc.update("DELETE FROM persistent_logins WHERE last_used < :cutoff",
+			new MapSqlParameterSource("cutoff", LocalDateTime.now().minusDays(rememberMeDays)));
+		if (deleted > 0) {
+			log.info("Deleted {} stale remember-me tokens", deleted);
+		}
+		return deleted;
+	}
+
+	// ==================== 헬퍼 ====================
+
+	private MapSqlParameterSource idParams(List<Long> ids) {
+		return new MapSqlParameterSource("ids", ids);
+	}
+
+	private boolean archiveTablesExist(String... tables) {
+		for (String table : tables) {
+			if (!tableExists(table + ARCHIVE_SUFFIX)) {
+				log.warn("Archive table missing, retention skipped: {}{} (apply db/mysql/schema.sql)", table, ARCHIVE_SUFFIX);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 테이블 존재 여부 (DB마다 메타데이터 대소문자 규칙이 달라 소문자/대문자 모두 확인)
+	 */
+	public boolean tableExists(String table) {
+		Boolean exists = jdbc.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection -> {
+			DatabaseMetaData metaData = connection.getMetaData();
+			for (String name : new String[]{table.toLowerCase(), table.toUpperCase()}) {
+				try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+					if (tables.next()) {
+						return true;
+					}
+				}
+			}
+			return false;
+		});
+		return Boolean.TRUE.equals(exists);
+	}
+
+	/**
+	 * 보존 정책 실행 결과
+	 */
+	public static class RetentionReport {
+
+		private final long startedNanos = System.nanoTime();
+		private final Map<String, Integer> movedRows = new LinkedHashMap<>();
+		/** 보관 테이블 없이 게시글과 함께 삭제된 연관 행 (photo_comment) */
+		private final Map<String, Integer> deletedRows = new LinkedHashMap<>();
+		private int failedBatches;
+		private int expiredResetTokens;
+		private int staleRememberMeTokens;
+		private Duration elapsed = Duration.ZERO;
+
+		void addMoved(String table, int rows) {
+			movedRows.merge(table, rows, Integer::sum);
+		}
+
+		void addDeleted(String table, int rows) {
+			if (rows > 0) {
+				deletedRows.merge(table, rows, Integer::sum);
+			}
+		}
+
+		public Map<String, Integer> getMovedRows() {
+			return Map.copyOf(movedRows);
+		}
+
+		public Map<String, Integer> getDeletedRows() {
+			return Map.copyOf(deletedRows);
+		}
+
+		public int getTotalMoved() {
+			return movedRows.values().stream().mapToInt(Integer::intValue).sum();
+		}
+
+		public int getFailedBatches() {
+			return failedBatches;
+		}
+
+		public int getExpiredResetTokens() {
+			return expiredResetTokens;
+		}
+
+		public int getStaleRememberMeTokens() {
+			return staleRememberMeTokens;
+		}
+
+		public Duration getElapsed() {
+			return elapsed;
+		}
+
+		@Override
+		public String toString() {
+			return "moved=" + movedRows + " (total " + getTotalMoved() + "), deleted=" + deletedRows
+				+ ", failedBatches=" + failedBatches
+				+ ", expiredResetTokens=" + expiredResetTokens + ", staleRememberMeTokens=" + staleRememberMeTokens
+				+ ", elapsed=" + elapsed.toMillis() + "ms";
+		}
+	}
+}
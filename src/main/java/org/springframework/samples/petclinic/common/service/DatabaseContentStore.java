@@ -0,0 +1,83 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Project : spring-petclinic
+ * File    : DatabaseContentStore.java
+ * Created : 2026-03-19
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   본문을 DB BLOB으로 저장하는 저장소 (ContentStore "db", 테이블 content_blob)
+ *   - 키: "db:{domain}/{uuid}"
+ *   - 저장/삭제 SQL이 호출자 트랜잭션에 그대로 참여 → 롤백 시 함께 취소, 삭제는 커밋 시에만 반영
+ *   - 백업/복제가 DB 하나로 끝나고, 여러 서버가 파일 시스템을 공유하지 않아도 됨
+ *
+ * Note:
+ *   - JdbcTemplate 직접 사용: 본문 바이트를 JPA 영속성 컨텍스트(1차 캐시/dirty checking)에 올리지 않음
+ *   - sha256은 저장 시 기록 (ContentMigrationService 검증, 운영 중 손상 점검용)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class DatabaseContentStore implements ContentStore {
+
+	public static final String NAME = "db";
+	public static final String KEY_PREFIX = NAME + ":";
+
+	private static final String INSERT_SQL =
+		"INSERT INTO content_blob (id, domain, data, size_bytes, sha256, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+	private static final String SELECT_SQL = "SELECT data FROM content_blob WHERE id = ? AND domain = ?";
+	private static final String DELETE_SQL = "DELETE FROM content_blob WHERE id = ? AND domain = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public DatabaseContentStore(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean owns(String key, String domain) {
+		return key != null && key.startsWith(KEY_PREFIX + domain + "/");
+	}
+
+	@Override
+	public String put(String domain, byte[] content) {
+		String id = UUID.randomUUID().toString();
+		jdbcTemplate.update(INSERT_SQL, id, domain, content, content.length, ContentStore.sha256Hex(content));
+		return KEY_PREFIX + domain + "/" + id;
+	}
+
+	@Override
+	public byte[] get(String key, String domain) {
+		List<byte[]> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> rs.getBytes(1), parseId(key, domain), domain);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	@Override
+	public void delete(String key, String domain) {
+		jdbcTemplate.update(DELETE_SQL, parseId(key, domain), domain);
+	}
+
+	private String parseId(String key, String domain) {
+		if (!owns(key, domain)) {
+			throw new SecurityException("Invalid content key");
+		}
+		try {
+			return UUID.fromString(key.substring(KEY_PREFIX.length() + domain.length() + 1)).toString();
+		} catch (IllegalArgumentException e) {
+			throw new SecurityException("Invalid content key");
+		}
+	}
+}
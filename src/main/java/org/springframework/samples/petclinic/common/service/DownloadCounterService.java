@@ -0,0 +1,151 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.table.Attachment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Project : spring-petclinic
+ * File    : DownloadCounterService.java
+ * Created : 2026-03-08
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   첨부파일 다운로드 횟수 write-behind 집계
+ *   - 다운로드마다 메모리 카운터(첨부 ID별 LongAdder)만 증가
+ *   - 주기적으로 누적분을 한 번의 JDBC 배치 UPDATE로 attachment.download_count에 반영
+ *   - 정상 종료(@PreDestroy) 시 남은 누적분 반영
+ *
+ * Purpose (만든 이유):
+ *   1. attachment.download_count 컬럼은 있으나 다운로드 시 갱신되지 않아 항상 0
+ *   2. 다운로드(읽기)마다 UPDATE 1건을 실행하면 읽기 트래픽이 곧 쓰기 트래픽이 되고
+ *      인기 파일 한 행에 행 잠금 경합이 몰림
+ *   3. LongAdder는 스레드별 셀로 분산 증가하므로 동시 다운로드에도 경합이 거의 없음
+ *
+ * Consistency (정합성):
+ *   - 반영 전 누적분은 메모리에만 있으므로 비정상 종료(kill -9) 시 최대 한 주기분 유실 가능 (통계 용도로 허용)
+ *   - 배치 UPDATE 실패 시 누적분을 카운터에 되돌려 다음 주기에 재시도
+ *   - 증가값 방식(download_count = download_count + ?)이므로 다중 인스턴스에서도 덮어쓰기 없음
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class DownloadCounterService {
+
+	private static final Logger log = LoggerFactory.getLogger(DownloadCounterService.class);
+
+	private static final String INCREMENT_SQL = "UPDATE attachment SET download_count = download_count + ? WHERE id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final AttachmentRepository attachmentRepository;
+	private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	public DownloadCounterService(JdbcTemplate jdbcTemplate, AttachmentRepository attachmentRepository) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.attachmentRepository = attachmentRepository;
+	}
+
+	/**
+	 * 다운로드 1회 기록 (DB 접근 없음)
+	 * @param attachmentId 첨부파일 ID
+	 */
+	public void record(Long attachmentId) {
+		if (attachmentId == null) {
+			return;
+		}
+		LongAdder counter = pending.computeIfAbsent(attachmentId, id -> new LongAdder());
+		counter.increment();
+
+		// 반영 주기에 유휴 카운터로 판단되어 제거된 직후라면 새 카운터로 옮김 (증가분 유실 방지)
+		if (pending.get(attachmentId) != counter) {
+			long moved = counter.sumThenReset();
+			if (moved > 0) {
+				pending.computeIfAbsent(attachmentId, id -> new LongAdder()).add(moved);
+			}
+		}
+	}
+
+	/**
+	 * 누적분 DB 반영 (기본 30초 간격)
+	 * @return 반영된 첨부파일 수
+	 */
+	@Scheduled(fixedDelayString = "${petclinic.file.download-count.flush-interval:PT30S}")
+	public int flush() {
+		flushLock.lock();
+		try {
+			List<Object[]> batch = new ArrayList<>();
+			for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+				// sumThenReset은 셀별 원자적 교환이므로 동시 증가분은 이번 또는 다음 주기에 반드시 포함됨
+				long delta = entry.getValue().sumThenReset();
+				if (delta > 0) {
+					batch.add(new Object[]{delta, entry.getKey()});
+				} else {
+					// 한 주기 동안 다운로드가 없었던 카운터는 제거 (메모리 상한 = 주기 내 다운로드된 파일 수)
+					// 제거 직전에 들어온 증가분은 새 카운터로 옮김 (제거 후 증가분은 record()가 옮김)
+					if (pending.remove(entry.getKey(), entry.getValue())) {
+						long late = entry.getValue().sumThenReset();
+						if (late > 0) {
+							pending.computeIfAbsent(entry.getKey(), id -> new LongAdder()).add(late);
+						}
+					}
+				}
+			}
+			if (batch.isEmpty()) {
+				return 0;
+			}
+
+			try {
+				jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+				log.debug("Download counts flushed: files={}", batch.size());
+				return batch.size();
+			} catch (DataAccessException e) {
+				// 실패분은 카운터에 되돌려 다음 주기에 재시도
+				for (Object[] row : batch) {
+					pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+				}
+				log.error("Failed to flush download counts, will retry: files={}", batch.size(), e);
+				return 0;
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * 다운로드 상위 첨부파일 (관리자 화면용, 조회 직전 누적분 반영)
+	 * @return 다운로드 횟수 내림차순 상위 10건 (삭제된 첨부 제외)
+	 */
+	public List<Attachment> getTopDownloads() {
+		flush();
+		return attachmentRepository.findTop10ByDownloadCountGreaterThanOrderByDownloadCountDesc(0);
+	}
+
+	/**
+	 * 정상 종료 시 남은 누적분 반영
+	 */
+	@PreDestroy
+	public void drain() {
+		int flushed = flush();
+		if (flushed > 0) {
+			log.info("Download counts drained on shutdown: files={}", flushed);
+		}
+		if (!pending.isEmpty() && pending.values().stream().anyMatch(counter -> counter.sum() > 0)) {
+			log.warn("Download counts left unflushed on shutdown: files={}", pending.size());
+		}
+	}
+}
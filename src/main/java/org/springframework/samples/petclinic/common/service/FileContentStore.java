@@ -0,0 +1,127 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Project : spring-petclinic
+ * File    : FileContentStore.java
+ * Created : 2026-03-19
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   본문 1건 = 파일 1개 저장소 (ContentStore "file", 기본 백엔드)
+ *   - 저장: {base-dir}/{domain}/content/yyyy/MM/{uuid}.html (gzip 바이트면 .html.gz)
+ *   - 키: "file:{domain}/content/yyyy/MM/{uuid}.html" (base-dir 기준 상대 경로, 서버 이전/base-dir 변경에 무관)
+ *   - 예전 행의 절대 경로("/data/counsel/content/.../uuid.html")도 같은 도메인 폴더 안이면 계속 조회/삭제
+ *   - 트랜잭션: 임시 파일에 기록 후 커밋 시 승격, 삭제는 커밋 후 비동기 (TransactionalFileOperations)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class FileContentStore implements ContentStore {
+
+	public static final String NAME = "file";
+	public static final String KEY_PREFIX = NAME + ":";
+
+	private static final String CONTENT_DIR = "content";
+	private static final String HTML_EXT = ".html";
+	private static final String GZIP_EXT = ".gz";
+
+	private final Path baseDir;
+	private final TransactionalFileOperations fileOperations;
+
+	public FileContentStore(@Value("${petclinic.file.base-dir}") String baseDirPath,
+							TransactionalFileOperations fileOperations) {
+		this.baseDir = Paths.get(baseDirPath).toAbsolutePath().normalize();
+		this.fileOperations = fileOperations;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean owns(String key, String domain) {
+		if (key == null || !(key.endsWith(HTML_EXT) || key.endsWith(HTML_EXT + GZIP_EXT))) {
+			return false;
+		}
+		try {
+			return resolve(key, domain) != null;
+		} catch (InvalidPathException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public String put(String domain, byte[] content) throws IOException {
+		// 최종 디렉토리: .../data/counsel/content/2026/02
+		LocalDate today = LocalDate.now();
+		String relativeDir = domain + "/" + CONTENT_DIR + "/"
+			+ String.format("%04d/%02d", today.getYear(), today.getMonthValue());
+		String relative = relativeDir + "/" + UUID.randomUUID() + HTML_EXT + (isGzip(content) ? GZIP_EXT : "");
+
+		// 역참조(Path Traversal) 방어: 해당 도메인 폴더 내부에 있는지 확인
+		Path file = resolve(KEY_PREFIX + relative, domain);
+		if (file == null) {
+			throw new SecurityException("Invalid path traversal attempt");
+		}
+		Files.createDirectories(file.getParent());
+
+		// 임시 파일에 쓰기 → 커밋 후 최종 경로로 승격 (트랜잭션 밖이면 즉시 승격)
+		Path staged = fileOperations.stagedPathFor(file);
+		Files.write(staged, content);
+		fileOperations.promoteAfterCommit(staged, file);
+		return KEY_PREFIX + relative;
+	}
+
+	@Override
+	public byte[] get(String key, String domain) throws IOException {
+		Path file = require(key, domain);
+		if (Files.exists(file)) {
+			return Files.readAllBytes(file);
+		}
+		// 같은 트랜잭션 안에서 저장 직후 조회하는 경우(승격 전) 또는 승격 실패 시 임시 파일에서 읽음
+		Path staged = fileOperations.stagedPathFor(file);
+		return Files.exists(staged) ? Files.readAllBytes(staged) : null;
+	}
+
+	@Override
+	public void delete(String key, String domain) {
+		fileOperations.deleteAfterCommit(require(key, domain));
+	}
+
+	/**
+	 * 키 → 파일 경로 (base-dir 기준 상대 경로 또는 예전 절대 경로)
+	 * @return 도메인 content 폴더 밖이면 null
+	 */
+	private Path resolve(String key, String domain) {
+		Path domainBase = baseDir.resolve(domain).resolve(CONTENT_DIR).normalize();
+		Path file = key.startsWith(KEY_PREFIX)
+			? baseDir.resolve(key.substring(KEY_PREFIX.length())).normalize()
+			: Paths.get(key).toAbsolutePath().normalize();
+		return file.startsWith(domainBase) && !file.equals(domainBase) ? file : null;
+	}
+
+	private Path require(String key, String domain) {
+		Path file = owns(key, domain) ? resolve(key, domain) : null;
+		if (file == null) {
+			throw new SecurityException("Invalid path traversal attempt");
+		}
+		return file;
+	}
+
+	private static boolean isGzip(byte[] bytes) {
+		return bytes.length >= 2 && (bytes[0] & 0xFF) == 0x1F && (bytes[1] & 0xFF) == 0x8B;
+	}
+}
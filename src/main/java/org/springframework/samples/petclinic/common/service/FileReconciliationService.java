@@ -0,0 +1,487 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Project : spring-petclinic
+ * File    : FileReconciliationService.java
+ * Created : 2026-03-10
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   디스크 ↔ DB 파일 정합성 점검 (DB 행이 가리키지 않는 파일 탐지)
+ *   - 점검 대상: base-dir/{domain}/uploads, base-dir/{domain}/content, 포토 임시 업로드 폴더(uploads/temp)
+ *   - 기준 목록: attachment.stored_filename + 게시글 본문 HTML 경로(counsel_post.content_path, community_post/photo_post.content, 각 보관 테이블)
+ *     → 경로마다 64bit 지문(long)만 정렬 배열에 보관 (수십만 건도 수 MB)
+ *   - 디렉토리(도메인/연/월 단위)를 고정 크기 스레드 풀에서 병렬 순회
+ *   - report 모드: 건수/용량/예시 경로만 기록, quarantine 모드: base-dir/quarantine/{실행시각}/ 아래로 원래 상대 경로 그대로 이동
+ *     (격리 폴더는 URL로 공개하지 않음 → 격리된 파일은 /images로 더 이상 내려받을 수 없음)
+ *
+ * Purpose (만든 이유):
+ *   1. 게시글 수정 시 새 본문 HTML을 저장하고 이전 파일은 지우지 않는 경로가 있음 (포토/커뮤니티)
+ *   2. 포토 임시 업로드(uploads/temp)는 어떤 행에도 기록되지 않음
+ *   3. 청소 스케줄러는 DB 행 기준이라 행 없이 남은 파일은 찾을 수 없어 디스크 사용량이 계속 증가
+ *
+ * Safety (안전장치):
+ *   - 지문 충돌 시 "참조됨"으로 판정 → 오탐은 파일을 남기는 방향으로만 발생
+ *   - 유예 시간(기본 24시간) 이내에 수정된 파일은 제외 (파일 쓰기 후 행 커밋 전 구간 보호)
+ *   - uploads/.tmp, blobs, resumable, static-variants, {domain}/variants는 점검 대상 아님 (각 기능이 직접 관리)
+ *   - 삭제하지 않고 격리만 하므로 잘못 격리된 파일은 같은 상대 경로로 되돌리면 복구됨
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class FileReconciliationService {
+
+	private static final Logger log = LoggerFactory.getLogger(FileReconciliationService.class);
+
+	public static final String MODE_REPORT = "report";
+	public static final String MODE_QUARANTINE = "quarantine";
+
+	public static final String QUARANTINE_DIR = "quarantine";
+
+	/** base-dir/{domain} 아래 점검 대상 하위 폴더 */
+	private static final List<String> SCANNED_SUBDIRS = List.of("uploads", "content");
+
+	/** base-dir 바로 아래의 도메인이 아닌 폴더 (blob 저장소, 이어받기 세션, 정적 이미지 변형, 본문 이동 체크포인트, 검색 색인, 격리 폴더) */
+	private static final Set<String> NON_DOMAIN_DIRS = Set.of("blobs", "resumable", "static-variants",
+		ContentMigrationService.CHECKPOINT_DIR, PostSearchIndex.INDEX_DIR, QUARANTINE_DIR);
+
+	/** uploads 아래 업로드 진행 중 임시 파일 폴더 */
+	private static final String UPLOAD_TEMP_DIR = ".tmp";
+
+	/** PhotoController.uploadTemp의 작업 디렉토리 기준 임시 폴더 (어떤 행에도 기록되지 않음) */
+	private static final Path PHOTO_TEMP_DIR = Paths.get("uploads", "temp");
+	private static final String PHOTO_TEMP_LABEL = "_photo-temp";
+
+	private static final int MAX_SAMPLES = 50;
+
+	private static final String ATTACHMENT_PATHS_SQL = "SELECT stored_filename FROM attachment";
+	private static final List<String> CONTENT_PATHS_SQL = List.of(
+		"SELECT content_path FROM counsel_post WHERE content_path IS NOT NULL",
+		"SELECT content FROM community_post WHERE content LIKE '%.html' OR content LIKE '%.html.gz'",
+		"SELECT content FROM photo_post WHERE content LIKE '%.html' OR content LIKE '%.html.gz'");
+	/** 보관 테이블(DataRetentionService)의 본문 경로: 테이블이 있을 때만 조회 */
+	private static final Map<String, String> ARCHIVED_CONTENT_PATHS_SQL = Map.of(
+		"counsel_post_archive", "SELECT content_path FROM counsel_post_archive WHERE content_path IS NOT NULL",
+		"community_post_archive", "SELECT content FROM community_post_archive WHERE content LIKE '%.html' OR content LIKE '%.html.gz'",
+		"photo_post_archive", "SELECT content FROM photo_post_archive WHERE content LIKE '%.html' OR content LIKE '%.html.gz'");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final DataRetentionService retentionService;
+	private final Path baseDir;
+	private final String defaultMode;
+	private final Duration gracePeriod;
+	private final int parallelism;
+
+	public FileReconciliationService(JdbcTemplate jdbcTemplate,
+									 DataRetentionService retentionService,
+									 @Value("${petclinic.file.base-dir}") String baseDirPath,
+									 @Value("${petclinic.file.reconcile.mode:report}") String defaultMode,
+									 @Value("${petclinic.file.reconcile.grace-period:PT24H}") Duration gracePeriod,
+									 @Value("${petclinic.file.reconcile.parallelism:4}") int parallelism) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.retentionService = retentionService;
+		this.baseDir = Paths.get(baseDirPath).toAbsolutePath().normalize();
+		this.defaultMode = defaultMode;
+		this.gracePeriod = gracePeriod;
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * 설정된 모드(petclinic.file.reconcile.mode)로 점검 실행
+	 */
+	public ReconcileReport reconcile() {
+		return reconcile(MODE_QUARANTINE.equalsIgnoreCase(defaultMode));
+	}
+
+	/**
+	 * 점검 실행
+	 * @param quarantine true면 참조되지 않는 파일을 격리 폴더로 이동, false면 보고만
+	 * @return 점검 결과
+	 */
+	public ReconcileReport reconcile(boolean quarantine) {
+		ReconcileReport report = new ReconcileReport(quarantine ? MODE_QUARANTINE : MODE_REPORT);
+		// 기준 목록보다 먼저 시각을 고정 → 목록 작성 중 새로 생긴 파일은 유예 대상으로 빠짐
+		Instant modifiedBefore = Instant.now().minus(gracePeriod);
+
+		PathFingerprints tracked = loadTrackedPaths();
+		report.trackedPaths = tracked.size();
+
+		Path quarantineRoot = quarantine
+			? baseDir.resolve(QUARANTINE_DIR).resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")))
+			: null;
+
+		List<ScanUnit> units = collectScanUnits();
+		AtomicInteger sequence = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "file-reconcile-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> futures = new ArrayList<>(units.size());
+			for (ScanUnit unit : units) {
+				futures.add(executor.submit(() -> {
+					scan(unit, tracked, modifiedBefore, quarantineRoot, report);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					report.failed.increment();
+					log.error("Reconciliation scan unit failed", e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Reconciliation interrupted", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		report.elapsed = Duration.ofNanos(System.nanoTime() - report.startedNanos);
+		return report;
+	}
+
+	// ==================== 기준 목록 ====================
+
+	/**
+	 * DB가 참조하는 파일 경로 지문 집합 (Soft Delete 행 포함: 복구 가능하거나 영구 삭제 작업이 처리할 파일)
+	 */
+	private PathFingerprints loadTrackedPaths() {
+		PathFingerprints fingerprints = new PathFingerprints();
+		// 첨부: base-dir 기준 상대 경로("{domain}/uploads/yyyy/MM/uuid.ext")
+		jdbcTemplate.query(ATTACHMENT_PATHS_SQL, rs -> {
+			String stored = rs.getString(1);
+			if (stored != null) {
+				fingerprints.add(stored.replace('\\', '/'));
+			}
+		});
+		// 본문 HTML: saveHtml이 반환한 file 저장소 키/예전 전체 경로 → base-dir 기준 상대 경로로 변환 (segment/db 키는 제외)
+		List<String> contentQueries = new ArrayList<>(CONTENT_PATHS_SQL);
+		ARCHIVED_CONTENT_PATHS_SQL.forEach((table, sql) -> {
+			if (retentionService.tableExists(table)) {
+				contentQueries.add(sql);
+			}
+		});
+		for (String sql : contentQueries) {
+			jdbcTemplate.query(sql, rs -> {
+				String relative = toRelativeKey(rs.getString(1));
+				if (relative != null) {
+					fingerprints.add(relative);
+				}
+			});
+		}
+		fingerprints.freeze();
+		return fingerprints;
+	}
+
+	private String toRelativeKey(String storedPath) {
+		if (storedPath == null || storedPath.isBlank()) {
+			return null;
+		}
+		try {
+			// file 저장소 키("file:{domain}/content/...")는 base-dir 기준 상대 경로, 예전 행은 절대 경로
+			Path path = storedPath.startsWith(FileContentStore.KEY_PREFIX)
+				? baseDir.resolve(storedPath.substring(FileContentStore.KEY_PREFIX.length())).normalize()
+				: Paths.get(storedPath).toAbsolutePath().normalize();
+			if (!path.startsWith(baseDir)) {
+				return null;
+			}
+			return relativeKey(path);
+		} catch (InvalidPathException e) {
+			return null;
+		}
+	}
+
+	private String relativeKey(Path absolute) {
+		return baseDir.relativize(absolute).toString().replace('\\', '/');
+	}
+
+	// ==================== 병렬 순회 ====================
+
+	/**
+	 * 순회 단위 수집: {domain}/{uploads|content}의 연/월 폴더 하나가 한 단위 (상위 폴더 바로 아래 파일은 별도 단위)
+	 */
+	private List<ScanUnit> collectScanUnits() {
+		List<ScanUnit> units = new ArrayList<>();
+		try (DirectoryStream<Path> domains = Files.newDirectoryStream(baseDir, Files::isDirectory)) {
+			for (Path domainDir : domains) {
+				if (NON_DOMAIN_DIRS.contains(domainDir.getFileName().toString())) {
+					continue;
+				}
+				for (String subdir : SCANNED_SUBDIRS) {
+					Path root = domainDir.resolve(subdir);
+					if (Files.isDirectory(root)) {
+						expand(root, 2, units, false);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to list base-dir: " + baseDir, e);
+		}
+
+		Path photoTemp = PHOTO_TEMP_DIR.toAbsolutePath().normalize();
+		if (Files.isDirectory(photoTemp) && !photoTemp.startsWith(baseDir)) {
+			units.add(new ScanUnit(photoTemp, true, true));
+		}
+		return units;
+	}
+
+	private void expand(Path dir, int depth, List<ScanUnit> units, boolean untrackedRoot) throws IOException {
+		if (depth == 0) {
+			units.add(new ScanUnit(dir, true, untrackedRoot));
+			return;
+		}
+		// 현재 폴더의 파일은 한 단위, 하위 폴더는 한 단계 더 분할
+		units.add(new ScanUnit(dir, false, untrackedRoot));
+		try (DirectoryStream<Path> children = Files.newDirectoryStream(dir, Files::isDirectory)) {
+			for (Path child : children) {
+				if (!UPLOAD_TEMP_DIR.equals(child.getFileName().toString())) {
+					expand(child, depth - 1, units, untrackedRoot);
+				}
+			}
+		}
+	}
+
+	private void scan(ScanUnit unit, PathFingerprints tracked, Instant modifiedBefore, Path quarantineRoot,
+					  ReconcileReport report) throws IOException {
+		Files.walkFileTree(unit.dir, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				if (dir.equals(unit.dir)) {
+					return FileVisitResult.CONTINUE;
+				}
+				// 비재귀 단위의 하위 폴더는 다른 단위가 담당
+				if (!unit.recursive || UPLOAD_TEMP_DIR.equals(dir.getFileName().toString())) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (!attrs.isRegularFile()) {
+					return FileVisitResult.CONTINUE;
+				}
+				report.scannedFiles.increment();
+				String key = unit.untracked ? null : relativeKey(file);
+				if (key != null && tracked.contains(key)) {
+					return FileVisitResult.CONTINUE;
+				}
+				if (attrs.lastModifiedTime().toInstant().isAfter(modifiedBefore)) {
+					report.skippedRecent.increment();
+					return FileVisitResult.CONTINUE;
+				}
+				handleUntracked(file, key, attrs.size(), quarantineRoot, report);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				report.failed.increment();
+				log.warn("Reconciliation cannot read: {}", file, e);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void handleUntracked(Path file, String key, long size, Path quarantineRoot, ReconcileReport report) {
+		String display = key != null ? key : PHOTO_TEMP_LABEL + "/" + file.getFileName();
+		report.untrackedFiles.increment();
+		report.untrackedBytes.add(size);
+		report.addSample(display);
+
+		if (quarantineRoot == null) {
+			return;
+		}
+		Path target = quarantineRoot.resolve(display).normalize();
+		try {
+			Files.createDirectories(target.getParent());
+			Files.move(file, target);
+			report.quarantined.increment();
+		} catch (IOException e) {
+			report.failed.increment();
+			log.warn("Failed to quarantine untracked file: {}", file, e);
+		}
+	}
+
+	/**
+	 * 순회 단위
+	 * - recursive: 하위 폴더까지 순회할지 (false면 폴더 바로 아래 파일만)
+	 * - untracked: 모든 파일을 미참조로 판정 (기준 목록이 없는 임시 폴더)
+	 */
+	private static final class ScanUnit {
+		private final Path dir;
+		private final boolean recursive;
+		private final boolean untracked;
+
+		private ScanUnit(Path dir, boolean recursive, boolean untracked) {
+			this.dir = dir;
+			this.recursive = recursive;
+			this.untracked = untracked;
+		}
+	}
+
+	/**
+	 * 경로 지문 집합: 상대 경로의 64bit FNV-1a 해시를 정렬 배열에 보관, 이진 탐색으로 조회
+	 * - 문자열 HashSet 대비 원소당 8바이트
+	 */
+	private static final class PathFingerprints {
+
+		private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+		private static final long FNV_PRIME = 0x100000001b3L;
+
+		private long[] values = new long[1024];
+		private int size;
+
+		void add(String relativePath) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = fingerprint(relativePath);
+		}
+
+		void freeze() {
+			Arrays.sort(values, 0, size);
+			int unique = 0;
+			for (int i = 0; i < size; i++) {
+				if (unique == 0 || values[unique - 1] != values[i]) {
+					values[unique++] = values[i];
+				}
+			}
+			size = unique;
+			values = Arrays.copyOf(values, size);
+		}
+
+		boolean contains(String relativePath) {
+			return Arrays.binarySearch(values, 0, size, fingerprint(relativePath)) >= 0;
+		}
+
+		int size() {
+			return size;
+		}
+
+		private static long fingerprint(String relativePath) {
+			long hash = FNV_OFFSET;
+			for (byte b : relativePath.getBytes(StandardCharsets.UTF_8)) {
+				hash ^= (b & 0xff);
+				hash *= FNV_PRIME;
+			}
+			return hash;
+		}
+	}
+
+	/**
+	 * 점검 결과 (순회 스레드가 동시에 갱신하므로 LongAdder)
+	 */
+	public static class ReconcileReport {
+
+		private final String mode;
+		private final long startedNanos = System.nanoTime();
+		private final LongAdder scannedFiles = new LongAdder();
+		private final LongAdder untrackedFiles = new LongAdder();
+		private final LongAdder untrackedBytes = new LongAdder();
+		private final LongAdder quarantined = new LongAdder();
+		private final LongAdder skippedRecent = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final List<String> samples = Collections.synchronizedList(new ArrayList<>());
+		private int trackedPaths;
+		private Duration elapsed = Duration.ZERO;
+
+		ReconcileReport(String mode) {
+			this.mode = mode;
+		}
+
+		void addSample(String path) {
+			if (samples.size() < MAX_SAMPLES) {
+				samples.add(path);
+			}
+		}
+
+		public String getMode() {
+			return mode;
+		}
+
+		public int getTrackedPaths() {
+			return trackedPaths;
+		}
+
+		public long getScannedFiles() {
+			return scannedFiles.sum();
+		}
+
+		public long getUntrackedFiles() {
+			return untrackedFiles.sum();
+		}
+
+		public long getUntrackedBytes() {
+			return untrackedBytes.sum();
+		}
+
+		public long getQuarantined() {
+			return quarantined.sum();
+		}
+
+		public long getSkippedRecent() {
+			return skippedRecent.sum();
+		}
+
+		public long getFailed() {
+			return failed.sum();
+		}
+
+		public List<String> getSamples() {
+			synchronized (samples) {
+				return List.copyOf(samples);
+			}
+		}
+
+		public Duration getElapsed() {
+			return elapsed;
+		}
+
+		@Override
+		public String toString() {
+			return "mode=" + mode + ", tracked=" + trackedPaths + ", scanned=" + getScannedFiles()
+				+ ", untracked=" + getUntrackedFiles() + " (" + getUntrackedBytes() / 1024 + "KB)"
+				+ ", quarantined=" + getQuarantined() + ", skippedRecent=" + getSkippedRecent()
+				+ ", failed=" + getFailed() + ", elapsed=" + elapsed.toMillis() + "ms";
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Project : spring-petclinic
+ * File    : FulltextPostSearch.java
+ * Created : 2026-03-22
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   DB FULLTEXT 게시글 검색 (counsel_post, community_post, photo_post 의 title + search_text)
+ *   - MySQL: FULLTEXT ... WITH PARSER ngram (한글 부분 일치), 검색어 단어마다 +"단어" (n-gram 구문 일치)
+ *   - MariaDB: ngram 파서가 없어 기본 파서 FULLTEXT, 검색어 단어마다 +단어* (조사가 붙은 형태까지 앞부분 일치)
+ *   - 그 외 DB(H2 등): 사용하지 않음 → search는 null → Repository가 LIKE 검색
+ *   - 기동 시 DB 종류 확인, FULLTEXT 인덱스가 없으면 생성 (create-index=true, 백그라운드)
+ *
+ * Purpose (만든 이유):
+ *   - 메모리 색인(PostSearchIndex) 대신 검색을 DB에 두려는 배포용
+ *     (petclinic.search.index.enabled=false, petclinic.search.fulltext.enabled=true)
+ *   - Repository는 메모리 색인 → FULLTEXT → LIKE 순서로 답할 수 있는 첫 결과를 사용
+ *
+ * Field (검색 대상):
+ *   - 인덱스는 (title, search_text) 하나 → 제목만/본문만 검색은 FULLTEXT로 후보를 좁힌 뒤 해당 컬럼 LIKE로 확인
+ *
+ * Note:
+ *   - 토큰 최소 길이(MySQL ngram_token_size, MariaDB innodb_ft_min_token_size)보다 짧은 단어가 있으면 null (LIKE 검색)
+ *   - MySQL ngram은 불용어가 포함된 토큰을 버리므로 영문 검색이 필요하면 innodb_ft_enable_stopword=OFF 권장
+ *   - search_text가 비어있는 기존 행은 SearchTextBackfillService로 채워야 본문이 검색됨 (그 전에는 제목만)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class FulltextPostSearch {
+
+	private static final Logger log = LoggerFactory.getLogger(FulltextPostSearch.class);
+
+	/** 도메인 → 테이블 */
+	private static final Map<String, String> TABLES = Map.of(
+		"counsel", "counsel_post",
+		"notice", "community_post",
+		"photo", "photo_post");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean enabled;
+	private final boolean createIndex;
+	private final int maxHits;
+	private final Set<String> readyTables = ConcurrentHashMap.newKeySet();
+	/** true: MySQL ngram, false: MariaDB 기본 파서 (준비 전에는 의미 없음) */
+	private volatile boolean ngram;
+	private volatile int minTokenLength = Integer.MAX_VALUE;
+
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "fulltext-post-search");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public FulltextPostSearch(JdbcTemplate jdbcTemplate,
+							  @Value("${petclinic.search.fulltext.enabled:false}") boolean enabled,
+							  @Value("${petclinic.search.fulltext.create-index:true}") boolean createIndex,
+							  @Value("${petclinic.search.fulltext.max-hits:1000}") int maxHits) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.enabled = enabled;
+		this.createIndex = createIndex;
+		this.maxHits = Math.max(1, maxHits);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (enabled) {
+			worker.execute(this::prepare);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdownNow();
+	}
+
+	public boolean isReady(String domain) {
+		String table = TABLES.get(domain);
+		return enabled && table != null && readyTables.contains(table);
+	}
+
+	/**
+	 * FULLTEXT 검색
+	 * @param domain 도메인명 (counsel, notice, photo)
+	 * @param query 검색어 (공백/기호로 나눈 모든 단어를 포함해야 일치)
+	 * @param field 검색 대상
+	 * @param depth 필요한 결과 깊이 (보려는 페이지의 끝 위치)
+	 * @return 게시글 id (관련도 높은 순, 최대 max(max-hits, depth)건) + 전체 일치 수 (잘렸을 때만 COUNT),
+	 *         FULLTEXT를 쓸 수 없거나 검색어가 짧으면 null
+	 */
+	public PostSearchIndex.Hits search(String domain, String query, PostSearchIndex.Field field, long depth) {
+		if (!isReady(domain)) {
+			return null;
+		}
+		List<String> words = words(query);
+		if (words == null) {
+			return null;
+		}
+
+		StringBuilder against = new StringBuilder();
+		for (String word : words) {
+			against.append(ngram ? "+\"" + word + "\" " : "+" + word + "* ");
+		}
+		String match = "MATCH(title, search_text) AGAINST (? IN BOOLEAN MODE)";
+		StringBuilder where = new StringBuilder(" FROM ").append(TABLES.get(domain))
+			.append(" WHERE ").append(match).append(" AND del_flag NOT IN ('Y', '1')");
+		List<Object> args = new ArrayList<>();
+		args.add(against.toString().trim());
+		if (field != PostSearchIndex.Field.ALL) {
+			String column = field == PostSearchIndex.Field.TITLE ? "title" : "search_text";
+			for (String word : words) {
+				where.append(" AND ").append(column).append(" LIKE ?");
+				args.add("%" + escapeLike(word) + "%");
+			}
+		}
+		int limit = PostSearchIndex.limitFor(maxHits, depth);
+		List<Object> pageArgs = new ArrayList<>(args);
+		pageArgs.add(against.toString().trim());
+		pageArgs.add(limit);
+
+		try {
+			List<Long> ids = jdbcTemplate.queryForList(
+				"SELECT id" + where + " ORDER BY " + match + " DESC, id DESC LIMIT ?", Long.class, pageArgs.toArray());
+			if (ids.size() < limit) {
+				return new PostSearchIndex.Hits(ids, ids.size());
+			}
+			Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*)" + where, Integer.class, args.toArray());
+			return new PostSearchIndex.Hits(ids, total == null ? ids.size() : total);
+		} catch (DataAccessException e) {
+			log.warn("FULLTEXT search failed (falling back to LIKE): domain={}, query={}", domain, query, e);
+			return null;
+		}
+	}
+
+	/**
+	 * 검색어 → 단어 (글자/숫자 덩어리, FULLTEXT 연산자 문자 제거), 최소 길이보다 짧은 단어가 있으면 null
+	 */
+	private List<String> words(String query) {
+		if (query == null) {
+			return null;
+		}
+		List<String> words = new ArrayList<>();
+		String lower = query.toLowerCase(Locale.ROOT);
+		int start = -1;
+		for (int i = 0; i <= lower.length(); i++) {
+			boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				if (i - start < minTokenLength) {
+					return null;
+				}
+				words.add(lower.substring(start, i));
+				start = -1;
+			}
+		}
+		return words.isEmpty() ? null : words;
+	}
+
+	private static String escapeLike(String word) {
+		return word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	// ==================== 기동 시 준비 ====================
+
+	private void prepare() {
+		try {
+			String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+				connection.getMetaData().getDatabaseProductName());
+			String version = jdbcTemplate.queryForObject("SELECT VERSION()", String.class);
+			boolean mariaDb = (product + " " + version).toLowerCase(Locale.ROOT).contains("mariadb");
+			if (!mariaDb && (product == null || !product.toLowerCase(Locale.ROOT).contains("mysql"))) {
+				log.info("FULLTEXT post search not available on {} (LIKE search)", product);
+				return;
+			}
+			ngram = !mariaDb;
+			Integer tokenSize = jdbcTemplate.queryForObject(
+				ngram ? "SELECT @@ngram_token_size" : "SELECT @@innodb_ft_min_token_size", Integer.class);
+			minTokenLength = tokenSize == null ? 2 : Math.max(1, tokenSize);
+
+			for (String table : TABLES.values()) {
+				if (Thread.currentThread().isInterrupted()) {
+					return;
+				}
+				if (ensureIndex(table)) {
+					readyTables.add(table);
+				}
+			}
+			log.info("FULLTEXT post search ready: parser={}, minTokenLength={}, tables={}",
+				ngram ? "ngram" : "default", minTokenLength, readyTables);
+		} catch (DataAccessException e) {
+			log.error("FULLTEXT post search setup failed (LIKE search)", e);
+		}
+	}
+
+	private boolean ensureIndex(String table) {
+		String indexName = "FT_" + table + "_search";
+		Integer existing = jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+			Integer.class, table, indexName);
+		if (existing != null && existing > 0) {
+			return true;
+		}
+		if (!createIndex) {
+			log.warn("FULLTEXT index missing (create-index=false, LIKE search): {}.{}", table, indexName);
+			return false;
+		}
+		long startNanos = System.nanoTime();
+		try {
+			jdbcTemplate.execute("ALTER TABLE " + table + " ADD FULLTEXT INDEX " + indexName + " (title, search_text)"
+				+ (ngram ? " WITH PARSER ngram" : ""));
+			log.info("FULLTEXT index created: {}.{} ({}ms)", table, indexName, (System.nanoTime() - startNanos) / 1_000_000);
+			return true;
+		} catch (DataAccessException e) {
+			log.error("FULLTEXT index creation failed (LIKE search): {}.{}", table, indexName, e);
+			return false;
+		}
+	}
+}
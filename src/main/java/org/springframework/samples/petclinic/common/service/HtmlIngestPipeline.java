@@ -0,0 +1,156 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.jsoup.select.Elements;
+import org.springframework.samples.petclinic.common.dto.IngestedHtml;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Project : spring-petclinic
+ * File    : HtmlIngestPipeline.java
+ * Created : 2026-03-16
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 본문 HTML 수집(ingest) 단계: 원본을 한 번만 파싱해 저장/부가 정보를 모두 산출
+ *   - 정제: 공용 Safelist + Cleaner (Jsoup.clean과 같은 결과, 정제된 Document를 버리지 않고 재사용)
+ *   - 2차 보안: 정제 후 img src의 javascript: 프로토콜 차단
+ *   - 부가 정보: 검색용 평문, 첫 이미지 URL(썸네일), 본문 이미지 URL 목록, 단어 수, 이미지 수
+ *   - 인라인 이미지: img src의 base64 data: URI를 InlineImageHandler에 넘기고 반환된 URL로 교체 (같은 순회 안에서)
+ *
+ * Purpose (만든 이유):
+ *   1. 저장 시 Safelist 생성 → Jsoup.clean → 문자열 검사 → 썸네일용 indexOf 재탐색으로 같은 본문을 여러 번 훑음
+ *   2. 에디터 본문(인라인 스타일, 이미지 다수)이 클수록 반복 파싱/스캔 비용이 커짐
+ *   3. 썸네일을 원본이 아닌 정제된 DOM에서 뽑아 저장 본문과 항상 일치
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class HtmlIngestPipeline {
+
+	/** 본문 보안 정책 (불변, 요청마다 생성하지 않음) */
+	private static final Safelist SAFELIST = Safelist.relaxed()
+		.addTags("img")
+		.addAttributes(":all", "style", "class", "width", "height")
+		.addAttributes("img", "src", "alt", "title", "data-filename")
+		.preserveRelativeLinks(true)
+		.removeProtocols("img", "src", "http", "https"); // 프로토콜 제약 해제
+
+	private static final String JAVASCRIPT_PROTOCOL = "javascript:";
+	private static final String DATA_PROTOCOL = "data:";
+	private static final String BASE64_MARKER = ";base64,";
+
+	/**
+	 * 본문에 박힌 base64 이미지 처리기 (예: 첨부파일로 저장 후 접근 URL 반환)
+	 */
+	public interface InlineImageHandler {
+
+		/**
+		 * @param mimeType data URI에 선언된 MIME 타입 (예: image/png, 실제 형식은 처리기가 검증)
+		 * @param data 디코딩된 이미지 바이트
+		 * @param filename img의 data-filename 속성 (없으면 null)
+		 * @return 교체할 src URL, null이면 원래 data URI 유지
+		 */
+		String store(String mimeType, byte[] data, String filename);
+	}
+
+	/**
+	 * 원본 HTML 1회 파싱 → 정제 및 부가 정보 산출
+	 * @param rawHtml 에디터 원본 HTML (null이면 빈 본문)
+	 * @return 정제 결과
+	 * @throws SecurityException 정제 후에도 img src에 javascript: 가 남은 경우
+	 */
+	public IngestedHtml ingest(String rawHtml) {
+		return ingest(rawHtml, null);
+	}
+
+	/**
+	 * 원본 HTML 1회 파싱 → 정제, 인라인 이미지 추출, 부가 정보 산출
+	 * @param rawHtml 에디터 원본 HTML (null이면 빈 본문)
+	 * @param inlineImageHandler base64 data: 이미지 처리기 (null이면 그대로 둠)
+	 * @return 정제 결과 (src 교체 반영)
+	 * @throws SecurityException 정제 후에도 img src에 javascript: 가 남은 경우
+	 */
+	public IngestedHtml ingest(String rawHtml, InlineImageHandler inlineImageHandler) {
+		// 1. 파싱 1회 + 정제 (Jsoup.clean 내부와 동일: parseBodyFragment → Cleaner.clean)
+		Document dirty = Jsoup.parseBodyFragment(rawHtml == null ? "" : rawHtml, "");
+		Document clean = new Cleaner(SAFELIST).clean(dirty);
+		Element body = clean.body();
+
+		// 2. 이미지: 보안 검사 + 인라인 이미지 교체 + URL 목록 (정제된 DOM 한 번 순회)
+		Elements images = body.getElementsByTag("img");
+		List<String> imageUrls = new ArrayList<>(images.size());
+		for (Element img : images) {
+			String src = img.attr("src").trim();
+			String lower = src.toLowerCase(Locale.ROOT);
+			if (lower.startsWith(JAVASCRIPT_PROTOCOL)) {
+				throw new SecurityException("XSS attempt detected");
+			}
+			if (inlineImageHandler != null && lower.startsWith(DATA_PROTOCOL)) {
+				String replaced = replaceDataUri(img, src, inlineImageHandler);
+				if (replaced != null) {
+					src = replaced;
+				}
+			}
+			if (!src.isEmpty()) {
+				imageUrls.add(src);
+			}
+		}
+
+		// 3. 평문 + 단어 수
+		String plainText = body.text();
+		return new IngestedHtml(body.html(), plainText, imageUrls, countWords(plainText), images.size());
+	}
+
+	/**
+	 * data:{mime};base64,{payload} → 처리기 저장 후 src 교체
+	 * @return 교체된 URL (base64가 아니거나 이미지가 아니거나 처리기가 거부하면 null)
+	 */
+	private static String replaceDataUri(Element img, String src, InlineImageHandler handler) {
+		int marker = src.indexOf(BASE64_MARKER);
+		if (marker < 0) {
+			return null;
+		}
+		String mimeType = src.substring(DATA_PROTOCOL.length(), marker).trim().toLowerCase(Locale.ROOT);
+		if (!mimeType.startsWith("image/")) {
+			return null;
+		}
+		byte[] data;
+		try {
+			// MIME 디코더: 에디터/붙여넣기 과정에서 섞인 줄바꿈/공백 허용
+			data = Base64.getMimeDecoder().decode(src.substring(marker + BASE64_MARKER.length()));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		String filename = img.hasAttr("data-filename") ? img.attr("data-filename") : null;
+		String url = handler.store(mimeType, data, filename);
+		if (url != null) {
+			img.attr("src", url);
+		}
+		return url;
+	}
+
+	private static int countWords(String text) {
+		int count = 0;
+		boolean inWord = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			boolean whitespace = Character.isWhitespace(c) || c == '\u00A0'; // &nbsp;
+			if (!whitespace && !inWord) {
+				count++;
+			}
+			inWord = !whitespace;
+		}
+		return count;
+	}
+}
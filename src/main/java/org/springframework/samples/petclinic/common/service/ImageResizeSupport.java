@@ -0,0 +1,222 @@
+package org.springframework.samples.petclinic.common.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Project : spring-petclinic
+ * File    : ImageResizeSupport.java
+ * Created : 2026-03-06
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   ImageIO 기반 이미지 디코딩/축소/인코딩 공용 헬퍼 (상태 없음)
+ *   - ImageVariantService(업로드 이미지 썸네일), StaticImageOptimizer(정적 이미지 반응형 변형) 공용
+ *
+ * Key Features (주요 기능):
+ *   - 헤더로 크기 확인 후 서브샘플링 디코딩 (필요한 해상도만 메모리에 올림)
+ *   - 1/2 단계 축소 + 마지막 보간 (한 번에 크게 줄일 때의 계단 현상 방지)
+ *   - 투명도 보존(PNG) 또는 흰 배경 합성(JPEG)
+ *   - 임시 파일 기록 후 원자적 이동
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public final class ImageResizeSupport {
+
+	private ImageResizeSupport() {
+	}
+
+	/**
+	 * 이미지 디코딩 (서브샘플링)
+	 * @param in 이미지 입력 스트림
+	 * @param maxTargetWidth 만들 변형 중 가장 큰 너비 (이 값의 2배 수준까지만 디코딩)
+	 * @param maxPixels 허용 최대 픽셀 수 (압축 폭탄 방어, 원본 기준)
+	 * @return 디코딩 결과, 읽을 수 없는 형식이거나 너무 크면 null
+	 */
+	public static DecodedImage decode(ImageInputStream in, int maxTargetWidth, long maxPixels) throws IOException {
+		if (in == null) {
+			return null;
+		}
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+		if (!readers.hasNext()) {
+			return null;
+		}
+		ImageReader reader = readers.next();
+		try {
+			reader.setInput(in, true, true);
+			int width = reader.getWidth(0);
+			int height = reader.getHeight(0);
+			if ((long) width * height > maxPixels) {
+				return null;
+			}
+
+			ImageReadParam param = reader.getDefaultReadParam();
+			int subsampling = Math.max(1, width / (maxTargetWidth * 2));
+			if (subsampling > 1) {
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+			}
+			return new DecodedImage(reader.read(0, param), width, height);
+		} finally {
+			reader.dispose();
+		}
+	}
+
+	/**
+	 * 원본 비율을 유지한 높이 계산
+	 */
+	public static int scaledHeight(int originalWidth, int originalHeight, int targetWidth) {
+		return Math.max(1, (int) Math.round((double) originalHeight * targetWidth / originalWidth));
+	}
+
+	/**
+	 * 실제로 투명한 픽셀이 있는지 확인 (알파 채널만 있고 전부 불투명한 PNG는 JPEG로 변환 가능)
+	 */
+	public static boolean hasTransparency(BufferedImage image) {
+		if (!image.getColorModel().hasAlpha()) {
+			return false;
+		}
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				if ((image.getRGB(x, y) >>> 24) != 0xFF) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 알파 채널 제거 (JPEG는 투명도를 지원하지 않으므로 흰 배경에 합성)
+	 */
+	public static BufferedImage toOpaqueRgb(BufferedImage image) {
+		if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+			return image;
+		}
+		BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = rgb.createGraphics();
+		try {
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, image.getWidth(), image.getHeight());
+			g.drawImage(image, 0, 0, null);
+		} finally {
+			g.dispose();
+		}
+		return rgb;
+	}
+
+	/**
+	 * 단계적 축소 (1/2씩 줄인 뒤 마지막에 목표 크기로 보간, 원본의 투명도 여부 유지)
+	 */
+	public static BufferedImage resize(BufferedImage source, int targetWidth, int targetHeight) {
+		BufferedImage current = source;
+		int width = current.getWidth();
+		int height = current.getHeight();
+
+		while (width / 2 >= targetWidth) {
+			width /= 2;
+			height = Math.max(1, height / 2);
+			current = draw(current, width, height);
+		}
+		if (width != targetWidth || height != targetHeight) {
+			current = draw(current, targetWidth, targetHeight);
+		}
+		return current;
+	}
+
+	private static BufferedImage draw(BufferedImage source, int width, int height) {
+		int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		BufferedImage target = new BufferedImage(width, height, type);
+		Graphics2D g = target.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			g.dispose();
+		}
+		return target;
+	}
+
+	/**
+	 * 이미지 기록 (임시 파일 → 원자적 이동)
+	 * @param image 기록할 이미지
+	 * @param format ImageIO 포맷명 (jpeg, png, webp)
+	 * @param target 최종 경로
+	 * @param quality 압축 품질 (0.0 ~ 1.0, 손실 압축 미지원 포맷은 무시)
+	 * @return 기록된 파일 크기
+	 */
+	public static long write(BufferedImage image, String format, Path target, float quality) throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+		if (!writers.hasNext()) {
+			throw new IOException("No ImageIO writer for format: " + format);
+		}
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), "variant-", ".part");
+		ImageWriter writer = writers.next();
+		try {
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (param.canWriteCompressed()) {
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+					param.setCompressionType(param.getCompressionTypes()[0]);
+				}
+				param.setCompressionQuality(quality);
+			}
+			if (param.canWriteProgressive()) {
+				param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+			}
+			try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+				writer.setOutput(out);
+				writer.write(null, new IIOImage(image, null, null), param);
+			}
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+			return Files.size(target);
+		} finally {
+			writer.dispose();
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * 디코딩 결과 (서브샘플링된 이미지 + 원본 크기)
+	 */
+	public static class DecodedImage {
+		private final BufferedImage image;
+		private final int originalWidth;
+		private final int originalHeight;
+
+		public DecodedImage(BufferedImage image, int originalWidth, int originalHeight) {
+			this.image = image;
+			this.originalWidth = originalWidth;
+			this.originalHeight = originalHeight;
+		}
+
+		public BufferedImage getImage() {
+			return image;
+		}
+
+		public int getOriginalWidth() {
+			return originalWidth;
+		}
+
+		public int getOriginalHeight() {
+			return originalHeight;
+		}
+	}
+}
@@ -0,0 +1,412 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.samples.petclinic.common.dto.ImageVariantSet;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.repository.AttachmentVariantRepository;
+import org.springframework.samples.petclinic.common.service.ImageResizeSupport.DecodedImage;
+import org.springframework.samples.petclinic.common.table.Attachment;
+import org.springframework.samples.petclinic.common.table.AttachmentVariant;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Project : spring-petclinic
+ * File    : ImageVariantService.java
+ * Created : 2026-03-05
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   이미지 첨부파일 파생본(다중 너비 썸네일) 비동기 생성 및 조회 서비스
+ *
+ * Purpose (만든 이유):
+ *   1. 포토게시판 목록(12개 카드)이 원본 이미지를 그대로 불러와 페이지당 수십 MB 전송
+ *   2. 업로드 직후 백그라운드에서 320/640/1280px 파생본을 만들어 목록/상세가 작은 이미지를 참조
+ *   3. 요청 스레드는 작업 등록만 하고 즉시 반환 (업로드 응답 지연 없음)
+ *
+ * Generation (생성 규칙):
+ *   - 크기 제한 큐를 가진 전용 스레드 풀 (큐 초과 시 작업 버림 → 다음 게시글 저장 시 재요청됨)
+ *   - 원본보다 큰 너비는 만들지 않음 (확대 금지)
+ *   - 큰 원본은 ImageReader 서브샘플링으로 필요한 해상도만 디코딩 (메모리/CPU 절감)
+ *   - 큰 너비 → 작은 너비 순으로 직전 결과를 재사용하여 단계 축소
+ *   - JPEG 항상 생성, WebP는 ImageIO WebP Writer 플러그인이 등록된 경우에만 생성
+ *   - 임시 파일 기록 후 원자적 이동, 이미 생성된 (너비, 포맷)은 건너뜀 (재요청 안전)
+ *
+ * Note:
+ *   - ImageIO는 EXIF 회전 정보를 적용하지 않음 (원본과 동일한 방향으로 축소)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class ImageVariantService {
+
+	private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+	// 생성할 파생본 너비 (목록 카드 / 모바일 상세 / 데스크톱 상세)
+	private static final int[] VARIANT_WIDTHS = {1280, 640, 320};
+	private static final int MAX_VARIANT_WIDTH = 1280;
+
+	// 목록 카드 표시 너비 (고해상도 화면 2배 기준)
+	public static final int LIST_THUMBNAIL_WIDTH = 640;
+
+	// 디코딩 허용 최대 픽셀 수 (압축 폭탄 방어, 서브샘플링 전 원본 기준)
+	private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+	private static final float VARIANT_QUALITY = 0.82f;
+
+	// 스레드 풀: 이미지 디코딩은 CPU/메모리 집약적이므로 작게 유지
+	private static final int WORKER_THREADS = 2;
+	private static final int QUEUE_CAPACITY = 200;
+
+	private static final String URL_PREFIX = "/images/";
+	private static final String UPLOADS_SEGMENT = "/uploads/";
+	private static final String VARIANTS_SEGMENT = "/variants/";
+
+	private final Path baseDir;
+	private final AttachmentRepository attachmentRepository;
+	private final AttachmentVariantRepository variantRepository;
+
+	private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+	private final boolean webpSupported = ImageIO.getImageWritersByFormatName(ImageVariantSet.FORMAT_WEBP).hasNext();
+	private final ThreadPoolExecutor executor;
+
+	public ImageVariantService(@Value("${petclinic.file.base-dir}") String baseDirPath,
+							   AttachmentRepository attachmentRepository,
+							   AttachmentVariantRepository variantRepository) {
+		this.baseDir = Paths.get(baseDirPath);
+		this.attachmentRepository = attachmentRepository;
+		this.variantRepository = variantRepository;
+
+		AtomicInteger threadSeq = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 60, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+			runnable -> {
+				Thread thread = new Thread(runnable, "image-variant-" + threadSeq.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			},
+			(runnable, pool) -> {
+				// 큐 초과 또는 종료 중: 작업을 버리고 다음 요청 때 다시 생성
+				if (runnable instanceof VariantTask task) {
+					inFlight.remove(task.attachmentId);
+					log.warn("Image variant task dropped: attachmentId={}, queue={}", task.attachmentId, pool.getQueue().size());
+				}
+			});
+		this.executor.allowCoreThreadTimeOut(true);
+
+		log.info("ImageVariantService initialized: widths=320/640/1280, webp={}", webpSupported);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// ==================== 생성 요청 ====================
+
+	/**
+	 * 파생본 생성 요청 (비동기)
+	 * - 트랜잭션 안에서 호출되면 커밋 후 등록 (롤백된 첨부파일은 처리하지 않음)
+	 * @param attachmentId 원본 첨부파일 ID
+	 */
+	public void requestVariants(Long attachmentId) {
+		if (attachmentId == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					submit(attachmentId);
+				}
+			});
+		} else {
+			submit(attachmentId);
+		}
+	}
+
+	/**
+	 * 이미지 URL(/images/{storedPath})로 파생본 생성 요청
+	 * - 기능 도입 전에 업로드된 썸네일 등, 업로드 시점에 요청되지 않은 이미지용
+	 * @param imageUrl 게시글 썸네일/본문 이미지 URL
+	 */
+	public void requestVariantsForUrl(String imageUrl) {
+		String storedPath = toStoredPath(imageUrl);
+		if (storedPath == null) {
+			return;
+		}
+		attachmentRepository.findByStoredFilenameIn(List.of(storedPath))
+			.forEach(attachment -> requestVariants(attachment.getId()));
+	}
+
+	private void submit(Long attachmentId) {
+		if (inFlight.add(attachmentId)) {
+			executor.execute(new VariantTask(attachmentId));
+		}
+	}
+
+	/**
+	 * 파생본 생성 작업 (거부 정책에서 inFlight 정리를 위해 ID 보관)
+	 */
+	private class VariantTask implements Runnable {
+		private final Long attachmentId;
+
+		private VariantTask(Long attachmentId) {
+			this.attachmentId = attachmentId;
+		}
+
+		@Override
+		public void run() {
+			try {
+				generate(attachmentId);
+			} catch (Exception e) {
+				log.error("Image variant generation failed: attachmentId={}", attachmentId, e);
+			} finally {
+				inFlight.remove(attachmentId);
+			}
+		}
+	}
+
+	// ==================== 생성 작업 ====================
+
+	private void generate(Long attachmentId) throws IOException {
+		Attachment attachment = attachmentRepository.findById(attachmentId).orElse(null);
+		if (attachment == null || !isImage(attachment.getContentType())) {
+			return;
+		}
+
+		Set<String> existing = new HashSet<>();
+		for (AttachmentVariant variant : variantRepository.findByAttachmentId(attachmentId)) {
+			existing.add(variant.getWidth() + ":" + variant.getFormat());
+		}
+
+		List<String> formats = new ArrayList<>();
+		formats.add(ImageVariantSet.FORMAT_JPEG);
+		if (webpSupported) {
+			formats.add(ImageVariantSet.FORMAT_WEBP);
+		}
+
+		Path source = baseDir.resolve(attachment.getStoredFilename()).normalize();
+		if (!source.startsWith(baseDir.normalize()) || !Files.isRegularFile(source)) {
+			log.warn("Image variant source missing: attachmentId={}, path={}", attachmentId, source);
+			return;
+		}
+
+		long started = System.currentTimeMillis();
+		DecodedImage decoded;
+		try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+			decoded = ImageResizeSupport.decode(in, MAX_VARIANT_WIDTH, MAX_SOURCE_PIXELS);
+		}
+		if (decoded == null) {
+			log.warn("Image not decodable or too large for variants: attachmentId={}, path={}", attachmentId, source);
+			return;
+		}
+
+		int originalWidth = decoded.getOriginalWidth();
+		int originalHeight = decoded.getOriginalHeight();
+		BufferedImage current = ImageResizeSupport.toOpaqueRgb(decoded.getImage());
+		int created = 0;
+
+		for (int width : VARIANT_WIDTHS) {
+			if (width >= originalWidth) {
+				continue; // 확대 금지
+			}
+			int height = ImageResizeSupport.scaledHeight(originalWidth, originalHeight, width);
+			current = ImageResizeSupport.resize(current, width, height);
+
+			for (String format : formats) {
+				if (existing.contains(width + ":" + format)) {
+					continue;
+				}
+				String variantPath = buildVariantPath(attachment.getStoredFilename(), width, format);
+				if (variantPath == null) {
+					return;
+				}
+				long size = ImageResizeSupport.write(current, format, baseDir.resolve(variantPath), VARIANT_QUALITY);
+				try {
+					variantRepository.save(new AttachmentVariant(attachment, width, height, format, variantPath, size));
+					created++;
+				} catch (DataIntegrityViolationException e) {
+					log.debug("Image variant already recorded: attachmentId={}, width={}, format={}", attachmentId, width, format);
+				}
+			}
+		}
+
+		if (created > 0) {
+			log.info("Image variants created: attachmentId={}, count={}, source={}x{}, elapsed={}ms",
+				attachmentId, created, originalWidth, originalHeight, System.currentTimeMillis() - started);
+		}
+	}
+
+	// ==================== 조회 / 화면 적용 ====================
+
+	/**
+	 * 이미지 URL 목록의 파생본 일괄 조회
+	 * @param imageUrls 원본 이미지 URL (/images/{storedPath})
+	 * @return 원본 URL → 파생본 묶음 (파생본이 없는 URL은 포함되지 않음)
+	 */
+	public Map<String, ImageVariantSet> findVariantSets(Collection<String> imageUrls) {
+		Map<String, String> urlByPath = new HashMap<>();
+		for (String url : imageUrls) {
+			String storedPath = toStoredPath(url);
+			if (storedPath != null) {
+				urlByPath.put(storedPath, url);
+			}
+		}
+		if (urlByPath.isEmpty()) {
+			return Map.of();
+		}
+
+		Map<String, ImageVariantSet> result = new HashMap<>();
+		for (AttachmentVariant variant : variantRepository.findByStoredPaths(urlByPath.keySet())) {
+			String originalUrl = urlByPath.get(variant.getAttachment().getStoredFilename());
+			if (originalUrl == null) {
+				continue;
+			}
+			result.computeIfAbsent(originalUrl, ImageVariantSet::new)
+				.add(URL_PREFIX + variant.getStoredPath(), variant.getWidth(), variant.getFormat());
+		}
+		return result;
+	}
+
+	/**
+	 * 게시글 본문 HTML의 업로드 이미지를 파생본으로 교체 (상세 화면 표시용, 저장 HTML은 변경하지 않음)
+	 * - src: 1280px JPEG 파생본, srcset/sizes: 화면 너비에 맞는 파생본 선택, 지연 로딩
+	 * @param html 게시글 본문 (이미 XSS 정제된 HTML)
+	 * @return 파생본이 적용된 HTML (파생본이 없으면 원본 그대로)
+	 */
+	public String applyResponsiveImages(String html) {
+		if (html == null || !html.contains("<img")) {
+			return html;
+		}
+
+		Document doc = Jsoup.parseBodyFragment(html);
+		doc.outputSettings().prettyPrint(false);
+
+		List<Element> images = doc.select("img[src]");
+		List<String> urls = new ArrayList<>(images.size());
+		for (Element img : images) {
+			urls.add(img.attr("src"));
+		}
+
+		Map<String, ImageVariantSet> variantSets = findVariantSets(urls);
+		if (variantSets.isEmpty()) {
+			return html;
+		}
+
+		for (Element img : images) {
+			ImageVariantSet set = variantSets.get(img.attr("src"));
+			if (set == null) {
+				continue;
+			}
+			String src = set.pick(ImageVariantSet.FORMAT_JPEG, MAX_VARIANT_WIDTH);
+			String srcset = set.srcset(ImageVariantSet.FORMAT_JPEG);
+			if (src == null || srcset == null) {
+				continue;
+			}
+			img.attr("src", src);
+			img.attr("srcset", srcset);
+			img.attr("sizes", "(max-width: 900px) 100vw, 900px");
+			img.attr("loading", "lazy");
+			img.attr("decoding", "async");
+		}
+		return doc.body().html();
+	}
+
+	// ==================== 삭제 ====================
+
+	/**
+	 * 원본 영구 삭제 전 파생본 파일 및 행 삭제 (FileCleanupScheduler Task 2에서 호출)
+	 * @param attachmentId 원본 첨부파일 ID
+	 * @return 삭제된 파생본 행 수
+	 */
+	public int deleteVariants(Long attachmentId) {
+		List<AttachmentVariant> variants = variantRepository.findByAttachmentId(attachmentId);
+		if (variants.isEmpty()) {
+			return 0;
+		}
+		for (AttachmentVariant variant : variants) {
+			try {
+				Files.deleteIfExists(baseDir.resolve(variant.getStoredPath()).normalize());
+			} catch (IOException e) {
+				log.warn("Failed to delete image variant file: {}", variant.getStoredPath(), e);
+			}
+		}
+		return variantRepository.deleteByAttachmentId(attachmentId);
+	}
+
+	// ==================== 헬퍼 ====================
+
+	private boolean isImage(String contentType) {
+		return contentType != null && contentType.startsWith("image/");
+	}
+
+	/**
+	 * 이미지 URL → base-dir 기준 저장 경로 (/images/photo/uploads/... → photo/uploads/...)
+	 */
+	private String toStoredPath(String imageUrl) {
+		if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+			return null;
+		}
+		String storedPath = imageUrl.substring(URL_PREFIX.length());
+		if (storedPath.contains("..") || !storedPath.contains(UPLOADS_SEGMENT)) {
+			return null;
+		}
+		return storedPath;
+	}
+
+	/**
+	 * 파생본 경로 생성: photo/uploads/2026/03/uuid.png → photo/variants/2026/03/uuid_w640.jpg
+	 */
+	private String buildVariantPath(String storedFilename, int width, String format) {
+		int uploadsIdx = storedFilename.indexOf(UPLOADS_SEGMENT);
+		if (uploadsIdx < 0) {
+			return null;
+		}
+		String domain = storedFilename.substring(0, uploadsIdx);
+		String rest = storedFilename.substring(uploadsIdx + UPLOADS_SEGMENT.length());
+		int dot = rest.lastIndexOf('.');
+		if (dot > rest.lastIndexOf('/')) {
+			rest = rest.substring(0, dot);
+		}
+		String extension = ImageVariantSet.FORMAT_JPEG.equals(format) ? "jpg" : format;
+		return domain + VARIANTS_SEGMENT + rest + "_w" + width + "." + extension;
+	}
+}
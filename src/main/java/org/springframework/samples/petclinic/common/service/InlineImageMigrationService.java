@@ -0,0 +1,215 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.common.dto.IngestedHtml;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Project : spring-petclinic
+ * File    : InlineImageMigrationService.java
+ * Created : 2026-03-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   기존 본문 파일의 인라인(base64) 이미지 일괄 추출 (1회성 마이그레이션)
+ *   - 대상: counsel_post.content_path, community_post.content, photo_post.content 가 가리키는 본문 파일
+ *   - 행 단위 짧은 트랜잭션: 본문 재저장(추출 + 새 파일) → 경로 컬럼 교체(기존 경로 조건) → 기존 파일 커밋 후 삭제
+ *   - 경로 컬럼이 그 사이 바뀐 행(게시글 수정)은 롤백 → 새 파일/추출 이미지 모두 취소
+ *   - id 기준 keyset 분할 조회, 다시 실행해도 data: 이미지가 없는 본문은 읽기만 하고 건너뜀
+ *
+ * Purpose (만든 이유):
+ *   - 저장 경로 추출(InlineImageService)은 새로 저장되는 본문에만 적용되므로, 이미 저장된 본문도 같은 형태로 변환
+ *
+ * Usage:
+ *   petclinic.file.inline-images.migrate-on-startup=true 로 1회 기동 (기동 완료 후 백그라운드 실행, 결과는 로그)
+ *
+ * Note:
+ *   - 본문이 컬럼에 직접 들어있는 예전 행과 보관(archive) 테이블은 대상 아님
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class InlineImageMigrationService {
+
+	private static final Logger log = LoggerFactory.getLogger(InlineImageMigrationService.class);
+
+	private static final int BATCH_SIZE = 100;
+	private static final int ROW_TX_TIMEOUT_SECONDS = 60;
+	private static final String INLINE_IMAGE_MARKER = "data:image/";
+
+	/** (테이블, 경로 컬럼, 본문 도메인) */
+	private static final List<String[]> TARGETS = List.of(
+		new String[]{"counsel_post", "content_path", "counsel"},
+		new String[]{"community_post", "content", "notice"},
+		new String[]{"photo_post", "content", "photo"});
+
+	private final JdbcTemplate jdbcTemplate;
+	private final CommonHtmlStorage htmlStorage;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean migrateOnStartup;
+
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "inline-image-migration");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public InlineImageMigrationService(JdbcTemplate jdbcTemplate,
+									   CommonHtmlStorage htmlStorage,
+									   PlatformTransactionManager transactionManager,
+									   @Value("${petclinic.file.inline-images.migrate-on-startup:false}") boolean migrateOnStartup) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.htmlStorage = htmlStorage;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setTimeout(ROW_TX_TIMEOUT_SECONDS);
+		this.migrateOnStartup = migrateOnStartup;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (migrateOnStartup) {
+			worker.execute(this::migrateAll);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdownNow();
+	}
+
+	/**
+	 * 전체 대상 테이블 마이그레이션
+	 * @return 처리 결과 (행 수)
+	 */
+	public MigrationReport migrateAll() {
+		MigrationReport report = new MigrationReport();
+		long startNanos = System.nanoTime();
+		for (String[] target : TARGETS) {
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+			migrateTable(target[0], target[1], target[2], report);
+		}
+		log.info("Inline image migration finished: scanned={}, migrated={}, unchanged={}, conflicts={}, failed={}, took={}ms",
+			report.scanned, report.migrated, report.unchanged, report.conflicts, report.failed,
+			(System.nanoTime() - startNanos) / 1_000_000);
+		return report;
+	}
+
+	private void migrateTable(String table, String pathColumn, String domain, MigrationReport report) {
+		String selectSql = "SELECT id, " + pathColumn + " FROM " + table
+			+ " WHERE id > ? AND " + pathColumn + " IS NOT NULL ORDER BY id LIMIT ?";
+		String updateSql = "UPDATE " + table + " SET " + pathColumn + " = ? WHERE id = ? AND " + pathColumn + " = ?";
+
+		long afterId = 0;
+		while (!Thread.currentThread().isInterrupted()) {
+			List<Object[]> rows = jdbcTemplate.query(selectSql,
+				(rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)}, afterId, BATCH_SIZE);
+			if (rows.isEmpty()) {
+				break;
+			}
+			for (Object[] row : rows) {
+				long id = (Long) row[0];
+				String oldPath = (String) row[1];
+				afterId = id;
+				if (!htmlStorage.isStoredPath(oldPath, domain)) {
+					continue;
+				}
+				report.scanned++;
+				try {
+					migrateRow(table, domain, updateSql, id, oldPath, report);
+				} catch (Exception e) {
+					report.failed++;
+					log.warn("Inline image migration failed: table={}, id={}, path={}", table, id, oldPath, e);
+				}
+			}
+		}
+	}
+
+	private void migrateRow(String table, String domain, String updateSql, long id, String oldPath,
+							MigrationReport report) throws Exception {
+		String html = htmlStorage.loadHtml(oldPath, domain);
+		if (!html.toLowerCase(Locale.ROOT).contains(INLINE_IMAGE_MARKER)) {
+			report.unchanged++;
+			return;
+		}
+
+		Boolean migrated = transactionTemplate.execute(status -> {
+			IngestedHtml ingested = htmlStorage.ingest(html, domain);
+			if (ingested.getSanitizedHtml().toLowerCase(Locale.ROOT).contains(INLINE_IMAGE_MARKER)
+				&& ingested.getImageUrls().stream().noneMatch(url -> url.startsWith("/images/"))) {
+				// 추출된 이미지가 하나도 없음 (형식/크기 거부): 다시 쓸 이유 없음
+				return null;
+			}
+			try {
+				String newPath = htmlStorage.saveHtml(ingested, domain);
+				if (jdbcTemplate.update(updateSql, newPath, id, oldPath) != 1) {
+					status.setRollbackOnly();
+					return false;
+				}
+				htmlStorage.deleteHtml(oldPath, domain);
+				return true;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		if (migrated == null) {
+			report.unchanged++;
+		} else if (migrated) {
+			report.migrated++;
+			log.debug("Inline images migrated: table={}, id={}, {} -> new body file", table, id, oldPath);
+		} else {
+			report.conflicts++;
+			log.info("Inline image migration skipped (row changed concurrently): table={}, id={}", table, id);
+		}
+	}
+
+	/**
+	 * 마이그레이션 결과
+	 */
+	public static final class MigrationReport {
+
+		private long scanned;
+		private long migrated;
+		private long unchanged;
+		private long conflicts;
+		private long failed;
+
+		public long getScanned() {
+			return scanned;
+		}
+
+		public long getMigrated() {
+			return migrated;
+		}
+
+		public long getUnchanged() {
+			return unchanged;
+		}
+
+		public long getConflicts() {
+			return conflicts;
+		}
+
+		public long getFailed() {
+			return failed;
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.common.dto.StoredFile;
+import org.springframework.samples.petclinic.common.repository.AttachmentContentRefRepository;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.table.Attachment;
+import org.springframework.samples.petclinic.common.table.AttachmentContentRef;
+import org.springframework.samples.petclinic.counsel.service.FileStorageService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Project : spring-petclinic
+ * File    : InlineImageService.java
+ * Created : 2026-03-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   본문 인라인(base64) 이미지 → Attachment 추출 및 본문-이미지 참조 관리
+ *   - 추출: HtmlIngestPipeline.InlineImageHandler 구현 (FileStorageService.storeBytes → Attachment 저장 → /images/... URL 반환)
+ *   - 참조: 본문 파일이 가리키는 /images/{domain}/uploads/... 이미지를 attachment_content_ref에 기록
+ *     (새로 추출한 이미지뿐 아니라 수정 시 그대로 남은 기존 이미지도 새 본문 경로로 다시 기록)
+ *   - 해제: 본문 파일 삭제 시 참조 행 삭제 → 다른 본문이 참조하지 않으면 고아 청소 대상
+ *
+ * Purpose (만든 이유):
+ *   1. Quill 에디터에 이미지 핸들러가 없어 붙여넣은 이미지가 data: URI로 본문 HTML에 그대로 저장됨
+ *   2. 상세 조회마다 수 MB의 base64를 읽고 전송하며, 이미지만 따로 캐시하거나 썸네일을 만들 수 없음
+ *
+ * Note:
+ *   - 형식/크기 검증은 일반 업로드와 같음 (FileStorageService: 허용 MIME, 10MB), 거부된 이미지는 data URI 그대로 유지
+ *   - 포토게시판 이미지는 업로드와 같이 축소 파생본 생성 요청 (커밋 후)
+ *   - petclinic.file.inline-images.extract=false 이면 추출하지 않음 (참조 기록은 계속)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class InlineImageService {
+
+	private static final Logger log = LoggerFactory.getLogger(InlineImageService.class);
+
+	private static final String URL_PREFIX = "/images/";
+	private static final String UPLOADS_SEGMENT = "/uploads/";
+	private static final String DEFAULT_FILENAME = "inline-image";
+	private static final int MAX_FILENAME_LENGTH = 255; // attachment.original_filename
+
+	private final FileStorageService fileStorageService;
+	private final AttachmentRepository attachmentRepository;
+	private final AttachmentContentRefRepository contentRefRepository;
+	private final ImageVariantService imageVariantService;
+	private final boolean extractEnabled;
+
+	public InlineImageService(FileStorageService fileStorageService,
+							  AttachmentRepository attachmentRepository,
+							  AttachmentContentRefRepository contentRefRepository,
+							  ImageVariantService imageVariantService,
+							  @Value("${petclinic.file.inline-images.extract:true}") boolean extractEnabled) {
+		this.fileStorageService = fileStorageService;
+		this.attachmentRepository = attachmentRepository;
+		this.contentRefRepository = contentRefRepository;
+		this.imageVariantService = imageVariantService;
+		this.extractEnabled = extractEnabled;
+	}
+
+	/**
+	 * 도메인별 인라인 이미지 처리기
+	 * @param domain 도메인명 (counsel, photo, notice)
+	 * @return 추출 비활성화 시 null (data URI 유지)
+	 */
+	public HtmlIngestPipeline.InlineImageHandler handlerFor(String domain) {
+		if (!extractEnabled) {
+			return null;
+		}
+		return (mimeType, data, filename) -> extract(domain, mimeType, data, filename);
+	}
+
+	/**
+	 * 인라인 이미지 1건 저장
+	 * @return 접근 URL (/images/{storedPath}), 검증 실패 시 null
+	 */
+	private String extract(String domain, String mimeType, byte[] data, String filename) {
+		StoredFile storedFile;
+		try {
+			// 허용 목록에는 있지만 이미지가 아닌 형식(예: PDF를 image/png로 선언)은 저장 전에 거부
+			String detectedType = fileStorageService.detectAllowedType(data);
+			if (!detectedType.startsWith("image/")) {
+				throw new IllegalArgumentException("Not an image: " + detectedType);
+			}
+			storedFile = fileStorageService.storeBytes(data, originalFilename(filename, detectedType), domain);
+		} catch (IllegalArgumentException e) {
+			log.warn("Inline image kept as data URI: domain={}, type={}, size={}, reason={}",
+				domain, mimeType, data.length, e.getMessage());
+			return null;
+		}
+
+		Attachment attachment = new Attachment();
+		attachment.setOriginalFilename(originalFilename(filename, storedFile.getDetectedType()));
+		attachment.setStoredFilename(storedFile.getStoredPath());
+		attachment.setFileSize(storedFile.getSize());
+		attachment.setContentHash(storedFile.getSha256());
+		attachment.setContentType(storedFile.getDetectedType());
+		try {
+			attachment = attachmentRepository.save(attachment);
+		} catch (RuntimeException e) {
+			fileStorageService.deleteFileAsync(storedFile.getStoredPath());
+			throw e;
+		}
+
+		if ("photo".equals(domain)) {
+			imageVariantService.requestVariants(attachment.getId());
+		}
+		log.info("Inline image extracted: id={}, path={}, size={}", attachment.getId(), storedFile.getStoredPath(), storedFile.getSize());
+		return URL_PREFIX + storedFile.getStoredPath();
+	}
+
+	/**
+	 * 본문 파일이 참조하는 업로드 이미지 기록
+	 * @param contentPath 본문 파일 경로 (saveHtml 반환값)
+	 * @param imageUrls 본문 img src 목록 (/images/... 외 URL은 무시)
+	 */
+	@Transactional
+	public void linkToContent(String contentPath, Collection<String> imageUrls) {
+		Set<String> storedPaths = new LinkedHashSet<>();
+		for (String url : imageUrls) {
+			String storedPath = toStoredPath(url);
+			if (storedPath != null) {
+				storedPaths.add(storedPath);
+			}
+		}
+		if (storedPaths.isEmpty()) {
+			return;
+		}
+
+		List<AttachmentContentRef> refs = new ArrayList<>();
+		Set<Long> seen = new LinkedHashSet<>();
+		for (Attachment attachment : attachmentRepository.findByStoredFilenameIn(new ArrayList<>(storedPaths))) {
+			if (!attachment.isDelFlag() && seen.add(attachment.getId())) {
+				refs.add(new AttachmentContentRef(contentPath, attachment));
+			}
+		}
+		contentRefRepository.saveAll(refs);
+	}
+
+	/**
+	 * 본문 파일 참조 해제 (본문 파일 삭제 시)
+	 */
+	@Transactional
+	public void unlinkContent(String contentPath) {
+		contentRefRepository.deleteByContentPath(contentPath);
+	}
+
+	/**
+	 * 이미지 URL → base-dir 기준 저장 경로 (/images/photo/uploads/... → photo/uploads/...)
+	 */
+	private String toStoredPath(String imageUrl) {
+		if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+			return null;
+		}
+		String storedPath = imageUrl.substring(URL_PREFIX.length());
+		if (storedPath.contains("..") || !storedPath.contains(UPLOADS_SEGMENT)) {
+			return null;
+		}
+		return storedPath;
+	}
+
+	/**
+	 * 원본 파일명: data-filename이 있으면 사용, 없으면 MIME 서브타입을 확장자로 (image/png → inline-image.png)
+	 */
+	private String originalFilename(String filename, String mimeType) {
+		if (filename != null && !filename.isBlank() && filename.contains(".") && filename.length() <= MAX_FILENAME_LENGTH) {
+			return filename.trim();
+		}
+		String subtype = mimeType.substring(mimeType.indexOf('/') + 1);
+		if ("jpeg".equals(subtype)) {
+			subtype = "jpg";
+		}
+		return DEFAULT_FILENAME + "." + subtype.replaceAll("[^a-z0-9]", "");
+	}
+}
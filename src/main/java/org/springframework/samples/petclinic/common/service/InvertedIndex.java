@@ -0,0 +1,367 @@
+package org.springframework.samples.petclinic.common.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Project : spring-petclinic
+ * File    : InvertedIndex.java
+ * Created : 2026-03-21
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 역색인 자료구조 (도메인 1개분, PostSearchIndex가 도메인별로 보유)
+ *   - 단어 → 게시 목록(게시글 id 오름차순 long[] + 빈도 int[])
+ *   - 빈도는 제목/본문을 int 하나에 묶어 저장 (상위 16비트 제목, 하위 16비트 본문)
+ *   - 게시글 → 게시 목록 참조 (수정/삭제 시 이전 단어를 빼기 위함, 단어 문자열을 게시글마다 복사하지 않음)
+ *   - ReentrantReadWriteLock (검색은 읽기 잠금끼리 병렬)
+ *
+ * Scoring (점수):
+ *   - 단어별 BM25 (k1=1.2, b=0.75)를 제목/본문 각각 길이 정규화 후 합산, 제목 점수에 title-boost 배율
+ *   - 동점이면 최신 글(id 큰 글) 먼저
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+final class InvertedIndex {
+
+	/** BM25 파라미터 */
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+
+	private static final int FREQ_MAX = 0xFFFF;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Postings> postings = new HashMap<>();
+	private final Map<Long, Doc> docs = new HashMap<>();
+	private long totalTitleLength;
+	private long totalBodyLength;
+
+	/**
+	 * 게시글 색인 (이미 있으면 교체)
+	 * @param skip 쓰기 잠금 안에서 확인하는 건너뛰기 조건 (재구성 중 서비스가 먼저 갱신한 게시글 등, null 가능)
+	 */
+	void put(long id, Map<String, Integer> titleTerms, Map<String, Integer> bodyTerms, LongPredicate skip) {
+		Map<String, Integer> packed = new HashMap<>(Math.max(16, (titleTerms.size() + bodyTerms.size()) * 2));
+		bodyTerms.forEach((term, freq) -> packed.put(term, Math.min(freq, FREQ_MAX)));
+		titleTerms.forEach((term, freq) -> packed.merge(term, Math.min(freq, FREQ_MAX) << 16, (a, b) -> a | b));
+		int titleLength = titleTerms.values().stream().mapToInt(Integer::intValue).sum();
+		int bodyLength = bodyTerms.values().stream().mapToInt(Integer::intValue).sum();
+		putPacked(id, packed, titleLength, bodyLength, skip);
+	}
+
+	private void putPacked(long id, Map<String, Integer> packed, int titleLength, int bodyLength, LongPredicate skip) {
+		lock.writeLock().lock();
+		try {
+			if (skip != null && skip.test(id)) {
+				return;
+			}
+			removeLocked(id);
+			Postings[] lists = new Postings[packed.size()];
+			int[] freqs = new int[packed.size()];
+			int i = 0;
+			for (Map.Entry<String, Integer> entry : packed.entrySet()) {
+				lists[i] = postings.computeIfAbsent(entry.getKey(), Postings::new);
+				lists[i].put(id, entry.getValue());
+				freqs[i] = entry.getValue();
+				i++;
+			}
+			docs.put(id, new Doc(lists, freqs, titleLength, bodyLength));
+			totalTitleLength += titleLength;
+			totalBodyLength += bodyLength;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	void remove(long id, LongPredicate skip) {
+		lock.writeLock().lock();
+		try {
+			if (skip != null && skip.test(id)) {
+				return;
+			}
+			removeLocked(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void removeLocked(long id) {
+		Doc old = docs.remove(id);
+		if (old == null) {
+			return;
+		}
+		for (Postings list : old.postings) {
+			list.remove(id);
+			if (list.size == 0) {
+				postings.remove(list.term);
+			}
+		}
+		totalTitleLength -= old.titleLength;
+		totalBodyLength -= old.bodyLength;
+	}
+
+	void clear() {
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			docs.clear();
+			totalTitleLength = 0;
+			totalBodyLength = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	boolean contains(long id) {
+		lock.readLock().lock();
+		try {
+			return docs.containsKey(id);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	long[] ids() {
+		lock.readLock().lock();
+		try {
+			return docs.keySet().stream().mapToLong(Long::longValue).toArray();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	int docCount() {
+		lock.readLock().lock();
+		try {
+			return docs.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	int termCount() {
+		lock.readLock().lock();
+		try {
+			return postings.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 모든 단어를 (field 안에) 포함하는 게시글을 점수순으로
+	 * - 가장 짧은 게시 목록을 기준으로 나머지 목록에서 이진 탐색 (교집합)
+	 * - 상위 limit건만 힙으로 유지 (전체 정렬 없음), 일치한 전체 건수는 따로 셈
+	 */
+	PostSearchIndex.Hits search(List<String> terms, PostSearchIndex.Field field, double titleBoost, int limit) {
+		if (terms.isEmpty()) {
+			return PostSearchIndex.Hits.EMPTY;
+		}
+		lock.readLock().lock();
+		try {
+			Postings[] lists = new Postings[terms.size()];
+			for (int i = 0; i < lists.length; i++) {
+				lists[i] = postings.get(terms.get(i));
+				if (lists[i] == null) {
+					return PostSearchIndex.Hits.EMPTY;
+				}
+			}
+			Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+			int docCount = docs.size();
+			double avgTitle = docCount == 0 ? 1.0 : Math.max(1.0, (double) totalTitleLength / docCount);
+			double avgBody = docCount == 0 ? 1.0 : Math.max(1.0, (double) totalBodyLength / docCount);
+			double[] idf = new double[lists.length];
+			for (int i = 0; i < lists.length; i++) {
+				idf[i] = Math.log(1.0 + (docCount - lists[i].size + 0.5) / (lists[i].size + 0.5));
+			}
+			boolean useTitle = field != PostSearchIndex.Field.BODY;
+			boolean useBody = field != PostSearchIndex.Field.TITLE;
+
+			// 최소 힙: 점수 낮은(동점이면 id 작은) 결과가 맨 위 → limit 초과 시 제거
+			PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, Hit::compareTo);
+			int matches = 0;
+			Postings smallest = lists[0];
+			for (int p = 0; p < smallest.size; p++) {
+				long id = smallest.ids[p];
+				Doc doc = docs.get(id);
+				double titleNorm = K1 * (1 - B + B * doc.titleLength / avgTitle);
+				double bodyNorm = K1 * (1 - B + B * doc.bodyLength / avgBody);
+				double score = 0;
+				boolean all = true;
+				for (int i = 0; i < lists.length; i++) {
+					int packed = i == 0 ? smallest.freqs[p] : lists[i].freqOf(id);
+					int titleFreq = useTitle ? packed >>> 16 : 0;
+					int bodyFreq = useBody ? packed & FREQ_MAX : 0;
+					if (titleFreq == 0 && bodyFreq == 0) {
+						all = false;
+						break;
+					}
+					double termScore = bodyFreq * (K1 + 1) / (bodyFreq + bodyNorm)
+						+ titleBoost * titleFreq * (K1 + 1) / (titleFreq + titleNorm);
+					score += idf[i] * termScore;
+				}
+				if (!all) {
+					continue;
+				}
+				matches++;
+				if (top.size() < limit) {
+					top.add(new Hit(id, score));
+				} else if (top.peek().compareTo(id, score) < 0) {
+					top.poll();
+					top.add(new Hit(id, score));
+				}
+			}
+
+			Long[] result = new Long[top.size()];
+			for (int i = result.length - 1; i >= 0; i--) {
+				result[i] = top.poll().id;
+			}
+			return new PostSearchIndex.Hits(Arrays.asList(result), matches);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// ==================== 스냅샷 ====================
+
+	/**
+	 * [문서 수] + 문서별 [id][제목 길이][본문 길이][단어 수]([단어][빈도])*
+	 */
+	void writeDocs(DataOutputStream out) throws IOException {
+		lock.readLock().lock();
+		try {
+			out.writeInt(docs.size());
+			for (Map.Entry<Long, Doc> entry : docs.entrySet()) {
+				Doc doc = entry.getValue();
+				out.writeLong(entry.getKey());
+				out.writeInt(doc.titleLength);
+				out.writeInt(doc.bodyLength);
+				out.writeInt(doc.postings.length);
+				for (int i = 0; i < doc.postings.length; i++) {
+					out.writeUTF(doc.postings[i].term);
+					out.writeInt(doc.freqs[i]);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	void readDocs(DataInputStream in, LongPredicate skip) throws IOException {
+		int count = in.readInt();
+		for (int d = 0; d < count; d++) {
+			long id = in.readLong();
+			int titleLength = in.readInt();
+			int bodyLength = in.readInt();
+			int termCount = in.readInt();
+			Map<String, Integer> packed = new HashMap<>(termCount * 2);
+			for (int t = 0; t < termCount; t++) {
+				packed.put(in.readUTF(), in.readInt());
+			}
+			putPacked(id, packed, titleLength, bodyLength, skip);
+		}
+	}
+
+	// ==================== 내부 구조 ====================
+
+	/**
+	 * 단어 1개의 게시 목록 (게시글 id 오름차순)
+	 */
+	private static final class Postings {
+
+		private final String term;
+		private long[] ids = new long[4];
+		private int[] freqs = new int[4];
+		private int size;
+
+		private Postings(String term) {
+			this.term = term;
+		}
+
+		private void put(long id, int freq) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos >= 0) {
+				freqs[pos] = freq;
+				return;
+			}
+			pos = -pos - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				freqs = Arrays.copyOf(freqs, size * 2);
+			}
+			System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+			System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+			ids[pos] = id;
+			freqs[pos] = freq;
+			size++;
+		}
+
+		private void remove(long id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos < 0) {
+				return;
+			}
+			System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+			System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+			size--;
+		}
+
+		private int freqOf(long id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			return pos >= 0 ? freqs[pos] : 0;
+		}
+	}
+
+	/**
+	 * 게시글 1건의 색인 내용
+	 */
+	private static final class Doc {
+
+		private final Postings[] postings;
+		private final int[] freqs;
+		private final int titleLength;
+		private final int bodyLength;
+
+		private Doc(Postings[] postings, int[] freqs, int titleLength, int bodyLength) {
+			this.postings = postings;
+			this.freqs = freqs;
+			this.titleLength = titleLength;
+			this.bodyLength = bodyLength;
+		}
+	}
+
+	/**
+	 * 검색 결과 1건 (힙 정렬용, 점수 → id 순)
+	 */
+	private static final class Hit implements Comparable<Hit> {
+
+		private final long id;
+		private final double score;
+
+		private Hit(long id, double score) {
+			this.id = id;
+			this.score = score;
+		}
+
+		private int compareTo(long otherId, double otherScore) {
+			int byScore = Double.compare(score, otherScore);
+			return byScore != 0 ? byScore : Long.compare(id, otherId);
+		}
+
+		@Override
+		public int compareTo(Hit other) {
+			return compareTo(other.id, other.score);
+		}
+	}
+}
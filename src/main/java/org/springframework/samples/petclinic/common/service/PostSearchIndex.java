@@ -0,0 +1,479 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Project : spring-petclinic
+ * File    : PostSearchIndex.java
+ * Created : 2026-03-20
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 제목/본문 검색용 역색인 (애플리케이션 메모리, 도메인별: counsel, notice, photo)
+ *   - 색인 대상: 제목 + 정제된 본문의 평문 (HtmlIngestPipeline 결과)
+ *     비공개 상담글은 제목만 색인 (목록에 제목이 보이므로 제목 검색 대상, 본문은 색인/search_text 모두 제외)
+ *   - 토큰: SearchTokenizer (한글 2/3-gram, 영문/숫자 단어)
+ *   - 갱신: 게시글 작성/수정/삭제(Soft Delete) 시 서비스가 호출 → 트랜잭션 커밋 후 반영 (롤백 시 무시)
+ *   - 조회: SearchQuery의 모든 색인 단어를 포함하는 게시글 id를 점수순으로 반환 (Repository 검색에서 사용)
+ *     요청한 깊이(보려는 페이지 끝)와 max-hits 중 큰 수까지 id를 주고 전체 일치 수를 함께 반환 → 뒤 페이지도 조회 가능
+ *     제목 일치는 title-boost 배율만큼 본문 일치보다 높은 점수
+ *   - 저장: {base-dir}/search-index/{domain}.idx 스냅샷 (변경 후 flush-delay 뒤 기록, 종료 시 기록)
+ *     (비공개 글 제목 단어가 들어있으므로 URL로 공개하지 않는 폴더, WebMvcConfig는 {domain}/uploads, {domain}/variants만 매핑)
+ *   - 기동: 스냅샷 로드 후 DB와 대조해 빠진/스냅샷 이후 수정된 게시글만 다시 색인, 삭제된 게시글 제거
+ *     (스냅샷이 없으면 전체 색인, 완료 전까지 isReady=false → Repository는 기존 LIKE 검색 사용)
+ *
+ * Purpose (만든 이유):
+ *   1. 본문이 파일/저장소에 있어 content 컬럼에는 경로("[stored]" 또는 저장소 키)만 남음 → LIKE 본문 검색이 항상 빗나감
+ *   2. LIKE '%키워드%'는 인덱스를 못 타 전체 테이블 스캔
+ *
+ * Structure:
+ *   - 도메인별 InvertedIndex (게시 목록, 점수 계산)
+ *   - 이 클래스: 기동 시 로드/재구성, 커밋 후 반영, 스냅샷 기록
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class PostSearchIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+
+	/** 스냅샷 폴더 (base-dir 바로 아래) */
+	public static final String INDEX_DIR = "search-index";
+
+	private static final String INDEX_EXT = ".idx";
+	private static final int SNAPSHOT_MAGIC = 0x50534932; // "PSI2" (PSI1: 단어 단위, 본문만 → 전체 재구성)
+	private static final int REBUILD_BATCH_SIZE = 200;
+	/** 스냅샷 시각과 DB 시각(서버 간 시계 차이) 여유 */
+	private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+	/** (도메인, 테이블, 본문 키 컬럼, 제목만 색인할 행 조건) */
+	private static final List<String[]> SOURCES = List.of(
+		new String[]{"counsel", "counsel_post", "content_path", "is_secret IN ('Y', '1')"},
+		new String[]{"notice", "community_post", "content", "1 = 0"},
+		new String[]{"photo", "photo_post", "content", "1 = 0"});
+
+	private final JdbcTemplate jdbcTemplate;
+	private final CommonHtmlStorage htmlStorage;
+	private final HtmlIngestPipeline ingestPipeline;
+	private final Path indexDir;
+	private final boolean enabled;
+	private final int maxHits;
+	private final Duration flushDelay;
+	private final double titleBoost;
+	private final Map<String, DomainIndex> indexes = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "post-search-index");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public PostSearchIndex(JdbcTemplate jdbcTemplate,
+						   CommonHtmlStorage htmlStorage,
+						   HtmlIngestPipeline ingestPipeline,
+						   @Value("${petclinic.file.base-dir}") String baseDirPath,
+						   @Value("${petclinic.search.index.enabled:true}") boolean enabled,
+						   @Value("${petclinic.search.index.max-hits:1000}") int maxHits,
+						   @Value("${petclinic.search.index.flush-delay:PT30S}") Duration flushDelay,
+						   @Value("${petclinic.search.index.title-boost:3.0}") double titleBoost) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.htmlStorage = htmlStorage;
+		this.ingestPipeline = ingestPipeline;
+		this.indexDir = Paths.get(baseDirPath).resolve(INDEX_DIR);
+		this.enabled = enabled;
+		this.maxHits = Math.max(1, maxHits);
+		this.flushDelay = flushDelay;
+		this.titleBoost = Math.max(0.0, titleBoost);
+		for (String[] source : SOURCES) {
+			indexes.put(source[0], new DomainIndex(source[0]));
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (enabled) {
+			worker.execute(this::loadAll);
+		}
+	}
+
+	/**
+	 * 종료 시 변경분 스냅샷 기록
+	 */
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdownNow();
+		if (enabled) {
+			indexes.values().stream().filter(index -> index.ready).forEach(this::flushQuietly);
+		}
+	}
+
+	/**
+	 * 본문 색인 검색이 가능한 상태인지 (기동 직후 색인 재구성 중이면 false)
+	 */
+	public boolean isReady(String domain) {
+		DomainIndex index = indexes.get(domain);
+		return enabled && index != null && index.ready;
+	}
+
+	/**
+	 * 검색
+	 * @param domain 도메인명 (counsel, notice, photo)
+	 * @param query 검색어 (SearchQuery: 공백으로 나눈 모든 단어를 포함해야 일치)
+	 * @param field 검색 대상 (제목/본문/제목+본문)
+	 * @param depth 필요한 결과 깊이 (보려는 페이지의 끝 위치)
+	 * @return 게시글 id (점수 높은 순, 최대 max(max-hits, depth)건) + 전체 일치 수,
+	 *         색인이 준비되지 않았거나 색인으로 답할 수 없는 검색어(한글 1글자 등)면 null
+	 */
+	public Hits search(String domain, String query, Field field, long depth) {
+		if (!isReady(domain)) {
+			return null;
+		}
+		SearchQuery parsed = SearchQuery.parse(query);
+		if (!parsed.isIndexable()) {
+			return null;
+		}
+		return indexes.get(domain).index.search(parsed.getTerms(), field, titleBoost, limitFor(maxHits, depth));
+	}
+
+	/**
+	 * 게시글 색인 (커밋 후 반영, 트랜잭션 밖이면 즉시)
+	 * @param domain 도메인명
+	 * @param postId 게시글 id
+	 * @param title 제목
+	 * @param plainText 정제된 본문 평문 (IngestedHtml.getPlainText)
+	 */
+	public void indexAfterCommit(String domain, long postId, String title, String plainText) {
+		DomainIndex index = indexes.get(domain);
+		if (!enabled || index == null) {
+			return;
+		}
+		Map<String, Integer> titleTerms = SearchTokenizer.termFrequencies(title);
+		Map<String, Integer> bodyTerms = SearchTokenizer.termFrequencies(plainText);
+		afterCommit(() -> {
+			index.put(postId, titleTerms, bodyTerms, false);
+			scheduleFlush(index);
+		});
+	}
+
+	/**
+	 * 게시글 색인 제거 (Soft Delete, 비공개 전환 등 / 커밋 후 반영)
+	 */
+	public void removeAfterCommit(String domain, long postId) {
+		DomainIndex index = indexes.get(domain);
+		if (!enabled || index == null) {
+			return;
+		}
+		afterCommit(() -> {
+			index.remove(postId, false);
+			scheduleFlush(index);
+		});
+	}
+
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	// ==================== 기동 시 로드/재구성 ====================
+
+	private void loadAll() {
+		for (String[] source : SOURCES) {
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			DomainIndex index = indexes.get(source[0]);
+			long startNanos = System.nanoTime();
+			try {
+				long snapshotMillis = readSnapshot(index);
+				int[] counts = catchUp(index, source[1], source[2], source[3], snapshotMillis);
+				index.ready = true;
+				if (counts[0] > 0 || counts[1] > 0 || !index.touched.isEmpty()) {
+					scheduleFlush(index);
+				}
+				log.info("Post search index ready: domain={}, docs={}, terms={}, reindexed={}, removed={}, took={}ms",
+					index.domain, index.index.docCount(), index.index.termCount(), counts[0], counts[1],
+					(System.nanoTime() - startNanos) / 1_000_000);
+			} catch (RuntimeException e) {
+				log.error("Post search index load failed (falling back to LIKE search): domain={}", index.domain, e);
+			} finally {
+				index.touched.clear();
+			}
+		}
+	}
+
+	/**
+	 * DB 기준으로 색인 맞추기
+	 * @return {다시 색인한 수, 제거한 수}
+	 */
+	private int[] catchUp(DomainIndex index, String table, String keyColumn, String titleOnlyCondition,
+						  long snapshotMillis) {
+		Timestamp changedSince = new Timestamp(snapshotMillis - CATCH_UP_MARGIN.toMillis());
+		String selectSql = "SELECT id, COALESCE(updated_at, created_at), CASE WHEN " + titleOnlyCondition
+			+ " THEN 1 ELSE 0 END FROM " + table
+			+ " WHERE id > ? AND del_flag NOT IN ('Y', '1') ORDER BY id LIMIT ?";
+		String bodySql = "SELECT title, search_text, " + keyColumn + (keyColumn.equals("content") ? "" : ", content")
+			+ " FROM " + table + " WHERE id = ?";
+
+		Set<Long> live = new HashSet<>();
+		int reindexed = 0;
+		long afterId = 0;
+		while (!Thread.currentThread().isInterrupted()) {
+			List<Object[]> rows = jdbcTemplate.query(selectSql,
+				(rs, rowNum) -> new Object[]{rs.getLong(1), rs.getTimestamp(2), rs.getInt(3) == 1},
+				afterId, REBUILD_BATCH_SIZE);
+			if (rows.isEmpty()) {
+				break;
+			}
+			for (Object[] row : rows) {
+				long id = (Long) row[0];
+				Timestamp changedAt = (Timestamp) row[1];
+				afterId = id;
+				live.add(id);
+				if (index.index.contains(id) && (changedAt == null || changedAt.before(changedSince))) {
+					continue;
+				}
+				try {
+					String[] titleAndText = loadTitleAndText(index.domain, bodySql, id, (Boolean) row[2]);
+					if (titleAndText != null) {
+						index.put(id, SearchTokenizer.termFrequencies(titleAndText[0]),
+							SearchTokenizer.termFrequencies(titleAndText[1]), true);
+						reindexed++;
+					}
+				} catch (IOException | RuntimeException e) {
+					log.warn("Post search index: failed to read body: domain={}, id={}", index.domain, id, e);
+				}
+			}
+		}
+
+		int removed = 0;
+		for (long id : index.index.ids()) {
+			if (!live.contains(id)) {
+				index.remove(id, true);
+				removed++;
+			}
+		}
+		return new int[]{reindexed, removed};
+	}
+
+	/**
+	 * 게시글 {제목, 본문 평문} (search_text가 채워져 있으면 그 값, 아니면 저장소 키로 본문 조회 / 본문이 컬럼에 직접 있는 예전 행은 그 값)
+	 * titleOnly(비공개 상담글)이면 본문은 읽지 않고 빈 문자열
+	 */
+	private String[] loadTitleAndText(String domain, String bodySql, long id, boolean titleOnly) throws IOException {
+		List<String[]> rows = jdbcTemplate.query(bodySql, (rs, rowNum) -> {
+			String[] values = new String[rs.getMetaData().getColumnCount()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = rs.getString(i + 1);
+			}
+			return values;
+		}, id);
+		if (rows.isEmpty()) {
+			return null;
+		}
+		String[] row = rows.get(0);
+		if (titleOnly) {
+			return new String[]{row[0], ""};
+		}
+		if (row[1] != null) {
+			return new String[]{row[0], row[1]};
+		}
+		String key = row[2];
+		String html;
+		if (key != null && htmlStorage.isStoredPath(key, domain)) {
+			html = htmlStorage.loadHtml(key, domain);
+		} else {
+			html = key != null ? key : (row.length > 3 ? row[3] : null);
+		}
+		return new String[]{row[0], ingestPipeline.ingest(html).getPlainText()};
+	}
+
+	// ==================== 스냅샷 ====================
+
+	private void scheduleFlush(DomainIndex index) {
+		if (index.ready && index.flushScheduled.compareAndSet(false, true)) {
+			try {
+				worker.schedule(() -> flushQuietly(index), flushDelay.toMillis(), TimeUnit.MILLISECONDS);
+			} catch (RuntimeException e) {
+				index.flushScheduled.set(false); // 종료 중: shutdown()에서 기록
+			}
+		}
+	}
+
+	private void flushQuietly(DomainIndex index) {
+		index.flushScheduled.set(false);
+		try {
+			writeSnapshot(index);
+		} catch (IOException e) {
+			log.warn("Post search index snapshot failed: domain={}", index.domain, e);
+		}
+	}
+
+	/**
+	 * [magic][저장 시각] + InvertedIndex.writeDocs → 임시 파일 기록 후 교체
+	 */
+	private void writeSnapshot(DomainIndex index) throws IOException {
+		Files.createDirectories(indexDir);
+		Path target = indexDir.resolve(index.domain + INDEX_EXT);
+		Path temp = indexDir.resolve(index.domain + INDEX_EXT + ".tmp");
+		long savedAt = System.currentTimeMillis();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeLong(savedAt);
+			index.index.writeDocs(out);
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @return 스냅샷 저장 시각 (없거나 읽을 수 없으면 0 → 전체 재구성)
+	 */
+	private long readSnapshot(DomainIndex index) {
+		Path file = indexDir.resolve(index.domain + INDEX_EXT);
+		if (!Files.exists(file)) {
+			return 0L;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != SNAPSHOT_MAGIC) {
+				throw new IOException("Not a search index snapshot");
+			}
+			long savedAt = in.readLong();
+			index.index.readDocs(in, index.touched::contains);
+			return savedAt;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Ignoring unreadable search index snapshot (full rebuild): {}", file, e);
+			index.index.clear();
+			return 0L;
+		}
+	}
+
+	/**
+	 * 검색 대상
+	 */
+	public enum Field {
+		/** 제목만 */
+		TITLE,
+		/** 본문만 */
+		BODY,
+		/** 제목 + 본문 (제목 일치 가중) */
+		ALL
+	}
+
+	/**
+	 * 한 번에 돌려줄 id 수: max-hits와 요청 깊이 중 큰 수
+	 */
+	static int limitFor(int maxHits, long depth) {
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(maxHits, depth));
+	}
+
+	/**
+	 * 검색 결과: 점수순 id (요청 깊이까지) + 전체 일치 수
+	 */
+	public static final class Hits {
+
+		static final Hits EMPTY = new Hits(List.of(), 0);
+
+		private final List<Long> ids;
+		private final int totalMatches;
+
+		public Hits(List<Long> ids, int totalMatches) {
+			this.ids = ids;
+			this.totalMatches = Math.max(totalMatches, ids.size());
+		}
+
+		public List<Long> getIds() {
+			return ids;
+		}
+
+		public int getTotalMatches() {
+			return totalMatches;
+		}
+
+		/** ids 뒤에 남은 일치 건수 (더 깊은 페이지를 요청하면 받을 수 있음) */
+		public int getRemaining() {
+			return totalMatches - ids.size();
+		}
+	}
+
+	// ==================== 도메인 색인 ====================
+
+	/**
+	 * 한 도메인의 색인 + 기동/스냅샷 상태
+	 */
+	private static final class DomainIndex {
+
+		private final String domain;
+		private final InvertedIndex index = new InvertedIndex();
+		private volatile boolean ready;
+		private final AtomicBoolean flushScheduled = new AtomicBoolean();
+		/** 재구성 중 서비스가 갱신한 게시글 (재구성이 읽은 이전 본문으로 덮어쓰지 않음) */
+		private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+
+		private DomainIndex(String domain) {
+			this.domain = domain;
+		}
+
+		private void put(long id, Map<String, Integer> titleTerms, Map<String, Integer> bodyTerms, boolean fromRebuild) {
+			if (!fromRebuild && !ready) {
+				touched.add(id);
+			}
+			index.put(id, titleTerms, bodyTerms, fromRebuild ? touched::contains : null);
+		}
+
+		private void remove(long id, boolean fromRebuild) {
+			if (!fromRebuild && !ready) {
+				touched.add(id);
+			}
+			index.remove(id, fromRebuild ? touched::contains : null);
+		}
+	}
+}
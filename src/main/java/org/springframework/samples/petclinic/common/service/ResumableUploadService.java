@@ -0,0 +1,539 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.common.dto.StoredFile;
+import org.springframework.samples.petclinic.common.exception.ErrorCode;
+import org.springframework.samples.petclinic.common.exception.FileException;
+import org.springframework.samples.petclinic.counsel.service.FileStorageService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Project : spring-petclinic
+ * File    : ResumableUploadService.java
+ * Created : 2026-03-07
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   이어받기(tus 방식) 분할 업로드 세션 관리
+ *   - 세션 생성 시 전체 크기만큼 파일을 미리 할당하고, 조각(chunk)은 FileChannel 위치 지정 쓰기로 기록
+ *   - 현재 오프셋을 세션 정보 파일(.info)에 기록 → 네트워크 끊김/서버 재기동 후에도 이어서 전송
+ *   - 마지막 조각 수신 후 FileStorageService.storeCompleted로 기존 blob/첨부 경로 규칙에 맞춰 저장
+ *     저장 결과는 세션에 기록하고, 호출부의 Attachment 생성이 성공한 뒤에 세션 삭제
+ *     (생성 실패 시 세션 유지 → 클라이언트가 마지막 PATCH를 다시 보내면 저장 없이 Attachment 생성만 재시도)
+ *
+ * Purpose (만든 이유):
+ *   1. 기존 /api/files/upload, /{domain}/upload-temp는 10MB 멀티파트 본문을 한 번에 받음
+ *      → 전송 중 끊기면 처음부터 다시 올려야 하고, 큰 본문 하나가 요청 스레드/메모리를 오래 점유
+ *   2. 조각 단위 요청으로 나누면 요청마다 짧게 끝나고, 끊긴 지점부터 재개 가능
+ *
+ * Storage (저장 위치):
+ *   - {base-dir}/resumable/{id}.part : 미리 할당된 데이터 파일 (완료 시 blob으로 원자적 이동)
+ *   - {base-dir}/resumable/{id}.info : 소유자, 도메인, 원본 파일명, 전체 크기, 현재 오프셋, 완료 시 저장 결과 (Properties)
+ *   - base-dir와 같은 파일시스템이므로 완료 시 복사 없이 이동
+ *
+ * Note:
+ *   - 로그인 사용자 전용, 세션은 만든 사용자만 조회/전송/취소 (다른 사용자에게는 없는 세션)
+ *   - API 전용 (화면 연결 없음): 작성/수정 화면 첨부는 기존 upload-temp, 비로그인 작성자는 사용할 수 없음
+ *   - 사용자별 진행 중 세션 수/미리 할당한 총 크기 제한 (max-sessions-per-user, max-bytes-per-user)
+ *     → 세션마다 전체 크기를 미리 할당하므로 한 사용자가 디스크를 채우지 못하게
+ *   - 조각은 반드시 현재 오프셋부터 순서대로 (tus 규약), 다르면 IllegalStateException(409)
+ *   - 선두 64KB가 모이면 즉시 MIME 검증 → 허용되지 않는 형식은 나머지 전송 전에 세션 폐기
+ *   - 24시간 동안 진행이 없는 세션은 매시 정리
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class ResumableUploadService {
+
+	private static final Logger log = LoggerFactory.getLogger(ResumableUploadService.class);
+
+	private static final String SESSION_DIR_NAME = "resumable";
+	private static final String DATA_SUFFIX = ".part";
+	private static final String INFO_SUFFIX = ".info";
+	private static final String ID_PATTERN = "^[0-9a-f]{32}$";
+
+	// MIME 감지 범위 (FileStorageService와 동일)
+	private static final int SNIFF_BUFFER_SIZE = 64 * 1024;
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	private static final Duration SESSION_EXPIRY = Duration.ofHours(24);
+
+	private final Path sessionDir;
+	private final long maxUploadSize;
+	private final int maxSessionsPerUser;
+	private final long maxBytesPerUser;
+	private final FileStorageService fileStorageService;
+	private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+	/** 사용자별 제한 검사 + 세션 등록을 한 번에 (동시 생성 요청이 제한을 함께 넘지 않도록) */
+	private final Object quotaLock = new Object();
+	private final AtomicBoolean restored = new AtomicBoolean();
+
+	public ResumableUploadService(@Value("${petclinic.file.base-dir}") String baseDirPath,
+								  @Value("${petclinic.file.resumable.max-size:200MB}") DataSize maxUploadSize,
+								  @Value("${petclinic.file.resumable.max-sessions-per-user:5}") int maxSessionsPerUser,
+								  @Value("${petclinic.file.resumable.max-bytes-per-user:500MB}") DataSize maxBytesPerUser,
+								  FileStorageService fileStorageService) {
+		this.sessionDir = Paths.get(baseDirPath).resolve(SESSION_DIR_NAME);
+		this.maxUploadSize = maxUploadSize.toBytes();
+		this.maxSessionsPerUser = Math.max(1, maxSessionsPerUser);
+		this.maxBytesPerUser = maxBytesPerUser.toBytes();
+		this.fileStorageService = fileStorageService;
+	}
+
+	public long getMaxUploadSize() {
+		return maxUploadSize;
+	}
+
+	/**
+	 * 업로드 세션 생성 (전체 크기만큼 파일 미리 할당)
+	 * @param owner 세션을 만든 사용자 (로그인 아이디)
+	 * @param domain 도메인명 (counsel, photo, community 등)
+	 * @param originalFilename 원본 파일명
+	 * @param contentType 클라이언트가 선언한 MIME 타입 (참고용, 저장 시 Tika 감지값으로 재검증)
+	 * @param length 전체 파일 크기 (bytes)
+	 * @return 생성된 세션
+	 * @throws IllegalArgumentException 크기 0 이하 또는 최대 크기 초과, 잘못된 도메인
+	 * @throws IllegalStateException 사용자별 진행 중 세션 수/총 크기 제한 초과
+	 */
+	public UploadSession create(String owner, String domain, String originalFilename, String contentType, long length) {
+		if (owner == null || owner.isBlank()) {
+			throw new IllegalArgumentException("Upload owner is required.");
+		}
+		if (domain == null || !domain.matches("^[a-zA-Z0-9]+$")) {
+			throw new IllegalArgumentException("Invalid domain name: " + domain);
+		}
+		if (length <= 0) {
+			throw new IllegalArgumentException("File is empty.");
+		}
+		if (length > maxUploadSize) {
+			throw new IllegalArgumentException("파일 크기 초과 (최대 " + DataSize.ofBytes(maxUploadSize).toMegabytes() + "MB)");
+		}
+
+		String id = UUID.randomUUID().toString().replace("-", "");
+		UploadSession session = new UploadSession(id, owner, domain, originalFilename, contentType, length, 0);
+		restoreSessionsOnce();
+		synchronized (quotaLock) {
+			int ownedSessions = 0;
+			long ownedBytes = 0;
+			for (UploadSession other : sessions.values()) {
+				if (owner.equals(other.owner)) {
+					ownedSessions++;
+					ownedBytes += other.length;
+				}
+			}
+			if (ownedSessions >= maxSessionsPerUser || ownedBytes + length > maxBytesPerUser) {
+				log.warn("Resumable upload quota exceeded: owner={}, sessions={}, bytes={}, requested={}",
+					owner, ownedSessions, ownedBytes, length);
+				throw new IllegalStateException("진행 중인 이어받기 업로드가 너무 많습니다. (최대 "
+					+ maxSessionsPerUser + "개, " + DataSize.ofBytes(maxBytesPerUser).toMegabytes() + "MB)");
+			}
+			sessions.put(id, session);
+		}
+		try {
+			Files.createDirectories(sessionDir);
+			// 미리 할당: 조각이 어떤 순서로 기록되든 파일 크기가 변하지 않음 (희소 파일 지원 FS는 디스크를 즉시 쓰지 않음)
+			try (RandomAccessFile file = new RandomAccessFile(dataPath(id).toFile(), "rw")) {
+				file.setLength(length);
+			}
+			saveInfo(session);
+		} catch (IOException e) {
+			sessions.remove(id);
+			deleteSessionFiles(id);
+			throw new FileException(ErrorCode.FILE_WRITE_ERROR, e);
+		}
+		log.info("Resumable upload created: id={}, owner={}, domain={}, length={}", id, owner, domain, length);
+		return session;
+	}
+
+	/**
+	 * 세션 조회 (메모리에 없으면 재기동 전 세션 정보 파일에서 복원)
+	 * @return 세션, 없으면 null
+	 */
+	public UploadSession find(String id) {
+		if (id == null || !id.matches(ID_PATTERN)) {
+			return null;
+		}
+		return sessions.computeIfAbsent(id, this::loadInfo);
+	}
+
+	/**
+	 * 해당 사용자의 세션 조회 (다른 사용자의 세션은 없는 것으로 취급)
+	 * @return 세션, 없거나 소유자가 다르면 null
+	 */
+	public UploadSession find(String id, String owner) {
+		UploadSession session = find(id);
+		return session != null && session.owner.equals(owner) ? session : null;
+	}
+
+	/**
+	 * 조각 기록 (현재 오프셋부터 요청 본문을 위치 지정 쓰기)
+	 *
+	 * <p>전송이 중간에 끊겨도 그때까지 기록된 바이트는 오프셋에 반영되어 다음 요청에서 이어집니다.</p>
+	 *
+	 * @param id 세션 ID
+	 * @param offset 클라이언트가 보낸 Upload-Offset (현재 오프셋과 같아야 함)
+	 * @param body 요청 본문 스트림
+	 * @return 기록 후 오프셋
+	 * @throws IllegalArgumentException 세션 없음, 전체 크기 초과, 허용되지 않는 형식
+	 * @throws IllegalStateException 오프셋 불일치 또는 같은 세션에 동시 요청
+	 */
+	public long append(String id, long offset, InputStream body) {
+		UploadSession session = find(id);
+		if (session == null) {
+			throw new IllegalArgumentException("Upload not found: " + id);
+		}
+		if (!session.lock.tryLock()) {
+			throw new IllegalStateException("Upload is already in progress: " + id);
+		}
+		try {
+			if (offset != session.offset) {
+				throw new IllegalStateException("Upload-Offset mismatch: expected " + session.offset + ", got " + offset);
+			}
+			if (session.storedFile != null) {
+				// 이미 저장까지 끝남 (Attachment 생성 재시도용 빈 PATCH)
+				return session.offset;
+			}
+
+			try (FileChannel channel = FileChannel.open(dataPath(id), StandardOpenOption.WRITE)) {
+				long position = offset;
+				try {
+					byte[] buffer = new byte[COPY_BUFFER_SIZE];
+					ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+					int read;
+					while ((read = body.read(buffer)) != -1) {
+						if (position + read > session.length) {
+							throw new IllegalArgumentException("Chunk exceeds Upload-Length");
+						}
+						byteBuffer.clear().limit(read);
+						while (byteBuffer.hasRemaining()) {
+							position += channel.write(byteBuffer, position);
+						}
+					}
+				} finally {
+					// 끊긴 요청도 기록된 만큼은 오프셋 반영 (디스크 반영 후 기록해야 재개 시 빈 구간이 생기지 않음)
+					if (position > session.offset) {
+						channel.force(false);
+						session.offset = position;
+						session.updatedAt = Instant.now();
+						saveInfo(session);
+					}
+				}
+			} catch (IOException e) {
+				log.warn("Resumable upload interrupted: id={}, offset={}, reason={}", id, session.offset, e.getMessage());
+			}
+
+			verifyTypeOnce(session);
+			return session.offset;
+		} finally {
+			session.lock.unlock();
+		}
+	}
+
+	/**
+	 * 업로드 완료 처리 (blob 반영 + 첨부 경로 링크 → register 성공 후 세션 삭제)
+	 *
+	 * <p>register(Attachment 생성)가 실패하면 세션과 저장 결과를 남겨 두어, 같은 세션으로 다시 호출하면
+	 * 파일 저장 없이 register만 재시도합니다. 세션 잠금 안에서 실행되므로 동시 완료 요청도 한 번만 등록됩니다.</p>
+	 *
+	 * @param register 저장 결과로 Attachment 생성 (실패 시 예외)
+	 * @return register 결과
+	 * @throws IllegalStateException 아직 모든 바이트가 도착하지 않음
+	 */
+	public <T> T complete(String id, Function<StoredFile, T> register) {
+		UploadSession session = find(id);
+		if (session == null) {
+			throw new IllegalArgumentException("Upload not found: " + id);
+		}
+		session.lock.lock();
+		try {
+			if (!sessions.containsKey(id)) {
+				throw new IllegalArgumentException("Upload not found: " + id);
+			}
+			if (session.storedFile == null) {
+				if (!session.isComplete()) {
+					throw new IllegalStateException("Upload is not complete: " + session.offset + "/" + session.length);
+				}
+				session.storedFile = fileStorageService.storeCompleted(dataPath(id), session.originalFilename, session.domain);
+				session.updatedAt = Instant.now();
+				try {
+					saveInfo(session);
+				} catch (IOException e) {
+					// 메모리에는 남아 있으므로 재기동 전 재시도는 가능
+					log.warn("Failed to record stored file for resumable upload: id={}", id, e);
+				}
+			}
+			StoredFile storedFile = session.storedFile;
+
+			T result = register.apply(storedFile);
+
+			sessions.remove(id);
+			deleteSessionFiles(id);
+			log.info("Resumable upload completed: id={}, path={}, size={}", id, storedFile.getStoredPath(), storedFile.getSize());
+			return result;
+		} finally {
+			session.lock.unlock();
+		}
+	}
+
+	/**
+	 * 업로드 취소 (tus termination)
+	 * @return true: 세션 삭제됨, false: 세션 없음
+	 */
+	public boolean cancel(String id) {
+		UploadSession session = find(id);
+		if (session == null) {
+			return false;
+		}
+		session.lock.lock();
+		try {
+			sessions.remove(id);
+			deleteSessionFiles(id);
+			log.info("Resumable upload cancelled: id={}", id);
+			return true;
+		} finally {
+			session.lock.unlock();
+		}
+	}
+
+	/**
+	 * 방치된 세션 정리 (매시 30분, 24시간 동안 진행 없는 세션 삭제)
+	 */
+	@Scheduled(cron = "0 30 * * * *")
+	public void purgeExpiredSessions() {
+		if (!Files.isDirectory(sessionDir)) {
+			return;
+		}
+		Instant cutoff = Instant.now().minus(SESSION_EXPIRY);
+		int purged = 0;
+		try (DirectoryStream<Path> infos = Files.newDirectoryStream(sessionDir, "*" + INFO_SUFFIX)) {
+			for (Path info : infos) {
+				String name = info.getFileName().toString();
+				String id = name.substring(0, name.length() - INFO_SUFFIX.length());
+				UploadSession session = find(id);
+				if (session == null || session.updatedAt.isBefore(cutoff)) {
+					if (session != null && !session.lock.tryLock()) {
+						continue;
+					}
+					try {
+						sessions.remove(id);
+						deleteSessionFiles(id);
+						purged++;
+					} finally {
+						if (session != null) {
+							session.lock.unlock();
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			log.error("Failed to scan resumable upload sessions", e);
+		}
+		if (purged > 0) {
+			log.info("Expired resumable uploads purged: {}", purged);
+		}
+	}
+
+	// ==================== 내부 헬퍼 ====================
+
+	/**
+	 * 재기동 전 세션을 메모리로 복원 (사용자별 제한 계산에 포함, 첫 세션 생성 시 1회)
+	 */
+	private void restoreSessionsOnce() {
+		if (!restored.compareAndSet(false, true) || !Files.isDirectory(sessionDir)) {
+			return;
+		}
+		try (DirectoryStream<Path> infos = Files.newDirectoryStream(sessionDir, "*" + INFO_SUFFIX)) {
+			for (Path info : infos) {
+				String name = info.getFileName().toString();
+				find(name.substring(0, name.length() - INFO_SUFFIX.length()));
+			}
+		} catch (IOException e) {
+			log.warn("Failed to restore resumable upload sessions", e);
+		}
+	}
+
+	/**
+	 * 선두 64KB(또는 전체)가 도착하면 MIME 허용 목록 검증, 불허 형식은 세션 폐기
+	 */
+	private void verifyTypeOnce(UploadSession session) {
+		if (session.typeVerified || session.offset < Math.min(session.length, SNIFF_BUFFER_SIZE)) {
+			return;
+		}
+		byte[] prefix;
+		try (InputStream in = Files.newInputStream(dataPath(session.id))) {
+			prefix = in.readNBytes((int) Math.min(session.length, SNIFF_BUFFER_SIZE));
+		} catch (IOException e) {
+			throw new FileException(ErrorCode.FILE_READ_ERROR, e);
+		}
+		try {
+			fileStorageService.detectAllowedType(prefix);
+			session.typeVerified = true;
+		} catch (IllegalArgumentException e) {
+			sessions.remove(session.id);
+			deleteSessionFiles(session.id);
+			throw e;
+		}
+	}
+
+	private void saveInfo(UploadSession session) throws IOException {
+		Properties info = new Properties();
+		info.setProperty("owner", session.owner);
+		info.setProperty("domain", session.domain);
+		info.setProperty("filename", session.originalFilename != null ? session.originalFilename : "");
+		info.setProperty("contentType", session.contentType != null ? session.contentType : "");
+		info.setProperty("length", Long.toString(session.length));
+		info.setProperty("offset", Long.toString(session.offset));
+		info.setProperty("updatedAt", session.updatedAt.toString());
+		if (session.storedFile != null) {
+			info.setProperty("storedPath", session.storedFile.getStoredPath());
+			info.setProperty("storedSize", Long.toString(session.storedFile.getSize()));
+			info.setProperty("storedSha256", session.storedFile.getSha256());
+			info.setProperty("storedType", session.storedFile.getDetectedType());
+		}
+
+		// 임시 파일 기록 후 원자적 교체 (기록 중 중단되어도 이전 오프셋이 남음)
+		Path temp = sessionDir.resolve(session.id + INFO_SUFFIX + ".tmp");
+		try (OutputStream out = Files.newOutputStream(temp)) {
+			info.store(out, null);
+		}
+		Files.move(temp, infoPath(session.id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private UploadSession loadInfo(String id) {
+		Path infoPath = infoPath(id);
+		if (!Files.exists(infoPath)) {
+			return null;
+		}
+		Properties info = new Properties();
+		try (InputStream in = Files.newInputStream(infoPath)) {
+			info.load(in);
+			// 저장까지 끝난 세션은 데이터 파일이 blob으로 이동해 없음
+			String storedPath = info.getProperty("storedPath");
+			if (storedPath == null && !Files.exists(dataPath(id))) {
+				return null;
+			}
+			UploadSession session = new UploadSession(id,
+				info.getProperty("owner", ""),
+				info.getProperty("domain"),
+				info.getProperty("filename"),
+				info.getProperty("contentType"),
+				Long.parseLong(info.getProperty("length")),
+				Long.parseLong(info.getProperty("offset")));
+			session.updatedAt = Instant.parse(info.getProperty("updatedAt"));
+			if (storedPath != null) {
+				session.storedFile = new StoredFile(storedPath, Long.parseLong(info.getProperty("storedSize")),
+					info.getProperty("storedSha256"), info.getProperty("storedType"));
+				session.typeVerified = true;
+			}
+			return session;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unreadable resumable upload info: id={}, reason={}", id, e.getMessage());
+			return null;
+		}
+	}
+
+	private void deleteSessionFiles(String id) {
+		try {
+			Files.deleteIfExists(dataPath(id));
+			Files.deleteIfExists(infoPath(id));
+		} catch (IOException e) {
+			log.warn("Failed to delete resumable upload files: id={}", id, e);
+		}
+	}
+
+	private Path dataPath(String id) {
+		return sessionDir.resolve(id + DATA_SUFFIX);
+	}
+
+	private Path infoPath(String id) {
+		return sessionDir.resolve(id + INFO_SUFFIX);
+	}
+
+	/**
+	 * 업로드 세션 상태 (오프셋 변경은 세션 잠금 안에서만)
+	 */
+	public static class UploadSession {
+		private final String id;
+		private final String owner;
+		private final String domain;
+		private final String originalFilename;
+		private final String contentType;
+		private final long length;
+		private final ReentrantLock lock = new ReentrantLock();
+		private volatile long offset;
+		private volatile Instant updatedAt = Instant.now();
+		private volatile boolean typeVerified;
+		/** blob 반영 결과 (Attachment 생성 전까지 보관) */
+		private volatile StoredFile storedFile;
+
+		UploadSession(String id, String owner, String domain, String originalFilename, String contentType,
+					  long length, long offset) {
+			this.id = id;
+			this.owner = owner;
+			this.domain = domain;
+			this.originalFilename = originalFilename;
+			this.contentType = contentType;
+			this.length = length;
+			this.offset = offset;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getOwner() {
+			return owner;
+		}
+
+		public String getDomain() {
+			return domain;
+		}
+
+		public String getOriginalFilename() {
+			return originalFilename;
+		}
+
+		public String getContentType() {
+			return contentType;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public boolean isComplete() {
+			return offset == length;
+		}
+	}
+}
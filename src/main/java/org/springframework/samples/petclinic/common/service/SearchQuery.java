@@ -0,0 +1,67 @@
+package org.springframework.samples.petclinic.common.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Project : spring-petclinic
+ * File    : SearchQuery.java
+ * Created : 2026-03-21
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 검색어 파서 (검색창 입력 → 색인 단어 목록)
+ *   - 공백으로 나눈 각 단어를 SearchTokenizer로 색인 단어(n-gram/영문 단어)로 변환
+ *   - 모든 색인 단어를 포함하는 게시글만 일치 (AND, 색인에서 게시 목록 교집합)
+ *   - 중복 단어 제거 ("강아지 강아지" = "강아지")
+ *
+ * Indexable (색인으로 답할 수 있는지):
+ *   - 한글 1글자 단어("개")나 64자를 넘는 영문 단어는 색인에 없음 → false
+ *   - 검색어가 문장부호/이모지뿐이라 색인 단어가 없어도 false
+ *   - false면 PostSearchIndex.search는 null → Repository가 기존 LIKE 검색 사용
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public final class SearchQuery {
+
+	private final Set<String> terms = new LinkedHashSet<>();
+	private boolean indexable = true;
+
+	private SearchQuery() {
+	}
+
+	public static SearchQuery parse(String query) {
+		SearchQuery result = new SearchQuery();
+		if (query == null || query.isBlank()) {
+			result.indexable = false;
+			return result;
+		}
+		for (String word : query.trim().split("\\s+")) {
+			if (!SearchTokenizer.appendQueryTerms(word, result)) {
+				result.indexable = false;
+			}
+		}
+		if (result.terms.isEmpty()) {
+			result.indexable = false;
+		}
+		return result;
+	}
+
+	void addTerm(String term) {
+		terms.add(term);
+	}
+
+	/**
+	 * 색인 단어 (모두 포함해야 일치)
+	 */
+	public List<String> getTerms() {
+		return new ArrayList<>(terms);
+	}
+
+	public boolean isIndexable() {
+		return indexable;
+	}
+}
@@ -0,0 +1,178 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Project : spring-petclinic
+ * File    : SearchTextBackfillService.java
+ * Created : 2026-03-22
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   기존 게시글 search_text(검색용 평문) 일괄 채우기 (1회성 마이그레이션)
+ *   - 대상: search_text가 NULL인 살아있는 행 (counsel_post는 비공개 글 제외)
+ *   - 본문: 저장소 키면 본문 저장소에서 읽고, 본문이 컬럼에 직접 있는 예전 행은 그 값 → HtmlIngestPipeline 평문
+ *   - 행 단위 UPDATE (본문 경로 컬럼이 읽은 값 그대로이고 search_text가 아직 NULL일 때만 → 그 사이 수정된 글은 건너뜀)
+ *   - id 기준 keyset 분할 조회, 다시 실행하면 남은 행만 처리 (본문이 비어도 ''로 채워 다시 읽지 않음)
+ *
+ * Purpose (만든 이유):
+ *   - search_text는 작성/수정 시에만 채워지므로, 이미 있는 게시글도 FULLTEXT 검색(FulltextPostSearch) 대상이 되도록
+ *
+ * Usage:
+ *   petclinic.search.fulltext.backfill-on-startup=true 로 기동 (기동 완료 후 백그라운드 실행, 결과는 로그)
+ *   - 기존 DB는 먼저 db/mysql/upgrade/003_post_search_text_fulltext.sql 실행 (search_text 컬럼, FULLTEXT 인덱스)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class SearchTextBackfillService {
+
+	private static final Logger log = LoggerFactory.getLogger(SearchTextBackfillService.class);
+
+	private static final int BATCH_SIZE = 200;
+
+	/** (테이블, 본문 경로 컬럼, 본문 도메인, 추가 조건) */
+	private static final List<String[]> TARGETS = List.of(
+		new String[]{"counsel_post", "content_path", "counsel", " AND is_secret NOT IN ('Y', '1')"},
+		new String[]{"community_post", "content", "notice", ""},
+		new String[]{"photo_post", "content", "photo", ""});
+
+	private final JdbcTemplate jdbcTemplate;
+	private final CommonHtmlStorage htmlStorage;
+	private final HtmlIngestPipeline ingestPipeline;
+	private final boolean backfillOnStartup;
+
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "search-text-backfill");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public SearchTextBackfillService(JdbcTemplate jdbcTemplate,
+									 CommonHtmlStorage htmlStorage,
+									 HtmlIngestPipeline ingestPipeline,
+									 @Value("${petclinic.search.fulltext.backfill-on-startup:false}") boolean backfillOnStartup) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.htmlStorage = htmlStorage;
+		this.ingestPipeline = ingestPipeline;
+		this.backfillOnStartup = backfillOnStartup;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (backfillOnStartup) {
+			worker.execute(this::backfillAll);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdownNow();
+	}
+
+	/**
+	 * 전체 대상 테이블 채우기
+	 * @return 처리 결과 (행 수)
+	 */
+	public BackfillReport backfillAll() {
+		BackfillReport report = new BackfillReport();
+		long startNanos = System.nanoTime();
+		for (String[] target : TARGETS) {
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+			backfillTable(target[0], target[1], target[2], target[3], report);
+		}
+		log.info("Search text backfill finished: scanned={}, filled={}, conflicts={}, failed={}, took={}ms",
+			report.scanned, report.filled, report.conflicts, report.failed, (System.nanoTime() - startNanos) / 1_000_000);
+		return report;
+	}
+
+	private void backfillTable(String table, String pathColumn, String domain, String condition, BackfillReport report) {
+		String selectSql = "SELECT id, " + pathColumn + (pathColumn.equals("content") ? "" : ", content") + " FROM " + table
+			+ " WHERE id > ? AND search_text IS NULL AND del_flag NOT IN ('Y', '1')" + condition + " ORDER BY id LIMIT ?";
+		String updateSql = "UPDATE " + table + " SET search_text = ? WHERE id = ? AND search_text IS NULL AND "
+			+ pathColumn + " = ?";
+		String updateNullPathSql = "UPDATE " + table + " SET search_text = ? WHERE id = ? AND search_text IS NULL AND "
+			+ pathColumn + " IS NULL";
+
+		long afterId = 0;
+		while (!Thread.currentThread().isInterrupted()) {
+			List<String[]> rows = jdbcTemplate.query(selectSql, (rs, rowNum) -> {
+				String[] values = new String[rs.getMetaData().getColumnCount()];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = rs.getString(i + 1);
+				}
+				return values;
+			}, afterId, BATCH_SIZE);
+			if (rows.isEmpty()) {
+				break;
+			}
+			for (String[] row : rows) {
+				long id = Long.parseLong(row[0]);
+				afterId = id;
+				String key = row[1];
+				report.scanned++;
+				try {
+					String html;
+					if (key != null && htmlStorage.isStoredPath(key, domain)) {
+						html = htmlStorage.loadHtml(key, domain);
+					} else {
+						html = key != null && pathColumn.equals("content") ? key : (row.length > 2 ? row[2] : null);
+					}
+					String plainText = html == null ? "" : ingestPipeline.ingest(html).getPlainText();
+					int updated = key == null
+						? jdbcTemplate.update(updateNullPathSql, plainText == null ? "" : plainText, id)
+						: jdbcTemplate.update(updateSql, plainText == null ? "" : plainText, id, key);
+					if (updated == 1) {
+						report.filled++;
+					} else {
+						report.conflicts++;
+					}
+				} catch (Exception e) {
+					report.failed++;
+					log.warn("Search text backfill failed: table={}, id={}, path={}", table, id, key, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 채우기 결과
+	 */
+	public static final class BackfillReport {
+
+		private long scanned;
+		private long filled;
+		private long conflicts;
+		private long failed;
+
+		public long getScanned() {
+			return scanned;
+		}
+
+		public long getFilled() {
+			return filled;
+		}
+
+		public long getConflicts() {
+			return conflicts;
+		}
+
+		public long getFailed() {
+			return failed;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package org.springframework.samples.petclinic.common.service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Project : spring-petclinic
+ * File    : SearchTokenizer.java
+ * Created : 2026-03-21
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 검색용 토큰 분리기 (PostSearchIndex 색인/검색어 공통)
+ *   - 한글(및 한자/가나): 글자 단위 2-gram + 3-gram ("슬개골탈구" → 슬개, 개골, 골탈, 탈구, 슬개골, 개골탈, 골탈구)
+ *   - 영문/숫자: 단어 단위 (소문자, 최대 64자)
+ *   - 그 외 문자(공백, 문장부호, 이모지)는 구분자
+ *
+ * Purpose (만든 이유):
+ *   1. 한국어는 조사/어미가 붙어 단어 단위로는 "슬개골이", "슬개골을"이 서로 다른 단어가 됨
+ *      → n-gram이면 어느 형태든 "슬개골" 3-gram을 포함해 LIKE '%슬개골%'와 같은 부분 일치를 색인으로 처리
+ *   2. 형태소 분석기(사전) 없이 동작 (의존성/사전 관리 불필요)
+ *
+ * Query (검색어 → 색인 단어):
+ *   - 한글 2글자: 2-gram 1개, 3글자 이상: 3-gram 전부 (모두 포함해야 일치)
+ *   - 한글 1글자: 색인에 없음 → 색인으로 답할 수 없는 검색어 (SearchQuery.isIndexable=false → LIKE 검색)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public final class SearchTokenizer {
+
+	/** 이보다 긴 영문/숫자 단어는 색인하지 않음 (URL/인코딩 문자열 등 검색 대상이 아닌 덩어리) */
+	static final int MAX_WORD_LENGTH = 64;
+
+	private SearchTokenizer() {
+	}
+
+	/**
+	 * 색인용: 단어 → 빈도 (등장 순서 유지)
+	 */
+	public static Map<String, Integer> termFrequencies(String text) {
+		Map<String, Integer> terms = new LinkedHashMap<>();
+		if (text == null || text.isEmpty()) {
+			return terms;
+		}
+		String lower = text.toLowerCase(Locale.ROOT);
+		int length = lower.length();
+		int i = 0;
+		while (i < length) {
+			char c = lower.charAt(i);
+			if (isNgramChar(c)) {
+				int end = runEnd(lower, i, true);
+				for (int start = i; start + 2 <= end; start++) {
+					terms.merge(lower.substring(start, start + 2), 1, Integer::sum);
+					if (start + 3 <= end) {
+						terms.merge(lower.substring(start, start + 3), 1, Integer::sum);
+					}
+				}
+				i = end;
+			} else if (Character.isLetterOrDigit(c)) {
+				int end = runEnd(lower, i, false);
+				if (end - i <= MAX_WORD_LENGTH) {
+					terms.merge(lower.substring(i, end), 1, Integer::sum);
+				}
+				i = end;
+			} else {
+				i++;
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * 검색어용: 한 덩어리(공백 없는 검색어 단어)를 색인 단어로
+	 * @param query 검색어 파서가 받은 전체 결과 (단어 추가)
+	 * @return 색인으로 답할 수 있으면 true (한글 1글자 덩어리가 있으면 false)
+	 */
+	static boolean appendQueryTerms(String word, SearchQuery query) {
+		String lower = word.toLowerCase(Locale.ROOT);
+		int length = lower.length();
+		boolean indexable = true;
+		int i = 0;
+		while (i < length) {
+			char c = lower.charAt(i);
+			if (isNgramChar(c)) {
+				int end = runEnd(lower, i, true);
+				int size = end - i;
+				if (size == 1) {
+					indexable = false;
+				} else if (size == 2) {
+					query.addTerm(lower.substring(i, end));
+				} else {
+					for (int start = i; start + 3 <= end; start++) {
+						query.addTerm(lower.substring(start, start + 3));
+					}
+				}
+				i = end;
+			} else if (Character.isLetterOrDigit(c)) {
+				int end = runEnd(lower, i, false);
+				if (end - i <= MAX_WORD_LENGTH) {
+					query.addTerm(lower.substring(i, end));
+				} else {
+					indexable = false;
+				}
+				i = end;
+			} else {
+				i++;
+			}
+		}
+		return indexable;
+	}
+
+	/**
+	 * n-gram으로 나누는 문자 (한글 음절/자모, 한자, 가나)
+	 */
+	static boolean isNgramChar(char c) {
+		if (c >= '가' && c <= '힣') { // 한글 음절 (가장 흔한 경우 먼저)
+			return true;
+		}
+		if (c < 'ᄀ') {
+			return false;
+		}
+		Character.UnicodeScript script = Character.UnicodeScript.of(c);
+		return Character.isLetter(c) && (script == Character.UnicodeScript.HANGUL
+			|| script == Character.UnicodeScript.HAN
+			|| script == Character.UnicodeScript.HIRAGANA
+			|| script == Character.UnicodeScript.KATAKANA);
+	}
+
+	private static int runEnd(String text, int start, boolean ngram) {
+		int end = start + 1;
+		while (end < text.length()) {
+			char c = text.charAt(end);
+			boolean same = ngram ? isNgramChar(c) : (Character.isLetterOrDigit(c) && !isNgramChar(c));
+			if (!same) {
+				break;
+			}
+			end++;
+		}
+		return end;
+	}
+}
@@ -0,0 +1,568 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Project : spring-petclinic
+ * File    : SegmentContentStore.java
+ * Created : 2026-03-18
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 본문용 추가 전용(append-only) 세그먼트 저장소 (ContentStore "segment")
+ *   - 저장: {base-dir}/{domain}/segments/seg-000001.dat 에 레코드 추가, 가득 차면(max-segment-size) 다음 세그먼트
+ *   - 레코드: [magic][type][uuid 16B][length][crc32][payload] (type: PUT 본문 / DELETE 삭제 표시)
+ *   - 색인: uuid → (세그먼트, offset, length) 메모리 맵, 도메인 첫 사용 시 세그먼트 헤더를 순서대로 읽어 재구성
+ *   - 조회: FileChannel 위치 지정 읽기 (스레드 간 공유, 파일 포인터 없음) + CRC 검증
+ *   - 압축(compaction): 살아있는 비율이 낮은 봉인 세그먼트의 유효 레코드를 활성 세그먼트로 옮기고 파일 삭제
+ *   - 키: "segment:{domain}/{uuid}" (DB content/content_path 컬럼에 저장, 압축으로 위치가 바뀌어도 불변)
+ *
+ * Purpose (만든 이유):
+ *   1. 본문 파일 방식은 수정할 때마다 작은 파일이 1개씩 생겨 수십만 개 단위의 inode/디렉토리 항목이 쌓임
+ *   2. 백업/정합성 점검이 파일 수에 비례해 느려짐 → 큰 파일 몇 개로 묶음
+ *
+ * Transaction:
+ *   - 저장은 즉시 추가 + 색인 반영(같은 트랜잭션 안에서 바로 조회 가능), 롤백 시 DELETE 레코드로 취소
+ *   - 삭제는 커밋 후 DELETE 레코드 추가 (롤백 시 유지)
+ *
+ * Note:
+ *   - mmap 대신 위치 지정 읽기: Windows에서는 매핑된 파일을 GC 전까지 지울 수 없어 압축 후 세그먼트 삭제가 실패함
+ *   - DELETE 레코드는 원래 PUT이 있던 세그먼트 번호를 함께 기록 → 그 세그먼트가 남아있는 동안만 압축 시 옮김
+ *   - 마지막 세그먼트 끝의 잘린 레코드(기록 중 비정상 종료)는 재구성 시 잘라냄
+ *   - 세그먼트 파일에는 비공개 글 본문도 있으므로 URL로 공개하지 않음 (WebMvcConfig는 {domain}/uploads, {domain}/variants만 매핑)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class SegmentContentStore implements ContentStore {
+
+	private static final Logger log = LoggerFactory.getLogger(SegmentContentStore.class);
+
+	public static final String NAME = "segment";
+	public static final String KEY_PREFIX = NAME + ":";
+	public static final String SEGMENT_DIR = "segments";
+
+	private static final String SEGMENT_PREFIX = "seg-";
+	private static final String SEGMENT_SUFFIX = ".dat";
+
+	private static final int MAGIC = 0x48534731; // "HSG1"
+	private static final byte TYPE_PUT = 1;
+	private static final byte TYPE_DELETE = 2;
+	private static final int HEADER_SIZE = 4 + 1 + 16 + 4 + 4;
+
+	private final Path baseDir;
+	private final long maxSegmentBytes;
+	private final double compactionMinGarbage;
+	private final Map<String, DomainSegments> stores = new ConcurrentHashMap<>();
+
+	public SegmentContentStore(@Value("${petclinic.file.base-dir}") String baseDirPath,
+							   @Value("${petclinic.file.html-storage.segment.max-segment-size:64MB}") DataSize maxSegmentSize,
+							   @Value("${petclinic.file.html-storage.segment.compaction-min-garbage:0.5}") double compactionMinGarbage) {
+		this.baseDir = Paths.get(baseDirPath);
+		this.maxSegmentBytes = maxSegmentSize.toBytes();
+		this.compactionMinGarbage = compactionMinGarbage;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		stores.values().forEach(DomainSegments::close);
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	/**
+	 * 세그먼트 저장소 키인지 (쓰기 백엔드 설정과 무관: 도메인을 다른 저장소로 바꿔도 기존 키는 계속 조회)
+	 */
+	@Override
+	public boolean owns(String key, String domain) {
+		return key != null && key.startsWith(KEY_PREFIX + domain + "/");
+	}
+
+	/**
+	 * 본문 저장 (트랜잭션 롤백 시 취소)
+	 * @param domain 도메인명
+	 * @param payload 저장할 바이트 (압축 여부는 호출자 결정)
+	 * @return 키 ("segment:{domain}/{uuid}")
+	 */
+	@Override
+	public String put(String domain, byte[] payload) throws IOException {
+		DomainSegments store = store(domain);
+		UUID id = UUID.randomUUID();
+		store.put(id, payload);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) {
+						deleteQuietly(store, id);
+					}
+				}
+			});
+		}
+		return KEY_PREFIX + domain + "/" + id;
+	}
+
+	/**
+	 * 본문 조회
+	 * @return 저장된 바이트, 없으면 null
+	 */
+	@Override
+	public byte[] get(String key, String domain) throws IOException {
+		return store(domain).get(parseId(key, domain));
+	}
+
+	/**
+	 * 커밋 후 삭제 (트랜잭션 밖이면 즉시)
+	 */
+	@Override
+	public void delete(String key, String domain) {
+		DomainSegments store = store(domain);
+		UUID id = parseId(key, domain);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			deleteQuietly(store, id);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				deleteQuietly(store, id);
+			}
+		});
+	}
+
+	/**
+	 * 사용 중인 도메인 + 디스크에 세그먼트가 있는 도메인 전체 압축
+	 * @return 처리 결과
+	 */
+	public CompactionReport compactAll() {
+		CompactionReport report = new CompactionReport();
+		for (String domain : knownDomains()) {
+			try {
+				store(domain).compact(compactionMinGarbage, report);
+			} catch (IOException | UncheckedIOException e) {
+				log.error("Segment compaction failed: domain={}", domain, e);
+			}
+		}
+		return report;
+	}
+
+	private List<String> knownDomains() {
+		Set<String> result = new TreeSet<>(stores.keySet());
+		try (Stream<Path> children = Files.list(baseDir)) {
+			children.filter(dir -> Files.isDirectory(dir.resolve(SEGMENT_DIR)))
+				.forEach(dir -> result.add(dir.getFileName().toString()));
+		} catch (IOException e) {
+			log.warn("Failed to list domains under {}", baseDir, e);
+		}
+		return new ArrayList<>(result);
+	}
+
+	private DomainSegments store(String domain) {
+		return stores.computeIfAbsent(domain, key -> {
+			try {
+				return DomainSegments.open(baseDir.resolve(key).resolve(SEGMENT_DIR), maxSegmentBytes);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to open segment store: " + key, e);
+			}
+		});
+	}
+
+	private UUID parseId(String key, String domain) {
+		if (!owns(key, domain)) {
+			throw new SecurityException("Invalid segment key");
+		}
+		try {
+			return UUID.fromString(key.substring(KEY_PREFIX.length() + domain.length() + 1));
+		} catch (IllegalArgumentException e) {
+			throw new SecurityException("Invalid segment key");
+		}
+	}
+
+	private void deleteQuietly(DomainSegments store, UUID id) {
+		try {
+			store.delete(id);
+		} catch (IOException e) {
+			// 색인에서는 이미 빠졌으므로 조회되지 않음, 재기동 시 되살아난 레코드는 다음 삭제/압축 대상
+			log.error("Failed to append segment delete record: {}", id, e);
+		}
+	}
+
+	// ==================== 도메인별 세그먼트 ====================
+
+	/**
+	 * 레코드 위치 (payload 시작 offset 기준)
+	 */
+	private static final class Location {
+
+		private final int segment;
+		private final long offset;
+		private final int length;
+		private final int crc;
+
+		private Location(int segment, long offset, int length, int crc) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+			this.crc = crc;
+		}
+
+		private long recordSize() {
+			return HEADER_SIZE + (long) length;
+		}
+	}
+
+	/**
+	 * 한 도메인의 세그먼트 파일 묶음 + 색인
+	 * - 추가는 appendLock으로 직렬화, 조회는 segmentLock 읽기 잠금 (압축 후 세그먼트를 닫을 때만 쓰기 잠금)
+	 */
+	private static final class DomainSegments {
+
+		private final Path dir;
+		private final long maxSegmentBytes;
+		private final Map<UUID, Location> index = new ConcurrentHashMap<>();
+		private final Map<Integer, FileChannel> channels = new ConcurrentHashMap<>();
+		private final Map<Integer, AtomicLong> liveBytes = new ConcurrentHashMap<>();
+		private final Object appendLock = new Object();
+		private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+		private int activeSegment;
+		private long activeSize;
+
+		private DomainSegments(Path dir, long maxSegmentBytes) {
+			this.dir = dir;
+			this.maxSegmentBytes = maxSegmentBytes;
+		}
+
+		static DomainSegments open(Path dir, long maxSegmentBytes) throws IOException {
+			Files.createDirectories(dir);
+			DomainSegments store = new DomainSegments(dir, maxSegmentBytes);
+			List<Integer> segments = store.listSegments();
+			long startNanos = System.nanoTime();
+			for (int i = 0; i < segments.size(); i++) {
+				store.scan(segments.get(i), i == segments.size() - 1);
+			}
+			if (segments.isEmpty()) {
+				store.openSegment(1);
+			} else {
+				int last = segments.get(segments.size() - 1);
+				store.activeSegment = last;
+				store.activeSize = store.channels.get(last).size();
+			}
+			log.info("Segment store opened: dir={}, segments={}, records={}, took={}ms",
+				dir, Math.max(1, segments.size()), store.index.size(), (System.nanoTime() - startNanos) / 1_000_000);
+			return store;
+		}
+
+		void put(UUID id, byte[] payload) throws IOException {
+			Location location = append(TYPE_PUT, id, ByteBuffer.wrap(payload));
+			index.put(id, location);
+			live(location.segment).addAndGet(location.recordSize());
+		}
+
+		byte[] get(UUID id) throws IOException {
+			segmentLock.readLock().lock();
+			try {
+				Location location = index.get(id);
+				if (location == null) {
+					return null;
+				}
+				ByteBuffer buffer = ByteBuffer.allocate(location.length);
+				readFully(channels.get(location.segment), buffer, location.offset);
+				byte[] payload = buffer.array();
+				if (crc(payload) != location.crc) {
+					throw new IOException("Segment record checksum mismatch: " + id);
+				}
+				return payload;
+			} finally {
+				segmentLock.readLock().unlock();
+			}
+		}
+
+		void delete(UUID id) throws IOException {
+			Location removed = index.remove(id);
+			if (removed == null) {
+				return;
+			}
+			live(removed.segment).addAndGet(-removed.recordSize());
+			append(TYPE_DELETE, id, ByteBuffer.allocate(4).putInt(0, removed.segment));
+		}
+
+		/**
+		 * 봉인 세그먼트 중 유효 비율이 낮은 것부터 유효 레코드 이동 후 삭제
+		 */
+		void compact(double minGarbage, CompactionReport report) throws IOException {
+			int active;
+			synchronized (appendLock) {
+				active = activeSegment;
+			}
+			for (int segment : listSegments()) {
+				if (segment >= active) {
+					continue;
+				}
+				FileChannel channel = channels.get(segment);
+				long size = channel.size();
+				long live = live(segment).get();
+				if (size > 0 && (double) (size - live) / size < minGarbage) {
+					continue;
+				}
+				report.segmentsCompacted++;
+				report.bytesReclaimed += size - live;
+				report.recordsMoved += relocate(segment, channel, size);
+				segmentLock.writeLock().lock();
+				try {
+					channels.remove(segment).close();
+					liveBytes.remove(segment);
+					Files.deleteIfExists(segmentPath(segment));
+				} finally {
+					segmentLock.writeLock().unlock();
+				}
+				log.info("Segment compacted: {}, size={}, live={}", segmentPath(segment), size, live);
+			}
+		}
+
+		private long relocate(int segment, FileChannel channel, long size) throws IOException {
+			long moved = 0;
+			long position = 0;
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (position + HEADER_SIZE <= size) {
+				header.clear();
+				readFully(channel, header, position);
+				header.flip();
+				if (header.getInt() != MAGIC) {
+					break;
+				}
+				byte type = header.get();
+				UUID id = new UUID(header.getLong(), header.getLong());
+				int length = header.getInt();
+				int crc = header.getInt();
+				long payloadOffset = position + HEADER_SIZE;
+				position = payloadOffset + length;
+
+				if (type == TYPE_PUT) {
+					Location current = index.get(id);
+					if (current == null || current.segment != segment || current.offset != payloadOffset) {
+						continue;
+					}
+					ByteBuffer payload = ByteBuffer.allocate(length);
+					readFully(channel, payload, payloadOffset);
+					payload.flip();
+					Location copy = append(TYPE_PUT, id, payload);
+					if (copy.crc != crc) {
+						throw new IOException("Segment record checksum mismatch during compaction: " + id);
+					}
+					if (index.replace(id, current, copy)) {
+						live(copy.segment).addAndGet(copy.recordSize());
+						moved++;
+					} else {
+						// 옮기는 사이 삭제됨: 복사본도 무효 표시 (재구성 시 되살아나지 않도록)
+						append(TYPE_DELETE, id, ByteBuffer.allocate(4).putInt(0, copy.segment));
+					}
+				} else if (type == TYPE_DELETE && length == 4) {
+					// 원래 PUT이 다른(더 오래된) 세그먼트에 아직 남아있으면 삭제 표시 유지
+					ByteBuffer target = ByteBuffer.allocate(4);
+					readFully(channel, target, payloadOffset);
+					int targetSegment = target.getInt(0);
+					if (targetSegment != segment && channels.containsKey(targetSegment)) {
+						append(TYPE_DELETE, id, target.rewind());
+					}
+				}
+			}
+			return moved;
+		}
+
+		private Location append(byte type, UUID id, ByteBuffer payload) throws IOException {
+			int length = payload.remaining();
+			byte[] bytes = new byte[length];
+			payload.duplicate().get(bytes);
+			int crc = crc(bytes);
+
+			ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+			record.putInt(MAGIC).put(type)
+				.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+				.putInt(length).putInt(crc).put(bytes);
+			record.flip();
+
+			synchronized (appendLock) {
+				if (activeSize > 0 && activeSize + record.remaining() > maxSegmentBytes) {
+					openSegment(activeSegment + 1);
+				}
+				FileChannel channel = channels.get(activeSegment);
+				long position = activeSize;
+				while (record.hasRemaining()) {
+					position += channel.write(record, position);
+				}
+				channel.force(false);
+				Location location = new Location(activeSegment, activeSize + HEADER_SIZE, length, crc);
+				activeSize = position;
+				return location;
+			}
+		}
+
+		/**
+		 * 세그먼트 헤더 순차 읽기로 색인 재구성 (payload는 건너뜀, CRC는 조회 시 검증)
+		 */
+		private void scan(int segment, boolean last) throws IOException {
+			FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			channels.put(segment, channel);
+			long size = channel.size();
+			long position = 0;
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (position + HEADER_SIZE <= size) {
+				header.clear();
+				readFully(channel, header, position);
+				header.flip();
+				if (header.getInt() != MAGIC) {
+					break;
+				}
+				byte type = header.get();
+				UUID id = new UUID(header.getLong(), header.getLong());
+				int length = header.getInt();
+				int crc = header.getInt();
+				long payloadOffset = position + HEADER_SIZE;
+				if (length < 0 || payloadOffset + length > size) {
+					break;
+				}
+				if (type == TYPE_PUT) {
+					Location previous = index.put(id, new Location(segment, payloadOffset, length, crc));
+					if (previous != null) {
+						live(previous.segment).addAndGet(-previous.recordSize());
+					}
+					live(segment).addAndGet(HEADER_SIZE + (long) length);
+				} else if (type == TYPE_DELETE) {
+					Location removed = index.remove(id);
+					if (removed != null) {
+						live(removed.segment).addAndGet(-removed.recordSize());
+					}
+				}
+				position = payloadOffset + length;
+			}
+			if (position < size) {
+				if (last) {
+					log.warn("Truncating incomplete segment tail: {} at {} (size {})", segmentPath(segment), position, size);
+					channel.truncate(position);
+				} else {
+					log.error("Corrupt segment record skipped: {} at {} (size {})", segmentPath(segment), position, size);
+				}
+			}
+		}
+
+		private void openSegment(int segment) throws IOException {
+			FileChannel channel = FileChannel.open(segmentPath(segment),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			channels.put(segment, channel);
+			activeSegment = segment;
+			activeSize = channel.size();
+		}
+
+		private List<Integer> listSegments() throws IOException {
+			try (Stream<Path> files = Files.list(dir)) {
+				return files.map(path -> path.getFileName().toString())
+					.filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+					.map(name -> Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+					.sorted()
+					.collect(Collectors.toList());
+			}
+		}
+
+		private Path segmentPath(int segment) {
+			return dir.resolve(SEGMENT_PREFIX + String.format(Locale.ROOT, "%06d", segment) + SEGMENT_SUFFIX);
+		}
+
+		private AtomicLong live(int segment) {
+			return liveBytes.computeIfAbsent(segment, key -> new AtomicLong());
+		}
+
+		void close() {
+			segmentLock.writeLock().lock();
+			try {
+				for (FileChannel channel : channels.values()) {
+					try {
+						channel.close();
+					} catch (IOException e) {
+						log.warn("Failed to close segment channel in {}", dir, e);
+					}
+				}
+				channels.clear();
+			} finally {
+				segmentLock.writeLock().unlock();
+			}
+		}
+
+		private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+			long offset = position;
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, offset);
+				if (read < 0) {
+					throw new IOException("Unexpected end of segment at " + offset);
+				}
+				offset += read;
+			}
+		}
+
+		private static int crc(byte[] bytes) {
+			CRC32 crc32 = new CRC32();
+			crc32.update(bytes);
+			return (int) crc32.getValue();
+		}
+	}
+
+	/**
+	 * 압축 결과
+	 */
+	public static final class CompactionReport {
+
+		private int segmentsCompacted;
+		private long recordsMoved;
+		private long bytesReclaimed;
+
+		public int getSegmentsCompacted() {
+			return segmentsCompacted;
+		}
+
+		public long getRecordsMoved() {
+			return recordsMoved;
+		}
+
+		public long getBytesReclaimed() {
+			return bytesReclaimed;
+		}
+
+		@Override
+		public String toString() {
+			return "segments=" + segmentsCompacted + ", moved=" + recordsMoved + ", reclaimedBytes=" + bytesReclaimed;
+		}
+	}
+}
@@ -0,0 +1,332 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.samples.petclinic.common.dto.ImageVariantSet;
+import org.springframework.samples.petclinic.common.service.ImageResizeSupport.DecodedImage;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.util.UriUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Project : spring-petclinic
+ * File    : StaticImageOptimizer.java
+ * Created : 2026-03-06
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   정적 이미지(classpath:/static/images) 반응형 변형 생성 및 템플릿 URL 제공
+ *   - 템플릿에서 빈 이름 staticImages로 사용: ${@staticImages.src('/images/patella1.jpg')}
+ *   - srcset은 컨텍스트 경로를 인자로 받음: th:with="contextPath=@{/}" → ${@staticImages.srcset('/images/patella1.jpg', contextPath)}
+ *
+ * Purpose (만든 이유):
+ *   1. static/images는 약 75MB (1920px 폭 원본 JPG/PNG, 장당 최대 4MB)를 그대로 전송
+ *   2. 병원소개/특화진료 페이지의 모바일 페이지 용량이 가장 큰 지연 원인
+ *   3. 기동 후 백그라운드에서 480/960/1440/1920px 재압축 변형을 만들고,
+ *      템플릿은 srcset으로 화면 너비에 맞는 변형을 선택
+ *
+ * Fingerprint (파일명 지문):
+ *   - 변형 파일명: {이름}-{너비}w-{원본 MD5 앞 16자}.{jpg|png}
+ *   - 원본이 바뀌면 파일명이 바뀌므로 /images/v/** 는 1년 immutable 캐시 (WebMvcConfig)
+ *   - 이미 만들어진 변형은 헤더(크기)만 읽고 재사용 → 재기동 시 디코딩 없음
+ *
+ * Note:
+ *   - 변형 준비 전(최초 기동 직후)에는 원본 URL을 그대로 반환 (화면 깨짐 없음)
+ *   - 실제 투명 픽셀이 있는 PNG(로고 등)는 PNG로, 나머지는 JPEG로 재압축
+ *   - 480px 미만 이미지는 변형 없이 원본 사용
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component("staticImages")
+public class StaticImageOptimizer {
+
+	private static final Logger log = LoggerFactory.getLogger(StaticImageOptimizer.class);
+
+	public static final String VARIANT_URL_PREFIX = "/images/v/";
+	public static final String VARIANT_DIR = "static-variants/images";
+
+	private static final String SOURCE_PATTERN = "classpath:/static/images/**/*";
+	private static final String SOURCE_MARKER = "/static/images/";
+	private static final String IMAGE_URL_PREFIX = "/images/";
+
+	private static final int MAX_WIDTH = 1920;
+	private static final int[] SMALLER_WIDTHS = {1440, 960, 480};
+	private static final int MIN_SOURCE_WIDTH = 480;
+	private static final long MAX_SOURCE_PIXELS = 60_000_000L;
+	private static final float QUALITY = 0.8f;
+
+	// 너비/품질 정책 변경 시 올리면 모든 변형 파일명이 바뀜
+	private static final String PIPELINE_VERSION = "1";
+
+	private final Path variantDir;
+	private final Map<String, ImageVariantSet> manifest = new ConcurrentHashMap<>();
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "static-image-optimizer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
+	public StaticImageOptimizer(@Value("${petclinic.file.base-dir}") String baseDirPath) {
+		this.variantDir = Paths.get(baseDirPath).resolve(VARIANT_DIR);
+	}
+
+	/**
+	 * 기동 완료 후 백그라운드에서 변형 생성 (기동 시간에 영향 없음)
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		worker.execute(this::optimizeAll);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdownNow();
+	}
+
+	// ==================== 템플릿 API ====================
+
+	/**
+	 * img src 값: 가장 큰 변형 (변형이 없으면 원본 경로)
+	 * @param imagePath 원본 경로 (예: /images/patella1.jpg)
+	 */
+	public String src(String imagePath) {
+		ImageVariantSet set = manifest.get(imagePath);
+		if (set == null) {
+			return imagePath;
+		}
+		String url = set.pick(formatOf(set), MAX_WIDTH);
+		return url != null ? url : imagePath;
+	}
+
+	/**
+	 * img srcset 값 (변형이 없으면 null → Thymeleaf가 속성 생략)
+	 * - srcset은 @{}를 거치지 않으므로 후보 URL마다 컨텍스트 경로를 직접 붙임
+	 * @param imagePath 원본 경로 (예: /images/patella1.jpg)
+	 * @param contextPath 템플릿의 @{/} 값 (예: "/", "/petclinic/")
+	 */
+	public String srcset(String imagePath, String contextPath) {
+		ImageVariantSet set = manifest.get(imagePath);
+		return set != null ? set.srcset(formatOf(set), stripTrailingSlash(contextPath)) : null;
+	}
+
+	private String formatOf(ImageVariantSet set) {
+		return set.getVariants().get(0).getFormat();
+	}
+
+	private String stripTrailingSlash(String contextPath) {
+		if (contextPath == null) {
+			return "";
+		}
+		return contextPath.endsWith("/") ? contextPath.substring(0, contextPath.length() - 1) : contextPath;
+	}
+
+	// ==================== 변형 생성 ====================
+
+	private void optimizeAll() {
+		long started = System.currentTimeMillis();
+		int optimized = 0;
+		try {
+			Files.createDirectories(variantDir);
+			Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SOURCE_PATTERN);
+			for (Resource resource : resources) {
+				if (Thread.currentThread().isInterrupted()) {
+					return;
+				}
+				String imagePath = toImagePath(resource);
+				if (imagePath == null) {
+					continue;
+				}
+				try {
+					if (optimize(resource, imagePath)) {
+						optimized++;
+					}
+				} catch (Exception e) {
+					log.warn("Static image optimization failed: {} ({})", imagePath, e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			log.error("Static image optimization aborted", e);
+		}
+		log.info("Static image variants ready: images={}, elapsed={}ms", optimized, System.currentTimeMillis() - started);
+	}
+
+	/**
+	 * 이미지 1건 처리
+	 * @return 변형이 등록되었으면 true
+	 */
+	private boolean optimize(Resource resource, String imagePath) throws IOException {
+		byte[] bytes;
+		try (var in = resource.getInputStream()) {
+			bytes = in.readAllBytes();
+		}
+
+		int[] size = readSize(bytes);
+		if (size == null || size[0] < MIN_SOURCE_WIDTH) {
+			return false;
+		}
+
+		List<Integer> widths = targetWidths(size[0]);
+		String stem = toStem(imagePath);
+		String fingerprint = DigestUtils.md5DigestAsHex(concat(bytes, PIPELINE_VERSION)).substring(0, 16);
+
+		// 1. 이미 만들어진 변형 재사용 (JPEG 또는 PNG 중 존재하는 쪽)
+		for (String format : new String[]{ImageVariantSet.FORMAT_JPEG, "png"}) {
+			if (allExist(stem, fingerprint, widths, format)) {
+				register(imagePath, stem, fingerprint, widths, format);
+				return true;
+			}
+		}
+
+		// 2. 디코딩 후 큰 너비부터 단계 축소하며 생성
+		DecodedImage decoded;
+		try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+			decoded = ImageResizeSupport.decode(in, MAX_WIDTH, MAX_SOURCE_PIXELS);
+		}
+		if (decoded == null) {
+			return false;
+		}
+
+		BufferedImage current = decoded.getImage();
+		String format = ImageResizeSupport.hasTransparency(current) ? "png" : ImageVariantSet.FORMAT_JPEG;
+		if (ImageVariantSet.FORMAT_JPEG.equals(format)) {
+			current = ImageResizeSupport.toOpaqueRgb(current);
+		}
+
+		for (int width : widths) {
+			int height = ImageResizeSupport.scaledHeight(decoded.getOriginalWidth(), decoded.getOriginalHeight(), width);
+			current = ImageResizeSupport.resize(current, width, height);
+			Path target = variantDir.resolve(fileName(stem, fingerprint, width, format));
+			if (!Files.exists(target)) {
+				ImageResizeSupport.write(current, format, target, QUALITY);
+			}
+		}
+
+		register(imagePath, stem, fingerprint, widths, format);
+		log.debug("Static image variants created: {} ({} bytes, {}x{})", imagePath, bytes.length, size[0], size[1]);
+		return true;
+	}
+
+	/**
+	 * 생성할 너비 목록 (큰 것부터): 원본 너비(최대 1920) 재압축본 + 그보다 10% 이상 작은 표준 너비
+	 */
+	private List<Integer> targetWidths(int originalWidth) {
+		List<Integer> widths = new ArrayList<>();
+		int top = Math.min(originalWidth, MAX_WIDTH);
+		widths.add(top);
+		for (int width : SMALLER_WIDTHS) {
+			if (width < top * 0.9) {
+				widths.add(width);
+			}
+		}
+		return widths;
+	}
+
+	private void register(String imagePath, String stem, String fingerprint, List<Integer> widths, String format) {
+		ImageVariantSet set = new ImageVariantSet(imagePath);
+		for (int width : widths) {
+			set.add(VARIANT_URL_PREFIX + fileName(stem, fingerprint, width, format), width, format);
+		}
+		manifest.put(imagePath, set);
+	}
+
+	private boolean allExist(String stem, String fingerprint, List<Integer> widths, String format) {
+		for (int width : widths) {
+			if (!Files.exists(variantDir.resolve(fileName(stem, fingerprint, width, format)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 헤더만 읽어 크기 확인 (픽셀 디코딩 없음)
+	 * @return {width, height}, 읽을 수 없으면 null
+	 */
+	private int[] readSize(byte[] bytes) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				return new int[]{reader.getWidth(0), reader.getHeight(0)};
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * classpath 리소스 → 템플릿 경로 (/images/하위경로/파일명), 이미지가 아니면 null
+	 */
+	private String toImagePath(Resource resource) throws IOException {
+		String filename = resource.getFilename();
+		if (filename == null) {
+			return null;
+		}
+		String lower = filename.toLowerCase(Locale.ROOT);
+		if (!(lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png"))) {
+			return null;
+		}
+		String url = UriUtils.decode(resource.getURL().toString(), StandardCharsets.UTF_8);
+		int idx = url.lastIndexOf(SOURCE_MARKER);
+		if (idx < 0) {
+			return null;
+		}
+		return IMAGE_URL_PREFIX + url.substring(idx + SOURCE_MARKER.length());
+	}
+
+	/**
+	 * 파일명 접두어: 경로 구분자/공백 등은 '_'로 치환 (srcset은 공백을 구분자로 사용하므로 필수)
+	 */
+	private String toStem(String imagePath) {
+		String relative = imagePath.substring(IMAGE_URL_PREFIX.length());
+		int dot = relative.lastIndexOf('.');
+		if (dot > 0) {
+			relative = relative.substring(0, dot);
+		}
+		return relative.replaceAll("[^A-Za-z0-9_-]", "_");
+	}
+
+	private String fileName(String stem, String fingerprint, int width, String format) {
+		String extension = ImageVariantSet.FORMAT_JPEG.equals(format) ? "jpg" : format;
+		return stem + "-" + width + "w-" + fingerprint + "." + extension;
+	}
+
+	private byte[] concat(byte[] bytes, String suffix) {
+		byte[] suffixBytes = suffix.getBytes(StandardCharsets.UTF_8);
+		byte[] result = new byte[bytes.length + suffixBytes.length];
+		System.arraycopy(bytes, 0, result, 0, bytes.length);
+		System.arraycopy(suffixBytes, 0, result, bytes.length, suffixBytes.length);
+		return result;
+	}
+}
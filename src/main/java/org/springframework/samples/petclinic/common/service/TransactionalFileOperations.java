@@ -0,0 +1,190 @@
+package org.springframework.samples.petclinic.common.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Project : spring-petclinic
+ * File    : TransactionalFileOperations.java
+ * Created : 2026-03-12
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   DB 트랜잭션 결과에 맞춘 파일 부수효과 처리 (TransactionSynchronization)
+ *   - 쓰기: 임시(staged) 경로에 먼저 기록 → 커밋 후 최종 경로로 원자적 이동, 롤백 시 임시 파일 삭제
+ *   - 삭제: 커밋 후 전용 I/O 스레드에서 비동기 unlink (롤백 시 아무것도 지우지 않음)
+ *   - 롤백 정리: 트랜잭션 안에서 만든 파일을 롤백 시 삭제
+ *   - 트랜잭션 밖에서 호출되면 즉시 처리 (이동은 동기, 삭제는 I/O 스레드)
+ *
+ * Purpose (만든 이유):
+ *   1. 본문 HTML을 트랜잭션 안에서 바로 쓰면 롤백 시 행 없는 파일이 남음
+ *   2. 커밋 전에 기존 파일을 지우면, 이후 롤백 시 살아있는 게시글이 없는 파일을 가리킴
+ *   3. unlink를 요청 스레드에서 하면 응답 지연에 포함되고, 실패 정리를 야간 스케줄러에만 의존하게 됨
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class TransactionalFileOperations {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionalFileOperations.class);
+
+	/** 임시 파일 접미사 (최종 경로와 같은 폴더에 두어 같은 파일 시스템 안의 rename으로 승격) */
+	public static final String STAGED_SUFFIX = ".staged";
+
+	private static final int IO_THREADS = 2;
+	private static final int QUEUE_CAPACITY = 10_000;
+
+	private final ThreadPoolExecutor ioExecutor;
+
+	public TransactionalFileOperations() {
+		AtomicInteger threadSeq = new AtomicInteger();
+		this.ioExecutor = new ThreadPoolExecutor(IO_THREADS, IO_THREADS, 60, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+			runnable -> {
+				Thread thread = new Thread(runnable, "file-io-" + threadSeq.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			},
+			// 큐 초과 또는 종료 중: 호출 스레드에서 직접 처리 (삭제 요청 유실 방지)
+			new ThreadPoolExecutor.CallerRunsPolicy());
+		this.ioExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * 종료 시 대기 중인 삭제 작업 처리
+	 */
+	@PreDestroy
+	public void shutdown() {
+		ioExecutor.shutdown();
+		try {
+			if (!ioExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+				log.warn("File I/O tasks left on shutdown: {}", ioExecutor.getQueue().size());
+				ioExecutor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			ioExecutor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 최종 경로에 대응하는 임시 경로 (같은 폴더, 숨김 파일)
+	 * @param target 최종 경로
+	 * @return 예: .../2026/03/.uuid.html.staged
+	 */
+	public Path stagedPathFor(Path target) {
+		return target.resolveSibling("." + target.getFileName() + STAGED_SUFFIX);
+	}
+
+	/**
+	 * 임시 파일 승격 예약
+	 * - 커밋 후: staged → target 이동 (요청 스레드에서 동기 처리, 리다이렉트 직후 조회에 파일이 보이도록)
+	 * - 롤백 후: staged 삭제
+	 * @param staged 기록이 끝난 임시 파일
+	 * @param target 최종 경로 (DB에 저장되는 경로)
+	 */
+	public void promoteAfterCommit(Path staged, Path target) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			promote(staged, target);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				promote(staged, target);
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					deleteAsync(staged);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 커밋 후 비동기 삭제 예약 (트랜잭션 밖이면 즉시 비동기 삭제)
+	 * @param file 삭제할 파일
+	 */
+	public void deleteAfterCommit(Path file) {
+		if (file == null) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			deleteAsync(file);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				deleteAsync(file);
+			}
+		});
+	}
+
+	/**
+	 * 롤백 시 비동기 삭제 예약 (트랜잭션 안에서 새로 만든 파일용, 트랜잭션 밖이면 아무것도 하지 않음)
+	 * @param file 롤백 시 삭제할 파일
+	 */
+	public void deleteOnRollback(Path file) {
+		if (file == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					deleteAsync(file);
+				}
+			}
+		});
+	}
+
+	/**
+	 * I/O 스레드에서 삭제 (요청 스레드는 대기하지 않음)
+	 * @param file 삭제할 파일
+	 */
+	public void deleteAsync(Path file) {
+		if (file == null) {
+			return;
+		}
+		ioExecutor.execute(() -> {
+			try {
+				if (Files.deleteIfExists(file)) {
+					log.debug("File deleted: {}", file);
+				}
+			} catch (IOException e) {
+				log.warn("Failed to delete file (left for reconciliation): {}", file, e);
+			}
+		});
+	}
+
+	private void promote(Path staged, Path target) {
+		try {
+			try {
+				Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			// 커밋은 끝났으므로 되돌릴 수 없음: 임시 파일은 남겨 두고(CommonHtmlStorage가 대체 조회) 오류만 기록
+			log.error("Failed to promote staged file after commit: {} -> {}", staged, target, e);
+		}
+	}
+}
@@ -10,12 +10,14 @@ package org.springframework.samples.petclinic.common.table;
  *   통합 첨부파일 Entity (모든 도메인에서 공통 사용)
  *   - 게시글, 댓글, 포토게시판 등 모든 첨부파일 관리
  *   - Soft Delete 정책 적용
- *   - 파일 메타데이터 저장 (경로, 크기, MIME 타입)
+ *   - 파일 메타데이터 저장 (경로, 크기, MIME 타입, SHA-256)
  *
  * Features:
  *   - 다운로드 횟수 추적
  *   - 파일 만료 정책 (deleted_at + 2주 후 물리 삭제)
  *   - 도메인별 연결 (중간 테이블 사용)
+ *   - 내용 기반 중복 제거: 동일 SHA-256 파일은 AttachmentBlobStore의 blob 하나를 공유
+ *     (content_hash가 같은 행 수 = blob 참조 수, 마지막 참조 영구 삭제 시 blob 해제)
  *
  * Performance:
  *   - 파일 경로는 상대 경로로 저장하여 I/O 최적화
@@ -40,7 +42,8 @@ import java.time.LocalDateTime;
 		columnNames = {"stored_filename","del_flag"}),
 	indexes = {
 		@Index(name = "idx_attachment_created", columnList = "created_at DESC"),
-		@Index(name = "idx_attachment_del_flag", columnList = "del_flag")
+		@Index(name = "idx_attachment_del_flag", columnList = "del_flag"),
+		@Index(name = "idx_attachment_content_hash", columnList = "content_hash")
 	})
 @SQLDelete(sql = "UPDATE attachment SET del_flag=1, deleted_at=NOW() WHERE id=?")
 @SQLRestriction("del_flag = 0")
@@ -62,6 +65,10 @@ public class Attachment extends BaseEntity {
 	@Column(name = "file_size", nullable = false)
 	private Long fileSize;
 
+	/** 파일 내용 SHA-256 (소문자 hex, blob 참조 키 / 업로드 시점에 해시를 모르는 경로 연결 첨부는 null) */
+	@Column(name = "content_hash", length = 64)
+	private String contentHash;
+
 	/** 다운로드 횟수 (성능 모니터링 및 인기 파일 추적) */
 	@Column(name = "download_count", nullable = false)
 	private int downloadCount = 0;
@@ -117,6 +124,14 @@ public class Attachment extends BaseEntity {
 		this.fileSize = fileSize;
 	}
 
+	public String getContentHash() {
+		return contentHash;
+	}
+
+	public void setContentHash(String contentHash) {
+		this.contentHash = contentHash;
+	}
+
 	public int getDownloadCount() {
 		return downloadCount;
 	}
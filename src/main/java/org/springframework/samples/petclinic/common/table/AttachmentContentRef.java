@@ -0,0 +1,80 @@
+package org.springframework.samples.petclinic.common.table;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.samples.petclinic.common.entity.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Project : spring-petclinic
+ * File    : AttachmentContentRef.java
+ * Created : 2026-03-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   본문 HTML 파일 → 본문 안 이미지(Attachment) 참조
+ *   - 본문 파일(content_path) 1건당 본문이 가리키는 /images/... 첨부파일별 1행
+ *   - 본문 저장(CommonHtmlStorage.saveHtml) 시 기록, 본문 파일 삭제(deleteHtml) 시 함께 삭제
+ *
+ * Purpose (만든 이유):
+ *   - 에디터가 붙여넣은 base64 이미지를 저장 시 Attachment로 추출(InlineImageService)하면
+ *     게시글 첨부 연결 테이블에는 없으므로 고아 파일 청소(AttachmentRepository.ORPHAN_GUARD)가 지워버림
+ *   - 첨부 목록(다운로드)에 노출하지 않으면서 참조 중임을 표시
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Entity
+@Table(name = "attachment_content_ref",
+	uniqueConstraints = @UniqueConstraint(name = "uq_attachment_content_ref",
+		columnNames = {"content_path", "attachment_id"}),
+	indexes = @Index(name = "idx_attachment_content_ref_attachment", columnList = "attachment_id"))
+public class AttachmentContentRef extends BaseEntity {
+
+	/** 본문 파일 경로 (saveHtml 반환값, 게시글 content/content_path 컬럼과 같은 값) */
+	@Column(name = "content_path", nullable = false, length = 500)
+	private String contentPath;
+
+	/** 본문이 참조하는 첨부파일 (다대일) */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "attachment_id", nullable = false)
+	private Attachment attachment;
+
+	/** 생성 일시 */
+	@CreationTimestamp
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	public AttachmentContentRef() {
+	}
+
+	public AttachmentContentRef(String contentPath, Attachment attachment) {
+		this.contentPath = contentPath;
+		this.attachment = attachment;
+	}
+
+	public String getContentPath() {
+		return contentPath;
+	}
+
+	public void setContentPath(String contentPath) {
+		this.contentPath = contentPath;
+	}
+
+	public Attachment getAttachment() {
+		return attachment;
+	}
+
+	public void setAttachment(Attachment attachment) {
+		this.attachment = attachment;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+}
@@ -0,0 +1,133 @@
+package org.springframework.samples.petclinic.common.table;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.samples.petclinic.common.entity.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Project : spring-petclinic
+ * File    : AttachmentVariant.java
+ * Created : 2026-03-05
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   이미지 첨부파일의 축소 파생본(썸네일) 메타데이터
+ *   - 원본 Attachment 1건당 (너비 x 포맷) 조합별 1행
+ *   - 파일 경로: {domain}/variants/yyyy/MM/{uuid}_w{width}.{ext} (base-dir 기준 상대 경로)
+ *
+ * Purpose (만든 이유):
+ *   - 포토게시판 목록/상세가 원본(수 MB) 대신 화면 크기에 맞는 파생본을 참조하도록 함
+ *   - ImageVariantService가 백그라운드에서 생성 후 기록
+ *
+ * Note:
+ *   - 원본 영구 삭제(FileCleanupScheduler Task 2) 시 파생본 파일/행도 함께 삭제 (Soft Delete 없음)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Entity
+@Table(name = "attachment_variant",
+	uniqueConstraints = @UniqueConstraint(name = "uq_attachment_variant",
+		columnNames = {"attachment_id", "width", "format"}))
+public class AttachmentVariant extends BaseEntity {
+
+	/** 원본 첨부파일 (다대일) */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "attachment_id", nullable = false)
+	private Attachment attachment;
+
+	/** 파생본 너비 (px) */
+	@Column(name = "width", nullable = false)
+	private int width;
+
+	/** 파생본 높이 (px, 원본 비율 유지) */
+	@Column(name = "height", nullable = false)
+	private int height;
+
+	/** 이미지 포맷 (jpeg, webp) */
+	@Column(name = "format", nullable = false, length = 10)
+	private String format;
+
+	/** 저장 경로 (base-dir 기준 상대 경로) */
+	@Column(name = "stored_path", nullable = false, length = 255)
+	private String storedPath;
+
+	/** 파일 크기 (bytes) */
+	@Column(name = "file_size", nullable = false)
+	private Long fileSize;
+
+	/** 생성 일시 */
+	@CreationTimestamp
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	public AttachmentVariant() {
+	}
+
+	public AttachmentVariant(Attachment attachment, int width, int height, String format, String storedPath, long fileSize) {
+		this.attachment = attachment;
+		this.width = width;
+		this.height = height;
+		this.format = format;
+		this.storedPath = storedPath;
+		this.fileSize = fileSize;
+	}
+
+	public Attachment getAttachment() {
+		return attachment;
+	}
+
+	public void setAttachment(Attachment attachment) {
+		this.attachment = attachment;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public void setWidth(int width) {
+		this.width = width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public void setHeight(int height) {
+		this.height = height;
+	}
+
+	public String getFormat() {
+		return format;
+	}
+
+	public void setFormat(String format) {
+		this.format = format;
+	}
+
+	public String getStoredPath() {
+		return storedPath;
+	}
+
+	public void setStoredPath(String storedPath) {
+		this.storedPath = storedPath;
+	}
+
+	public Long getFileSize() {
+		return fileSize;
+	}
+
+	public void setFileSize(Long fileSize) {
+		this.fileSize = fileSize;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+}
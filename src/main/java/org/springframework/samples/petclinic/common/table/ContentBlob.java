@@ -0,0 +1,105 @@
+package org.springframework.samples.petclinic.common.table;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Project : spring-petclinic
+ * File    : ContentBlob.java
+ * Created : 2026-03-19
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   게시글 본문 바이트 (DatabaseContentStore, ContentStore "db")
+ *   - 본문 1건당 1행, 키 "db:{domain}/{id}" 로 게시글 content/content_path 컬럼에서 참조
+ *   - 읽기/쓰기는 DatabaseContentStore가 JdbcTemplate으로 직접 처리 (본문 바이트를 영속성 컨텍스트에 올리지 않음)
+ *   - 이 엔티티는 테이블 정의(ddl-auto update/validate)용
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Entity
+@Table(name = "content_blob",
+	indexes = @Index(name = "idx_content_blob_domain", columnList = "domain"))
+public class ContentBlob {
+
+	/** UUID 문자열 (키의 {id} 부분) */
+	@Id
+	@Column(name = "id", length = 36)
+	private String id;
+
+	/** 도메인 (counsel, photo, notice) */
+	@Column(name = "domain", nullable = false, length = 20)
+	private String domain;
+
+	/** 본문 바이트 (압축 여부는 CommonHtmlStorage 설정, gzip 헤더로 판별) */
+	@Lob
+	@Column(name = "data", nullable = false, columnDefinition = "LONGBLOB")
+	private byte[] data;
+
+	/** 바이트 수 */
+	@Column(name = "size_bytes", nullable = false)
+	private long sizeBytes;
+
+	/** SHA-256 (hex, 마이그레이션 검증용) */
+	@Column(name = "sha256", nullable = false, length = 64)
+	private String sha256;
+
+	/** 생성 일시 */
+	@CreationTimestamp
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	public ContentBlob() {
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getDomain() {
+		return domain;
+	}
+
+	public void setDomain(String domain) {
+		this.domain = domain;
+	}
+
+	public byte[] getData() {
+		return data;
+	}
+
+	public void setData(byte[] data) {
+		this.data = data;
+	}
+
+	public long getSizeBytes() {
+		return sizeBytes;
+	}
+
+	public void setSizeBytes(long sizeBytes) {
+		this.sizeBytes = sizeBytes;
+	}
+
+	public String getSha256() {
+		return sha256;
+	}
+
+	public void setSha256(String sha256) {
+		this.sha256 = sha256;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+}
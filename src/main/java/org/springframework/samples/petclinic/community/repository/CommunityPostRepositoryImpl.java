@@ -18,6 +18,8 @@ package org.springframework.samples.petclinic.community.repository;
  *
  * Key Features (주요 기능):
  *   - 동적 검색 (제목, 내용, 작성자, 전체)
+ *   - 제목/본문 검색: PostSearchIndex(역색인, 한글 n-gram) 결과 id로 조건 생성, 색인 점수순 정렬 (제목 일치 우선)
+ *     (색인 대신 DB FULLTEXT(FulltextPostSearch)도 가능, 둘 다 답할 수 없으면 제목/search_text LIKE)
  *   - 이전글 조회 (getPrevPost): 현재 글보다 작은 ID 중 가장 큰 값
  *   - 다음글 조회 (getNextPost): 현재 글보다 큰 ID 중 가장 작은 값
  *   - 페이징 처리 (offset, limit)
@@ -68,6 +70,8 @@ package org.springframework.samples.petclinic.community.repository;
  *
  * Dependencies (의존 관계):
  *   - JPAQueryFactory: QueryDSL 쿼리 생성
+ *   - PostSearchIndex: 제목/본문 역색인 ("notice" 도메인)
+ *   - FulltextPostSearch: DB FULLTEXT 검색 (메모리 색인을 쓰지 않는 배포)
  *   - QCommunityPost: QueryDSL Q-Type
  *   - BooleanBuilder: 동적 조건 조합
  *
@@ -77,25 +81,43 @@ package org.springframework.samples.petclinic.community.repository;
 
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.common.dto.PageResponse;
+import org.springframework.samples.petclinic.common.service.FulltextPostSearch;
+import org.springframework.samples.petclinic.common.service.PostSearchIndex;
 import org.springframework.samples.petclinic.community.table.CommunityPost;
 import org.springframework.samples.petclinic.community.table.QCommunityPost;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 public class CommunityPostRepositoryImpl implements CommunityPostRepositoryCustom {
 
+	private static final String DOMAIN = "notice";
+
 	private final JPAQueryFactory queryFactory;
+	private final PostSearchIndex postSearchIndex;
+	private final FulltextPostSearch fulltextPostSearch;
 
-	public CommunityPostRepositoryImpl(JPAQueryFactory queryFactory){
+	public CommunityPostRepositoryImpl(JPAQueryFactory queryFactory, PostSearchIndex postSearchIndex,
+									   FulltextPostSearch fulltextPostSearch){
 		this.queryFactory = queryFactory;
+		this.postSearchIndex = postSearchIndex;
+		this.fulltextPostSearch = fulltextPostSearch;
 	}
 
 	// 게시글 검색
@@ -104,27 +126,32 @@ public class CommunityPostRepositoryImpl implements CommunityPostRepositoryCusto
 		QCommunityPost post = QCommunityPost.communityPost;
 
 		BooleanBuilder builder = new BooleanBuilder();
+		PostSearchIndex.Hits indexHits = indexHits(type, keyword, pageable);
 		if(keyword != null && !keyword.isEmpty()){
 			switch (type){
 				case "title":
-					builder.and(post.title.containsIgnoreCase(keyword));
+					builder.and(indexMatches(post, indexHits, post.title.containsIgnoreCase(keyword)));
 					break;
 				case "content":
-					builder.and(post.content.containsIgnoreCase(keyword));
+					builder.and(indexMatches(post, indexHits, contentLike(post, keyword)));
 					break;
 				case "author":
 					builder.and(post.author.containsIgnoreCase(keyword));
 					break;
 				default: // 전체 검색
 					builder.and(
-						post.title.containsIgnoreCase(keyword)
-							.or(post.content.containsIgnoreCase(keyword))
+						indexMatches(post, indexHits, post.title.containsIgnoreCase(keyword)
+								.or(contentLike(post, keyword)))
 							.or(post.author.containsIgnoreCase(keyword))
 						);
 					break;
 			}
 		}
 
+		if (indexHits != null) {
+			return rankedPage(post, indexHits, builder, pageable);
+		}
+
 		List<CommunityPost> content = queryFactory
 			.selectFrom(post)
 			.where(builder)
@@ -180,22 +207,23 @@ public class CommunityPostRepositoryImpl implements CommunityPostRepositoryCusto
 		QCommunityPost post = QCommunityPost.communityPost;
 		BooleanBuilder builder = new BooleanBuilder();
 
-		// 1. 키워드 검색 (기존 로직)
+		// 1. 키워드 검색 (제목/본문은 색인 결과 id)
+		PostSearchIndex.Hits indexHits = indexHits(type, keyword, pageable);
 		if (keyword != null && !keyword.isBlank()) {
 			switch (type == null ? "" : type) {
 				case "title":
-					builder.and(post.title.containsIgnoreCase(keyword));
+					builder.and(indexMatches(post, indexHits, post.title.containsIgnoreCase(keyword)));
 					break;
 				case "content":
-					builder.and(post.content.containsIgnoreCase(keyword));
+					builder.and(indexMatches(post, indexHits, contentLike(post, keyword)));
 					break;
 				case "author":
 					builder.and(post.author.containsIgnoreCase(keyword));
 					break;
 				default:
 					builder.and(
-						post.title.containsIgnoreCase(keyword)
-							.or(post.content.containsIgnoreCase(keyword))
+						indexMatches(post, indexHits, post.title.containsIgnoreCase(keyword)
+								.or(contentLike(post, keyword)))
 							.or(post.author.containsIgnoreCase(keyword))
 					);
 			}
@@ -211,7 +239,10 @@ public class CommunityPostRepositoryImpl implements CommunityPostRepositoryCusto
 			builder.and(post.createdAt.lt(endOfDay)); // Less Than (<)
 		}
 
-		// 3. 데이터 조회
+		// 3. 데이터 조회 (색인으로 찾은 검색은 점수순)
+		if (indexHits != null) {
+			return rankedPage(post, indexHits, builder, pageable);
+		}
 		List<CommunityPost> content = queryFactory
 			.selectFrom(post)
 			.where(builder)
@@ -230,4 +261,67 @@ public class CommunityPostRepositoryImpl implements CommunityPostRepositoryCusto
 		Page<CommunityPost> page = new PageImpl<>(content, pageable, total == null ? 0L : total);
 		return new PageResponse<>(page);
 	}
+
+	/**
+	 * 제목/본문 색인 검색 결과: 메모리 색인 → DB FULLTEXT 순서로 답할 수 있는 첫 결과
+	 * (색인을 쓰지 않는 검색 타입이거나 둘 다 답할 수 없으면 null → LIKE)
+	 */
+	private PostSearchIndex.Hits indexHits(String type, String keyword, Pageable pageable) {
+		if (keyword == null || keyword.isBlank() || "author".equals(type)) {
+			return null;
+		}
+		PostSearchIndex.Field field = "title".equals(type) ? PostSearchIndex.Field.TITLE
+			: "content".equals(type) ? PostSearchIndex.Field.BODY : PostSearchIndex.Field.ALL;
+		long depth = pageable.getOffset() + pageable.getPageSize();
+		PostSearchIndex.Hits hits = postSearchIndex.search(DOMAIN, keyword, field, depth);
+		return hits != null ? hits : fulltextPostSearch.search(DOMAIN, keyword, field, depth);
+	}
+
+	/**
+	 * 본문 LIKE: 검색용 평문(search_text), 평문이 아직 없는 예전 행은 본문이 직접 들어있는 content
+	 */
+	private BooleanExpression contentLike(QCommunityPost post, String keyword) {
+		return post.searchText.containsIgnoreCase(keyword).or(post.content.containsIgnoreCase(keyword));
+	}
+
+	/**
+	 * 색인 조건: 색인 결과 id 목록 (색인 결과가 없으면 기존 LIKE 조건)
+	 */
+	private BooleanExpression indexMatches(QCommunityPost post, PostSearchIndex.Hits indexHits, BooleanExpression likeCondition) {
+		if (indexHits == null) {
+			return likeCondition;
+		}
+		return indexHits.getIds().isEmpty() ? Expressions.FALSE.isTrue() : post.id.in(indexHits.getIds());
+	}
+
+	/**
+	 * 색인 점수순 페이지: 조건(날짜/Soft Delete)을 통과한 id를 점수 순서대로
+	 * (색인 밖에서 일치한 작성자 검색 결과는 색인 결과를 끝까지 받은 뒤 최신순) 잘라 해당 페이지만 조회
+	 * - 전체 건수: 받은 색인 결과 중 조건 통과 수 + 아직 받지 않은 색인 일치 수 (날짜 필터가 있으면 근사치)
+	 */
+	private PageResponse<CommunityPost> rankedPage(QCommunityPost post, PostSearchIndex.Hits indexHits, BooleanBuilder builder, Pageable pageable) {
+		List<Long> matched = queryFactory.select(post.id).from(post).where(builder)
+			.orderBy(post.id.desc()).fetch();
+		Set<Long> matchedIds = new HashSet<>(matched);
+		Set<Long> hitIds = new HashSet<>(indexHits.getIds());
+		List<Long> ranked = new ArrayList<>(matched.size());
+		indexHits.getIds().stream().filter(matchedIds::contains).forEach(ranked::add);
+		List<Long> others = matched.stream().filter(id -> !hitIds.contains(id)).toList();
+		long total = (long) ranked.size() + indexHits.getRemaining() + others.size();
+		if (indexHits.getRemaining() == 0) {
+			ranked.addAll(others);
+		}
+
+		int from = (int) Math.min(pageable.getOffset(), ranked.size());
+		List<Long> pageIds = ranked.subList(from, Math.min(from + pageable.getPageSize(), ranked.size()));
+		Map<Long, CommunityPost> byId = pageIds.isEmpty() ? Map.of() : queryFactory
+			.selectFrom(post)
+			.where(post.id.in(pageIds))
+			.fetch()
+			.stream()
+			.collect(Collectors.toMap(CommunityPost::getId, Function.identity()));
+		List<CommunityPost> content = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+		return new PageResponse<>(new PageImpl<>(content, pageable, total));
+	}
 }
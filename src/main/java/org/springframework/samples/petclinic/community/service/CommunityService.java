@@ -7,7 +7,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.dto.IngestedHtml;
 import org.springframework.samples.petclinic.common.service.CommonHtmlStorage;
+import org.springframework.samples.petclinic.common.service.PostSearchIndex;
+import org.springframework.samples.petclinic.search.service.TitleSuggestIndex;
 import org.springframework.samples.petclinic.community.repository.CommunityPostLikeRepository;
 import org.springframework.samples.petclinic.community.table.CommunityPostLike;
 import org.springframework.samples.petclinic.counsel.service.FileStorageService;
@@ -111,13 +114,17 @@ public class CommunityService {
 
 	// [Refactor] 공통 HTML 저장소 주입
 	private final CommonHtmlStorage commonHtmlStorage;
+	private final PostSearchIndex postSearchIndex;
+	private final TitleSuggestIndex titleSuggestIndex;
 
 	public CommunityService(CommunityPostRepository repository,
 							CommunityPostRepository communityPostRepository,
 							CommunityPostLikeRepository likeRepository,
 							AttachmentRepository attachmentRepository, FileStorageService fileStorageService, CommunityPostMapper postMapper,
 							CommunityPostAttachmentRepository postAttachmentRepository,
-							CommonHtmlStorage commonHtmlStorage) {
+							CommonHtmlStorage commonHtmlStorage,
+							PostSearchIndex postSearchIndex,
+							TitleSuggestIndex titleSuggestIndex) {
 		this.repository = repository;
 		this.communityPostRepository = communityPostRepository;
 		this.likeRepository = likeRepository;
@@ -126,6 +133,8 @@ public class CommunityService {
 		this.postMapper = postMapper;
 		this.postAttachmentRepository = postAttachmentRepository;
 		this.commonHtmlStorage = commonHtmlStorage;
+		this.postSearchIndex = postSearchIndex;
+		this.titleSuggestIndex = titleSuggestIndex;
 	}
 
 	// 페이지 조회는 DTO로 매핑하여 반환 (규칙: Entity를 직접 노출 금지)
@@ -177,11 +186,13 @@ public class CommunityService {
 	public CommunityPostDto createPost(CommunityPostDto dto) {
 		try {
 			// [Refactor] HTML 파일 저장 ("notice" 도메인)
-			// XSS 방어 및 경로 생성은 commonHtmlStorage 내부에서 처리됨
-			String path = commonHtmlStorage.saveHtml(dto.getContent(), "notice");
+			// XSS 방어 및 경로 생성은 commonHtmlStorage 내부에서 처리됨 (검색 색인용 평문도 함께 산출)
+			IngestedHtml ingested = commonHtmlStorage.ingest(dto.getContent(), "notice");
+			String path = commonHtmlStorage.saveHtml(ingested, "notice");
 
 			CommunityPost entity = postMapper.toEntity(dto);
 			entity.setContent(path); // DB에는 파일 경로 저장
+			entity.setSearchText(ingested.getPlainText()); // DB 검색용 평문
 			entity.setCreatedAt(LocalDateTime.now());
 
 			// 첨부파일 처리 (Uppy 업로드된 파일 경로)
@@ -230,6 +241,8 @@ public class CommunityService {
 			}
 
 			CommunityPost saved = repository.save(entity);
+			postSearchIndex.indexAfterCommit("notice", saved.getId(), saved.getTitle(), ingested.getPlainText());
+			titleSuggestIndex.putAfterCommit("notice", saved.getId(), saved.getTitle(), saved.getCreatedAt());
 			log.info("공지사항 작성 완료: ID={}, Path={}", saved.getId(), path);
 
 			return postMapper.toDto(saved);
@@ -259,10 +272,18 @@ public class CommunityService {
 				.orElseThrow(() -> new IllegalArgumentException("게시글을 찾을 수 없습니다: " + id));
 
 			// 1. [Refactor] HTML 파일 저장 및 경로 업데이트 ("notice" 도메인)
-			String filePath = commonHtmlStorage.saveHtml(dto.getContent(), "notice");
+			String oldPath = entity.getContent();
+			IngestedHtml ingested = commonHtmlStorage.ingest(dto.getContent(), "notice");
+			String filePath = commonHtmlStorage.saveHtml(ingested, "notice");
+			postSearchIndex.indexAfterCommit("notice", id, dto.getTitle(), ingested.getPlainText());
+			titleSuggestIndex.putAfterCommit("notice", id, dto.getTitle(), entity.getCreatedAt());
 
 			entity.setTitle(dto.getTitle());
 			entity.setContent(filePath); // 경로 업데이트
+			entity.setSearchText(ingested.getPlainText());
+			if (commonHtmlStorage.isStoredPath(oldPath, "notice")) {
+				commonHtmlStorage.deleteHtml(oldPath, "notice"); // 이전 본문 파일은 커밋 후 삭제
+			}
 			entity.setUpdatedAt(LocalDateTime.now());
 
 			// 2. 기존 첨부파일 삭제 처리 (기존 로직 유지)
@@ -5,6 +5,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 import org.springframework.samples.petclinic.common.entity.BaseEntity;
+import org.springframework.samples.petclinic.common.service.AttachmentLinkListener;
 import org.springframework.samples.petclinic.user.table.User;
 
 import java.time.LocalDateTime;
@@ -30,6 +31,7 @@ import java.util.List;
  *   Copyright (c) 2025 AOF(AllForOne) / All rights reserved.
  */
 @Entity
+@EntityListeners(AttachmentLinkListener.class)
 @Table(name = "community_post")
 @SQLDelete(sql = "UPDATE community_post SET del_flag=1, deleted_at=NOW() WHERE id=?")
 @SQLRestriction("del_flag = 0")
@@ -49,6 +51,11 @@ public class CommunityPost extends BaseEntity {
 	@Column(columnDefinition = "TEXT", nullable = false)
 	private String content;
 
+	/** 검색용 평문 (본문 HTML에서 추출, MySQL FULLTEXT ngram 색인 대상) */
+	@Lob
+	@Column(name = "search_text", columnDefinition = "MEDIUMTEXT")
+	private String searchText;
+
 	@CreationTimestamp
 	@Column(name = "created_at", nullable = false, updatable = false)
 	private LocalDateTime createdAt;
@@ -88,6 +95,14 @@ public class CommunityPost extends BaseEntity {
 		this.title = title;
 	}
 
+	public String getSearchText() {
+		return searchText;
+	}
+
+	public void setSearchText(String searchText) {
+		this.searchText = searchText;
+	}
+
 	public String getContent() {
 		return content;
 	}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.ConstraintMode;
 import org.springframework.samples.petclinic.common.entity.BaseEntity;
+import org.springframework.samples.petclinic.common.service.AttachmentLinkListener;
 import org.springframework.samples.petclinic.common.table.Attachment;
 
 /**
@@ -35,6 +36,7 @@ import org.springframework.samples.petclinic.common.table.Attachment;
  *   Copyright (c) 2025 AOF(AllForOne) / All rights reserved.
  */
 @Entity
+@EntityListeners(AttachmentLinkListener.class)
 @Table(name = "community_post_attachment",
 	uniqueConstraints = @UniqueConstraint(
 		name = "uq_community_post_attachment",
@@ -1,34 +1,58 @@
 package org.springframework.samples.petclinic.counsel.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.common.dto.AttachmentOwner;
 import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.service.AttachmentOwnershipResolver;
+import org.springframework.samples.petclinic.common.service.DownloadCounterService;
 import org.springframework.samples.petclinic.common.table.Attachment;
-import org.springframework.samples.petclinic.community.repository.CommunityPostRepository;
-import org.springframework.samples.petclinic.community.table.CommunityPost;
-import org.springframework.samples.petclinic.counsel.repository.CounselPostRepository;
-import org.springframework.samples.petclinic.counsel.table.CounselPost;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Project : spring-petclinic
@@ -50,8 +74,24 @@ import java.util.Set;
  *     4. 비공개 게시글 + 일반 사용자: 세션에 unlock된 게시글 ID가 있어야 다운로드 가능
  *     5. 권한 없으면 403 Forbidden 반환
  *
+ *   전송 로직 (권한 검증 통과 후):
+ *     1. 강한 ETag(저장 파일명 + 크기) / Last-Modified 기준 조건부 요청 처리
+ *        - If-Match / If-Unmodified-Since 불일치 → 412 Precondition Failed
+ *        - If-None-Match / If-Modified-Since 일치 → 304 Not Modified
+ *     2. Range 요청: 단일 구간 206 Partial Content, 다중 구간 multipart/byteranges
+ *     3. If-Range 불일치 시 Range 무시하고 전체 전송 (파일 교체 후 이어받기 방지)
+ *     4. 만족 불가능한 Range → 416 Range Not Satisfiable
+ *
+ *   일괄 다운로드 (/{domain}/download-all/{postId}):
+ *     1. 게시글 단위로 권한 1회 검증 (규칙은 단건 다운로드와 동일)
+ *     2. 살아있는 첨부 목록 1회 조회 후 ZipOutputStream으로 응답에 바로 스트리밍 (임시 파일 없음, 고정 메모리)
+ *     3. 이미 압축된 형식(JPG/PNG/ZIP/OOXML 등)은 STORED로 재압축 생략
+ *
  *   개선 이력:
  *     - 2025-11-26: 관리자 권한 검증 추가 (Phase 1: 보안 강화)
+ *     - 2026-03-02: 게시판 findAll() 순회 → AttachmentOwnershipResolver(인덱스 조인 + 캐시)로 소유 게시글 조회
+ *     - 2026-03-03: Range(206, 다중 구간) / ETag·Last-Modified(304) 지원, 저장 경로 기준을 base-dir로 통일
+ *     - 2026-03-08: 다운로드 횟수 집계 (DownloadCounterService write-behind, 요청마다 UPDATE 없음)
  *
  * License :
  *   Copyright (c) 2025 AOF(AllForOne) / All rights reserved.
@@ -64,25 +104,41 @@ public class FileDownloadController {
 	// 세션 속성 키: 비밀번호 검증 완료된 게시글 ID 목록
 	private static final String UNLOCKED_POSTS_SESSION_KEY = "counselUnlocked";
 
+	// 다중 Range 남용(수천 개 구간 요청) 방어용 최대 구간 수
+	private static final int MAX_RANGE_COUNT = 16;
+
+	// ZIP 스트리밍 버퍼 크기
+	private static final int ZIP_BUFFER_SIZE = 64 * 1024;
+
+	// 이미 압축된 형식: Deflate로 줄지 않으므로 STORED (CPU 절약)
+	private static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of(
+		"jpg", "jpeg", "png", "gif", "webp", "heic",
+		"zip", "rar", "7z", "gz",
+		"docx", "xlsx", "pptx", "hwpx",
+		"mp3", "mp4", "mov"
+	);
+
 	private final Path baseDir;
 	private final AttachmentRepository attachmentRepository;
-	private final CounselPostRepository counselPostRepository;
-	private final CommunityPostRepository communityPostRepository;
+	private final AttachmentOwnershipResolver attachmentOwnershipResolver;
+	private final DownloadCounterService downloadCounterService;
 
 	/**
 	 * 생성자
+	 * @param baseDir 파일 저장 루트 경로 (Attachment.storedFilename은 이 경로 기준 상대 경로)
 	 * @param attachmentRepository 첨부파일 저장소
-	 * @param counselPostRepository 게시글 저장소
+	 * @param attachmentOwnershipResolver 첨부파일 소유 게시글 조회기
+	 * @param downloadCounterService 다운로드 횟수 write-behind 집계기
 	 */
 	public FileDownloadController(
-		@Value("${petclinic.file.upload-dir}") String uploadDir,
+		@Value("${petclinic.file.base-dir}") String baseDir,
 		AttachmentRepository attachmentRepository,
-		CounselPostRepository counselPostRepository,
-		CommunityPostRepository communityPostRepository) {
-		this.baseDir = Paths.get(uploadDir);
+		AttachmentOwnershipResolver attachmentOwnershipResolver,
+		DownloadCounterService downloadCounterService) {
+		this.baseDir = Paths.get(baseDir);
 		this.attachmentRepository = attachmentRepository;
-		this.counselPostRepository = counselPostRepository;
-		this.communityPostRepository = communityPostRepository;
+		this.attachmentOwnershipResolver = attachmentOwnershipResolver;
+		this.downloadCounterService = downloadCounterService;
 
 		// 디렉토리 자동 생성 방어 로직 추가
 		try {
@@ -108,19 +164,24 @@ public class FileDownloadController {
 	 *   <li>권한 없음: 403 Forbidden 반환</li>
 	 * </ul>
 	 *
+	 * <p>전송: 사전 조건(If-Match/If-Unmodified-Since) 불일치는 412, ETag/Last-Modified 캐시 검증은 304,
+	 * Range 요청은 206(다중 구간 포함)으로 응답합니다.</p>
+	 *
 	 * @param fileId 다운로드할 파일의 ID
 	 * @param session HTTP 세션 (권한 검증용)
 	 * @param authentication Spring Security 인증 객체 (관리자 권한 확인용, null 가능)
-	 * @return 다운로드할 파일의 ResponseEntity 또는 403 에러
-	 * @throws MalformedURLException 파일 경로가 잘못된 경우
+	 * @param request HTTP 요청 (Range / 조건부 헤더 확인용)
+	 * @return 다운로드할 파일(전체 또는 구간)의 ResponseEntity, 304, 403 또는 412 에러
+	 * @throws IOException 파일 메타데이터 조회 실패 시
 	 */
 	@GetMapping("/{domain}/download/{fileId}")
 	@Transactional(readOnly = true)
-	public ResponseEntity<Resource> downloadFile(
+	public ResponseEntity<?> downloadFile(
 		@PathVariable Long fileId,
 		HttpSession session,
-		Authentication authentication, @PathVariable String domain)
-		throws MalformedURLException {
+		Authentication authentication, @PathVariable String domain,
+		HttpServletRequest request)
+		throws IOException {
 
 		// NPE 방지: fileId null 체크
 		if (fileId == null || fileId <= 0) {
@@ -144,29 +205,20 @@ public class FileDownloadController {
 				return new IllegalArgumentException("Invalid file ID: " + fileId);
 			});
 
-		// 2. 파일이 속한 게시글 조회 (권한 검증용)
-		boolean isSecret = false;
-		Long postId = null;
-
-		if ("counsel".equals(domain)) {
-			CounselPost post = findCounselPostByAttachment(attachment);
-			if (post != null) {
-				isSecret = post.isSecret();
-				postId = post.getId();
-			}
-		} else { // community
-			CommunityPost post = findCommunityPostByAttachment(attachment);
-			if (post != null) {
-				isSecret = true;
-				postId = post.getId();
-			}
-		}
+		// 2. 파일이 속한 게시글 조회 (권한 검증용, 중간 테이블 인덱스 조인 + 캐시)
+		AttachmentOwner owner = attachmentOwnershipResolver.resolve(fileId)
+			.filter(o -> o.getDomain().equals(domain))
+			.orElse(null);
 
-		if (postId == null) {
+		if (owner == null) {
 			log.error("Post not found for attachment: fileId={}, domain={}", fileId, domain);
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 		}
 
+		Long postId = owner.getPostId();
+		// 공지사항(community) 첨부는 기존 정책대로 관리자 또는 unlock 세션만 다운로드 허용
+		boolean isSecret = owner.isSecret() || AttachmentOwner.DOMAIN_COMMUNITY.equals(owner.getDomain());
+
 		// 3. 권한 검증: 비공개 게시글인 경우
 		if (isSecret) {
 			if (isAdmin(authentication)) {
@@ -177,68 +229,386 @@ public class FileDownloadController {
 			}
 		}
 
-		// 4. 파일 리소스 로드
+		// 4. 파일 리소스 로드 (FileSystemResource: NIO 채널 기반, 구간 전송 시 seek 후 필요한 바이트만 읽음)
 		Path filePath = baseDir.resolve(attachment.getStoredFilename()).normalize();
-		Resource resource = new UrlResource(filePath.toUri());
-
-		if (!resource.exists() || !resource.isReadable()) {
+		if (!filePath.startsWith(baseDir.normalize()) || !Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
 			log.error("File not readable: fileId={}, filePath={}", fileId, filePath);
 			throw new IllegalArgumentException("File not found or not readable: " + fileId);
 		}
+		Resource resource = new FileSystemResource(filePath);
+		long fileSize = Files.size(filePath);
+		long lastModified = Files.getLastModifiedTime(filePath).toMillis();
+		String etag = buildStrongEtag(attachment.getStoredFilename(), fileSize);
+
+		// 5. 사전 조건 (If-Match / If-Unmodified-Since) 불일치 → 412
+		// (checkNotModified는 응답 객체 없이 호출하면 사전 조건 실패도 true로 돌려주므로 먼저 따로 판정)
+		if (isPreconditionFailed(request, etag, lastModified)) {
+			log.debug("File precondition failed: fileId={}, etag={}", fileId, etag);
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+				.eTag(etag)
+				.lastModified(lastModified)
+				.build();
+		}
 
-		// 5. 원본 파일명을 UTF-8로 인코딩하여 Content-Disposition 헤더에 설정
+		// 6. 조건부 요청 (If-None-Match / If-Modified-Since) → 304
+		if (new ServletWebRequest(request).checkNotModified(etag, lastModified)) {
+			log.debug("File not modified: fileId={}, etag={}", fileId, etag);
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(etag)
+				.lastModified(lastModified)
+				.cacheControl(CacheControl.noCache().cachePrivate())
+				.build();
+		}
+
+		// 7. 원본 파일명을 UTF-8로 인코딩하여 Content-Disposition 헤더에 설정
 		String contentDisposition = "attachment; filename*=UTF-8''" +
-			java.net.URLEncoder.encode(attachment.getOriginalFilename(), java.nio.charset.StandardCharsets.UTF_8)
+			java.net.URLEncoder.encode(attachment.getOriginalFilename(), StandardCharsets.UTF_8)
 				.replace("+", "%20");
 
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+		headers.setContentType(resolveMediaType(attachment.getContentType()));
+		headers.setETag(etag);
+		headers.setLastModified(lastModified);
+		headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+		// 비공개 게시글 파일이 공유 캐시에 남지 않도록 private, 재방문 시 ETag로 재검증
+		headers.setCacheControl(CacheControl.noCache().cachePrivate());
+
+		// 8. Range 요청 처리 (206 Partial Content)
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		if (StringUtils.hasText(rangeHeader) && isIfRangeSatisfied(request, etag, lastModified)) {
+			List<HttpRange> ranges;
+			try {
+				ranges = HttpRange.parseRanges(rangeHeader);
+			} catch (IllegalArgumentException e) {
+				log.warn("Invalid Range header: fileId={}, range={}", fileId, rangeHeader);
+				return rangeNotSatisfiable(fileSize);
+			}
+
+			if (!ranges.isEmpty()) {
+				if (ranges.size() > MAX_RANGE_COUNT) {
+					log.warn("Too many ranges requested: fileId={}, count={}", fileId, ranges.size());
+					return rangeNotSatisfiable(fileSize);
+				}
+
+				List<ResourceRegion> regions;
+				try {
+					regions = HttpRange.toResourceRegions(ranges, resource);
+				} catch (IllegalArgumentException e) {
+					log.warn("Unsatisfiable Range: fileId={}, range={}, size={}", fileId, rangeHeader, fileSize);
+					return rangeNotSatisfiable(fileSize);
+				}
+
+				log.info("File partial download: fileId={}, ranges={}, postId={}", fileId, rangeHeader, postId);
+
+				// 다운로드 횟수: 첫 바이트부터 시작하는 요청만 집계 (이어받기/뷰어의 후속 구간 요청은 중복 집계 제외)
+				if (regions.get(0).getPosition() == 0) {
+					downloadCounterService.record(fileId);
+				}
+
+				// 단일 구간: Content-Range 헤더와 함께 구간 본문 전송
+				if (regions.size() == 1) {
+					return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+						.headers(headers)
+						.body(regions.get(0));
+				}
+
+				// 다중 구간: multipart/byteranges (Content-Type은 변환기가 boundary 포함하여 설정)
+				headers.remove(HttpHeaders.CONTENT_TYPE);
+				return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+					.headers(headers)
+					.body(regions);
+			}
+		}
+
 		log.info("File download success: fileId={}, fileName={}, postId={}", fileId,
 			attachment.getOriginalFilename(), postId);
 
-		// 6. 파일 다운로드 응답
+		// 9. 전체 파일 다운로드 응답 (다운로드 횟수는 메모리 집계 후 주기적 일괄 반영)
+		downloadCounterService.record(fileId);
+		headers.setContentLength(fileSize);
+		if (StringUtils.hasText(rangeHeader)) {
+			// If-Range 불일치: 전체 파일을 200으로 보내야 하므로, Range 헤더를 보고 구간 응답으로 바꾸는
+			// 변환기 처리(Resource 본문만 해당, InputStreamResource 제외)를 피함
+			try {
+				return ResponseEntity.ok()
+					.headers(headers)
+					.body(new InputStreamResource(resource.getInputStream()));
+			} catch (IOException e) {
+				log.error("File open failed: fileId={}, path={}", fileId, resource.getDescription(), e);
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+			}
+		}
 		return ResponseEntity.ok()
-			.header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-			.header(HttpHeaders.CONTENT_TYPE, attachment.getContentType())
-			.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(attachment.getFileSize()))
+			.headers(headers)
 			.body(resource);
 	}
 
 	/**
-	 * 첨부파일이 속한 온라인상담 게시글 조회
+	 * 게시글 첨부파일 일괄 다운로드 (ZIP 스트리밍)
 	 *
-	 * <p>게시글-첨부파일 관계는 중간 테이블(counsel_post_attachments)로 연결되어 있으므로,
-	 * 게시글의 attachments 컬렉션을 순회하여 파일 ID가 일치하는 게시글을 찾습니다.</p>
+	 * <p>권한은 게시글 기준으로 한 번만 검증하고(단건 다운로드와 같은 규칙), 첨부 목록도 한 번만 조회합니다.
+	 * ZIP은 임시 파일 없이 응답 스트림에 바로 기록하므로 첨부 개수/크기와 무관하게 메모리 사용량이 일정합니다.</p>
 	 *
-	 * @param attachment 첨부파일 엔티티
-	 * @return 게시글 엔티티 (없으면 null)
+	 * @param domain 게시판 도메인 (counsel, community, photo)
+	 * @param postId 게시글 ID
+	 * @param session HTTP 세션 (비공개 게시글 unlock 확인용)
+	 * @param authentication Spring Security 인증 객체 (관리자 권한 확인용, null 가능)
+	 * @return ZIP 스트리밍 응답, 게시글/첨부 없음 404, 권한 없음 403
 	 */
-	private CounselPost findCounselPostByAttachment(Attachment attachment) {
-		return counselPostRepository.findAll().stream()
-			.filter(post -> post.getAttachments() != null &&
-				post.getAttachments().stream()
-					.anyMatch(postAttachment ->
-						postAttachment.getAttachment() != null &&
-						postAttachment.getAttachment().getId().equals(attachment.getId())))
-			.findFirst()
-			.orElse(null);
+	@GetMapping("/{domain}/download-all/{postId}")
+	@Transactional(readOnly = true)
+	public ResponseEntity<StreamingResponseBody> downloadAll(
+		@PathVariable String domain,
+		@PathVariable Long postId,
+		HttpSession session,
+		Authentication authentication) {
+
+		if (postId == null || postId <= 0 || session == null) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+
+		// 1. 게시글 비공개 여부 + 첨부 목록 (도메인별 1회 조회)
+		boolean isSecret;
+		List<Attachment> attachments;
+		switch (domain) {
+			case AttachmentOwner.DOMAIN_COUNSEL -> {
+				Optional<Boolean> secret = attachmentRepository.findCounselPostSecret(postId);
+				if (secret.isEmpty()) {
+					return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+				}
+				isSecret = secret.get();
+				attachments = attachmentRepository.findCounselPostAttachments(postId);
+			}
+			case AttachmentOwner.DOMAIN_COMMUNITY -> {
+				// 공지사항(community) 첨부는 단건 다운로드와 동일하게 관리자 또는 unlock 세션만 허용
+				isSecret = true;
+				attachments = attachmentRepository.findCommunityPostAttachments(postId);
+			}
+			case AttachmentOwner.DOMAIN_PHOTO -> {
+				isSecret = false;
+				attachments = attachmentRepository.findPhotoPostAttachments(postId);
+			}
+			default -> {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+			}
+		}
+
+		// 2. 권한 검증 (게시글 단위 1회)
+		if (isSecret && !isAdmin(authentication) && !isPostUnlocked(session, postId)) {
+			log.warn("Unauthorized bulk download attempt: domain={}, postId={}", domain, postId);
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		if (attachments.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+
+		// 3. 스트리밍에 필요한 값만 추출 (본문 기록은 트랜잭션 종료 후 비동기 스레드에서 수행)
+		List<ZipSource> sources = new ArrayList<>(attachments.size());
+		Set<String> usedNames = new HashSet<>();
+		for (Attachment attachment : attachments) {
+			Path filePath = baseDir.resolve(attachment.getStoredFilename()).normalize();
+			if (!filePath.startsWith(baseDir.normalize()) || !Files.isRegularFile(filePath)) {
+				log.warn("Skipping missing attachment in bulk download: fileId={}, path={}", attachment.getId(), filePath);
+				continue;
+			}
+			sources.add(new ZipSource(filePath, uniqueEntryName(attachment.getOriginalFilename(), attachment.getId(), usedNames)));
+			downloadCounterService.record(attachment.getId());
+		}
+		if (sources.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+
+		log.info("Bulk download: domain={}, postId={}, files={}, admin={}", domain, postId, sources.size(), isAdmin(authentication));
+
+		String zipName = domain + "-" + postId + "-attachments.zip";
+		StreamingResponseBody body = outputStream -> writeZip(sources, outputStream);
+
+		return ResponseEntity.ok()
+			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" +
+				java.net.URLEncoder.encode(zipName, StandardCharsets.UTF_8).replace("+", "%20"))
+			.contentType(MediaType.parseMediaType("application/zip"))
+			.cacheControl(CacheControl.noStore().cachePrivate())
+			.body(body);
+	}
+
+	/**
+	 * ZIP 기록 (파일별 64KB 버퍼 스트리밍)
+	 *
+	 * <p>STORED 엔트리는 헤더에 CRC/크기가 먼저 필요하므로 CRC를 위해 파일을 한 번 더 읽습니다
+	 * (Deflate 생략으로 절약되는 CPU가 순차 읽기 비용보다 큼).</p>
+	 */
+	private void writeZip(List<ZipSource> sources, OutputStream outputStream) throws IOException {
+		byte[] buffer = new byte[ZIP_BUFFER_SIZE];
+		ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(outputStream, ZIP_BUFFER_SIZE));
+		for (ZipSource source : sources) {
+			ZipEntry entry = new ZipEntry(source.entryName);
+			entry.setTime(Files.getLastModifiedTime(source.path).toMillis());
+			if (isPrecompressed(source.entryName)) {
+				long size = Files.size(source.path);
+				entry.setMethod(ZipEntry.STORED);
+				entry.setSize(size);
+				entry.setCompressedSize(size);
+				entry.setCrc(crc32(source.path, buffer));
+			}
+			zip.putNextEntry(entry);
+			try (InputStream in = Files.newInputStream(source.path)) {
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					zip.write(buffer, 0, read);
+				}
+			}
+			zip.closeEntry();
+		}
+		zip.finish();
+		zip.flush();
+	}
+
+	private long crc32(Path path, byte[] buffer) throws IOException {
+		CRC32 crc = new CRC32();
+		try (InputStream in = Files.newInputStream(path)) {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+
+	private boolean isPrecompressed(String filename) {
+		int dot = filename.lastIndexOf('.');
+		return dot >= 0 && PRECOMPRESSED_EXTENSIONS.contains(filename.substring(dot + 1).toLowerCase(Locale.ROOT));
 	}
+
 	/**
-	 * 첨부파일이 속한 커뮤니티 게시글 조회
+	 * ZIP 엔트리명 생성 (경로 구분자 제거, 같은 이름은 "이름 (2).확장자"로 구분)
+	 */
+	private String uniqueEntryName(String originalFilename, Long fileId, Set<String> usedNames) {
+		String name = StringUtils.hasText(originalFilename)
+			? originalFilename.replaceAll("[\\\\/:*?\"<>|]", "_")
+			: "file-" + fileId;
+		if (usedNames.add(name.toLowerCase(Locale.ROOT))) {
+			return name;
+		}
+		int dot = name.lastIndexOf('.');
+		String stem = dot > 0 ? name.substring(0, dot) : name;
+		String extension = dot > 0 ? name.substring(dot) : "";
+		for (int i = 2; ; i++) {
+			String candidate = stem + " (" + i + ")" + extension;
+			if (usedNames.add(candidate.toLowerCase(Locale.ROOT))) {
+				return candidate;
+			}
+		}
+	}
+
+	/**
+	 * 강한 ETag 생성
 	 *
-	 * <p>게시글-첨부파일 관계는 중간 테이블(community_post_attachments)로 연결되어 있으므로,
-	 * 게시글의 attachments 컬렉션을 순회하여 파일 ID가 일치하는 게시글을 찾습니다.</p>
+	 * <p>저장 파일명은 UUID 기반으로 업로드마다 고유하며 저장 후 내용이 바뀌지 않으므로,
+	 * 파일 내용을 해시하지 않고 (저장 파일명 + 크기)만으로 바이트 단위 동일성을 보장합니다.</p>
 	 *
-	 * @param attachment 첨부파일 엔티티
-	 * @return 게시글 엔티티 (없으면 null)
+	 * @param storedFilename 저장된 파일 상대 경로
+	 * @param fileSize 파일 크기 (bytes)
+	 * @return 따옴표로 감싼 강한 ETag 값
 	 */
-	private CommunityPost findCommunityPostByAttachment(Attachment attachment) {
-		return communityPostRepository.findAll().stream()
-			.filter(post -> post.getAttachments() != null &&
-				post.getAttachments().stream()
-					.anyMatch(postAttachment ->
-						postAttachment.getAttachment() != null &&
-						postAttachment.getAttachment().getId().equals(attachment.getId())))
-			.findFirst()
-			.orElse(null);
+	private String buildStrongEtag(String storedFilename, long fileSize) {
+		String source = storedFilename + ":" + fileSize;
+		return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	/**
+	 * 사전 조건(If-Match / If-Unmodified-Since) 실패 여부
+	 *
+	 * <p>RFC 9110 13.2.2 순서대로 If-Match가 있으면 그것만, 없을 때만 If-Unmodified-Since를 봅니다.
+	 * 실패 시 412로 응답해야 하며, 캐시 검증(If-None-Match / If-Modified-Since)의 304와는 다릅니다.</p>
+	 *
+	 * @param request HTTP 요청
+	 * @param etag 현재 파일의 강한 ETag
+	 * @param lastModified 현재 파일의 최종 수정 시각 (epoch millis)
+	 * @return 사전 조건 실패(412) 여부
+	 */
+	private boolean isPreconditionFailed(HttpServletRequest request, String etag, long lastModified) {
+		List<String> ifMatch = Collections.list(request.getHeaders(HttpHeaders.IF_MATCH));
+		if (!ifMatch.isEmpty()) {
+			for (String header : ifMatch) {
+				for (String candidate : header.split(",")) {
+					String tag = candidate.trim();
+					// 강한 비교: 약한 ETag(W/...)는 일치로 보지 않음
+					if ("*".equals(tag) || tag.equals(etag)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+		String ifUnmodifiedSince = request.getHeader(HttpHeaders.IF_UNMODIFIED_SINCE);
+		if (!StringUtils.hasText(ifUnmodifiedSince)) {
+			return false;
+		}
+		try {
+			long sinceDate = ZonedDateTime.parse(ifUnmodifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+				.toInstant().toEpochMilli();
+			// HTTP 날짜는 초 단위이므로 초 단위로 비교
+			return lastModified / 1000 > sinceDate / 1000;
+		} catch (DateTimeParseException e) {
+			// 잘못된 날짜는 헤더가 없는 것으로 처리 (RFC 9110 13.1.4)
+			return false;
+		}
+	}
+
+	/**
+	 * If-Range 조건 확인
+	 *
+	 * <p>If-Range 헤더가 없거나 현재 ETag(또는 Last-Modified)와 일치하면 Range를 적용합니다.
+	 * 불일치 시 파일이 바뀐 것이므로 Range를 무시하고 전체 파일을 전송합니다.</p>
+	 *
+	 * @param request HTTP 요청
+	 * @param etag 현재 파일의 강한 ETag
+	 * @param lastModified 현재 파일의 최종 수정 시각 (epoch millis)
+	 * @return Range 적용 여부
+	 */
+	private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (!StringUtils.hasText(ifRange)) {
+			return true;
+		}
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			// 약한 ETag는 Range 비교에 사용할 수 없음 (RFC 9110 13.1.5)
+			return ifRange.equals(etag);
+		}
+		try {
+			long ifRangeDate = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME)
+				.toInstant().toEpochMilli();
+			// HTTP 날짜는 초 단위이므로 초 단위로 비교
+			return ifRangeDate / 1000 == lastModified / 1000;
+		} catch (DateTimeParseException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 416 Range Not Satisfiable 응답 생성
+	 * @param fileSize 전체 파일 크기
+	 * @return Content-Range: bytes *&#47;{size} 헤더를 포함한 416 응답
+	 */
+	private ResponseEntity<Void> rangeNotSatisfiable(long fileSize) {
+		return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+			.header(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize)
+			.build();
+	}
+
+	/**
+	 * 저장된 MIME 타입 문자열을 MediaType으로 변환 (잘못된 값은 application/octet-stream)
+	 */
+	private MediaType resolveMediaType(String contentType) {
+		if (!StringUtils.hasText(contentType)) {
+			return MediaType.APPLICATION_OCTET_STREAM;
+		}
+		try {
+			return MediaType.parseMediaType(contentType);
+		} catch (InvalidMediaTypeException e) {
+			return MediaType.APPLICATION_OCTET_STREAM;
+		}
 	}
 
 	/**
@@ -284,5 +654,16 @@ public class FileDownloadController {
 			.anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
 	}
 
-}
+	/**
+	 * ZIP 엔트리 원본 (절대 경로 + 엔트리명)
+	 */
+	private static class ZipSource {
+		private final Path path;
+		private final String entryName;
 
+		ZipSource(Path path, String entryName) {
+			this.path = path;
+			this.entryName = entryName;
+		}
+	}
+}
@@ -1,17 +1,28 @@
 package org.springframework.samples.petclinic.counsel.repository;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.common.dto.PageResponse;
+import org.springframework.samples.petclinic.common.service.FulltextPostSearch;
+import org.springframework.samples.petclinic.common.service.PostSearchIndex;
 import org.springframework.samples.petclinic.counsel.CounselStatus;
 import org.springframework.samples.petclinic.counsel.table.CounselPost;
 import org.springframework.samples.petclinic.counsel.table.QCounselPost;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Project : spring-petclinic
@@ -33,6 +44,8 @@ import java.util.List;
  *   - 동적 검색 (BooleanBuilder 사용)
  *   - 검색 타입: title, content, author(authorName), 전체(기본값)
  *   - 대소문자 구분 없는 검색 (containsIgnoreCase)
+ *   - 제목/본문 검색: PostSearchIndex(역색인, 한글 n-gram) 결과 id로 조건 생성, 색인 점수순 정렬 (제목 일치 우선)
+ *     (색인 대신 DB FULLTEXT(FulltextPostSearch)도 가능, 둘 다 답할 수 없으면 제목/search_text LIKE)
  *   - 페이징 처리 (offset, limit)
  *   - COUNT 쿼리 분리 (성능 최적화)
  *
@@ -86,24 +99,32 @@ import java.util.List;
  */
 public class CounselPostRepositoryImpl implements CounselPostRepositoryCustom{
 
+	private static final String DOMAIN = "counsel";
+
 	private final JPAQueryFactory queryFactory;
+	private final PostSearchIndex postSearchIndex;
+	private final FulltextPostSearch fulltextPostSearch;
 	QCounselPost counselPost = QCounselPost.counselPost;
 
-	public CounselPostRepositoryImpl(JPAQueryFactory queryFactory) {
+	public CounselPostRepositoryImpl(JPAQueryFactory queryFactory, PostSearchIndex postSearchIndex,
+									 FulltextPostSearch fulltextPostSearch) {
 		this.queryFactory = queryFactory;
+		this.postSearchIndex = postSearchIndex;
+		this.fulltextPostSearch = fulltextPostSearch;
 	}
 
 	@Override
 	public PageResponse<CounselPost> search(String type, String keyword, Pageable pageable) {
 
 		BooleanBuilder builder = new BooleanBuilder();
+		PostSearchIndex.Hits indexHits = indexHits(type, keyword, pageable);
 		if (keyword != null && !keyword.isBlank()) {
 			switch (type == null ? "" : type) {
 				case "title":
-					builder.and(counselPost.title.containsIgnoreCase(keyword));
+					builder.and(indexMatches(indexHits, counselPost.title.containsIgnoreCase(keyword)));
 					break;
 				case "content":
-					builder.and(counselPost.content.containsIgnoreCase(keyword));
+					builder.and(indexMatches(indexHits, contentLike(keyword)));
 					break;
 				case "author":
 				case "authorName":
@@ -111,13 +132,17 @@ public class CounselPostRepositoryImpl implements CounselPostRepositoryCustom{
 					break;
 				default:
 					builder.and(
-						counselPost.title.containsIgnoreCase(keyword)
-							.or(counselPost.content.containsIgnoreCase(keyword))
+						indexMatches(indexHits, counselPost.title.containsIgnoreCase(keyword)
+								.or(contentLike(keyword)))
 							.or(counselPost.authorName.containsIgnoreCase(keyword))
 					);
 			}
 		}
 
+		if (indexHits != null) {
+			return rankedPage(indexHits, builder, pageable);
+		}
+
 		List<CounselPost> content = queryFactory
 			.selectFrom(counselPost)
 			.where(builder)
@@ -165,14 +190,15 @@ public class CounselPostRepositoryImpl implements CounselPostRepositoryCustom{
 
 		BooleanBuilder builder = new BooleanBuilder();
 
-		// 1. 키워드 검색 (기존 로직)
+		// 1. 키워드 검색 (제목/본문은 색인 결과 id)
+		PostSearchIndex.Hits indexHits = indexHits(type, keyword, pageable);
 		if (keyword != null && !keyword.isBlank()) {
 			switch (type == null ? "" : type) {
 				case "title":
-					builder.and(counselPost.title.containsIgnoreCase(keyword));
+					builder.and(indexMatches(indexHits, counselPost.title.containsIgnoreCase(keyword)));
 					break;
 				case "content":
-					builder.and(counselPost.content.containsIgnoreCase(keyword));
+					builder.and(indexMatches(indexHits, contentLike(keyword)));
 					break;
 				case "author":
 				case "authorName":
@@ -180,8 +206,8 @@ public class CounselPostRepositoryImpl implements CounselPostRepositoryCustom{
 					break;
 				default:
 					builder.and(
-						counselPost.title.containsIgnoreCase(keyword)
-							.or(counselPost.content.containsIgnoreCase(keyword))
+						indexMatches(indexHits, counselPost.title.containsIgnoreCase(keyword)
+								.or(contentLike(keyword)))
 							.or(counselPost.authorName.containsIgnoreCase(keyword))
 					);
 			}
@@ -207,7 +233,10 @@ public class CounselPostRepositoryImpl implements CounselPostRepositoryCustom{
 			builder.and(counselPost.createdAt.lt(endOfDay)); // Less Than (<)
 		}
 
-		// 4. 데이터 조회
+		// 4. 데이터 조회 (색인으로 찾은 검색은 점수순)
+		if (indexHits != null) {
+			return rankedPage(indexHits, builder, pageable);
+		}
 		List<CounselPost> content = queryFactory
 			.selectFrom(counselPost)
 			.where(builder)
@@ -227,6 +256,69 @@ public class CounselPostRepositoryImpl implements CounselPostRepositoryCustom{
 		return new PageResponse<>(page);
 	}
 
+	/**
+	 * 제목/본문 색인 검색 결과: 메모리 색인 → DB FULLTEXT 순서로 답할 수 있는 첫 결과
+	 * (색인을 쓰지 않는 검색 타입이거나 둘 다 답할 수 없으면 null → LIKE)
+	 */
+	private PostSearchIndex.Hits indexHits(String type, String keyword, Pageable pageable) {
+		if (keyword == null || keyword.isBlank() || "author".equals(type) || "authorName".equals(type)) {
+			return null;
+		}
+		PostSearchIndex.Field field = "title".equals(type) ? PostSearchIndex.Field.TITLE
+			: "content".equals(type) ? PostSearchIndex.Field.BODY : PostSearchIndex.Field.ALL;
+		long depth = pageable.getOffset() + pageable.getPageSize();
+		PostSearchIndex.Hits hits = postSearchIndex.search(DOMAIN, keyword, field, depth);
+		return hits != null ? hits : fulltextPostSearch.search(DOMAIN, keyword, field, depth);
+	}
+
+	/**
+	 * 본문 LIKE: 검색용 평문(search_text), 평문이 아직 없는 예전 행은 본문이 직접 들어있는 content
+	 */
+	private BooleanExpression contentLike(String keyword) {
+		return counselPost.searchText.containsIgnoreCase(keyword).or(counselPost.content.containsIgnoreCase(keyword));
+	}
+
+	/**
+	 * 색인 조건: 색인 결과 id 목록 (색인 결과가 없으면 기존 LIKE 조건)
+	 */
+	private BooleanExpression indexMatches(PostSearchIndex.Hits indexHits, BooleanExpression likeCondition) {
+		if (indexHits == null) {
+			return likeCondition;
+		}
+		return indexHits.getIds().isEmpty() ? Expressions.FALSE.isTrue() : counselPost.id.in(indexHits.getIds());
+	}
+
+	/**
+	 * 색인 점수순 페이지: 조건(상태/날짜/Soft Delete)을 통과한 id를 점수 순서대로
+	 * (색인 밖에서 일치한 작성자 검색 결과는 색인 결과를 끝까지 받은 뒤 최신순) 잘라 해당 페이지만 조회
+	 * - 전체 건수: 받은 색인 결과 중 조건 통과 수 + 아직 받지 않은 색인 일치 수 (상태/날짜 필터가 있으면 근사치)
+	 */
+	private PageResponse<CounselPost> rankedPage(PostSearchIndex.Hits indexHits, BooleanBuilder builder, Pageable pageable) {
+		List<Long> matched = queryFactory.select(counselPost.id).from(counselPost).where(builder)
+			.orderBy(counselPost.id.desc()).fetch();
+		Set<Long> matchedIds = new HashSet<>(matched);
+		Set<Long> hitIds = new HashSet<>(indexHits.getIds());
+		List<Long> ranked = new ArrayList<>(matched.size());
+		indexHits.getIds().stream().filter(matchedIds::contains).forEach(ranked::add);
+		List<Long> others = matched.stream().filter(id -> !hitIds.contains(id)).toList();
+		long total = (long) ranked.size() + indexHits.getRemaining() + others.size();
+		if (indexHits.getRemaining() == 0) {
+			ranked.addAll(others);
+		}
+
+		int from = (int) Math.min(pageable.getOffset(), ranked.size());
+		List<Long> pageIds = ranked.subList(from, Math.min(from + pageable.getPageSize(), ranked.size()));
+		Map<Long, CounselPost> byId = pageIds.isEmpty() ? Map.of() : queryFactory
+			.selectFrom(counselPost)
+			.where(counselPost.id.in(pageIds))
+			.fetch()
+			.stream()
+			.collect(Collectors.toMap(CounselPost::getId, Function.identity()));
+		List<CounselPost> content = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+		return new PageResponse<>(new PageImpl<>(content, pageable, total));
+	}
+
 	@Override
 	public String getBoardOnwerId(long id) {
 		return queryFactory
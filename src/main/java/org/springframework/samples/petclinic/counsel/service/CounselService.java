@@ -8,7 +8,10 @@ import org.springframework.samples.petclinic.common.exception.EntityNotFoundExce
 import org.springframework.samples.petclinic.common.exception.ErrorCode;
 import org.springframework.samples.petclinic.common.exception.FileException;
 import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.dto.IngestedHtml;
 import org.springframework.samples.petclinic.common.service.CommonHtmlStorage;
+import org.springframework.samples.petclinic.common.service.PostSearchIndex;
+import org.springframework.samples.petclinic.search.service.TitleSuggestIndex;
 import org.springframework.samples.petclinic.counsel.CounselStatus;
 import org.springframework.samples.petclinic.counsel.repository.CounselPostLikeRepository;
 import org.springframework.samples.petclinic.user.repository.UserRepository;
@@ -19,6 +22,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.common.dto.PageResponse;
+import org.springframework.samples.petclinic.common.dto.StoredFile;
 import org.springframework.samples.petclinic.counsel.dto.CounselPostDto;
 import org.springframework.samples.petclinic.counsel.dto.CounselPostWriteDto;
 import org.springframework.samples.petclinic.counsel.mapper.CounselPostMapper;
@@ -129,6 +133,8 @@ public class CounselService {
 	private final CounselPostLikeRepository likeRepository;
 	private final UserRepository userRepository;
 	private final CommonHtmlStorage commonHtmlStorage;
+	private final PostSearchIndex postSearchIndex;
+	private final TitleSuggestIndex titleSuggestIndex;
 
 	public CounselService(CounselPostRepository repository,
 						  CounselCommentRepository commentRepository, CounselPostMapper postMapper,
@@ -136,7 +142,9 @@ public class CounselService {
 						  CounselPostAttachmentRepository postAttachmentRepository,
 						  CounselPostLikeRepository likeRepository,
 						  UserRepository userRepository,
-						  CommonHtmlStorage commonHtmlStorage) {
+						  CommonHtmlStorage commonHtmlStorage,
+						  PostSearchIndex postSearchIndex,
+						  TitleSuggestIndex titleSuggestIndex) {
 		this.repository = repository;
 		this.commentRepository = commentRepository;
 		this.likeRepository = likeRepository;
@@ -146,6 +154,8 @@ public class CounselService {
 		this.postAttachmentRepository = postAttachmentRepository;
 		this.userRepository = userRepository;
 		this.commonHtmlStorage = commonHtmlStorage;
+		this.postSearchIndex = postSearchIndex;
+		this.titleSuggestIndex = titleSuggestIndex;
 	}
 
 	/**
@@ -294,10 +304,11 @@ public class CounselService {
 	 * @return 생성된 게시글 ID
 	 */
 	public Long saveNew(CounselPostWriteDto dto) {
-		// 1. 본문 저장 (FileException 적용)
+		// 1. 본문 저장 (FileException 적용, 검색 색인용 평문도 함께 산출)
+		IngestedHtml ingested = commonHtmlStorage.ingest(dto.getContent(), "counsel");
 		String path;
 		try {
-			path = commonHtmlStorage.saveHtml(dto.getContent() , "counsel");
+			path = commonHtmlStorage.saveHtml(ingested, "counsel");
 		} catch (IOException e) {
 			log.error("Failed to save content HTML for new post: {}", dto.getTitle(), e);
 			throw new FileException(ErrorCode.FILE_WRITE_ERROR, e);
@@ -310,6 +321,7 @@ public class CounselService {
 		entity.setSecret(dto.isSecret());
 		entity.setContentPath(path);
 		entity.setContent("[stored]"); // 본문은 파일에 저장되었으므로 대체 텍스트 사용
+		entity.setSearchText(dto.isSecret() ? null : ingested.getPlainText()); // DB 검색용 평문 (비공개 글은 저장하지 않음)
 
 		// 3. 비밀번호 해싱
 		if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
@@ -369,13 +381,14 @@ public class CounselService {
 
 				try {
 					// 파일 저장
-					String storedFilePath = fileStorageService.storeFile(file, "counsel");
+					StoredFile storedFile = fileStorageService.store(file, "counsel");
 
 					// Attachment 엔티티 생성 및 저장 (common.table.Attachment)
 					Attachment attachment = new Attachment();
-					attachment.setStoredFilename(storedFilePath); // 저장된 파일명
+					attachment.setStoredFilename(storedFile.getStoredPath()); // 저장된 파일명
 					attachment.setOriginalFilename(file.getOriginalFilename()); // 원본 파일명
-					attachment.setFileSize(file.getSize());
+					attachment.setFileSize(storedFile.getSize()); // 실제 기록된 바이트 수
+					attachment.setContentHash(storedFile.getSha256()); // blob 참조 키
 					attachment.setContentType(file.getContentType()); // MIME 타입
 					attachmentRepository.save(attachment);
 
@@ -394,6 +407,13 @@ public class CounselService {
 
 		// 5. 게시글 저장
 		CounselPost saved = repository.save(entity);
+
+		// 6. 검색 색인 + 제목 자동완성 (커밋 후, 비공개 글은 검색 색인에 제목만, 자동완성 제외)
+		postSearchIndex.indexAfterCommit("counsel", saved.getId(), saved.getTitle(),
+			saved.isSecret() ? "" : ingested.getPlainText());
+		if (!saved.isSecret()) {
+			titleSuggestIndex.putAfterCommit("counsel", saved.getId(), saved.getTitle(), saved.getCreatedAt());
+		}
 		return saved.getId();
 	}
 
@@ -570,24 +590,36 @@ public class CounselService {
 			}
 
 			// 제목, 작성자 수정
+			boolean titleChanged = !Objects.equals(entity.getTitle(), dto.getTitle());
 			entity.setTitle(dto.getTitle());
 			entity.setAuthorName(dto.getAuthorName());
+			if (!entity.isSecret()) {
+				titleSuggestIndex.putAfterCommit("counsel", postId, dto.getTitle(), entity.getCreatedAt());
+			}
 
-			// 본문 수정 (기존 파일 삭제 후 새로 저장)
+			// 본문 수정 (새로 저장 후 기존 파일 삭제: 둘 다 커밋 후 반영되므로 롤백 시 기존 본문 유지)
 			if (dto.getContent() != null && !dto.getContent().isBlank()) {
 				try {
-					// 기존 본문 파일 삭제
-					if (entity.getContentPath() != null && !entity.getContentPath().isBlank()) {
-						commonHtmlStorage.deleteHtml(entity.getContentPath() , "counsel");
-					}
+					String oldPath = entity.getContentPath();
 					// 새 본문 저장
-					String newPath = commonHtmlStorage.saveHtml(dto.getContent() , "counsel");
+					IngestedHtml ingested = commonHtmlStorage.ingest(dto.getContent(), "counsel");
+					String newPath = commonHtmlStorage.saveHtml(ingested, "counsel");
 					entity.setContentPath(newPath);
 					entity.setContent("[stored]");
+					entity.setSearchText(entity.isSecret() ? null : ingested.getPlainText());
+					postSearchIndex.indexAfterCommit("counsel", postId, dto.getTitle(),
+						entity.isSecret() ? "" : ingested.getPlainText());
+					// 기존 본문 파일 삭제 (커밋 후 비동기)
+					if (oldPath != null && !oldPath.isBlank()) {
+						commonHtmlStorage.deleteHtml(oldPath , "counsel");
+					}
 				} catch (IOException e) {
 					log.error("Failed to update content file for post ID: {}", postId, e);
 					throw new RuntimeException("Error updating post content.", e);
 				}
+			} else if (titleChanged) {
+				// 제목만 수정: 기존 본문 평문으로 다시 색인 (제목 단어 갱신)
+				postSearchIndex.indexAfterCommit("counsel", postId, dto.getTitle(), currentPlainText(entity));
 			}
 
 			// 첨부파일 삭제 처리 (deletedFileIds)
@@ -698,6 +730,8 @@ public class CounselService {
 
 			// Soft Delete 실행 (@SQLDelete 어노테이션으로 처리)
 			repository.delete(entity);
+			postSearchIndex.removeAfterCommit("counsel", postId);
+			titleSuggestIndex.removeAfterCommit("counsel", postId);
 			log.info("Successfully soft-deleted post with ID: {} (title: {})", postId, entity.getTitle());
 			return true;
 		} catch (Exception e) {
@@ -765,6 +799,29 @@ public class CounselService {
 		return lastSlash >= 0 ? normalizedPath.substring(lastSlash + 1) : normalizedPath;
 	}
 
+	/**
+	 * 현재 본문의 검색용 평문 (비공개 글은 빈 문자열, search_text가 아직 없는 예전 행은 저장된 본문에서 추출)
+	 */
+	private String currentPlainText(CounselPost post) {
+		if (post.isSecret()) {
+			return "";
+		}
+		if (post.getSearchText() != null) {
+			return post.getSearchText();
+		}
+		try {
+			String key = post.getContentPath();
+			String html = key != null && commonHtmlStorage.isStoredPath(key, "counsel")
+				? commonHtmlStorage.loadHtml(key, "counsel") : post.getContent();
+			String plainText = commonHtmlStorage.ingest(html, "counsel").getPlainText();
+			post.setSearchText(plainText);
+			return plainText;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to read content for search index: postId={}", post.getId(), e);
+			return "";
+		}
+	}
+
 	/**
 	 * 게시글 수정/삭제 권한 확인
 	 *
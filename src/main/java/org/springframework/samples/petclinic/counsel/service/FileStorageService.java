@@ -2,6 +2,9 @@ package org.springframework.samples.petclinic.counsel.service;
 
 import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.samples.petclinic.common.dto.StoredFile;
+import org.springframework.samples.petclinic.common.service.AttachmentBlobStore;
+import org.springframework.samples.petclinic.common.service.TransactionalFileOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
@@ -9,12 +12,17 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,6 +32,8 @@ public class FileStorageService {
 	private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
 	private final Path baseDir;
 	private final Tika tika = new Tika();
+	private final AttachmentBlobStore blobStore;
+	private final TransactionalFileOperations fileOperations;
 
 	private static final List<String> ALLOWED_MIME_TYPES = Arrays.asList(
 		"image/jpeg", "image/png", "image/gif", "image/bmp", "image/webp",
@@ -39,9 +49,22 @@ public class FileStorageService {
 
 	private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
 
-	// 생성자: yml의 base-dir 하나만 주입받음
-	public FileStorageService(@Value("${petclinic.file.base-dir}") String baseDirPath) {
+	// MIME 감지용 선두 버퍼 크기 (Tika MimeTypes 매직 바이트 검사 범위와 동일)
+	private static final int SNIFF_BUFFER_SIZE = 64 * 1024;
+
+	// 스트리밍 복사 버퍼 크기
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	// 업로드 중 임시 파일 디렉토리: {base}/{domain}/uploads/.tmp (최종 위치와 같은 파일시스템 → 원자적 이동 가능)
+	private static final String TEMP_DIR_NAME = ".tmp";
+
+	// 생성자: yml의 base-dir + 내용 기반 blob 저장소 + 트랜잭션 연동 파일 처리
+	public FileStorageService(@Value("${petclinic.file.base-dir}") String baseDirPath,
+							  AttachmentBlobStore blobStore,
+							  TransactionalFileOperations fileOperations) {
 		this.baseDir = Paths.get(baseDirPath);
+		this.blobStore = blobStore;
+		this.fileOperations = fileOperations;
 	}
 
 	/**
@@ -51,69 +74,260 @@ public class FileStorageService {
 	 * @return 저장된 상대 경로
 	 */
 	public String storeFile(MultipartFile file, String domain) {
+		return store(file, domain).getStoredPath();
+	}
+
+	/**
+	 * 단일 패스 스트리밍 저장
+	 *
+	 * <p>업로드 스트림을 한 번만 읽으면서 다음을 동시에 수행합니다.</p>
+	 * <ul>
+	 *   <li>선두 64KB 버퍼로 Tika MIME 감지 (허용 목록 외 형식은 나머지를 읽기 전에 거부)</li>
+	 *   <li>SHA-256 해시 및 실제 바이트 수 계산</li>
+	 *   <li>최대 크기(10MB) 초과 시 즉시 중단 (클라이언트가 보낸 크기를 신뢰하지 않음)</li>
+	 *   <li>{domain}/uploads/.tmp 임시 파일에 기록 후 SHA-256 기준 blob으로 반영하고
+	 *       {domain}/uploads/yyyy/MM 경로에 하드 링크 (동일 내용 재업로드는 물리 파일 공유)</li>
+	 * </ul>
+	 *
+	 * @param file 업로드 파일
+	 * @param domain 도메인명 (counsel, photo, community 등)
+	 * @return 저장 결과 (상대 경로, 크기, SHA-256, 감지된 MIME 타입)
+	 * @throws IllegalArgumentException 빈 파일, 허용되지 않는 형식, 크기 초과, 잘못된 도메인
+	 */
+	public StoredFile store(MultipartFile file, String domain) {
+		// 1. 보안 검증: 도메인명에 특수문자 포함 여부 확인 (경로 조작 방지)
+		validateDomain(domain);
+		if (file.isEmpty()) {
+			throw new IllegalArgumentException("File is empty.");
+		}
+		// 선언된 크기가 이미 초과면 스트림을 열지 않고 거부
+		if (file.getSize() > MAX_FILE_SIZE) {
+			throw new IllegalArgumentException("파일 크기 초과 (최대 10MB)");
+		}
+
+		Path tempFile = null;
 		try {
-			validateFile(file);
+			// 2. 동적 경로 생성: {base}/{domain}/uploads/yyyy/MM/uuid.ext
+			String storedPath = newStoredPath(domain, file.getOriginalFilename());
+			Path destination = resolveDestination(storedPath);
+			Path tempDir = baseDir.resolve(domain).resolve("uploads").resolve(TEMP_DIR_NAME);
+			Files.createDirectories(tempDir);
+
+			// 3. 단일 패스: MIME 감지 → 해시/카운트 → 임시 파일 기록
+			tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+			MessageDigest digest = newSha256();
+			String mimeType;
+			long written;
+
+			try (InputStream in = file.getInputStream();
+				 OutputStream out = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+
+				byte[] prefix = in.readNBytes(SNIFF_BUFFER_SIZE);
+				mimeType = detectAllowedType(prefix);
+				out.write(prefix);
+				written = prefix.length;
+
+				byte[] buffer = new byte[COPY_BUFFER_SIZE];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					written += read;
+					if (written > MAX_FILE_SIZE) {
+						throw new IllegalArgumentException("파일 크기 초과 (최대 10MB)");
+					}
+					out.write(buffer, 0, read);
+				}
+			}
 
-			// 1. 보안 검증: 도메인명에 특수문자 포함 여부 확인 (경로 조작 방지)
-			if (domain == null || !domain.matches("^[a-zA-Z0-9]+$")) {
-				throw new IllegalArgumentException("Invalid domain name: " + domain);
+			if (written == 0) {
+				throw new IllegalArgumentException("File is empty.");
 			}
 
-			// 2. 동적 경로 생성: {base}/{domain}/uploads
-			// 예: C:/.../data/ + photo + /uploads
-			Path domainPath = baseDir.resolve(domain).resolve("uploads");
+			String sha256 = HexFormat.of().formatHex(digest.digest());
 
-			// 3. 날짜 폴더 생성 (yyyy/MM)
-			LocalDate today = LocalDate.now();
-			String year = today.format(DateTimeFormatter.ofPattern("yyyy"));
-			String month = today.format(DateTimeFormatter.ofPattern("MM"));
+			// 4. blob 반영 + 최종 위치 링크 (기록 중인 파일이 최종 경로에 노출되지 않도록 완료 후 연결)
+			boolean deduplicated = blobStore.commit(tempFile, sha256, destination);
+			// 트랜잭션 안에서 호출된 경우(서비스의 임시 업로드 등) 롤백되면 첨부 경로 즉시 정리
+			fileOperations.deleteOnRollback(destination);
+			tempFile = null;
 
-			Path targetDir = domainPath.resolve(year).resolve(month);
+			// 5. DB 저장용 상대 경로 반환: {domain}/uploads/{year}/{month}/{filename}
+			// 예: photo/uploads/2026/02/uuid.jpg
+			log.debug("File stored: path={}, size={}, sha256={}, type={}, deduplicated={}",
+				storedPath, written, sha256, mimeType, deduplicated);
+			return new StoredFile(storedPath, written, sha256, mimeType);
 
-			// 4. 폴더 없으면 자동 생성
-			Files.createDirectories(targetDir);
+		} catch (IOException e) {
+			log.error("Failed to store file {}: {}", file.getOriginalFilename(), e.getMessage());
+			throw new RuntimeException("Failed to store file", e);
+		} finally {
+			deleteTempQuietly(tempFile);
+		}
+	}
 
-			// 5. 파일 저장
-			String extension = getExtension(file.getOriginalFilename()); // [수정] 아래 헬퍼 함수 사용
-			String storedFileName = UUID.randomUUID().toString() + extension;
+	/**
+	 * 이미 디스크에 모두 기록된 파일 저장 (이어받기 업로드 완료 시 사용)
+	 *
+	 * <p>파일을 한 번 순차로 읽어 MIME 감지와 SHA-256을 계산한 뒤 store()와 같은 방식으로
+	 * blob 반영 및 {domain}/uploads/yyyy/MM 경로 링크를 수행합니다. 크기 제한은 호출자가 검증합니다.</p>
+	 *
+	 * @param completedFile 기록 완료된 파일 (base-dir와 같은 파일시스템, 성공 시 존재하지 않음)
+	 * @param originalFilename 원본 파일명 (확장자 추출용)
+	 * @param domain 도메인명 (counsel, photo, community 등)
+	 * @return 저장 결과 (상대 경로, 크기, SHA-256, 감지된 MIME 타입)
+	 * @throws IllegalArgumentException 빈 파일, 허용되지 않는 형식, 잘못된 도메인
+	 */
+	public StoredFile storeCompleted(Path completedFile, String originalFilename, String domain) {
+		validateDomain(domain);
+		try {
+			long size = Files.size(completedFile);
+			if (size == 0) {
+				throw new IllegalArgumentException("File is empty.");
+			}
 
-			Path destination = targetDir.resolve(storedFileName);
+			MessageDigest digest = newSha256();
+			String mimeType;
+			try (InputStream in = Files.newInputStream(completedFile)) {
+				byte[] prefix = in.readNBytes(SNIFF_BUFFER_SIZE);
+				mimeType = detectAllowedType(prefix);
+				digest.update(prefix);
 
-			// 경로 조작 방지 (Normalization check)
-			if (!destination.normalize().startsWith(targetDir.normalize())) {
-				throw new IllegalArgumentException("Invalid file path composition");
+				byte[] buffer = new byte[COPY_BUFFER_SIZE];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					digest.update(buffer, 0, read);
+				}
 			}
+			String sha256 = HexFormat.of().formatHex(digest.digest());
 
-			file.transferTo(destination);
+			String storedPath = newStoredPath(domain, originalFilename);
+			Path destination = resolveDestination(storedPath);
+			boolean deduplicated = blobStore.commit(completedFile, sha256, destination);
+			fileOperations.deleteOnRollback(destination);
 
-			// 6. DB 저장용 상대 경로 반환: {domain}/uploads/{year}/{month}/{filename}
-			// 예: photo/uploads/2026/02/uuid.jpg
-			return Paths.get(domain, "uploads", year, month, storedFileName).toString().replace('\\', '/');
+			log.debug("Completed file stored: path={}, size={}, sha256={}, type={}, deduplicated={}",
+				storedPath, size, sha256, mimeType, deduplicated);
+			return new StoredFile(storedPath, size, sha256, mimeType);
 
 		} catch (IOException e) {
-			log.error("Failed to store file {}: {}", file.getOriginalFilename(), e.getMessage());
+			log.error("Failed to store completed file {}: {}", originalFilename, e.getMessage());
 			throw new RuntimeException("Failed to store file", e);
 		}
 	}
 
 	/**
-	 * 파일 유효성 검증
+	 * 메모리의 바이트 저장 (본문 인라인 이미지 추출 등, 업로드 스트림이 없는 경우)
+	 *
+	 * <p>{domain}/uploads/.tmp 임시 파일에 기록한 뒤 storeCompleted()와 같은 방식으로 blob 반영 및 링크합니다.</p>
+	 *
+	 * @param content 파일 내용
+	 * @param originalFilename 원본 파일명 (확장자 추출용)
+	 * @param domain 도메인명 (counsel, photo, notice 등)
+	 * @return 저장 결과 (상대 경로, 크기, SHA-256, 감지된 MIME 타입)
+	 * @throws IllegalArgumentException 빈 파일, 허용되지 않는 형식, 크기 초과, 잘못된 도메인
 	 */
-	private void validateFile(MultipartFile file) throws IOException {
-		if (file.isEmpty()) {
+	public StoredFile storeBytes(byte[] content, String originalFilename, String domain) {
+		validateDomain(domain);
+		if (content == null || content.length == 0) {
 			throw new IllegalArgumentException("File is empty.");
 		}
+		if (content.length > MAX_FILE_SIZE) {
+			throw new IllegalArgumentException("파일 크기 초과 (최대 10MB)");
+		}
+		// 임시 파일을 만들기 전에 형식 검사 (거부 시 디스크 I/O 없음)
+		detectAllowedType(Arrays.copyOf(content, Math.min(content.length, SNIFF_BUFFER_SIZE)));
 
-		try (InputStream inputStream = file.getInputStream()) {
-			String mimeType = tika.detect(inputStream);
-			if (!ALLOWED_MIME_TYPES.contains(mimeType)) {
-				log.warn("MIME type validation failed: {}", mimeType);
-				throw new IllegalArgumentException("허용되지 않는 파일 형식입니다: " + mimeType);
-			}
+		Path tempFile = null;
+		try {
+			Path tempDir = baseDir.resolve(domain).resolve("uploads").resolve(TEMP_DIR_NAME);
+			Files.createDirectories(tempDir);
+			tempFile = Files.createTempFile(tempDir, "inline-", ".part");
+			Files.write(tempFile, content);
+
+			StoredFile storedFile = storeCompleted(tempFile, originalFilename, domain);
+			tempFile = null;
+			return storedFile;
+		} catch (IOException e) {
+			log.error("Failed to store bytes {}: {}", originalFilename, e.getMessage());
+			throw new RuntimeException("Failed to store file", e);
+		} finally {
+			deleteTempQuietly(tempFile);
 		}
+	}
 
-		if (file.getSize() > MAX_FILE_SIZE) {
-			throw new IllegalArgumentException("파일 크기 초과 (최대 10MB)");
+	/**
+	 * 선두 바이트로 MIME 타입 감지 후 허용 목록 검증
+	 * @param prefix 파일 선두 바이트 (최대 64KB)
+	 * @return 감지된 MIME 타입
+	 * @throws IllegalArgumentException 허용되지 않는 형식
+	 */
+	public String detectAllowedType(byte[] prefix) {
+		String mimeType = tika.detect(prefix);
+		if (!ALLOWED_MIME_TYPES.contains(mimeType)) {
+			log.warn("MIME type validation failed: {}", mimeType);
+			throw new IllegalArgumentException("허용되지 않는 파일 형식입니다: " + mimeType);
+		}
+		return mimeType;
+	}
+
+	/**
+	 * 도메인명 검증 (영문/숫자만 허용, 경로 조작 방지)
+	 */
+	private void validateDomain(String domain) {
+		if (domain == null || !domain.matches("^[a-zA-Z0-9]+$")) {
+			throw new IllegalArgumentException("Invalid domain name: " + domain);
+		}
+	}
+
+	/**
+	 * 새 저장 상대 경로 생성: {domain}/uploads/yyyy/MM/uuid.ext
+	 */
+	private String newStoredPath(String domain, String originalFilename) {
+		LocalDate today = LocalDate.now();
+		String year = today.format(DateTimeFormatter.ofPattern("yyyy"));
+		String month = today.format(DateTimeFormatter.ofPattern("MM"));
+		String storedFileName = UUID.randomUUID().toString() + getExtension(originalFilename);
+		// 경로 조작 방지: 확장자에 경로 구분자가 섞이면 다른 디렉토리로 벗어날 수 있음
+		if (storedFileName.contains("/") || storedFileName.contains("\\")) {
+			throw new IllegalArgumentException("Invalid file path composition");
+		}
+		return Paths.get(domain, "uploads", year, month, storedFileName).toString().replace('\\', '/');
+	}
+
+	/**
+	 * 상대 경로 → 절대 경로 (상위 디렉토리 생성 + Normalization check)
+	 */
+	private Path resolveDestination(String storedPath) throws IOException {
+		Path destination = baseDir.resolve(storedPath).normalize();
+		Path targetDir = destination.getParent();
+		if (targetDir == null || !targetDir.startsWith(baseDir.normalize())) {
+			throw new IllegalArgumentException("Invalid file path composition");
+		}
+		Files.createDirectories(targetDir);
+		return destination;
+	}
+
+	/**
+	 * SHA-256 MessageDigest 생성 (모든 JVM 구현에 포함이 보장됨)
+	 */
+	private MessageDigest newSha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	/**
+	 * 실패한 업로드의 임시 파일 정리 (정리 실패는 로그만 남김)
+	 */
+	private void deleteTempQuietly(Path tempFile) {
+		if (tempFile == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(tempFile);
+		} catch (IOException e) {
+			log.warn("Failed to delete temp upload file: {}", tempFile, e);
 		}
 	}
 
@@ -127,6 +341,18 @@ public class FileStorageService {
 		return filename.substring(filename.lastIndexOf("."));
 	}
 
+	/**
+	 * 파일 비동기 삭제 (I/O 스레드, 요청 스레드는 대기하지 않음)
+	 * - 파일 저장 후 DB 등록에 실패한 경우 즉시 정리용
+	 * @param filePath base-dir 기준 상대 경로
+	 */
+	public void deleteFileAsync(String filePath) {
+		if (filePath == null || filePath.isBlank()) {
+			return;
+		}
+		fileOperations.deleteAsync(baseDir.resolve(filePath).normalize());
+	}
+
 	/**
 	 * 물리 파일 삭제
 	 * @return true: 삭제 성공, false: 파일이 없거나 삭제 실패
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.persistence.Table;
 import org.hibernate.annotations.*;
 import org.springframework.samples.petclinic.common.entity.BaseEntity;
+import org.springframework.samples.petclinic.common.service.AttachmentLinkListener;
 import org.springframework.samples.petclinic.counsel.CounselStatus;
 import org.springframework.samples.petclinic.user.table.User;
 
@@ -41,6 +42,7 @@ import java.util.List;
  */
 
 @Entity
+@EntityListeners(AttachmentLinkListener.class)
 @Table(name = "counsel_post")
 @SQLDelete(sql = "UPDATE counsel_post SET del_flag=1, deleted_at=NOW() WHERE id=?")
 @SQLRestriction("del_flag = 0")
@@ -61,6 +63,11 @@ public class CounselPost  extends BaseEntity {
 	@Column(name = "content_path", length = 500)
 	private String contentPath; // 본문 내용이 저장된 파일 경로
 
+	// 검색용 평문 (본문 HTML에서 추출, MySQL FULLTEXT ngram 색인 대상, 비공개 글은 null)
+	@Lob
+	@Column(name = "search_text", columnDefinition = "MEDIUMTEXT")
+	private String searchText;
+
 	@Column(name = "author_name", nullable = false, length = 100)
 	private String authorName; // 작성자 이름
 
@@ -123,6 +130,14 @@ public class CounselPost  extends BaseEntity {
 		this.content = content;
 	}
 
+	public String getSearchText() {
+		return searchText;
+	}
+
+	public void setSearchText(String searchText) {
+		this.searchText = searchText;
+	}
+
 	public String getContentPath() {
 		return contentPath;
 	}
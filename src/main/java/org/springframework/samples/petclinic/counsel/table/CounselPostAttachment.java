@@ -3,6 +3,7 @@ package org.springframework.samples.petclinic.counsel.table;
 import jakarta.persistence.*;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.ConstraintMode;
+import org.springframework.samples.petclinic.common.service.AttachmentLinkListener;
 import org.springframework.samples.petclinic.common.table.Attachment;
 
 /**
@@ -19,6 +20,7 @@ import org.springframework.samples.petclinic.common.table.Attachment;
  *   Copyright (c) 2025 AOF(AllForOne) / All rights reserved.
  */
 @Entity
+@EntityListeners(AttachmentLinkListener.class)
 @Table(name = "counsel_post_attachments")
 public class CounselPostAttachment {
 
@@ -5,6 +5,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.faq.repository.FaqPostRepository;
 import org.springframework.samples.petclinic.faq.table.FaqPost;
+import org.springframework.samples.petclinic.search.service.TitleSuggestIndex;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -89,9 +90,11 @@ import java.util.stream.Collectors;
 public class FaqService {
 
     private final FaqPostRepository faqPostRepository;
+    private final TitleSuggestIndex titleSuggestIndex;
 
-    public FaqService(FaqPostRepository faqPostRepository) {
+    public FaqService(FaqPostRepository faqPostRepository, TitleSuggestIndex titleSuggestIndex) {
         this.faqPostRepository = faqPostRepository;
+        this.titleSuggestIndex = titleSuggestIndex;
     }
 
     /**
@@ -172,7 +175,9 @@ public class FaqService {
         post.setCategory(category);
         post.setDisplayOrder(displayOrder);
         post.setCreatedAt(LocalDateTime.now());
-        return faqPostRepository.save(post);
+        FaqPost saved = faqPostRepository.save(post);
+        titleSuggestIndex.putAfterCommit("faq", saved.getId(), saved.getQuestion(), saved.getCreatedAt());
+        return saved;
     }
 
     /**
@@ -185,6 +190,7 @@ public class FaqService {
         post.setCategory(category);
         post.setDisplayOrder(displayOrder);
         post.setUpdatedAt(LocalDateTime.now());
+        titleSuggestIndex.putAfterCommit("faq", id, question, post.getCreatedAt());
         return faqPostRepository.save(post);
     }
 
@@ -197,6 +203,7 @@ public class FaqService {
         post.setDelFlag(true);
         post.setUpdatedAt(LocalDateTime.now());
         faqPostRepository.save(post);
+        titleSuggestIndex.removeAfterCommit("faq", id);
     }
 }
 
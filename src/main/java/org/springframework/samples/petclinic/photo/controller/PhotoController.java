@@ -79,7 +79,7 @@ public class PhotoController {
 	public String detail(@PathVariable("id") Long id, Model model) {
 		log.info("포토게시글 상세 조회: ID={}", id);
 
-		PhotoPostDto post = photoService.getPost(id);
+		PhotoPostDto post = photoService.getPostForDisplay(id);
 
 		// 좋아요 정보 추가
 		long likeCount = photoService.getLikeCount(id);
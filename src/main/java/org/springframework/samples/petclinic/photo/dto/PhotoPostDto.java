@@ -25,6 +25,7 @@ import java.util.List;
  *   - content: 본문 (HTML)
  *   - author: 작성자
  *   - thumbnailUrl: 썸네일 이미지 URL (목록 표시용)
+ *   - thumbnailVariantUrl / thumbnailWebpUrl: 썸네일 축소 파생본 URL (목록 표시용, 없으면 null)
  *   - viewCount: 조회수
  *   - likeCount: 좋아요 수
  *   - createdAt: 작성일시
@@ -63,6 +64,8 @@ public class PhotoPostDto {
 	private String content;
 	private String author;
 	private String thumbnailUrl;
+	private String thumbnailVariantUrl;  // 목록 카드용 JPEG 파생본 (ImageVariantService)
+	private String thumbnailWebpUrl;     // 목록 카드용 WebP 파생본 (WebP Writer 미등록 시 null)
 	private int viewCount;
 	private int likeCount;
 	private LocalDateTime createdAt;
@@ -143,6 +146,22 @@ public class PhotoPostDto {
 		this.thumbnailUrl = thumbnailUrl;
 	}
 
+	public String getThumbnailVariantUrl() {
+		return thumbnailVariantUrl;
+	}
+
+	public void setThumbnailVariantUrl(String thumbnailVariantUrl) {
+		this.thumbnailVariantUrl = thumbnailVariantUrl;
+	}
+
+	public String getThumbnailWebpUrl() {
+		return thumbnailWebpUrl;
+	}
+
+	public void setThumbnailWebpUrl(String thumbnailWebpUrl) {
+		this.thumbnailWebpUrl = thumbnailWebpUrl;
+	}
+
 	public int getViewCount() {
 		return viewCount;
 	}
@@ -1,16 +1,26 @@
 package org.springframework.samples.petclinic.photo.repository;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.common.dto.PageResponse;
+import org.springframework.samples.petclinic.common.service.FulltextPostSearch;
+import org.springframework.samples.petclinic.common.service.PostSearchIndex;
 import org.springframework.samples.petclinic.photo.table.PhotoPost;
 import org.springframework.samples.petclinic.photo.table.QPhotoPost;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Project : spring-petclinic
@@ -30,6 +40,8 @@ import java.util.List;
  *
  * Key Features (주요 기능):
  *   - 동적 검색: 제목, 내용, 작성자, 제목+내용
+ *   - 제목/본문 검색: PostSearchIndex(역색인, 한글 n-gram) 결과 id로 조건 생성, 색인 점수순 정렬 (제목 일치 우선)
+ *     (색인 대신 DB FULLTEXT(FulltextPostSearch)도 가능, 둘 다 답할 수 없으면 제목/search_text LIKE)
  *   - 작성자별 조회: findByAuthor (마이페이지용)
  *   - 인기 게시글: findPopularPosts (조회수 + 좋아요 순)
  *   - 페이징 처리: offset, limit 적용
@@ -92,17 +104,31 @@ import java.util.List;
 @Repository
 public class PhotoPostRepositoryImpl implements PhotoPostRepositoryCustom {
 
+	private static final String DOMAIN = "photo";
+
 	private final JPAQueryFactory queryFactory;
+	private final PostSearchIndex postSearchIndex;
+	private final FulltextPostSearch fulltextPostSearch;
 	private final QPhotoPost photoPost = QPhotoPost.photoPost;
 
-	public PhotoPostRepositoryImpl(JPAQueryFactory queryFactory) {
+	public PhotoPostRepositoryImpl(JPAQueryFactory queryFactory, PostSearchIndex postSearchIndex,
+								   FulltextPostSearch fulltextPostSearch) {
 		this.queryFactory = queryFactory;
+		this.postSearchIndex = postSearchIndex;
+		this.fulltextPostSearch = fulltextPostSearch;
 	}
 
 	@Override
 	public PageResponse<PhotoPost> search(String type, String keyword, Pageable pageable) {
-		// 동적 검색 조건 생성
-		BooleanExpression searchCondition = createSearchCondition(type, keyword);
+		// 동적 검색 조건 생성 (제목/본문은 색인 결과 id)
+		String searchType = type != null ? type.toLowerCase(Locale.ROOT) : "";
+		PostSearchIndex.Hits indexHits = indexHits(searchType, keyword, pageable);
+		BooleanExpression searchCondition = createSearchCondition(searchType, keyword, indexHits);
+
+		// 색인으로 찾은 검색은 점수순
+		if (indexHits != null) {
+			return rankedPage(indexHits, searchCondition, pageable);
+		}
 
 		// 데이터 조회 쿼리 (페이징 적용)
 		List<PhotoPost> content = queryFactory
@@ -166,29 +192,84 @@ public class PhotoPostRepositoryImpl implements PhotoPostRepositoryCustom {
 	 * 검색 타입에 따른 동적 조건 생성
 	 * - I/O 최소화: 불필요한 조건 제거 (keyword가 null이면 조건 자체를 생성하지 않음)
 	 */
-	private BooleanExpression createSearchCondition(String type, String keyword) {
+	private BooleanExpression createSearchCondition(String type, String keyword, PostSearchIndex.Hits indexHits) {
 		if (keyword == null || keyword.trim().isEmpty()) {
 			return null; // 검색 조건 없음
 		}
 
 		String trimmedKeyword = keyword.trim();
 
-		switch (type != null ? type.toLowerCase() : "") {
+		switch (type) {
 			case "title":
-				return photoPost.title.containsIgnoreCase(trimmedKeyword);
+				return indexMatches(indexHits, photoPost.title.containsIgnoreCase(trimmedKeyword));
 			case "content":
-				return photoPost.content.containsIgnoreCase(trimmedKeyword);
+				return indexMatches(indexHits, contentLike(trimmedKeyword));
 			case "titleandcontent":
 			case "title_and_content":
-				return photoPost.title.containsIgnoreCase(trimmedKeyword)
-					.or(photoPost.content.containsIgnoreCase(trimmedKeyword));
+				return indexMatches(indexHits, photoPost.title.containsIgnoreCase(trimmedKeyword)
+					.or(contentLike(trimmedKeyword)));
 			case "author":
 				return photoPost.author.containsIgnoreCase(trimmedKeyword);
 			default:
 				// 기본값: 제목 + 내용 검색
-				return photoPost.title.containsIgnoreCase(trimmedKeyword)
-					.or(photoPost.content.containsIgnoreCase(trimmedKeyword));
+				return indexMatches(indexHits, photoPost.title.containsIgnoreCase(trimmedKeyword)
+					.or(contentLike(trimmedKeyword)));
+		}
+	}
+
+	/**
+	 * 제목/본문 색인 검색 결과: 메모리 색인 → DB FULLTEXT 순서로 답할 수 있는 첫 결과
+	 * (색인을 쓰지 않는 검색 타입이거나 둘 다 답할 수 없으면 null → LIKE)
+	 */
+	private PostSearchIndex.Hits indexHits(String type, String keyword, Pageable pageable) {
+		if (keyword == null || keyword.trim().isEmpty() || "author".equals(type)) {
+			return null;
+		}
+		PostSearchIndex.Field field = "title".equals(type) ? PostSearchIndex.Field.TITLE
+			: "content".equals(type) ? PostSearchIndex.Field.BODY : PostSearchIndex.Field.ALL;
+		long depth = pageable.getOffset() + pageable.getPageSize();
+		PostSearchIndex.Hits hits = postSearchIndex.search(DOMAIN, keyword.trim(), field, depth);
+		return hits != null ? hits : fulltextPostSearch.search(DOMAIN, keyword.trim(), field, depth);
+	}
+
+	/**
+	 * 본문 LIKE: 검색용 평문(search_text), 평문이 아직 없는 예전 행은 본문이 직접 들어있는 content
+	 */
+	private BooleanExpression contentLike(String keyword) {
+		return photoPost.searchText.containsIgnoreCase(keyword).or(photoPost.content.containsIgnoreCase(keyword));
+	}
+
+	/**
+	 * 색인 조건: 색인 결과 id 목록 (색인 결과가 없으면 기존 LIKE 조건)
+	 */
+	private BooleanExpression indexMatches(PostSearchIndex.Hits indexHits, BooleanExpression likeCondition) {
+		if (indexHits == null) {
+			return likeCondition;
 		}
+		return indexHits.getIds().isEmpty() ? Expressions.FALSE.isTrue() : photoPost.id.in(indexHits.getIds());
+	}
+
+	/**
+	 * 색인 점수순 페이지: 조건(Soft Delete)을 통과한 id만 남기고 점수 순서대로 잘라 해당 페이지만 조회
+	 * - 전체 건수: 받은 색인 결과 중 조건 통과 수 + 아직 받지 않은 색인 일치 수
+	 */
+	private PageResponse<PhotoPost> rankedPage(PostSearchIndex.Hits indexHits, BooleanExpression condition, Pageable pageable) {
+		Set<Long> matched = indexHits.getIds().isEmpty() ? Set.of()
+			: new HashSet<>(queryFactory.select(photoPost.id).from(photoPost).where(condition).fetch());
+		List<Long> ranked = indexHits.getIds().stream().filter(matched::contains).toList();
+		long total = (long) ranked.size() + indexHits.getRemaining();
+
+		int from = (int) Math.min(pageable.getOffset(), ranked.size());
+		List<Long> pageIds = ranked.subList(from, Math.min(from + pageable.getPageSize(), ranked.size()));
+		Map<Long, PhotoPost> byId = pageIds.isEmpty() ? Map.of() : queryFactory
+			.selectFrom(photoPost)
+			.where(photoPost.id.in(pageIds))
+			.fetch()
+			.stream()
+			.collect(Collectors.toMap(PhotoPost::getId, Function.identity()));
+		List<PhotoPost> content = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+		return new PageResponse<>(new PageImpl<>(content, pageable, total));
 	}
 
 	@Override
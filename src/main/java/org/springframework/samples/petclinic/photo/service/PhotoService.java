@@ -2,13 +2,18 @@ package org.springframework.samples.petclinic.photo.service;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.dto.ImageVariantSet;
+import org.springframework.samples.petclinic.common.dto.IngestedHtml;
 import org.springframework.samples.petclinic.common.service.CommonHtmlStorage;
+import org.springframework.samples.petclinic.common.service.PostSearchIndex;
+import org.springframework.samples.petclinic.common.service.ImageVariantService;
 import org.springframework.samples.petclinic.photo.dto.PhotoCommentDto;
 import org.springframework.samples.petclinic.photo.mapper.PhotoCommentMapper;
 import org.springframework.samples.petclinic.photo.repository.PhotoCommentRepository;
 import org.springframework.samples.petclinic.photo.repository.PhotoPostLikeRepository;
 import org.springframework.samples.petclinic.photo.table.PhotoComment;
 import org.springframework.samples.petclinic.photo.table.PhotoPostLike;
+import org.springframework.samples.petclinic.search.service.TitleSuggestIndex;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.transaction.annotation.Transactional;
@@ -50,6 +55,7 @@ import java.util.stream.Collectors;
  *   3. HTML 본문에서 첫 번째 이미지를 썸네일로 사용
  *   4. 조회수 자동 증가 (상세 조회 시)
  *   5. Soft Delete 정책 적용
+ *   6. 목록/상세에서 원본 대신 축소 파생본 참조 (ImageVariantService)
  *
  * Key Features (주요 기능):
  *   - 게시글 CRUD (생성, 조회, 수정, 삭제 - Soft Delete)
@@ -68,7 +74,7 @@ import java.util.stream.Collectors;
  *   1. HTML에서 첫 번째 <img> 태그 찾기
  *   2. src 속성에서 이미지 URL 추출
  *   3. 추출 실패 시 null 반환 (사용자가 수동 설정 가능)
- *   4. 단순 문자열 파싱 방식 (Jsoup 미사용)
+ *   4. 저장용 정제 파싱 결과를 재사용 (CommonHtmlStorage.ingest, 본문 1회 파싱)
  *
  * Usage Examples (사용 예시):
  *   // 포토게시글 목록 조회
@@ -87,7 +93,7 @@ import java.util.stream.Collectors;
  *   photoService.deletePost(id);
  *
  * Performance (성능):
- *   - 썸네일 추출은 단순 문자열 파싱으로 빠른 처리
+ *   - 썸네일 추출은 저장용 정제 DOM에서 함께 산출 (별도 재탐색 없음)
  *   - 조회수 증가는 별도 쿼리로 처리 (트랜잭션 내)
  *
  * Transaction Management (트랜잭션 관리):
@@ -114,18 +120,27 @@ public class PhotoService {
 	private final PhotoCommentRepository photoCommentRepository;
 
 	private final CommonHtmlStorage commonHtmlStorage;
+	private final ImageVariantService imageVariantService;
+	private final PostSearchIndex postSearchIndex;
+	private final TitleSuggestIndex titleSuggestIndex;
 
 	public PhotoService(PhotoPostRepository repository,
 						PhotoPostLikeRepository likeRepository,
 						AttachmentRepository attachmentRepository,
 						PhotoPostAttachmentRepository photoPostAttachmentRepository, PhotoCommentRepository photoCommentRepository,
-						CommonHtmlStorage commonHtmlStorage) {
+						CommonHtmlStorage commonHtmlStorage,
+						ImageVariantService imageVariantService,
+						PostSearchIndex postSearchIndex,
+						TitleSuggestIndex titleSuggestIndex) {
 		this.repository = repository;
 		this.likeRepository = likeRepository;
 		this.attachmentRepository = attachmentRepository;
 		this.photoPostAttachmentRepository = photoPostAttachmentRepository;
 		this.photoCommentRepository = photoCommentRepository;
 		this.commonHtmlStorage = commonHtmlStorage;
+		this.imageVariantService = imageVariantService;
+		this.postSearchIndex = postSearchIndex;
+		this.titleSuggestIndex = titleSuggestIndex;
 	}
 
 	/**
@@ -137,10 +152,26 @@ public class PhotoService {
 			.stream()
 			.map(PhotoPostMapper::toDto)
 			.collect(Collectors.toList());
+		applyThumbnailVariants(dtoList);
 		Page<PhotoPostDto> dtoPage = new PageImpl<>(dtoList, pageable, entityPage.getTotalElements());
 		return new PageResponse<>(dtoPage);
 	}
 
+	/**
+	 * 검색 결과를 DTO 페이지로 변환 (통합 검색에서 사용)
+	 */
+	@Transactional(readOnly = true)
+	public PageResponse<PhotoPostDto> search(String type, String keyword, Pageable pageable) {
+		PageResponse<PhotoPost> entityResponse = repository.search(type, keyword, pageable);
+		List<PhotoPostDto> dtoList = entityResponse.getContent()
+			.stream()
+			.map(PhotoPostMapper::toDto)
+			.collect(Collectors.toList());
+		applyThumbnailVariants(dtoList);
+		Page<PhotoPostDto> dtoPage = new PageImpl<>(dtoList, pageable, entityResponse.getTotalElements());
+		return new PageResponse<>(dtoPage);
+	}
+
 	/**
 	 * 게시글 상세 조회
 	 */
@@ -166,33 +197,71 @@ public class PhotoService {
 		return dto;
 	}
 
+	/**
+	 * 게시글 상세 조회 (화면 표시용)
+	 * - 본문 업로드 이미지를 축소 파생본(src/srcset)으로 교체
+	 * - 수정 화면은 저장된 원본 HTML을 편집해야 하므로 getPost() 사용
+	 */
+	public PhotoPostDto getPostForDisplay(Long id) {
+		PhotoPostDto dto = getPost(id);
+		dto.setContent(imageVariantService.applyResponsiveImages(dto.getContent()));
+		return dto;
+	}
+
+	/**
+	 * 목록 썸네일을 축소 파생본으로 지정 (페이지 단위 일괄 조회, 파생본이 없으면 원본 유지)
+	 */
+	private void applyThumbnailVariants(List<PhotoPostDto> dtoList) {
+		List<String> thumbnailUrls = dtoList.stream()
+			.map(PhotoPostDto::getThumbnailUrl)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toList());
+		if (thumbnailUrls.isEmpty()) {
+			return;
+		}
+
+		Map<String, ImageVariantSet> variantSets = imageVariantService.findVariantSets(thumbnailUrls);
+		for (PhotoPostDto dto : dtoList) {
+			ImageVariantSet set = variantSets.get(dto.getThumbnailUrl());
+			if (set != null) {
+				dto.setThumbnailVariantUrl(set.pick(ImageVariantSet.FORMAT_JPEG, ImageVariantService.LIST_THUMBNAIL_WIDTH));
+				dto.setThumbnailWebpUrl(set.pick(ImageVariantSet.FORMAT_WEBP, ImageVariantService.LIST_THUMBNAIL_WIDTH));
+			}
+		}
+	}
+
 	/**
 	 * 게시글 작성
 	 * 썸네일이 없으면 content에서 첫 번째 이미지 추출
 	 * [Refactor] HTML 본문을 CommonHtmlStorage를 통해 파일로 저장합니다.
 	 */
 	public PhotoPostDto createPost(PhotoPostDto dto) {
-		// 1. 썸네일 자동 추출 (저장 전 Raw HTML에서 추출)
-		if ((dto.getThumbnailUrl() == null || dto.getThumbnailUrl().isBlank()) && dto.getContent() != null) {
-			String extractedThumbnail = extractFirstImageFromHtml(dto.getContent());
-			if (extractedThumbnail != null) {
-				dto.setThumbnailUrl(extractedThumbnail);
-				log.info("썸네일 자동 추출: {}", extractedThumbnail);
+		try {
+			// 1. 본문 수집: 정제 + 첫 이미지 추출 (1회 파싱, 정제된 본문 기준)
+			IngestedHtml ingested = commonHtmlStorage.ingest(dto.getContent(), "photo");
+
+			// 2. 썸네일 자동 추출
+			if ((dto.getThumbnailUrl() == null || dto.getThumbnailUrl().isBlank()) && ingested.getFirstImageUrl() != null) {
+				dto.setThumbnailUrl(ingested.getFirstImageUrl());
+				log.info("썸네일 자동 추출: {}", ingested.getFirstImageUrl());
 			}
-		}
 
-		try {
-			// 2. [Refactor] HTML 파일 저장 ("photo" 도메인)
-			// XSS 방어 및 경로 생성은 commonHtmlStorage 내부에서 처리됨
-			String filePath = commonHtmlStorage.saveHtml(dto.getContent(), "photo");
+			// 3. [Refactor] HTML 파일 저장 ("photo" 도메인, 재파싱 없이 수집 결과 저장)
+			String filePath = commonHtmlStorage.saveHtml(ingested, "photo");
 
-			// 3. Entity 변환 및 경로 설정
+			// 4. Entity 변환 및 경로 설정
 			PhotoPost entity = PhotoPostMapper.toEntity(dto);
 			entity.setContent(filePath); // DB에는 내용 대신 '파일 경로' 저장
+			entity.setSearchText(ingested.getPlainText()); // DB 검색용 평문
 
 			PhotoPost saved = repository.save(entity);
+			postSearchIndex.indexAfterCommit("photo", saved.getId(), saved.getTitle(), ingested.getPlainText());
+			titleSuggestIndex.putAfterCommit("photo", saved.getId(), saved.getTitle(), saved.getCreatedAt());
 			log.info("포토게시글 작성 완료: ID={}, Path={}", saved.getId(), filePath);
 
+			// 5. 썸네일 파생본 생성 요청 (업로드 시 이미 생성된 경우 건너뜀, 커밋 후 비동기)
+			imageVariantService.requestVariantsForUrl(saved.getThumbnailUrl());
+
 			// 반환할 DTO에는 원본 내용을 담음 (클라이언트 편의)
 			return PhotoPostMapper.toDto(saved);
 
@@ -202,43 +271,6 @@ public class PhotoService {
 		}
 	}
 
-	/**
-	 * HTML 내용에서 첫 번째 이미지 URL 추출
-	 */
-	private String extractFirstImageFromHtml(String html) {
-		if (html == null || html.isBlank()) {
-			return null;
-		}
-
-		// <img src="..." 패턴 찾기
-		int imgStart = html.indexOf("<img");
-		if (imgStart == -1) {
-			return null;
-		}
-
-		int srcStart = html.indexOf("src=\"", imgStart);
-		if (srcStart == -1) {
-			srcStart = html.indexOf("src='", imgStart);
-			if (srcStart == -1) {
-				return null;
-			}
-			srcStart += 5; // "src='" 길이
-		} else {
-			srcStart += 5; // "src=\"" 길이
-		}
-
-		int srcEnd = html.indexOf("\"", srcStart);
-		if (srcEnd == -1) {
-			srcEnd = html.indexOf("'", srcStart);
-		}
-
-		if (srcEnd == -1 || srcEnd <= srcStart) {
-			return null;
-		}
-
-		return html.substring(srcStart, srcEnd);
-	}
-
 	/**
 	 * 게시글 수정 (Phase 3: 첨부파일 관리 포함)
 	 * [Refactor] 수정된 HTML을 파일로 재저장하고 경로를 업데이트합니다.
@@ -249,11 +281,19 @@ public class PhotoService {
 				.orElseThrow(() -> new IllegalArgumentException("게시글을 찾을 수 없습니다: " + id));
 
 			// 1. [Refactor] HTML 파일 저장 ("photo" 도메인)
-			String filePath = commonHtmlStorage.saveHtml(dto.getContent(), "photo");
+			String oldPath = entity.getContent();
+			IngestedHtml ingested = commonHtmlStorage.ingest(dto.getContent(), "photo");
+			String filePath = commonHtmlStorage.saveHtml(ingested, "photo");
+			postSearchIndex.indexAfterCommit("photo", id, dto.getTitle(), ingested.getPlainText());
+			titleSuggestIndex.putAfterCommit("photo", id, dto.getTitle(), entity.getCreatedAt());
 
 			// 2. 엔티티 업데이트
 			entity.setTitle(dto.getTitle());
 			entity.setContent(filePath); // 경로 업데이트
+			entity.setSearchText(ingested.getPlainText());
+			if (commonHtmlStorage.isStoredPath(oldPath, "photo")) {
+				commonHtmlStorage.deleteHtml(oldPath, "photo"); // 이전 본문 파일은 커밋 후 삭제
+			}
 			entity.setThumbnailUrl(dto.getThumbnailUrl());
 
 			// 3. 첨부파일 처리 (기존 로직 유지)
@@ -262,6 +302,8 @@ public class PhotoService {
 			PhotoPost updated = repository.save(entity);
 			log.info("✅ 포토게시글 수정 완료: ID={}, Path={}", id, filePath);
 
+			imageVariantService.requestVariantsForUrl(updated.getThumbnailUrl());
+
 			PhotoPostDto resultDto = PhotoPostMapper.toDto(updated);
 			resultDto.setContent(dto.getContent()); // 결과 반환 시에는 내용 포함
 			return resultDto;
@@ -330,6 +372,8 @@ public class PhotoService {
 			.orElseThrow(() -> new IllegalArgumentException("게시글을 찾을 수 없습니다: " + id));
 
 		repository.delete(entity); // @SQLDelete로 Soft Delete
+		postSearchIndex.removeAfterCommit("photo", id);
+		titleSuggestIndex.removeAfterCommit("photo", id);
 		log.info("포토게시글 삭제: ID={}", id);
 	}
 
@@ -6,6 +6,7 @@ import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.samples.petclinic.common.entity.BaseEntity;
+import org.springframework.samples.petclinic.common.service.AttachmentLinkListener;
 import org.springframework.samples.petclinic.user.table.User;
 
 import java.time.LocalDateTime;
@@ -29,6 +30,7 @@ import java.util.List;
  *   - Soft Delete (del_flag)
  */
 @Entity
+@EntityListeners(AttachmentLinkListener.class)
 @jakarta.persistence.Table(name = "photo_post",
 	indexes = {
 		@jakarta.persistence.Index(name = "idx_photo_created", columnList = "created_at DESC"),
@@ -51,6 +53,11 @@ public class PhotoPost extends BaseEntity {
 	@Column(columnDefinition = "TEXT")
 	private String content;
 
+	/** 검색용 평문 (본문 HTML에서 추출, MySQL FULLTEXT ngram 색인 대상) */
+	@Lob
+	@Column(name = "search_text", columnDefinition = "MEDIUMTEXT")
+	private String searchText;
+
 	/** 작성자 */
 	@Column(nullable = false, length = 100)
 	private String author;
@@ -103,6 +110,14 @@ public class PhotoPost extends BaseEntity {
 		this.title = title;
 	}
 
+	public String getSearchText() {
+		return searchText;
+	}
+
+	public void setSearchText(String searchText) {
+		this.searchText = searchText;
+	}
+
 	public String getContent() {
 		return content;
 	}
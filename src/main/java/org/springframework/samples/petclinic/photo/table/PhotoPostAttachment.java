@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.ConstraintMode;
 import org.springframework.samples.petclinic.common.entity.BaseEntity;
+import org.springframework.samples.petclinic.common.service.AttachmentLinkListener;
 import org.springframework.samples.petclinic.common.table.Attachment;
 
 /**
@@ -22,6 +23,7 @@ import org.springframework.samples.petclinic.common.table.Attachment;
  *   - 첨부파일 순서 관리 가능
  */
 @Entity
+@EntityListeners(AttachmentLinkListener.class)
 @Table(name = "photo_post_attachment",
 	uniqueConstraints = @UniqueConstraint(
 		name = "uq_photo_post_attachment",
@@ -0,0 +1,71 @@
+package org.springframework.samples.petclinic.search.controller;
+
+import org.springframework.samples.petclinic.search.dto.TitleSuggestion;
+import org.springframework.samples.petclinic.search.dto.UnifiedSearchResult;
+import org.springframework.samples.petclinic.search.service.TitleSuggestIndex;
+import org.springframework.samples.petclinic.search.service.UnifiedSearchService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * Project : spring-petclinic
+ * File    : SearchController.java
+ * Created : 2026-03-23
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   통합 검색 화면 라우팅 (/search?keyword=&board=&page=&size=)
+ *   - 전체 게시판 결과를 관련도순 한 목록으로, 게시판별 건수 탭(board 필터) 제공
+ *   - 검색창 자동완성 (/search/suggest?q=, 메모리 제목 색인 TitleSuggestIndex, JSON)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+	private static final int MAX_PAGE_SIZE = 50;
+
+	private final UnifiedSearchService unifiedSearchService;
+	private final TitleSuggestIndex titleSuggestIndex;
+
+	public SearchController(UnifiedSearchService unifiedSearchService, TitleSuggestIndex titleSuggestIndex) {
+		this.unifiedSearchService = unifiedSearchService;
+		this.titleSuggestIndex = titleSuggestIndex;
+	}
+
+	/**
+	 * 통합 검색 결과
+	 */
+	@GetMapping
+	public String search(@RequestParam(value = "keyword", required = false) String keyword,
+						 @RequestParam(value = "board", required = false) String board,
+						 @RequestParam(value = "page", defaultValue = "0") int page,
+						 @RequestParam(value = "size", defaultValue = "10") int size,
+						 Model model) {
+		int pageSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+		UnifiedSearchResult result = unifiedSearchService.search(keyword, board, Math.max(0, page), pageSize);
+
+		model.addAttribute("result", result);
+		model.addAttribute("keyword", keyword);
+		model.addAttribute("template", "search/searchResult");
+		return "fragments/layout";
+	}
+
+	/**
+	 * 제목 자동완성 (입력 중 호출, DB 조회 없음)
+	 */
+	@GetMapping("/suggest")
+	@ResponseBody
+	public List<TitleSuggestion> suggest(@RequestParam(value = "q", required = false) String query,
+										 @RequestParam(value = "limit", defaultValue = "8") int limit) {
+		return titleSuggestIndex.suggest(query, limit);
+	}
+}
@@ -0,0 +1,51 @@
+package org.springframework.samples.petclinic.search.dto;
+
+/**
+ * Project : spring-petclinic
+ * File    : TitleSuggestion.java
+ * Created : 2026-03-23
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   검색창 자동완성 후보 1건 (/search/suggest JSON 응답 항목)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public class TitleSuggestion {
+
+	private final String board;
+	private final String boardLabel;
+	private final Long id;
+	private final String title;
+	private final String url;
+
+	public TitleSuggestion(String board, String boardLabel, Long id, String title, String url) {
+		this.board = board;
+		this.boardLabel = boardLabel;
+		this.id = id;
+		this.title = title;
+		this.url = url;
+	}
+
+	public String getBoard() {
+		return board;
+	}
+
+	public String getBoardLabel() {
+		return boardLabel;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/** 게시글 상세 경로 (컨텍스트 경로 제외) */
+	public String getUrl() {
+		return url;
+	}
+}
@@ -0,0 +1,217 @@
+package org.springframework.samples.petclinic.search.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Project : spring-petclinic
+ * File    : UnifiedSearchResult.java
+ * Created : 2026-03-23
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   통합 검색 응답 DTO (UnifiedSearchService.search 결과)
+ *   - hits: 게시판 결과를 관련도순으로 합친 목록 중 현재 페이지 (게시판 필터가 있으면 그 게시판 검색의 현재 페이지)
+ *   - facets: 게시판별 전체 일치 건수 + 응답 상태 (제한 시간 초과/실패 게시판 표시용)
+ *   - 전체(필터 없음) 목록은 게시판별 상위 perBoardLimit건까지만 합침 → isCapped로 화면에 안내
+ *   - pagination fragment와 같은 이름(number, size, totalPages, totalElements)으로 페이지 정보 제공
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+public class UnifiedSearchResult {
+
+	private final String keyword;
+	private final String board;
+	private final List<Hit> hits;
+	private final List<BoardFacet> facets;
+	private final int number;
+	private final int size;
+	private final long totalElements;
+	private final int perBoardLimit;
+	private final long tookMillis;
+
+	public UnifiedSearchResult(String keyword, String board, List<Hit> hits, List<BoardFacet> facets,
+							   int number, int size, long totalElements, int perBoardLimit, long tookMillis) {
+		this.keyword = keyword;
+		this.board = board;
+		this.hits = Collections.unmodifiableList(new ArrayList<>(hits));
+		this.facets = Collections.unmodifiableList(new ArrayList<>(facets));
+		this.number = number;
+		this.size = size;
+		this.totalElements = totalElements;
+		this.perBoardLimit = perBoardLimit;
+		this.tookMillis = tookMillis;
+	}
+
+	public static UnifiedSearchResult empty(String keyword, int size) {
+		return new UnifiedSearchResult(keyword, null, List.of(), List.of(), 0, size, 0, 0, 0);
+	}
+
+	public String getKeyword() {
+		return keyword;
+	}
+
+	/** 게시판 필터 (null이면 전체) */
+	public String getBoard() {
+		return board;
+	}
+
+	public List<Hit> getHits() {
+		return hits;
+	}
+
+	public List<BoardFacet> getFacets() {
+		return facets;
+	}
+
+	public int getNumber() {
+		return number;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/** 목록 건수 (전체: 합친 목록, 게시판별 상위 perBoardLimit건까지 / 게시판 필터: 그 게시판 전체 일치 건수) */
+	public long getTotalElements() {
+		return totalElements;
+	}
+
+	/** 전체 목록에 합치는 게시판별 최대 건수 */
+	public int getPerBoardLimit() {
+		return perBoardLimit;
+	}
+
+	/** 전체 목록에서 일치 건수가 perBoardLimit보다 많아 일부만 합친 게시판이 있으면 true */
+	public boolean isCapped() {
+		return board == null && facets.stream().anyMatch(facet -> facet.getCount() > perBoardLimit);
+	}
+
+	public int getTotalPages() {
+		return size == 0 ? 0 : (int) ((totalElements + size - 1) / size);
+	}
+
+	public long getTookMillis() {
+		return tookMillis;
+	}
+
+	/** 응답하지 못한 게시판이 있으면 true (결과가 일부만 포함됨) */
+	public boolean isPartial() {
+		return facets.stream().anyMatch(facet -> !BoardFacet.STATUS_OK.equals(facet.getStatus()));
+	}
+
+	/**
+	 * 검색 결과 1건
+	 */
+	public static final class Hit {
+
+		private final String board;
+		private final String boardLabel;
+		private final Long id;
+		private final String title;
+		private final String author;
+		private final LocalDateTime createdAt;
+		private final String url;
+		private final boolean secret;
+		private final double score;
+
+		public Hit(String board, String boardLabel, Long id, String title, String author,
+				   LocalDateTime createdAt, String url, boolean secret, double score) {
+			this.board = board;
+			this.boardLabel = boardLabel;
+			this.id = id;
+			this.title = title;
+			this.author = author;
+			this.createdAt = createdAt;
+			this.url = url;
+			this.secret = secret;
+			this.score = score;
+		}
+
+		public String getBoard() {
+			return board;
+		}
+
+		public String getBoardLabel() {
+			return boardLabel;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		public String getAuthor() {
+			return author;
+		}
+
+		public LocalDateTime getCreatedAt() {
+			return createdAt;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public boolean isSecret() {
+			return secret;
+		}
+
+		public double getScore() {
+			return score;
+		}
+	}
+
+	/**
+	 * 게시판별 집계
+	 */
+	public static final class BoardFacet {
+
+		public static final String STATUS_OK = "OK";
+		public static final String STATUS_TIMEOUT = "TIMEOUT";
+		public static final String STATUS_BUSY = "BUSY";
+		public static final String STATUS_ERROR = "ERROR";
+
+		private final String board;
+		private final String label;
+		private final long count;
+		private final String status;
+		private final String listUrl;
+
+		public BoardFacet(String board, String label, long count, String status, String listUrl) {
+			this.board = board;
+			this.label = label;
+			this.count = count;
+			this.status = status;
+			this.listUrl = listUrl;
+		}
+
+		public String getBoard() {
+			return board;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		/** 게시판 전체 일치 건수 (상태가 OK가 아니면 0) */
+		public long getCount() {
+			return count;
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		/** 해당 게시판 검색 목록 (전체 결과 보기) */
+		public String getListUrl() {
+			return listUrl;
+		}
+	}
+}
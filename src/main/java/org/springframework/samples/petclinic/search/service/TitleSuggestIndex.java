@@ -0,0 +1,368 @@
+package org.springframework.samples.petclinic.search.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.search.dto.TitleSuggestion;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Project : spring-petclinic
+ * File    : TitleSuggestIndex.java
+ * Created : 2026-03-23
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   검색창 자동완성용 제목 접두어 색인 (온라인상담, 공지사항, 고객포토 제목 + 자주묻는질문 질문)
+ *   - 정규화한 제목의 단어 시작 위치마다 키 1개 ("강아지 슬개골 탈구" → "강아지 슬개골 탈구", "슬개골 탈구", "탈구")
+ *     → 제목 첫 단어뿐 아니라 중간 단어로 시작하는 입력도 일치
+ *   - 키 정렬 맵(ConcurrentSkipListMap)에서 접두어 범위만 읽음 (DB 조회 없음, 읽기는 잠금 없음)
+ *   - 기동 완료 후 DB에서 제목과 작성 시각만 읽어 구성 (백그라운드), 이후 작성/수정/삭제는 서비스가 커밋 후 반영
+ *   - 비공개 상담글은 넣지 않음 (제목 노출 방지)
+ *
+ * Normalize (정규화):
+ *   - NFKC + 소문자, 글자/숫자가 아닌 문자(이모지, 기호)는 공백 1개로 → 입력도 같은 규칙으로 정규화 후 비교
+ *   - 제목당 키는 단어 시작 MAX_WORD_STARTS개, 키 길이는 MAX_KEY_LENGTH자까지 (긴 입력은 잘라서 비교)
+ *
+ * Ranking (순서):
+ *   - 접두어 범위의 일치를 모두 보고 순위를 매김 → 제목 첫 단어부터 일치 > 짧은 제목 > 최신 글(작성 시각)
+ *     (키 순서로 앞쪽 일부만 자르면 뒤쪽의 더 나은 후보가 빠지므로, 상위 limit건만 힙으로 유지하며 끝까지 확인)
+ *   - 게시판마다 id가 따로 매겨지므로 최신 판단은 id가 아니라 작성 시각 기준 (같으면 id 큰 글)
+ *   - 같은 제목(정규화 기준)은 1건만
+ *
+ * Purpose (만든 이유):
+ *   - 검색 버튼을 누르기 전 입력 중에 제목 후보를 보여주어, 시도마다 전체 검색(LIKE + COUNT)을 하지 않도록
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Component
+public class TitleSuggestIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(TitleSuggestIndex.class);
+
+	private static final int MAX_WORD_STARTS = 8;
+	private static final int MAX_KEY_LENGTH = 48;
+	/** 키와 게시글 구분자 (정규화한 제목에는 나오지 않는 문자) */
+	private static final char KEY_SEPARATOR = '\u0000';
+
+	/** (게시판, 테이블, 제목 컬럼, 추가 조건) */
+	private static final List<String[]> SOURCES = List.of(
+		new String[]{UnifiedSearchService.BOARD_COUNSEL, "counsel_post", "title", " AND is_secret NOT IN ('Y', '1')"},
+		new String[]{UnifiedSearchService.BOARD_NOTICE, "community_post", "title", ""},
+		new String[]{UnifiedSearchService.BOARD_PHOTO, "photo_post", "title", ""},
+		new String[]{UnifiedSearchService.BOARD_FAQ, "faq_posts", "question", ""});
+
+	/** 제목 첫 단어부터 일치 > 짧은 제목 > 최신 글 > id 큰 글 (앞쪽이 높은 순위) */
+	private static final Comparator<Candidate> RANKING = Comparator.comparing((Candidate candidate) -> !candidate.atStart)
+		.thenComparingInt(candidate -> candidate.entry.normalized.length())
+		.thenComparing((Candidate candidate) -> candidate.entry.createdAt, Comparator.reverseOrder())
+		.thenComparing(candidate -> candidate.entry.id, Comparator.reverseOrder());
+
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean enabled;
+	private final int maxResults;
+
+	/** 접두어 키 + 구분자 + 게시글 참조 → 제목 */
+	private final ConcurrentSkipListMap<String, Entry> keys = new ConcurrentSkipListMap<>();
+	/** 게시글 참조(게시판:id) → 제목 (수정/삭제 시 이전 키 제거용) */
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	/** 구성 중 서비스가 먼저 반영한 게시글 (DB에서 읽은 이전 값으로 덮어쓰지 않음) */
+	private final Set<String> touched = ConcurrentHashMap.newKeySet();
+	private final Object writeLock = new Object();
+	private volatile boolean ready;
+
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "title-suggest-index");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public TitleSuggestIndex(JdbcTemplate jdbcTemplate,
+							 @Value("${petclinic.search.suggest.enabled:true}") boolean enabled,
+							 @Value("${petclinic.search.suggest.max-results:20}") int maxResults) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.enabled = enabled;
+		this.maxResults = Math.max(1, maxResults);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (enabled) {
+			worker.execute(this::loadAll);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		worker.shutdownNow();
+	}
+
+	public boolean isReady() {
+		return enabled && ready;
+	}
+
+	/**
+	 * 자동완성
+	 * @param query 입력 중인 검색어
+	 * @param limit 최대 건수 (max-results 이하)
+	 * @return 제목 후보 (준비 전이거나 입력이 비어있으면 빈 목록)
+	 */
+	public List<TitleSuggestion> suggest(String query, int limit) {
+		if (!isReady() || query == null) {
+			return List.of();
+		}
+		String prefix = normalize(query);
+		if (prefix.isEmpty()) {
+			return List.of();
+		}
+		if (prefix.length() > MAX_KEY_LENGTH) {
+			prefix = prefix.substring(0, MAX_KEY_LENGTH);
+		}
+
+		int max = Math.min(Math.max(1, limit), maxResults);
+		// 상위 max건 (가장 낮은 순위가 head), 같은 제목은 더 나은 후보 1건만
+		PriorityQueue<Candidate> top = new PriorityQueue<>(max + 1, RANKING.reversed());
+		Map<String, Candidate> byTitle = new HashMap<>();
+		for (Entry entry : keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+			Candidate candidate = new Candidate(entry, entry.normalized.startsWith(prefix));
+			Candidate same = byTitle.get(entry.normalized);
+			if (same != null) {
+				if (RANKING.compare(candidate, same) < 0) {
+					top.remove(same);
+					top.add(candidate);
+					byTitle.put(entry.normalized, candidate);
+				}
+				continue;
+			}
+			if (top.size() >= max) {
+				if (RANKING.compare(candidate, top.peek()) >= 0) {
+					continue;
+				}
+				byTitle.remove(top.poll().entry.normalized);
+			}
+			top.add(candidate);
+			byTitle.put(entry.normalized, candidate);
+		}
+
+		List<Candidate> ranked = new ArrayList<>(top);
+		ranked.sort(RANKING);
+		List<TitleSuggestion> result = new ArrayList<>(ranked.size());
+		for (Candidate candidate : ranked) {
+			Entry entry = candidate.entry;
+			result.add(new TitleSuggestion(entry.board, UnifiedSearchService.boardLabel(entry.board), entry.id,
+				entry.title, UnifiedSearchService.detailUrl(entry.board, entry.id)));
+		}
+		return result;
+	}
+
+	/**
+	 * 제목 반영 (커밋 후, 트랜잭션 밖이면 즉시)
+	 * @param board 게시판 (counsel, notice, photo, faq)
+	 * @param id 게시글 id
+	 * @param title 제목 (FAQ는 질문)
+	 * @param createdAt 작성 시각 (같은 순위일 때 최신 글 판단용, null이면 이미 색인된 값 → 없으면 현재 시각)
+	 */
+	public void putAfterCommit(String board, long id, String title, LocalDateTime createdAt) {
+		if (!enabled) {
+			return;
+		}
+		afterCommit(() -> put(board, id, title, createdAt, false));
+	}
+
+	/**
+	 * 제목 제거 (Soft Delete 등 / 커밋 후 반영)
+	 */
+	public void removeAfterCommit(String board, long id) {
+		if (!enabled) {
+			return;
+		}
+		afterCommit(() -> remove(board, id));
+	}
+
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	// ==================== 색인 변경 ====================
+
+	private void put(String board, long id, String title, LocalDateTime createdAt, boolean fromLoad) {
+		String ref = board + ":" + id;
+		synchronized (writeLock) {
+			if (fromLoad && touched.contains(ref)) {
+				return;
+			}
+			if (!fromLoad && !ready) {
+				touched.add(ref);
+			}
+			Entry old = entries.get(ref);
+			if (createdAt == null) {
+				createdAt = old != null ? old.createdAt : LocalDateTime.now();
+			}
+			removeLocked(ref);
+			String normalized = normalize(title);
+			if (normalized.isEmpty()) {
+				return;
+			}
+			List<String> entryKeys = new ArrayList<>();
+			int starts = 0;
+			for (int i = 0; i < normalized.length() && starts < MAX_WORD_STARTS; i++) {
+				if (i == 0 || normalized.charAt(i - 1) == ' ') {
+					String key = normalized.substring(i, Math.min(normalized.length(), i + MAX_KEY_LENGTH));
+					entryKeys.add(key + KEY_SEPARATOR + ref);
+					starts++;
+				}
+			}
+			Entry entry = new Entry(board, id, title, normalized, createdAt, entryKeys.toArray(new String[0]));
+			for (String key : entry.keys) {
+				keys.put(key, entry);
+			}
+			entries.put(ref, entry);
+		}
+	}
+
+	private void remove(String board, long id) {
+		String ref = board + ":" + id;
+		synchronized (writeLock) {
+			if (!ready) {
+				touched.add(ref);
+			}
+			removeLocked(ref);
+		}
+	}
+
+	private void removeLocked(String ref) {
+		Entry old = entries.remove(ref);
+		if (old != null) {
+			for (String key : old.keys) {
+				keys.remove(key);
+			}
+		}
+	}
+
+	// ==================== 기동 시 구성 ====================
+
+	private void loadAll() {
+		long startNanos = System.nanoTime();
+		try {
+			for (String[] source : SOURCES) {
+				if (Thread.currentThread().isInterrupted()) {
+					return;
+				}
+				String board = source[0];
+				jdbcTemplate.query("SELECT id, " + source[2] + ", created_at FROM " + source[1]
+						+ " WHERE del_flag NOT IN ('Y', '1')" + source[3],
+					rs -> {
+						Timestamp createdAt = rs.getTimestamp(3);
+						put(board, rs.getLong(1), rs.getString(2), createdAt != null ? createdAt.toLocalDateTime() : null, true);
+					});
+			}
+			synchronized (writeLock) {
+				ready = true;
+				touched.clear();
+			}
+			log.info("Title suggest index ready: titles={}, keys={}, took={}ms",
+				entries.size(), keys.size(), (System.nanoTime() - startNanos) / 1_000_000);
+		} catch (DataAccessException e) {
+			log.error("Title suggest index build failed (suggestions disabled)", e);
+		}
+	}
+
+	/**
+	 * NFKC + 소문자, 글자/숫자 외 문자는 공백 1개로, 앞뒤 공백 제거
+	 */
+	static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String lower = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+		StringBuilder sb = new StringBuilder(lower.length());
+		boolean space = true;
+		for (int i = 0; i < lower.length(); ) {
+			int codePoint = lower.codePointAt(i);
+			i += Character.charCount(codePoint);
+			if (Character.isLetterOrDigit(codePoint)) {
+				sb.appendCodePoint(codePoint);
+				space = false;
+			} else if (!space) {
+				sb.append(' ');
+				space = true;
+			}
+		}
+		int length = sb.length();
+		if (length > 0 && sb.charAt(length - 1) == ' ') {
+			sb.setLength(length - 1);
+		}
+		return sb.toString();
+	}
+
+	// ==================== 내부 구조 ====================
+
+	/**
+	 * 게시글 1건의 제목
+	 */
+	private static final class Entry {
+
+		private final String board;
+		private final long id;
+		private final String title;
+		private final String normalized;
+		private final LocalDateTime createdAt;
+		private final String[] keys;
+
+		private Entry(String board, long id, String title, String normalized, LocalDateTime createdAt, String[] keys) {
+			this.board = board;
+			this.id = id;
+			this.title = title;
+			this.normalized = normalized;
+			this.createdAt = createdAt;
+			this.keys = keys;
+		}
+	}
+
+	/**
+	 * 자동완성 후보 (정렬용)
+	 */
+	private static final class Candidate {
+
+		private final Entry entry;
+		private final boolean atStart;
+
+		private Candidate(Entry entry, boolean atStart) {
+			this.entry = entry;
+			this.atStart = atStart;
+		}
+	}
+}
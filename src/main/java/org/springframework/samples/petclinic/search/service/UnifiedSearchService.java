@@ -0,0 +1,351 @@
+package org.springframework.samples.petclinic.search.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.common.dto.PageResponse;
+import org.springframework.samples.petclinic.community.dto.CommunityPostDto;
+import org.springframework.samples.petclinic.community.service.CommunityService;
+import org.springframework.samples.petclinic.counsel.dto.CounselPostDto;
+import org.springframework.samples.petclinic.counsel.service.CounselService;
+import org.springframework.samples.petclinic.faq.service.FaqService;
+import org.springframework.samples.petclinic.faq.table.FaqPost;
+import org.springframework.samples.petclinic.photo.dto.PhotoPostDto;
+import org.springframework.samples.petclinic.photo.service.PhotoService;
+import org.springframework.samples.petclinic.search.dto.UnifiedSearchResult;
+import org.springframework.samples.petclinic.search.dto.UnifiedSearchResult.BoardFacet;
+import org.springframework.samples.petclinic.search.dto.UnifiedSearchResult.Hit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Project : spring-petclinic
+ * File    : UnifiedSearchService.java
+ * Created : 2026-03-23
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   통합 검색 (온라인상담, 공지사항, 고객포토, 자주묻는질문을 한 번에)
+ *   - 게시판별 검색을 전용 스레드 풀에서 동시에 실행, 요청 1건 전체에 제한 시간(deadline) 적용
+ *   - 제한 시간 안에 끝나지 않은 게시판은 취소(인터럽트)하고 TIMEOUT으로 표시, 나머지 결과만으로 응답
+ *   - 전체: 게시판별 상위 per-board-limit건을 관련도순 한 목록으로 합친 뒤 페이지 분할
+ *     (건수가 그보다 많은 게시판은 일부만 합쳐지므로 화면에 안내, 전체 결과는 게시판 탭에서)
+ *   - 게시판 필터: 그 게시판 검색에 요청한 페이지를 그대로 조회 (전체 일치 건수까지 페이지 이동 가능),
+ *     나머지 게시판은 건수만 필요하므로 1건 페이지로 조회
+ *   - 게시판별 전체 일치 건수(facet)는 각 게시판 검색의 totalElements
+ *
+ * Purpose (만든 이유):
+ *   - 게시판마다 검색 화면을 4번 여는 대신 검색 1번으로 전체 게시판 결과 확인
+ *   - 게시판을 순서대로 검색하면 응답 시간이 합이 되므로 동시에 실행해 가장 느린 게시판 시간으로
+ *
+ * Ranking (합치는 순서):
+ *   - 게시판 안 순서는 각 검색 결과 그대로 (검색 색인/FULLTEXT 관련도순, 그 외 최신순)
+ *   - 게시판 간 점수는 순위 기반 1 / (RANK_OFFSET + 순위) (게시판마다 점수 척도가 달라 점수 대신 순위로 합침)
+ *   - 제목에 검색어 단어가 모두 있으면 TITLE_BONUS 가산, 동점이면 최신 글 먼저
+ *
+ * Thread Pool (스레드 풀):
+ *   - 고정 threads개 + 대기열 queue-capacity개 (Java 17이라 가상 스레드 대신 한정된 풀)
+ *   - 대기열이 가득 차면 해당 게시판은 BUSY로 건너뜀 (요청 스레드에서 대신 실행하지 않음 → 제한 시간 유지)
+ *   - 게시판 검색은 각자 트랜잭션/커넥션 사용 → threads는 DB 커넥션 풀보다 작게
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@Service
+public class UnifiedSearchService {
+
+	private static final Logger log = LoggerFactory.getLogger(UnifiedSearchService.class);
+
+	public static final String BOARD_COUNSEL = "counsel";
+	public static final String BOARD_NOTICE = "notice";
+	public static final String BOARD_PHOTO = "photo";
+	public static final String BOARD_FAQ = "faq";
+
+	/** 게시판 → 화면 이름 (표시 순서) */
+	private static final Map<String, String> BOARD_LABELS = new LinkedHashMap<>();
+
+	static {
+		BOARD_LABELS.put(BOARD_COUNSEL, "온라인상담");
+		BOARD_LABELS.put(BOARD_NOTICE, "공지사항");
+		BOARD_LABELS.put(BOARD_PHOTO, "고객포토");
+		BOARD_LABELS.put(BOARD_FAQ, "자주묻는질문");
+	}
+
+	private static final double RANK_OFFSET = 60.0;
+	private static final double TITLE_BONUS = 1.0 / RANK_OFFSET;
+	/** 게시판 필터가 있을 때 다른 게시판은 건수(totalElements)만 필요 */
+	private static final Pageable COUNT_ONLY = PageRequest.of(0, 1);
+
+	private final CounselService counselService;
+	private final CommunityService communityService;
+	private final PhotoService photoService;
+	private final FaqService faqService;
+	private final Duration deadline;
+	private final int perBoardLimit;
+	private final ThreadPoolExecutor executor;
+
+	public UnifiedSearchService(CounselService counselService,
+								CommunityService communityService,
+								PhotoService photoService,
+								FaqService faqService,
+								@Value("${petclinic.search.unified.deadline:PT2S}") Duration deadline,
+								@Value("${petclinic.search.unified.per-board-limit:50}") int perBoardLimit,
+								@Value("${petclinic.search.unified.threads:8}") int threads,
+								@Value("${petclinic.search.unified.queue-capacity:64}") int queueCapacity) {
+		this.counselService = counselService;
+		this.communityService = communityService;
+		this.photoService = photoService;
+		this.faqService = faqService;
+		this.deadline = deadline;
+		this.perBoardLimit = Math.max(1, perBoardLimit);
+		AtomicInteger sequence = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+				Thread thread = new Thread(runnable, "unified-search-" + sequence.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	public static boolean isBoard(String board) {
+		return board != null && BOARD_LABELS.containsKey(board);
+	}
+
+	/**
+	 * 게시판 화면 이름 (온라인상담 등)
+	 */
+	public static String boardLabel(String board) {
+		return BOARD_LABELS.get(board);
+	}
+
+	/**
+	 * 게시글 상세 경로 (컨텍스트 경로 제외)
+	 */
+	public static String detailUrl(String board, Long id) {
+		switch (board) {
+			case BOARD_COUNSEL:
+				return "/counsel/detail/" + id;
+			case BOARD_NOTICE:
+				return "/community/detail/" + id + "?subject=notice";
+			case BOARD_PHOTO:
+				return "/photo/detail/" + id;
+			default:
+				return "/faq/detail/" + id;
+		}
+	}
+
+	/**
+	 * 통합 검색
+	 * @param keyword 검색어 (제목+본문)
+	 * @param board 게시판 필터 (null이면 전체, 필터와 관계없이 facet은 전체 게시판)
+	 * @param page 페이지 번호 (0부터)
+	 * @param size 페이지 크기
+	 */
+	public UnifiedSearchResult search(String keyword, String board, int page, int size) {
+		if (keyword == null || keyword.isBlank()) {
+			return UnifiedSearchResult.empty(keyword, size);
+		}
+		String query = keyword.trim();
+		long startNanos = System.nanoTime();
+		long deadlineNanos = startNanos + deadline.toNanos();
+
+		String boardFilter = isBoard(board) ? board : null;
+		Map<String, Future<BoardResult>> futures = new LinkedHashMap<>();
+		Pageable top = PageRequest.of(0, perBoardLimit);
+		for (String key : BOARD_LABELS.keySet()) {
+			Pageable pageable = boardFilter == null ? top
+				: key.equals(boardFilter) ? PageRequest.of(page, size) : COUNT_ONLY;
+			try {
+				futures.put(key, executor.submit(boardSearch(key, query, pageable)));
+			} catch (RejectedExecutionException e) {
+				futures.put(key, null);
+			}
+		}
+
+		List<Hit> merged = new ArrayList<>();
+		List<BoardFacet> facets = new ArrayList<>();
+		long filteredTotal = 0;
+		for (Map.Entry<String, Future<BoardResult>> entry : futures.entrySet()) {
+			String key = entry.getKey();
+			Future<BoardResult> future = entry.getValue();
+			BoardResult result = null;
+			String status;
+			if (future == null) {
+				status = BoardFacet.STATUS_BUSY;
+			} else {
+				try {
+					result = future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+					status = BoardFacet.STATUS_OK;
+				} catch (TimeoutException e) {
+					future.cancel(true);
+					status = BoardFacet.STATUS_TIMEOUT;
+				} catch (ExecutionException e) {
+					log.warn("Unified search failed: board={}, keyword={}", key, query, e.getCause());
+					status = BoardFacet.STATUS_ERROR;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					future.cancel(true);
+					status = BoardFacet.STATUS_TIMEOUT;
+				}
+			}
+			if (result != null && (boardFilter == null || key.equals(boardFilter))) {
+				merged.addAll(result.hits);
+				filteredTotal = result.total;
+			}
+			facets.add(new BoardFacet(key, BOARD_LABELS.get(key), result != null ? result.total : 0, status,
+				listUrl(key, query)));
+		}
+
+		List<Hit> pageHits;
+		long total;
+		if (boardFilter != null) {
+			// 게시판 검색이 이미 해당 페이지만 조회 (게시판 안 순서 그대로)
+			pageHits = merged;
+			total = filteredTotal;
+		} else {
+			merged.sort(Comparator.comparingDouble(Hit::getScore).reversed()
+				.thenComparing(Hit::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+			int from = (int) Math.min((long) page * size, merged.size());
+			pageHits = merged.subList(from, Math.min(from + size, merged.size()));
+			total = merged.size();
+		}
+
+		long tookMillis = (System.nanoTime() - startNanos) / 1_000_000;
+		UnifiedSearchResult response = new UnifiedSearchResult(query, boardFilter, pageHits, facets,
+			page, size, total, perBoardLimit, tookMillis);
+		if (response.isPartial()) {
+			log.warn("Unified search partial: keyword={}, took={}ms, facets={}", query, tookMillis,
+				facets.stream().map(facet -> facet.getBoard() + "=" + facet.getStatus()).toList());
+		}
+		return response;
+	}
+
+	// ==================== 게시판별 검색 ====================
+
+	private Callable<BoardResult> boardSearch(String board, String query, Pageable pageable) {
+		List<String> words = words(query);
+		switch (board) {
+			case BOARD_COUNSEL:
+				return () -> {
+					PageResponse<CounselPostDto> page = counselService.search("", query, pageable);
+					BoardResult result = new BoardResult(page.getTotalElements());
+					for (CounselPostDto post : page.getContent()) {
+						result.add(board, post.getId(), post.getTitle(), post.getAuthorName(), post.getCreatedAt(),
+							detailUrl(board, post.getId()), post.isSecret(), words);
+					}
+					return result;
+				};
+			case BOARD_NOTICE:
+				return () -> {
+					PageResponse<CommunityPostDto> page = communityService.search("", query, pageable);
+					BoardResult result = new BoardResult(page.getTotalElements());
+					for (CommunityPostDto post : page.getContent()) {
+						result.add(board, post.getId(), post.getTitle(), post.getAuthor(), post.getCreatedAt(),
+							detailUrl(board, post.getId()), false, words);
+					}
+					return result;
+				};
+			case BOARD_PHOTO:
+				return () -> {
+					PageResponse<PhotoPostDto> page = photoService.search("", query, pageable);
+					BoardResult result = new BoardResult(page.getTotalElements());
+					for (PhotoPostDto post : page.getContent()) {
+						result.add(board, post.getId(), post.getTitle(), post.getAuthor(), post.getCreatedAt(),
+							detailUrl(board, post.getId()), false, words);
+					}
+					return result;
+				};
+			default:
+				return () -> {
+					List<FaqPost> faqs = faqService.searchFaqs(query, null, "all");
+					BoardResult result = new BoardResult(faqs.size());
+					int from = (int) Math.min(pageable.getOffset(), faqs.size());
+					for (FaqPost faq : faqs.subList(from, Math.min(from + pageable.getPageSize(), faqs.size()))) {
+						result.add(board, faq.getId(), faq.getQuestion(), null, faq.getCreatedAt(),
+							detailUrl(board, faq.getId()), false, words);
+					}
+					return result;
+				};
+		}
+	}
+
+	private static String listUrl(String board, String query) {
+		String path;
+		switch (board) {
+			case BOARD_COUNSEL:
+				path = "/counsel/list";
+				break;
+			case BOARD_NOTICE:
+				path = "/community/list?subject=notice";
+				break;
+			case BOARD_FAQ:
+				path = "/faq";
+				break;
+			default:
+				// 고객포토 목록은 검색 조건을 받지 않음
+				return null;
+		}
+		return UriComponentsBuilder.fromUriString(path).queryParam("keyword", query).encode().build().toUriString();
+	}
+
+	private static List<String> words(String query) {
+		List<String> words = new ArrayList<>();
+		for (String word : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+			if (!word.isEmpty()) {
+				words.add(word);
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * 게시판 1개 검색 결과 (순위 점수 계산 포함)
+	 */
+	private static final class BoardResult {
+
+		private final long total;
+		private final List<Hit> hits = new ArrayList<>();
+
+		private BoardResult(long total) {
+			this.total = total;
+		}
+
+		private void add(String board, Long id, String title, String author, LocalDateTime createdAt, String url,
+						 boolean secret, List<String> words) {
+			double score = 1.0 / (RANK_OFFSET + hits.size() + 1);
+			if (title != null && !words.isEmpty()) {
+				String lowerTitle = title.toLowerCase(Locale.ROOT);
+				if (words.stream().allMatch(lowerTitle::contains)) {
+					score += TITLE_BONUS;
+				}
+			}
+			hits.add(new Hit(board, BOARD_LABELS.get(board), id, title, author, createdAt, url, secret, score));
+		}
+	}
+}
@@ -63,20 +63,25 @@ public class SecurityConfig {
 				.requestMatchers("/login", "/register", "/forgot-password", "/reset-password").permitAll()
 				// 커뮤니티 (공개)
 				.requestMatchers("/community/list", "/community/detail/**").permitAll()
-				.requestMatchers("/community/download/**").permitAll()
+				.requestMatchers("/community/download/**", "/community/download-all/**").permitAll()
 				// 온라인상담 (공개, 단 비공개 글은 비밀번호 검증)
 				.requestMatchers("/counsel/list", "/counsel/detail/**", "/counsel/write", "/counsel", "/counsel/upload-temp").permitAll()
-				.requestMatchers("/counsel/download/**").permitAll()
+				.requestMatchers("/counsel/download/**", "/counsel/download-all/**").permitAll()
 				// FAQ (공개)
 				.requestMatchers("/faq", "/faq/list", "/faq/detail/**").permitAll()
 				// 포토게시판 (공개)
 				.requestMatchers("/photo/list", "/photo/detail/**", "/animal/**").permitAll()
+				.requestMatchers("/photo/download/**", "/photo/download-all/**").permitAll()
+				// 통합 검색 (공개)
+				.requestMatchers("/search", "/search/suggest").permitAll()
 				// 관리자 전용
 				.requestMatchers("/admin/**").hasRole("ADMIN")
 				// 소개 (공개)
 				.requestMatchers("/introduce/**").permitAll()
 				// [✅ 추가] 에디터 파일 업로드 API 허용 (비로그인 사용자도 이미지 첨부 가능하도록)
 				.requestMatchers("/api/files/upload").permitAll()
+				// 이어받기(분할) 업로드 API: 로그인 사용자만 (세션마다 최대 크기만큼 디스크를 미리 할당, 사용자별 제한 적용)
+				.requestMatchers("/api/files/resumable", "/api/files/resumable/**").authenticated()
 				// 특화클리닉 (공개)
 				.requestMatchers("/specialization/**").permitAll()
 				// 최소침습수술 (공개)
@@ -2,6 +2,7 @@ package org.springframework.samples.petclinic.system.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.samples.petclinic.common.service.DownloadCounterService;
 import org.springframework.samples.petclinic.system.service.SystemConfigService;
 import org.springframework.samples.petclinic.system.table.SystemConfig;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +29,7 @@ import java.util.List;
  *     - 시스템 설정 조회 (멀티로그인, 파일 업로드 등)
  *     - 시스템 설정 수정 (관리자 전용)
  *     - 설정 변경 이력 로그 기록
+ *     - 다운로드 상위 첨부파일 조회 (DownloadCounterService 집계값)
  *
  * License :
  *   Copyright (c) 2025 AOF(AllForOne) / All rights reserved.
@@ -39,9 +41,12 @@ public class AdminSettingsController {
 
 	private static final Logger log = LoggerFactory.getLogger(AdminSettingsController.class);
 	private final SystemConfigService systemConfigService;
+	private final DownloadCounterService downloadCounterService;
 
-	public AdminSettingsController(SystemConfigService systemConfigService) {
+	public AdminSettingsController(SystemConfigService systemConfigService,
+								   DownloadCounterService downloadCounterService) {
 		this.systemConfigService = systemConfigService;
+		this.downloadCounterService = downloadCounterService;
 	}
 
 	/**
@@ -60,6 +65,8 @@ public class AdminSettingsController {
 		List<SystemConfig> configs = systemConfigService.getActiveConfigs();
 
 		model.addAttribute("configs", configs);
+		// 다운로드 상위 첨부파일 (조회 직전 메모리 누적분 반영)
+		model.addAttribute("topDownloads", downloadCounterService.getTopDownloads());
 		model.addAttribute("template", "admin/settings");
 		return "fragments/layout";
 	}
@@ -1,6 +1,9 @@
 package org.springframework.samples.petclinic.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.user.table.PasswordResetToken;
 import org.springframework.stereotype.Repository;
 
@@ -32,12 +35,21 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
 	List<PasswordResetToken> findByUser_Id(Long userId);
 
 	/**
-	 * 만료된 토큰 목록 조회 (스케줄러에서 삭제용)
+	 * 만료된 토큰 목록 조회
 	 * @param now 현재 시각
 	 * @return 만료된 토큰 목록
 	 */
 	List<PasswordResetToken> findByExpiresAtBefore(LocalDateTime now);
 
+	/**
+	 * 만료된 토큰 일괄 삭제 (엔티티 로딩 없이 DELETE 1회, 스케줄러에서 사용)
+	 * @param now 현재 시각
+	 * @return 삭제된 토큰 개수
+	 */
+	@Modifying
+	@Query("DELETE FROM PasswordResetToken t WHERE t.expiresAt < :now")
+	int deleteExpiredBefore(@Param("now") LocalDateTime now);
+
 	/**
 	 * 사용자의 미사용 토큰 삭제
 	 * @param userId 사용자 ID
@@ -156,21 +156,16 @@ public class PasswordResetService {
 	}
 
 	/**
-	 * 만료된 토큰 삭제 (스케줄러에서 호출)
-	 * - 만료 시각이 지난 토큰 조회
-	 * - 일괄 삭제
+	 * 만료된 토큰 삭제 (DataRetentionService에서 호출)
+	 * - 만료 시각이 지난 토큰을 조회 없이 DELETE 1회로 일괄 삭제
 	 *
 	 * @return 삭제된 토큰 개수
 	 */
 	public int deleteExpiredTokens() {
-		var expiredTokens = tokenRepository.findByExpiresAtBefore(LocalDateTime.now());
-		int count = expiredTokens.size();
-
+		int count = tokenRepository.deleteExpiredBefore(LocalDateTime.now());
 		if (count > 0) {
-			tokenRepository.deleteAll(expiredTokens);
 			log.info("Deleted {} expired password reset tokens", count);
 		}
-
 		return count;
 	}
 }
@@ -6,6 +6,12 @@
 SET FOREIGN_KEY_CHECKS = 0;
 
 -- 테이블 삭제 (역순)
+DROP TABLE IF EXISTS `counsel_post_archive`;
+DROP TABLE IF EXISTS `counsel_comment_archive`;
+DROP TABLE IF EXISTS `community_post_archive`;
+DROP TABLE IF EXISTS `photo_post_archive`;
+DROP TABLE IF EXISTS `attachment_content_ref`;
+DROP TABLE IF EXISTS `content_blob`;
 DROP TABLE IF EXISTS `counsel_comment_attachment`;
 DROP TABLE IF EXISTS `counsel_post_attachment`;
 DROP TABLE IF EXISTS `community_post_attachment`;
@@ -69,6 +69,7 @@ CREATE TABLE IF NOT EXISTS `attachment` (
   `stored_filename` varchar(255) NOT NULL,
   `content_type` varchar(100) DEFAULT NULL,
   `file_size` bigint NOT NULL,
+  `content_hash` varchar(64) DEFAULT NULL, -- SHA-256 (blob 공유/참조 수 계산용)
   `download_count` int NOT NULL,
   `del_flag` varchar(255) NOT NULL,
   `deleted_by` varchar(60) DEFAULT NULL,
@@ -77,7 +78,8 @@ CREATE TABLE IF NOT EXISTS `attachment` (
   PRIMARY KEY (`id`),
   UNIQUE KEY `UQ_attachment_store_alive` (`stored_filename`,`del_flag`),
   KEY `IDX_attachment_created` (`created_at` DESC),
-  KEY `IDX_attachment_del_flag` (`del_flag`)
+  KEY `IDX_attachment_del_flag` (`del_flag`),
+  KEY `IDX_attachment_content_hash` (`content_hash`)
   )
 
 -- 6. FAQ 게시판 (Faq Posts) - 독립 테이블
@@ -102,6 +104,7 @@ CREATE TABLE IF NOT EXISTS `community_post` (
                                               `author` varchar(100) NOT NULL,
   `title` varchar(255) NOT NULL,
   `content` text NOT NULL,
+  `search_text` mediumtext DEFAULT NULL,
   `view_count` int NOT NULL,
   `like_count` int NOT NULL,
   `attach_flag` varchar(255) NOT NULL,
@@ -112,6 +115,7 @@ CREATE TABLE IF NOT EXISTS `community_post` (
   `deleted_at` datetime(6) DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `IDX_community_author_id` (`author_id`),
+  FULLTEXT KEY `FT_community_post_search` (`title`,`search_text`) WITH PARSER ngram,
   CONSTRAINT `FK_community_author_id` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`)
   )
 
@@ -148,6 +152,7 @@ CREATE TABLE IF NOT EXISTS `counsel_post` (
   `title` varchar(255) NOT NULL,
   `content` mediumtext NOT NULL,
   `content_path` varchar(500) DEFAULT NULL,
+  `search_text` mediumtext DEFAULT NULL,
   `status` enum('COMPLETE','END','WAIT') NOT NULL,
   `is_secret` varchar(255) NOT NULL,
   `view_count` int NOT NULL,
@@ -160,6 +165,7 @@ CREATE TABLE IF NOT EXISTS `counsel_post` (
   `deleted_at` datetime(6) DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `IDX_counsel_author_id` (`author_id`),
+  FULLTEXT KEY `FT_counsel_post_search` (`title`,`search_text`) WITH PARSER ngram,
   CONSTRAINT `FK_counsel_author_id` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`)
   )
 
@@ -217,6 +223,7 @@ CREATE TABLE IF NOT EXISTS `photo_post` (
                                           `author` varchar(100) NOT NULL,
   `title` varchar(200) NOT NULL,
   `content` text,
+  `search_text` mediumtext DEFAULT NULL,
   `thumbnailUrl` varchar(500) DEFAULT NULL,
   `viewCount` int NOT NULL,
   `likeCount` int NOT NULL,
@@ -228,6 +235,7 @@ CREATE TABLE IF NOT EXISTS `photo_post` (
   PRIMARY KEY (`id`),
   KEY `IDX_photo_created` (`created_at` DESC),
   KEY `IDX_photo_author_id` (`author_id`),
+  FULLTEXT KEY `FT_photo_post_search` (`title`,`search_text`) WITH PARSER ngram,
   CONSTRAINT `FK_photo_author_id` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`)
   )
 
@@ -253,3 +261,127 @@ CREATE TABLE IF NOT EXISTS `photo_post_likes` (
   KEY `IDX_photo_likes_username` (`username`),
   CONSTRAINT `FK_photo_likes_post` FOREIGN KEY (`post_id`) REFERENCES `photo_post` (`id`)
   )
+
+-- 이미지 첨부 파생본 (썸네일: 너비 x 포맷별 1행)
+CREATE TABLE IF NOT EXISTS `attachment_variant` (
+                                                  `id` bigint NOT NULL AUTO_INCREMENT,
+                                                  `attachment_id` bigint NOT NULL,
+                                                  `width` int NOT NULL,
+  `height` int NOT NULL,
+  `format` varchar(10) NOT NULL,
+  `stored_path` varchar(255) NOT NULL,
+  `file_size` bigint NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UQ_attachment_variant` (`attachment_id`,`width`,`format`),
+  CONSTRAINT `FK_attachment_variant_file` FOREIGN KEY (`attachment_id`) REFERENCES `attachment` (`id`)
+  )
+
+-- 본문 HTML 파일 → 본문 이미지 참조 (인라인 base64 이미지 추출분 포함, 고아 청소 제외 대상)
+CREATE TABLE IF NOT EXISTS `attachment_content_ref` (
+                                                      `id` bigint NOT NULL AUTO_INCREMENT,
+                                                      `content_path` varchar(500) NOT NULL,
+  `attachment_id` bigint NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UQ_attachment_content_ref` (`content_path`,`attachment_id`),
+  KEY `IDX_attachment_content_ref_attachment` (`attachment_id`),
+  CONSTRAINT `FK_attachment_content_ref_file` FOREIGN KEY (`attachment_id`) REFERENCES `attachment` (`id`)
+  )
+
+-- 게시글 본문 BLOB 저장소 (petclinic.file.html-storage.backends 에 db 로 지정한 도메인, 키 "db:{domain}/{id}")
+CREATE TABLE IF NOT EXISTS `content_blob` (
+                                            `id` varchar(36) NOT NULL,
+                                            `domain` varchar(20) NOT NULL,
+  `data` longblob NOT NULL,
+  `size_bytes` bigint NOT NULL,
+  `sha256` varchar(64) NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDX_content_blob_domain` (`domain`)
+  )
+
+-- ==========================================
+-- 10. 보관 테이블 (Archive) - DataRetentionService가 Soft Delete 후 보존 기간이 지난 행을 이동
+--     원본과 같은 컬럼 + archived_at, FK 없음 (원본 테이블/인덱스를 작게 유지하기 위한 콜드 저장소)
+-- ==========================================
+CREATE TABLE IF NOT EXISTS `counsel_post_archive` (
+                                                    `id` bigint NOT NULL,
+                                                    `author_id` bigint DEFAULT NULL,
+                                                    `author_name` varchar(100) NOT NULL,
+  `author_email` varchar(120) DEFAULT NULL,
+  `password_hash` varchar(100) DEFAULT NULL,
+  `title` varchar(255) NOT NULL,
+  `content` mediumtext NOT NULL,
+  `content_path` varchar(500) DEFAULT NULL,
+  `status` varchar(20) NOT NULL,
+  `is_secret` varchar(255) NOT NULL,
+  `view_count` int NOT NULL,
+  `comment_count` int NOT NULL,
+  `attach_flag` varchar(255) NOT NULL,
+  `del_flag` varchar(255) NOT NULL,
+  `deleted_by` varchar(60) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  `deleted_at` datetime(6) DEFAULT NULL,
+  `archived_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDX_counsel_post_archive_archived` (`archived_at`)
+  )
+
+CREATE TABLE IF NOT EXISTS `counsel_comment_archive` (
+                                                       `id` bigint NOT NULL,
+                                                       `post_id` bigint NOT NULL,
+                                                       `parent_id` bigint DEFAULT NULL,
+                                                       `author_name` varchar(100) NOT NULL,
+  `author_email` varchar(120) DEFAULT NULL,
+  `password_hash` varchar(100) DEFAULT NULL,
+  `content` text NOT NULL,
+  `is_staff_reply` varchar(255) NOT NULL,
+  `del_flag` varchar(255) NOT NULL,
+  `deleted_by` varchar(60) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  `deleted_at` datetime(6) DEFAULT NULL,
+  `archived_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDX_counsel_comment_archive_post` (`post_id`)
+  )
+
+CREATE TABLE IF NOT EXISTS `community_post_archive` (
+                                                      `id` bigint NOT NULL,
+                                                      `author_id` bigint DEFAULT NULL,
+                                                      `author` varchar(100) NOT NULL,
+  `title` varchar(255) NOT NULL,
+  `content` text NOT NULL,
+  `view_count` int NOT NULL,
+  `like_count` int NOT NULL,
+  `attach_flag` varchar(255) NOT NULL,
+  `del_flag` varchar(255) NOT NULL,
+  `deleted_by` varchar(60) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  `deleted_at` datetime(6) DEFAULT NULL,
+  `archived_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDX_community_post_archive_archived` (`archived_at`)
+  )
+
+CREATE TABLE IF NOT EXISTS `photo_post_archive` (
+                                                  `id` bigint NOT NULL,
+                                                  `author_id` bigint DEFAULT NULL,
+                                                  `author` varchar(100) NOT NULL,
+  `title` varchar(200) NOT NULL,
+  `content` text,
+  `thumbnailUrl` varchar(500) DEFAULT NULL,
+  `viewCount` int NOT NULL,
+  `likeCount` int NOT NULL,
+  `del_flag` varchar(255) NOT NULL,
+  `deleted_by` varchar(60) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  `deleted_at` datetime(6) DEFAULT NULL,
+  `archived_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDX_photo_post_archive_archived` (`archived_at`)
+  )
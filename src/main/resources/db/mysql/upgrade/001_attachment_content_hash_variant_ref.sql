@@ -0,0 +1,58 @@
+/*
+ * PetClinic Schema Upgrade 001
+ * Database: MySQL 8.0+
+ *
+ * 기존 DB에 schema.sql 변경분 반영 (dev 프로필은 sql.init 비활성 + ddl-auto: validate → 직접 실행 필요)
+ *   - attachment.content_hash 컬럼 + IDX_attachment_content_hash
+ *   - attachment_variant (이미지 썸네일 파생본)
+ *   - attachment_content_ref (본문 HTML → 본문 이미지 참조)
+ *
+ * 여러 번 실행해도 안전 (컬럼/인덱스는 information_schema 확인 후 추가, 테이블은 IF NOT EXISTS)
+ *   $ mysql -u petclinic -p petclinic < db/mysql/upgrade/001_attachment_content_hash_variant_ref.sql
+ */
+
+-- 1. attachment.content_hash (SHA-256, blob 공유/참조 수 계산용)
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE `attachment` ADD COLUMN `content_hash` varchar(64) DEFAULT NULL AFTER `file_size`',
+  'DO 0')
+  FROM information_schema.COLUMNS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attachment' AND COLUMN_NAME = 'content_hash');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE `attachment` ADD KEY `IDX_attachment_content_hash` (`content_hash`)',
+  'DO 0')
+  FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attachment' AND INDEX_NAME = 'IDX_attachment_content_hash');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. 이미지 첨부 파생본 (썸네일: 너비 x 포맷별 1행)
+CREATE TABLE IF NOT EXISTS `attachment_variant` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `attachment_id` bigint NOT NULL,
+  `width` int NOT NULL,
+  `height` int NOT NULL,
+  `format` varchar(10) NOT NULL,
+  `stored_path` varchar(255) NOT NULL,
+  `file_size` bigint NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UQ_attachment_variant` (`attachment_id`,`width`,`format`),
+  CONSTRAINT `FK_attachment_variant_file` FOREIGN KEY (`attachment_id`) REFERENCES `attachment` (`id`)
+);
+
+-- 3. 본문 HTML 파일 → 본문 이미지 참조 (인라인 base64 이미지 추출분 포함, 고아 청소 제외 대상)
+CREATE TABLE IF NOT EXISTS `attachment_content_ref` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `content_path` varchar(500) NOT NULL,
+  `attachment_id` bigint NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UQ_attachment_content_ref` (`content_path`,`attachment_id`),
+  KEY `IDX_attachment_content_ref_attachment` (`attachment_id`),
+  CONSTRAINT `FK_attachment_content_ref_file` FOREIGN KEY (`attachment_id`) REFERENCES `attachment` (`id`)
+);
@@ -0,0 +1,22 @@
+/*
+ * PetClinic Schema Upgrade 002
+ * Database: MySQL 8.0+
+ *
+ * 기존 DB에 schema.sql 변경분 반영 (dev 프로필은 sql.init 비활성 + ddl-auto: validate → 직접 실행 필요)
+ *   - content_blob (게시글 본문 BLOB 저장소, petclinic.file.html-storage.backends 에 db 로 지정한 도메인)
+ *
+ * 여러 번 실행해도 안전 (CREATE TABLE IF NOT EXISTS)
+ *   $ mysql -u petclinic -p petclinic < db/mysql/upgrade/002_content_blob.sql
+ */
+
+-- 게시글 본문 BLOB 저장소 (키 "db:{domain}/{id}")
+CREATE TABLE IF NOT EXISTS `content_blob` (
+  `id` varchar(36) NOT NULL,
+  `domain` varchar(20) NOT NULL,
+  `data` longblob NOT NULL,
+  `size_bytes` bigint NOT NULL,
+  `sha256` varchar(64) NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `IDX_content_blob_domain` (`domain`)
+);
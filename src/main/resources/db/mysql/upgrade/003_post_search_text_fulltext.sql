@@ -0,0 +1,71 @@
+/*
+ * PetClinic Schema Upgrade 003
+ * Database: MySQL 8.0+ (ngram 파서 필요)
+ *
+ * 기존 DB에 schema.sql 변경분 반영 (dev 프로필은 sql.init 비활성 + ddl-auto: validate → 직접 실행 필요)
+ *   - counsel_post / community_post / photo_post.search_text 컬럼 (검색용 평문)
+ *   - FT_*_post_search (title, search_text) FULLTEXT 인덱스 WITH PARSER ngram
+ *
+ * 여러 번 실행해도 안전 (컬럼/인덱스는 information_schema 확인 후 추가)
+ * 실행 후 petclinic.search.fulltext.backfill-on-startup=true 로 한 번 기동 → 기존 글 search_text 채우기 (SearchTextBackfillService)
+ *   $ mysql -u petclinic -p petclinic < db/mysql/upgrade/003_post_search_text_fulltext.sql
+ *
+ * Note: FULLTEXT 인덱스 생성은 테이블 전체를 다시 읽음 → 글이 많으면 사용량 적은 시간에 실행
+ */
+
+-- 1. counsel_post
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE `counsel_post` ADD COLUMN `search_text` mediumtext DEFAULT NULL AFTER `content_path`',
+  'DO 0')
+  FROM information_schema.COLUMNS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'counsel_post' AND COLUMN_NAME = 'search_text');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'CREATE FULLTEXT INDEX `FT_counsel_post_search` ON `counsel_post` (`title`,`search_text`) WITH PARSER ngram',
+  'DO 0')
+  FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'counsel_post' AND INDEX_NAME = 'FT_counsel_post_search');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. community_post
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE `community_post` ADD COLUMN `search_text` mediumtext DEFAULT NULL AFTER `content`',
+  'DO 0')
+  FROM information_schema.COLUMNS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'community_post' AND COLUMN_NAME = 'search_text');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'CREATE FULLTEXT INDEX `FT_community_post_search` ON `community_post` (`title`,`search_text`) WITH PARSER ngram',
+  'DO 0')
+  FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'community_post' AND INDEX_NAME = 'FT_community_post_search');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 3. photo_post
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'ALTER TABLE `photo_post` ADD COLUMN `search_text` mediumtext DEFAULT NULL AFTER `content`',
+  'DO 0')
+  FROM information_schema.COLUMNS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'photo_post' AND COLUMN_NAME = 'search_text');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+  'CREATE FULLTEXT INDEX `FT_photo_post_search` ON `photo_post` (`title`,`search_text`) WITH PARSER ngram',
+  'DO 0')
+  FROM information_schema.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'photo_post' AND INDEX_NAME = 'FT_photo_post_search');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,137 @@
+package org.springframework.samples.petclinic.common.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Project : spring-petclinic
+ * File    : WebMvcConfigTests.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   /images/** 리소스 매핑 테스트 (base-dir 중 {domain}/uploads, {domain}/variants만 공개)
+ *   - 같은 base-dir에 있는 내부 파일(세그먼트 본문, 검색 색인 스냅샷, 본문 이동 체크포인트, 격리 폴더)은 파일이 있어도 404
+ *   - /js 등 정적 자원: 내용 해시 URL만 immutable, 해시 없는 URL은 no-cache, 해시 불일치는 404
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@SpringJUnitWebConfig(WebMvcConfigTests.Config.class)
+class WebMvcConfigTests {
+
+	@TempDir
+	static Path baseDir;
+
+	@DynamicPropertySource
+	static void baseDirProperty(DynamicPropertyRegistry registry) {
+		registry.add("petclinic.file.base-dir", () -> baseDir.toString());
+	}
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private ResourceUrlProvider resourceUrlProvider;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		write("counsel/uploads/2026/03/a.jpg", "upload");
+		write("photo/variants/2026/03/b_w480.jpg", "variant");
+		write("counsel/segments/seg-000001.dat", "secret body");
+		write("search-index/counsel.idx", "postings");
+		write("migrations/counsel_post.file-segment.checkpoint", "42");
+		write("quarantine/20261017-030000/counsel/uploads/2026/03/c.jpg", "quarantined");
+	}
+
+	@Test
+	void uploadAndVariantFilesAreServed() throws Exception {
+		mockMvc.perform(get("/images/counsel/uploads/2026/03/a.jpg"))
+			.andExpect(status().isOk())
+			.andExpect(content().string("upload"));
+		mockMvc.perform(get("/images/photo/variants/2026/03/b_w480.jpg"))
+			.andExpect(status().isOk())
+			.andExpect(content().string("variant"));
+	}
+
+	@Test
+	void segmentFileIsNotServed() throws Exception {
+		mockMvc.perform(get("/images/counsel/segments/seg-000001.dat"))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void internalStateIsNotServed() throws Exception {
+		mockMvc.perform(get("/images/search-index/counsel.idx"))
+			.andExpect(status().isNotFound());
+		mockMvc.perform(get("/images/migrations/counsel_post.file-segment.checkpoint"))
+			.andExpect(status().isNotFound());
+		mockMvc.perform(get("/images/quarantine/20261017-030000/counsel/uploads/2026/03/c.jpg"))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void hashedAssetUrlIsImmutable() throws Exception {
+		String hashedUrl = resourceUrlProvider.getForLookupPath("/js/toast-util.js");
+		assertThat(hashedUrl).matches("/js/toast-util-[0-9a-f]{32}\\.js");
+
+		mockMvc.perform(get(hashedUrl))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Cache-Control", containsString("immutable")))
+			.andExpect(header().string("Cache-Control", containsString("max-age=31536000")));
+	}
+
+	@Test
+	void unhashedAssetUrlIsRevalidated() throws Exception {
+		mockMvc.perform(get("/js/toast-util.js"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Cache-Control", containsString("no-cache")))
+			.andExpect(header().string("Cache-Control", not(containsString("immutable"))));
+	}
+
+	@Test
+	void staleHashIsNotServed() throws Exception {
+		mockMvc.perform(get("/js/toast-util-00000000000000000000000000000000.js"))
+			.andExpect(status().isNotFound());
+	}
+
+	private static void write(String relativePath, String text) throws IOException {
+		Path path = baseDir.resolve(relativePath);
+		Files.createDirectories(path.getParent());
+		Files.writeString(path, text, StandardCharsets.UTF_8);
+	}
+
+	@Configuration
+	@EnableWebMvc
+	@Import(WebMvcConfig.class)
+	static class Config {
+	}
+}
@@ -0,0 +1,97 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Project : spring-petclinic
+ * File    : InvertedIndexTests.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   InvertedIndex 한글 검색 테스트 (SearchTokenizer로 색인, SearchQuery로 검색)
+ *   - 조사가 붙은 형태도 2-gram/3-gram으로 일치, 모든 단어를 포함한 글만 결과
+ *   - 제목 일치 가중, 상위 limit건 + 전체 일치 수
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+class InvertedIndexTests {
+
+	private static final double TITLE_BOOST = 3.0;
+
+	private InvertedIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new InvertedIndex();
+		put(1, "진료 예약 문의", "슬개골이 빠진 것 같아요");
+		put(2, "슬개골 탈구 수술 후기", "우리 강아지 수술 잘 끝났습니다");
+		put(3, "예방접종 일정", "고양이 접종은 언제 하나요");
+		put(4, "산책 중 절뚝거림", "슬개골탈구 의심된다고 하네요");
+		put(5, "개 사료 추천", "알러지 있는 강아지 사료");
+	}
+
+	@Test
+	void trigramQueryMatchesWordsWithParticles() {
+		assertThat(search("슬개골", PostSearchIndex.Field.ALL, 10).getIds()).containsExactlyInAnyOrder(1L, 2L, 4L);
+	}
+
+	@Test
+	void bigramQueryMatches() {
+		assertThat(search("탈구", PostSearchIndex.Field.ALL, 10).getIds()).containsExactlyInAnyOrder(2L, 4L);
+		assertThat(search("접종", PostSearchIndex.Field.ALL, 10).getIds()).containsExactly(3L);
+	}
+
+	@Test
+	void allQueryTrigramsMustBePresent() {
+		// "슬개골 탈구"(2번)는 띄어 써서 "개골탈" 3-gram이 없음 → 붙여 쓴 4번만
+		assertThat(search("슬개골탈구", PostSearchIndex.Field.ALL, 10).getIds()).containsExactly(4L);
+		assertThat(search("강아지 수술", PostSearchIndex.Field.ALL, 10).getIds()).containsExactly(2L);
+	}
+
+	@Test
+	void titleMatchRanksFirstAndFieldRestrictsMatches() {
+		assertThat(search("슬개골", PostSearchIndex.Field.ALL, 10).getIds().get(0)).isEqualTo(2L);
+		assertThat(search("슬개골", PostSearchIndex.Field.TITLE, 10).getIds()).containsExactly(2L);
+		assertThat(search("슬개골", PostSearchIndex.Field.BODY, 10).getIds()).containsExactlyInAnyOrder(1L, 4L);
+	}
+
+	@Test
+	void singleSyllableIsNotInIndex() {
+		// "개 사료 추천"의 "개"는 색인 단어가 아님 → 한글 1글자 검색어는 색인으로 답할 수 없음 (SearchQuery.isIndexable=false)
+		assertThat(index.search(List.of("개"), PostSearchIndex.Field.ALL, TITLE_BOOST, 10).getIds()).isEmpty();
+		assertThat(SearchQuery.parse("개").isIndexable()).isFalse();
+	}
+
+	@Test
+	void limitKeepsTopHitsAndCountsAllMatches() {
+		PostSearchIndex.Hits hits = search("슬개골", PostSearchIndex.Field.ALL, 1);
+
+		assertThat(hits.getIds()).containsExactly(2L);
+		assertThat(hits.getTotalMatches()).isEqualTo(3);
+		assertThat(hits.getRemaining()).isEqualTo(2);
+	}
+
+	@Test
+	void updateAndRemoveReplacePostings() {
+		put(4, "산책 중 절뚝거림", "다리 근육 문제였어요");
+		index.remove(1, null);
+
+		assertThat(search("슬개골", PostSearchIndex.Field.ALL, 10).getIds()).containsExactly(2L);
+		assertThat(search("근육", PostSearchIndex.Field.ALL, 10).getIds()).containsExactly(4L);
+	}
+
+	private void put(long id, String title, String body) {
+		index.put(id, SearchTokenizer.termFrequencies(title), SearchTokenizer.termFrequencies(body), null);
+	}
+
+	private PostSearchIndex.Hits search(String query, PostSearchIndex.Field field, int limit) {
+		return index.search(SearchQuery.parse(query).getTerms(), field, TITLE_BOOST, limit);
+	}
+}
@@ -0,0 +1,67 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Project : spring-petclinic
+ * File    : SearchQueryTests.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   SearchQuery 검색어 → 색인 단어 변환 테스트
+ *   - 한글 2글자: 2-gram 1개, 3글자 이상: 3-gram 전부
+ *   - 한글 1글자 등 색인에 없는 단어 → isIndexable=false (PostSearchIndex.search null → LIKE 검색)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+class SearchQueryTests {
+
+	@Test
+	void twoSyllableWordIsSingleBigram() {
+		SearchQuery query = SearchQuery.parse("탈구");
+
+		assertThat(query.isIndexable()).isTrue();
+		assertThat(query.getTerms()).containsExactly("탈구");
+	}
+
+	@Test
+	void longerWordUsesAllTrigrams() {
+		SearchQuery query = SearchQuery.parse("슬개골탈구");
+
+		assertThat(query.isIndexable()).isTrue();
+		assertThat(query.getTerms()).containsExactly("슬개골", "개골탈", "골탈구");
+	}
+
+	@Test
+	void wordsAreCombinedAndDeduplicated() {
+		SearchQuery query = SearchQuery.parse("  강아지   강아지 MRI ");
+
+		assertThat(query.isIndexable()).isTrue();
+		assertThat(query.getTerms()).containsExactly("강아지", "mri");
+	}
+
+	@Test
+	void singleSyllableQueryFallsBackToLike() {
+		assertThat(SearchQuery.parse("개").isIndexable()).isFalse();
+	}
+
+	@Test
+	void singleSyllableWordAnywhereFallsBackToLike() {
+		SearchQuery query = SearchQuery.parse("강아지 개");
+
+		assertThat(query.isIndexable()).isFalse();
+		assertThat(query.getTerms()).containsExactly("강아지");
+	}
+
+	@Test
+	void queryWithoutTermsIsNotIndexable() {
+		assertThat(SearchQuery.parse(null).isIndexable()).isFalse();
+		assertThat(SearchQuery.parse("   ").isIndexable()).isFalse();
+		assertThat(SearchQuery.parse("?!").isIndexable()).isFalse();
+		assertThat(SearchQuery.parse("a".repeat(SearchTokenizer.MAX_WORD_LENGTH + 1)).isIndexable()).isFalse();
+	}
+}
@@ -0,0 +1,71 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Project : spring-petclinic
+ * File    : SearchTokenizerTests.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   SearchTokenizer 색인 단어 분리 테스트 (한글 2-gram/3-gram, 영문/숫자 단어)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+class SearchTokenizerTests {
+
+	@Test
+	void hangulRunIsSplitIntoBigramsAndTrigrams() {
+		Map<String, Integer> terms = SearchTokenizer.termFrequencies("슬개골탈구");
+
+		assertThat(terms.keySet()).containsExactly("슬개", "슬개골", "개골", "개골탈", "골탈", "골탈구", "탈구");
+	}
+
+	@Test
+	void particleAttachedWordStillContainsStemTrigram() {
+		assertThat(SearchTokenizer.termFrequencies("슬개골이")).containsKey("슬개골");
+		assertThat(SearchTokenizer.termFrequencies("슬개골을")).containsKey("슬개골");
+	}
+
+	@Test
+	void repeatedGramsAreCounted() {
+		Map<String, Integer> terms = SearchTokenizer.termFrequencies("강아지 강아지 강아지");
+
+		assertThat(terms).containsEntry("강아지", 3).containsEntry("강아", 3).containsEntry("아지", 3);
+	}
+
+	@Test
+	void singleSyllableIsNotIndexed() {
+		Map<String, Integer> terms = SearchTokenizer.termFrequencies("개 고양이");
+
+		assertThat(terms).doesNotContainKey("개");
+		assertThat(terms.keySet()).containsExactly("고양", "고양이", "양이");
+	}
+
+	@Test
+	void latinAndDigitsAreLowercasedWords() {
+		Map<String, Integer> terms = SearchTokenizer.termFrequencies("Patella 수술, MRI 2회!");
+
+		assertThat(terms.keySet()).containsExactly("patella", "수술", "mri", "2");
+	}
+
+	@Test
+	void overlongLatinWordIsSkipped() {
+		String token = "a".repeat(SearchTokenizer.MAX_WORD_LENGTH + 1);
+
+		assertThat(SearchTokenizer.termFrequencies(token + " 진료")).containsOnlyKeys("진료");
+	}
+
+	@Test
+	void emptyTextHasNoTerms() {
+		assertThat(SearchTokenizer.termFrequencies(null)).isEmpty();
+		assertThat(SearchTokenizer.termFrequencies("")).isEmpty();
+		assertThat(SearchTokenizer.termFrequencies("!!! ...")).isEmpty();
+	}
+}
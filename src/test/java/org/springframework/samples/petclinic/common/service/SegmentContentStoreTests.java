@@ -0,0 +1,172 @@
+package org.springframework.samples.petclinic.common.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Project : spring-petclinic
+ * File    : SegmentContentStoreTests.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   SegmentContentStore 압축(compaction) 후 재구성 테스트
+ *   - 본문 40B(레코드 69B), 세그먼트 256B → 세그먼트당 PUT 3건
+ *   - 압축 중 삭제: 섞은 순서로 동시에 삭제 (옮기는 사이 삭제된 레코드의 복사본이 재구성 시 되살아나지 않는지)
+ *   - 재구성 = 같은 디렉토리로 새 인스턴스를 열어 세그먼트 헤더를 다시 읽음 (재기동과 같음)
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+class SegmentContentStoreTests {
+
+	private static final String DOMAIN = "counsel";
+	private static final DataSize SMALL_SEGMENT = DataSize.ofBytes(256);
+	/** 레코드 59건 → 봉인 세그먼트 1개를 옮기는 동안 삭제가 끼어들 여지가 큼 */
+	private static final DataSize RACE_SEGMENT = DataSize.ofBytes(4096);
+
+	@TempDir
+	Path baseDir;
+
+	private final List<SegmentContentStore> opened = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		opened.forEach(SegmentContentStore::shutdown);
+	}
+
+	@Test
+	void compactionKeepsDeleteOfOlderSegmentAcrossRebuild() throws Exception {
+		SegmentContentStore store = open(SMALL_SEGMENT, 0.5);
+		String a1 = store.put(DOMAIN, payload("a1"));
+		String a2 = store.put(DOMAIN, payload("a2"));
+		String a3 = store.put(DOMAIN, payload("a3"));        // seg-000001: a1, a2, a3
+		String b1 = store.put(DOMAIN, payload("b1"));
+		String b2 = store.put(DOMAIN, payload("b2"));
+		String b3 = store.put(DOMAIN, payload("b3"));        // seg-000002: b1, b2, b3
+		store.delete(a1, DOMAIN);                            // seg-000002: DELETE a1 (PUT은 seg-000001)
+		store.delete(b1, DOMAIN);                            // seg-000003부터: DELETE b1, b2
+		store.delete(b2, DOMAIN);
+		String c1 = store.put(DOMAIN, payload("c1"));
+
+		// seg-000001은 garbage 1/3 → 유지, seg-000002는 b3만 유효 → 압축 (b3 이동, DELETE a1 유지)
+		SegmentContentStore.CompactionReport report = store.compactAll();
+
+		assertThat(report.getSegmentsCompacted()).isEqualTo(1);
+		assertThat(report.getRecordsMoved()).isEqualTo(1);
+		assertThat(segmentFile(1)).exists();
+		assertThat(segmentFile(2)).doesNotExist();
+		assertLive(store, a2, "a2", a3, "a3", b3, "b3", c1, "c1");
+		assertDeleted(store, a1, b1, b2);
+
+		store.shutdown();
+		SegmentContentStore rebuilt = open(SMALL_SEGMENT, 0.5);
+
+		assertLive(rebuilt, a2, "a2", a3, "a3", b3, "b3", c1, "c1");
+		assertDeleted(rebuilt, a1, b1, b2);
+	}
+
+	@Test
+	void deletesDuringRelocationStayDeletedAfterRebuild() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			String domain = "photo" + round;
+			SegmentContentStore store = open(RACE_SEGMENT, 0.0); // 봉인 세그먼트 전부 압축 대상
+			List<String> kept = new ArrayList<>();
+			List<String> deleted = new ArrayList<>();
+			for (int i = 0; i < 120; i++) {
+				String key = store.put(domain, payload(domain + "-" + i));
+				(i % 3 == 0 ? kept : deleted).add(key);
+			}
+			List<String> deleteOrder = new ArrayList<>(deleted);
+			Collections.shuffle(deleteOrder, new Random(round));
+
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			CountDownLatch start = new CountDownLatch(1);
+			try {
+				Future<?> compaction = executor.submit(() -> {
+					start.await();
+					return store.compactAll();
+				});
+				Future<?> deletes = executor.submit(() -> {
+					start.await();
+					deleteOrder.forEach(key -> store.delete(key, domain));
+					return null;
+				});
+				start.countDown();
+				compaction.get(30, TimeUnit.SECONDS);
+				deletes.get(30, TimeUnit.SECONDS);
+			} finally {
+				executor.shutdownNow();
+			}
+
+			assertDeleted(store, domain, deleted);
+			assertKept(store, domain, kept);
+
+			// 재구성 → 한 번 더 압축(옮겨진 DELETE 기준) → 재구성
+			store.shutdown();
+			SegmentContentStore rebuilt = open(RACE_SEGMENT, 0.0);
+			assertDeleted(rebuilt, domain, deleted);
+			assertKept(rebuilt, domain, kept);
+
+			rebuilt.compactAll();
+			rebuilt.shutdown();
+			SegmentContentStore again = open(RACE_SEGMENT, 0.0);
+			assertDeleted(again, domain, deleted);
+			assertKept(again, domain, kept);
+		}
+	}
+
+	private SegmentContentStore open(DataSize segmentSize, double minGarbage) {
+		SegmentContentStore store = new SegmentContentStore(baseDir.toString(), segmentSize, minGarbage);
+		opened.add(store);
+		return store;
+	}
+
+	private Path segmentFile(int segment) {
+		return baseDir.resolve(DOMAIN).resolve(SegmentContentStore.SEGMENT_DIR)
+			.resolve(String.format("seg-%06d.dat", segment));
+	}
+
+	/** 40바이트 본문 (이름 + 공백 채움) */
+	private static byte[] payload(String name) {
+		return String.format("%-40s", name).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void assertLive(SegmentContentStore store, String... keyAndName) throws Exception {
+		for (int i = 0; i < keyAndName.length; i += 2) {
+			assertThat(store.get(keyAndName[i], DOMAIN)).isEqualTo(payload(keyAndName[i + 1]));
+		}
+	}
+
+	private static void assertDeleted(SegmentContentStore store, String... keys) throws Exception {
+		assertDeleted(store, DOMAIN, List.of(keys));
+	}
+
+	private static void assertDeleted(SegmentContentStore store, String domain, List<String> keys) throws Exception {
+		for (String key : keys) {
+			assertThat(store.get(key, domain)).as(key).isNull();
+		}
+	}
+
+	private static void assertKept(SegmentContentStore store, String domain, List<String> keys) throws Exception {
+		for (int i = 0; i < keys.size(); i++) {
+			assertThat(store.get(keys.get(i), domain)).as(keys.get(i)).isEqualTo(payload(domain + "-" + (i * 3)));
+		}
+	}
+}
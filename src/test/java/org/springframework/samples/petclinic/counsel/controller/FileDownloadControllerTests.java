@@ -0,0 +1,150 @@
+package org.springframework.samples.petclinic.counsel.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.samples.petclinic.common.dto.AttachmentOwner;
+import org.springframework.samples.petclinic.common.repository.AttachmentRepository;
+import org.springframework.samples.petclinic.common.service.AttachmentOwnershipResolver;
+import org.springframework.samples.petclinic.common.service.DownloadCounterService;
+import org.springframework.samples.petclinic.common.table.Attachment;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Project : spring-petclinic
+ * File    : FileDownloadControllerTests.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   FileDownloadController 조건부 요청 테스트 (공개 포토 게시글 첨부, 저장소/소유 조회 mock)
+ *   - 사전 조건(If-Match / If-Unmodified-Since) 불일치 → 412 (304 아님)
+ *   - 캐시 검증(If-None-Match) 일치 → 304
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@ExtendWith(MockitoExtension.class)
+class FileDownloadControllerTests {
+
+	private static final Long FILE_ID = 1L;
+
+	private static final Instant LAST_MODIFIED = Instant.parse("2026-10-01T00:00:00Z");
+
+	@TempDir
+	Path baseDir;
+
+	@Mock
+	private AttachmentRepository attachmentRepository;
+
+	@Mock
+	private AttachmentOwnershipResolver attachmentOwnershipResolver;
+
+	@Mock
+	private DownloadCounterService downloadCounterService;
+
+	private FileDownloadController controller;
+
+	private MockHttpSession session;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Path file = baseDir.resolve("photo/uploads/2026/10/a.txt");
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, "attachment body", StandardCharsets.UTF_8);
+		Files.setLastModifiedTime(file, FileTime.from(LAST_MODIFIED));
+
+		Attachment attachment = new Attachment();
+		attachment.setStoredFilename("photo/uploads/2026/10/a.txt");
+		attachment.setOriginalFilename("a.txt");
+		attachment.setContentType("text/plain");
+		given(attachmentRepository.findById(FILE_ID)).willReturn(Optional.of(attachment));
+		given(attachmentOwnershipResolver.resolve(FILE_ID))
+			.willReturn(Optional.of(new AttachmentOwner(AttachmentOwner.DOMAIN_PHOTO, 5L, false)));
+
+		controller = new FileDownloadController(baseDir.toString(), attachmentRepository,
+			attachmentOwnershipResolver, downloadCounterService);
+		session = new MockHttpSession();
+	}
+
+	@Test
+	void ifMatchMismatchIsPreconditionFailed() throws Exception {
+		ResponseEntity<?> response = download(HttpHeaders.IF_MATCH, "\"stale-etag\"");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+	}
+
+	@Test
+	void ifMatchCurrentEtagDownloadsFile() throws Exception {
+		String etag = download(null, null).getHeaders().getETag();
+
+		ResponseEntity<?> response = download(HttpHeaders.IF_MATCH, etag);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void weakIfMatchIsPreconditionFailed() throws Exception {
+		String etag = download(null, null).getHeaders().getETag();
+
+		ResponseEntity<?> response = download(HttpHeaders.IF_MATCH, "W/" + etag);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+	}
+
+	@Test
+	void ifUnmodifiedSinceBeforeModificationIsPreconditionFailed() throws Exception {
+		ResponseEntity<?> response = download(HttpHeaders.IF_UNMODIFIED_SINCE, httpDate(LAST_MODIFIED.minus(1, ChronoUnit.DAYS)));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+	}
+
+	@Test
+	void ifUnmodifiedSinceAtModificationDownloadsFile() throws Exception {
+		ResponseEntity<?> response = download(HttpHeaders.IF_UNMODIFIED_SINCE, httpDate(LAST_MODIFIED));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void ifNoneMatchCurrentEtagIsNotModified() throws Exception {
+		String etag = download(null, null).getHeaders().getETag();
+
+		ResponseEntity<?> response = download(HttpHeaders.IF_NONE_MATCH, etag);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	private ResponseEntity<?> download(String headerName, String headerValue) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/photo/download/" + FILE_ID);
+		request.setSession(session);
+		if (headerName != null) {
+			request.addHeader(headerName, headerValue);
+		}
+		return controller.downloadFile(FILE_ID, session, null, AttachmentOwner.DOMAIN_PHOTO, request);
+	}
+
+	private static String httpDate(Instant instant) {
+		return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atZone(ZoneOffset.UTC));
+	}
+}
@@ -0,0 +1,160 @@
+package org.springframework.samples.petclinic.search.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.samples.petclinic.search.dto.TitleSuggestion;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Project : spring-petclinic
+ * File    : TitleSuggestIndexTests.java
+ * Created : 2026-10-17
+ * Author  : Jeongmin Lee
+ *
+ * Description :
+ *   TitleSuggestIndex 자동완성 테스트 (JdbcTemplate mock, 기동 시 구성 → suggest)
+ *   - 비공개 상담글 제목은 후보에 나오지 않음
+ *   - mock은 SELECT의 is_secret 조건이 있을 때만 비공개 행을 거름 (DB가 WHERE를 적용하는 것과 같게)
+ *   - 순위: 키 순서로 뒤쪽에 있는 더 나은 후보도 포함, 동점은 게시판별 id가 아니라 작성 시각으로
+ *
+ * License :
+ *   Copyright (c) 2026 AOF(AllForOne) / All rights reserved.
+ */
+@ExtendWith(MockitoExtension.class)
+class TitleSuggestIndexTests {
+
+	private static final String SECRET_FILTER = "is_secret NOT IN ('Y', '1')";
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+	/** (id, 제목, 비공개 여부) */
+	private static final Object[][] COUNSEL_ROWS = {
+		{1L, "강아지 슬개골 수술 문의", false},
+		{2L, "강아지 슬개골 비밀 상담", true},
+		{3L, "고양이 구토", false},
+	};
+
+	private static final Object[][] NOTICE_ROWS = {
+		{10L, "슬개골 검진 이벤트 안내", false},
+	};
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	private TitleSuggestIndex index;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		willAnswer(invocation -> {
+			String sql = invocation.getArgument(0);
+			RowCallbackHandler handler = invocation.getArgument(1);
+			Object[][] rows = sql.contains("FROM counsel_post") ? COUNSEL_ROWS
+				: sql.contains("FROM community_post") ? NOTICE_ROWS : new Object[0][];
+			for (Object[] row : rows) {
+				if ((Boolean) row[2] && sql.contains(SECRET_FILTER)) {
+					continue;
+				}
+				ResultSet rs = mock(ResultSet.class);
+				given(rs.getLong(1)).willReturn((Long) row[0]);
+				given(rs.getString(2)).willReturn((String) row[1]);
+				given(rs.getTimestamp(3)).willReturn(Timestamp.valueOf(CREATED_AT));
+				handler.processRow(rs);
+			}
+			return null;
+		}).given(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+		index = new TitleSuggestIndex(jdbcTemplate, true, 20);
+		index.onApplicationReady();
+		for (int i = 0; i < 500 && !index.isReady(); i++) {
+			Thread.sleep(10);
+		}
+		assertThat(index.isReady()).isTrue();
+	}
+
+	@Test
+	void secretCounselTitleIsNotSuggested() {
+		List<TitleSuggestion> suggestions = index.suggest("강아지", 10);
+
+		assertThat(suggestions).extracting(TitleSuggestion::getId).containsExactly(1L);
+	}
+
+	@Test
+	void secretCounselTitleIsNotSuggestedFromMiddleWord() {
+		List<TitleSuggestion> suggestions = index.suggest("슬개골", 10);
+
+		assertThat(suggestions).extracting(TitleSuggestion::getId).containsExactlyInAnyOrder(1L, 10L);
+		assertThat(suggestions).extracting(TitleSuggestion::getTitle).doesNotContain("강아지 슬개골 비밀 상담");
+	}
+
+	@Test
+	void wordStartMatchRanksBeforeMiddleWordMatch() {
+		List<TitleSuggestion> suggestions = index.suggest("슬개골", 10);
+
+		assertThat(suggestions.get(0).getId()).isEqualTo(10L);
+		assertThat(suggestions.get(0).getUrl()).isEqualTo(UnifiedSearchService.detailUrl("notice", 10L));
+	}
+
+	@Test
+	void removedTitleIsNoLongerSuggested() {
+		index.removeAfterCommit("counsel", 1L);
+
+		assertThat(index.suggest("강아지", 10)).isEmpty();
+	}
+
+	@Test
+	void putOutsideTransactionIsSuggestedImmediately() {
+		index.putAfterCommit("photo", 20L, "강아지 산책 사진", null);
+
+		assertThat(index.suggest("강아지 산", 10)).extracting(TitleSuggestion::getId).containsExactly(20L);
+	}
+
+	@Test
+	void bestMatchLaterInKeyOrderIsStillSuggested() {
+		// 키 순서로 앞쪽인 긴 제목이 많아도, 뒤쪽의 짧은 제목이 1순위
+		for (long id = 100; id < 400; id++) {
+			index.putAfterCommit("photo", id, "햄스터 가나다라마바사 사진 " + id, CREATED_AT);
+		}
+		index.putAfterCommit("faq", 7L, "햄스터 하품", CREATED_AT);
+
+		List<TitleSuggestion> suggestions = index.suggest("햄스터", 5);
+
+		assertThat(suggestions).hasSize(5);
+		assertThat(suggestions.get(0).getId()).isEqualTo(7L);
+	}
+
+	@Test
+	void tieBreaksOnCreatedAtAcrossBoards() {
+		// 같은 길이/같은 일치 위치: id가 큰 상담글(예전 글)보다 id가 작은 공지(최근 글)가 먼저
+		index.putAfterCommit("counsel", 900L, "노령견 건강검진 A", LocalDateTime.of(2026, 1, 1, 0, 0));
+		index.putAfterCommit("notice", 11L, "노령견 건강검진 B", LocalDateTime.of(2026, 10, 1, 0, 0));
+
+		List<TitleSuggestion> suggestions = index.suggest("노령견", 10);
+
+		assertThat(suggestions).extracting(TitleSuggestion::getId).containsExactly(11L, 900L);
+	}
+
+	@Test
+	void updateWithoutCreatedAtKeepsIndexedCreatedAt() {
+		index.putAfterCommit("counsel", 900L, "노령견 건강검진 A", LocalDateTime.of(2026, 1, 1, 0, 0));
+		index.putAfterCommit("notice", 11L, "노령견 건강검진 B", LocalDateTime.of(2026, 10, 1, 0, 0));
+		index.putAfterCommit("counsel", 900L, "노령견 건강검진 C", null);
+
+		assertThat(index.suggest("노령견", 10)).extracting(TitleSuggestion::getId).containsExactly(11L, 900L);
+	}
+}